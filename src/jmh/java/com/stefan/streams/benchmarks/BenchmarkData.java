@@ -0,0 +1,30 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic fixtures for the benchmarks: the same size always produces the same data.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Product> products(int count) {
+        return new DatasetGenerator(DatasetSpec.defaults().withProductCount(count).withOrderCount(0)).products();
+    }
+
+    static List<Order> orders(int count) {
+        DatasetSpec spec = DatasetSpec.defaults()
+                .withOrderCount(count)
+                .withProductCount(Math.min(count, 10_000))
+                .withCustomerCount(Math.min(count, 100_000));
+        return new DatasetGenerator(spec).orders().parallel().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,24 @@
+package com.stefan.streams.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar. Accepts the regular JMH command line
+ * and always attaches the GC profiler, so every run reports allocation rates (gc.alloc.rate.norm).
+ *
+ * Example: java -jar target/benchmarks.jar ProductBenchmarks -p size=1000,100000
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
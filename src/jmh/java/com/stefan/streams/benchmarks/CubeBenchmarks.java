@@ -0,0 +1,95 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.cube.CubeCell;
+import com.stefan.streams.cube.CubeDimension;
+import com.stefan.streams.cube.CubeQuery;
+import com.stefan.streams.cube.OrderCube;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.report.ReportSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Answering BI slices from a prebuilt OrderCube versus a fresh groupingBy over all orders. Building the cube
+ * is measured separately; the queries then cost the same at every order count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class CubeBenchmarks {
+
+    private static final YearMonth FIRST_QUARTER_END = YearMonth.of(2023, 3);
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    private List<Order> orders;
+    private OrderCube cube;
+    private CubeQuery byTierAndStatus;
+    private CubeQuery firstQuarterByCategory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = BenchmarkData.orders(size);
+        cube = OrderCube.of(orders);
+        byTierAndStatus = cube.query().drillDown(CubeDimension.TIER).drillDown(CubeDimension.STATUS);
+        firstQuarterByCategory = cube.query()
+                .slice(CubeDimension.STATUS, "delivered")
+                .dice(YearMonth.of(2023, 1), FIRST_QUARTER_END)
+                .drillDown(CubeDimension.CATEGORY);
+    }
+
+    @Benchmark
+    public OrderCube buildCube() {
+        return OrderCube.of(orders);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, OrderStats>> tierAndStatusGroupingBy() {
+        return resolved.analyzeOrdersByCustomerTierAndStatus(orders);
+    }
+
+    @Benchmark
+    public Map<List<String>, CubeCell> tierAndStatusCube() {
+        return byTierAndStatus.cells();
+    }
+
+    @Benchmark
+    public Map<String, Long> firstQuarterRevenueByCategoryGroupingBy() {
+        return orders.stream()
+                .filter(order -> order.status().equals("delivered"))
+                .filter(order -> !YearMonth.from(order.orderDate()).isAfter(FIRST_QUARTER_END))
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().category(),
+                        Collectors.summingLong(item -> Money.toCents(item.product().price()) * item.quantity())));
+    }
+
+    @Benchmark
+    public Map<List<String>, CubeCell> firstQuarterRevenueByCategoryCube() {
+        return firstQuarterByCategory.cells();
+    }
+}
@@ -0,0 +1,65 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.query.FirstBatchQueries;
+import com.stefan.streams.query.QueryBatch;
+import com.stefan.streams.report.ReportSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Four order reports computed by four FirstBatchResolved pipelines versus one fused QueryBatch scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class FusedQueryBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+    private final QueryBatch<Order> batch = new QueryBatch<>();
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = BenchmarkData.orders(size);
+        batch.add(FirstBatchQueries.orderSummaries());
+        batch.add(FirstBatchQueries.allOrderedProducts());
+        batch.add(FirstBatchQueries.totalRevenue());
+        batch.add(FirstBatchQueries.ordersByCustomerTierAndStatus());
+    }
+
+    @Benchmark
+    public void separatePipelines(Blackhole blackhole) {
+        blackhole.consume(resolved.mapOrdersToSummaries(orders));
+        blackhole.consume(resolved.extractAllOrderedProducts(orders));
+        blackhole.consume(resolved.calculateTotalRevenue(orders));
+        blackhole.consume(resolved.analyzeOrdersByCustomerTierAndStatus(orders));
+    }
+
+    @Benchmark
+    public QueryBatch<Order> fusedBatch() {
+        batch.run(orders);
+        return batch;
+    }
+}
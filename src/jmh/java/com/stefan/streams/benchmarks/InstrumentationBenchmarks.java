@@ -0,0 +1,72 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.instrument.InstrumentationMode;
+import com.stefan.streams.instrument.PipelineInstrumentation;
+import com.stefan.streams.instrument.StageMetrics;
+import com.stefan.streams.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of per-stage instrumentation on a filter/map/collect product pipeline, per mode, against the
+ * same pipeline without wrappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class InstrumentationBenchmarks {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"OFF", "COUNTS", "SAMPLED", "FULL"})
+    public InstrumentationMode mode;
+
+    private List<Product> products;
+    private PipelineInstrumentation trace;
+    private StageMetrics electronics;
+    private StageMetrics names;
+    private StageMetrics collect;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = BenchmarkData.products(size);
+        trace = PipelineInstrumentation.create("benchmark", mode, PipelineInstrumentation.DEFAULT_SAMPLE_RATE);
+        electronics = trace.stage("filter electronics");
+        names = trace.stage("map name");
+        collect = trace.stage("collect");
+    }
+
+    @Benchmark
+    public List<String> plain() {
+        return products.stream()
+                .filter(product -> product.category().equals("Electronics"))
+                .map(Product::name)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> instrumented() {
+        return collect.measure(() -> products.stream()
+                .filter(electronics.filter(product -> product.category().equals("Electronics")))
+                .map(names.map(Product::name))
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.money.MoneyAnalytics;
+import com.stefan.streams.money.PriceBook;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential benchmarks of every order operation in FirstBatchResolved,
+ * plus the exact long-cents revenue of MoneyAnalytics for comparison with calculateTotalRevenue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class OrderBenchmarks {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+    private final MoneyAnalytics moneyAnalytics = new MoneyAnalytics();
+    private final PriceBook priceBook = new PriceBook();
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = BenchmarkData.orders(size);
+    }
+
+    @Benchmark
+    public List<OrderSummary> mapOrdersToSummaries() {
+        return resolved.mapOrdersToSummaries(orders);
+    }
+
+    @Benchmark
+    public List<Product> extractAllOrderedProducts() {
+        return resolved.extractAllOrderedProducts(orders);
+    }
+
+    @Benchmark
+    public double calculateTotalRevenue() {
+        return resolved.calculateTotalRevenue(orders);
+    }
+
+    @Benchmark
+    public Money calculateExactRevenue() {
+        return moneyAnalytics.calculateTotalRevenue(orders, priceBook);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus() {
+        return resolved.analyzeOrdersByCustomerTierAndStatus(orders);
+    }
+}
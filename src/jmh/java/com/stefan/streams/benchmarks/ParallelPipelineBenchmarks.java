@@ -0,0 +1,135 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel-stream variants of the FirstBatchResolved pipelines, to be compared with the sequential
+ * numbers of ProductBenchmarks and OrderBenchmarks. FirstBatchResolved itself only runs sequentially,
+ * so the pipelines are repeated here with parallelStream() and without the printing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ParallelPipelineBenchmarks {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = BenchmarkData.products(size);
+        orders = BenchmarkData.orders(size);
+    }
+
+    @Benchmark
+    public List<String> getElectronicsProductNames() {
+        return products.parallelStream()
+                .filter(product -> product.category().equals("Electronics"))
+                .map(Product::name)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Product> sortProductsByPrice() {
+        return products.parallelStream()
+                .sorted(Comparator.comparing(Product::price))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Map<String, List<Product>> groupProductsByCategory() {
+        return products.parallelStream()
+                .collect(Collectors.groupingBy(Product::category));
+    }
+
+    @Benchmark
+    public Map<String, Long> countProductsByCategory() {
+        return products.parallelStream()
+                .collect(Collectors.groupingByConcurrent(Product::category, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> mapProductNamesToPrices() {
+        return products.parallelStream()
+                .collect(Collectors.toMap(Product::name, Product::price));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Product>> partitionProductsByPrice() {
+        return products.parallelStream()
+                .collect(Collectors.partitioningBy(product -> product.price().compareTo(HUNDRED) > 0));
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateAveragePriceByCategory() {
+        return products.parallelStream()
+                .collect(Collectors.groupingBy(
+                        Product::category,
+                        Collectors.averagingDouble(p -> p.price().doubleValue())));
+    }
+
+    @Benchmark
+    public List<OrderSummary> mapOrdersToSummaries() {
+        return orders.parallelStream()
+                .map(order -> new OrderSummary(
+                        order.id(),
+                        order.items().stream().mapToInt(OrderItem::quantity).sum()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalRevenue() {
+        return orders.parallelStream()
+                .flatMap(order -> order.items().stream())
+                .map(item -> item.product().price().multiply(BigDecimal.valueOf(item.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus() {
+        return orders.parallelStream()
+                .collect(Collectors.groupingBy(
+                        order -> order.customer().tier(),
+                        Collectors.groupingBy(
+                                Order::status,
+                                Collectors.collectingAndThen(
+                                        Collectors.toList(),
+                                        ordersList -> new OrderStats(
+                                                ordersList.size(),
+                                                ordersList.stream()
+                                                        .flatMap(order -> order.items().stream())
+                                                        .mapToInt(OrderItem::quantity)
+                                                        .sum())))));
+    }
+}
@@ -0,0 +1,89 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.parallel.ParallelOrderAnalytics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ParallelOrderAnalytics from 1 to N pool threads. Compare each score with the
+ * parallelism=1 row of the same size; parallelism values above the core count show oversubscription.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ParallelScalingBenchmarks {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private ParallelOrderAnalytics analytics;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        analytics = new ParallelOrderAnalytics(parallelism);
+        products = BenchmarkData.products(size);
+        orders = BenchmarkData.orders(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        analytics.close();
+    }
+
+    @Benchmark
+    public List<Product> sortProductsByPrice() {
+        return analytics.sortProductsByPrice(products);
+    }
+
+    @Benchmark
+    public Map<String, Long> countProductsByCategory() {
+        return analytics.countProductsByCategory(products);
+    }
+
+    @Benchmark
+    public Map<String, List<Product>> groupProductsByCategory() {
+        return analytics.groupProductsByCategory(products);
+    }
+
+    @Benchmark
+    public List<OrderSummary> mapOrdersToSummaries() {
+        return analytics.mapOrdersToSummaries(orders);
+    }
+
+    @Benchmark
+    public double calculateTotalRevenue() {
+        return analytics.calculateTotalRevenue(orders);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus() {
+        return analytics.analyzeOrdersByCustomerTierAndStatus(orders);
+    }
+}
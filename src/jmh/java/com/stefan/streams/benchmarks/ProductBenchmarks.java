@@ -0,0 +1,138 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.instrument.PipelineSnapshot;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential benchmarks of every product operation in FirstBatchResolved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ProductBenchmarks {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public List<String> getElectronicsProductNames() {
+        return resolved.getElectronicsProductNames(products);
+    }
+
+    @Benchmark
+    public Product findAffordableSportswearProduct() {
+        return resolved.findAffordableSportswearProduct(products);
+    }
+
+    @Benchmark
+    public List<Product> sortProductsByPrice() {
+        return resolved.sortProductsByPrice(products);
+    }
+
+    @Benchmark
+    public List<Product> getProductsPage() {
+        return resolved.getProductsPage(products, 20, size / 40);
+    }
+
+    @Benchmark
+    public Product findExpensiveElectronicsProduct() {
+        return resolved.findExpensiveElectronicsProduct(products);
+    }
+
+    @Benchmark
+    public PipelineSnapshot demonstratePeekOperation() {
+        return resolved.demonstratePeekOperation();
+    }
+
+    @Benchmark
+    public String joinProductCategories() {
+        return resolved.joinProductCategories(products);
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics calculateSummaryStatistics() {
+        return resolved.calculateSummaryStatistics(products);
+    }
+
+    @Benchmark
+    public List<String> collectProductNamesToUnmodifiableList() {
+        return resolved.collectProductNamesToUnmodifiableList(products);
+    }
+
+    @Benchmark
+    public Set<String> collectCategoriesToSet() {
+        return resolved.collectCategoriesToSet(products);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> mapProductNamesToPrices() {
+        return resolved.mapProductNamesToPrices(products);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> groupExpensiveProductNamesByCategory() {
+        return resolved.groupExpensiveProductNamesByCategory(products);
+    }
+
+    @Benchmark
+    public Map<BigDecimal, String> mapPricesToMergedProductNames() {
+        return resolved.mapPricesToMergedProductNames(products);
+    }
+
+    @Benchmark
+    public Map<String, Long> countProductsByCategory() {
+        return resolved.countProductsByCategory(products);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> collectProductNamesByCategory() {
+        return resolved.collectProductNamesByCategory(products);
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Product>> partitionProductsByPrice() {
+        return resolved.partitionProductsByPrice(products);
+    }
+
+    @Benchmark
+    public Map<String, List<Product>> groupProductsByCategory() {
+        return resolved.groupProductsByCategory(products);
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateAveragePriceByCategory() {
+        return resolved.calculateAveragePriceByCategory(products);
+    }
+}
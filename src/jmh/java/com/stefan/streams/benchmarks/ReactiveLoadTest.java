@@ -0,0 +1,47 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.aggregation.OrderEvent;
+import com.stefan.streams.reactive.LatencySummary;
+import com.stefan.streams.reactive.PipelineStats;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Prints throughput and end-to-end latency of the order-event pipeline for a few batch sizes.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.stefan.streams.benchmarks.ReactiveLoadTest [events] [slowBatchMicros]
+ * </pre>
+ */
+public final class ReactiveLoadTest {
+
+    private ReactiveLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int slowBatchMicros = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        List<OrderEvent> events = BenchmarkData.orders(eventCount).stream()
+                .map(OrderEvent.OrderAdded::new)
+                .collect(Collectors.toList());
+
+        System.out.printf("%8s %12s %10s %10s %10s %10s%n", "batch", "events/s", "mean us", "p50 us", "p99 us", "max us");
+        for (int batchSize : new int[]{1, 16, 64, 256, 1024}) {
+            // One warm-up round per configuration, then the measured one
+            ReactivePipelineBenchmarks.run(events, 1024, batchSize, slowBatchMicros);
+            long start = System.nanoTime();
+            PipelineStats stats = ReactivePipelineBenchmarks.run(events, 1024, batchSize, slowBatchMicros);
+            long elapsed = System.nanoTime() - start;
+            LatencySummary latency = stats.latency();
+            System.out.printf("%8d %12.0f %10.1f %10.1f %10.1f %10.1f%n", batchSize,
+                    stats.events() / (elapsed / 1e9), micros(latency.meanNanos()), micros(latency.p50Nanos()),
+                    micros(latency.p99Nanos()), micros(latency.maxNanos()));
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.aggregation.OrderEvent;
+import com.stefan.streams.reactive.OrderEventAggregator;
+import com.stefan.streams.reactive.OrderEventPipeline;
+import com.stefan.streams.reactive.PipelineStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Sustained-load throughput of the Flow order-event pipeline: every invocation pushes {@link #EVENTS} order
+ * events through a fresh pipeline and waits until all are aggregated. {@code slowBatchMicros} adds a busy
+ * stage after each batch to show ingestion being throttled to the aggregation speed.
+ * End-to-end latency percentiles are printed by {@link ReactiveLoadTest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ReactivePipelineBenchmarks {
+
+    static final int EVENTS = 100_000;
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    @Param({"1024"})
+    public int bufferCapacity;
+
+    @Param({"0", "200"})
+    public int slowBatchMicros;
+
+    private List<OrderEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = BenchmarkData.orders(EVENTS).stream()
+                .map(OrderEvent.OrderAdded::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public PipelineStats ingest() throws InterruptedException, TimeoutException {
+        return run(events, bufferCapacity, batchSize, slowBatchMicros);
+    }
+
+    static PipelineStats run(List<OrderEvent> events, int bufferCapacity, int batchSize, int slowBatchMicros)
+            throws InterruptedException, TimeoutException {
+        long slowBatchNanos = TimeUnit.MICROSECONDS.toNanos(slowBatchMicros);
+        OrderEventAggregator aggregator = new OrderEventAggregator(1, batch -> {
+            long end = System.nanoTime() + slowBatchNanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        });
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(bufferCapacity, batchSize, Duration.ofMillis(1),
+                aggregator)) {
+            for (OrderEvent event : events) {
+                pipeline.submit(event);
+            }
+            pipeline.close();
+            return pipeline.awaitCompletion(Duration.ofMinutes(5));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.io.OrderFileFormat;
+import com.stefan.streams.io.OrderFiles;
+import com.stefan.streams.io.OrderSnapshot;
+import com.stefan.streams.io.OrderSnapshotWriter;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of a dataset: opening a binary snapshot and querying it in place versus parsing a CSV export.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class SnapshotBenchmarks {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    private Path directory;
+    private Path snapshot;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Order> orders = BenchmarkData.orders(size);
+        directory = Files.createTempDirectory("snapshot-benchmarks");
+        snapshot = directory.resolve("orders.snap");
+        csv = directory.resolve("orders.csv");
+        OrderSnapshotWriter.write(snapshot, orders);
+        OrderFiles.write(csv, orders.stream(), OrderFileFormat.CSV);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int openSnapshot() throws IOException {
+        try (OrderSnapshot opened = OrderSnapshot.open(snapshot)) {
+            return opened.lineCount();
+        }
+    }
+
+    @Benchmark
+    public Money snapshotRevenue() throws IOException {
+        try (OrderSnapshot opened = OrderSnapshot.open(snapshot)) {
+            return opened.totalRevenue();
+        }
+    }
+
+    @Benchmark
+    public long loadSnapshotOrders() throws IOException {
+        try (OrderSnapshot opened = OrderSnapshot.open(snapshot)) {
+            return opened.orders().parallel().mapToLong(order -> order.items().size()).sum();
+        }
+    }
+
+    @Benchmark
+    public long parseCsv() throws IOException {
+        try (Stream<Order> orders = OrderFiles.read(csv, OrderFileFormat.CSV)) {
+            return orders.parallel().mapToLong(order -> order.items().size()).sum();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.stefan.streams.benchmarks;
+
+import com.stefan.streams.columnar.OrderColumns;
+import com.stefan.streams.money.PriceStatistics;
+import com.stefan.streams.simd.NumericKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Quantity sums, price x quantity revenue and price statistics over the order line columns, computed by
+ * a primitive stream, the scalar kernels and the best available kernels. The vector kernels are only
+ * picked up when the jar was built with {@code -Pbenchmarks,vector}; otherwise "best" is scalar too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class VectorKernelBenchmarks {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final NumericKernels scalar = NumericKernels.scalar();
+    private final NumericKernels best = NumericKernels.best();
+
+    private int[] quantities;
+    private long[] prices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OrderColumns columns = OrderColumns.from(BenchmarkData.orders(size));
+        quantities = new int[columns.lineCount()];
+        prices = new long[columns.lineCount()];
+        for (int line = 0; line < columns.lineCount(); line++) {
+            quantities[line] = columns.lineQuantity(line);
+            prices[line] = columns.linePriceCents(line);
+        }
+        System.out.println("Kernels: " + best.implementation());
+    }
+
+    @Benchmark
+    public long sumQuantitiesStream() {
+        return Arrays.stream(quantities).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long sumQuantitiesScalar() {
+        return scalar.sum(quantities, 0, quantities.length);
+    }
+
+    @Benchmark
+    public long sumQuantitiesBest() {
+        return best.sum(quantities, 0, quantities.length);
+    }
+
+    @Benchmark
+    public long revenueStream() {
+        return IntStream.range(0, prices.length)
+                .mapToLong(line -> Math.multiplyExact(prices[line], quantities[line]))
+                .reduce(0, Math::addExact);
+    }
+
+    @Benchmark
+    public long revenueScalar() {
+        return scalar.sumOfProducts(prices, quantities, 0, prices.length);
+    }
+
+    @Benchmark
+    public long revenueBest() {
+        return best.sumOfProducts(prices, quantities, 0, prices.length);
+    }
+
+    @Benchmark
+    public LongSummaryStatistics priceStatisticsStream() {
+        return Arrays.stream(prices).summaryStatistics();
+    }
+
+    @Benchmark
+    public PriceStatistics priceStatisticsScalar() {
+        return scalar.statistics(prices, 0, prices.length);
+    }
+
+    @Benchmark
+    public PriceStatistics priceStatisticsBest() {
+        return best.statistics(prices, 0, prices.length);
+    }
+}
@@ -0,0 +1,211 @@
+package com.stefan.streams.aggregation;
+
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.models.CustomerTier;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tier x status order statistics kept up to date from {@link OrderEvent}s instead of being recomputed.
+ *
+ * Each event touches at most two cells, so it costs O(1) regardless of how many orders are live.
+ * Events for the same order are serialized by the per-order entry of a ConcurrentHashMap; events for
+ * different orders run in parallel. Updaters share the read side of a read-write lock and
+ * {@link #snapshot()} takes the write side, so a snapshot never observes half of a status move.
+ *
+ * Tiers and statuses are free-form labels encoded by dictionaries that start with the known ones; a new
+ * label takes the write side once to register it and grow the cells. Status changes for orders that were
+ * never added are ignored and counted by {@link #ignoredEvents()}, so a stray event cannot fail a stream.
+ */
+public class LiveOrderStats {
+
+    private final Map<String, OrderState> orders = new ConcurrentHashMap<>();
+    // Written only under the write lock, so updaters holding the read lock can look codes up safely
+    private final StringDictionary tiers = new StringDictionary();
+    private final StringDictionary statuses = new StringDictionary();
+    // Cell (tier, status) lives at index tier * stride + status; both arrays are replaced when they grow
+    private int stride;
+    private AtomicLongArray orderCounts;
+    private AtomicLongArray itemCounts;
+    private final AtomicLong ignoredEvents = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record OrderState(int tier, int status, int items) {
+    }
+
+    public LiveOrderStats() {
+        for (CustomerTier tier : CustomerTier.values()) {
+            tiers.encode(tier.label());
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            statuses.encode(status.label());
+        }
+        stride = statuses.size();
+        orderCounts = new AtomicLongArray(tiers.size() * stride);
+        itemCounts = new AtomicLongArray(orderCounts.length());
+    }
+
+    // Adds every order of the list, as if each had been reported by an OrderAdded event.
+    public static LiveOrderStats of(Iterable<Order> orders) {
+        LiveOrderStats stats = new LiveOrderStats();
+        for (Order order : orders) {
+            stats.apply(new OrderEvent.OrderAdded(order));
+        }
+        return stats;
+    }
+
+    public void apply(OrderEvent event) {
+        if (event instanceof OrderEvent.OrderAdded added) {
+            Order order = added.order();
+            int tier = encode(tiers, order.customer().tier());
+            int status = encode(statuses, order.status());
+            lock.readLock().lock();
+            try {
+                add(order, tier, status);
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        String label = event instanceof OrderEvent.OrderStatusChanged changed
+                ? changed.status()
+                : OrderStatus.CANCELED.label();
+        int status = encode(statuses, label);
+        lock.readLock().lock();
+        try {
+            move(event.orderId(), status);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int liveOrderCount() {
+        return orders.size();
+    }
+
+    // Status changes and cancellations that named an order which was never added.
+    public long ignoredEvents() {
+        return ignoredEvents.get();
+    }
+
+    public OrderStats stats(String tier, String status) {
+        lock.writeLock().lock();
+        try {
+            int tierCode = tiers.code(tier);
+            int statusCode = statuses.code(status);
+            if (tierCode == StringDictionary.ABSENT || statusCode == StringDictionary.ABSENT) {
+                return new OrderStats(0, 0);
+            }
+            int cell = tierCode * stride + statusCode;
+            return new OrderStats(orderCounts.get(cell), (int) itemCounts.get(cell));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Same shape as FirstBatchResolved.analyzeOrdersByCustomerTierAndStatus: only non-empty cells appear.
+    public Map<String, Map<String, OrderStats>> snapshot() {
+        Map<String, Map<String, OrderStats>> result = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            for (int tier = 0; tier < tiers.size(); tier++) {
+                for (int status = 0; status < statuses.size(); status++) {
+                    int cell = tier * stride + status;
+                    long count = orderCounts.get(cell);
+                    if (count > 0) {
+                        result.computeIfAbsent(tiers.decode(tier), key -> new HashMap<>())
+                                .put(statuses.decode(status), new OrderStats(count, (int) itemCounts.get(cell)));
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return result;
+    }
+
+    // Codes never change once assigned, so the code stays valid after the lock is released.
+    private int encode(StringDictionary dictionary, String label) {
+        lock.readLock().lock();
+        try {
+            int code = dictionary.code(label);
+            if (code != StringDictionary.ABSENT) {
+                return code;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            int code = dictionary.encode(label);
+            growCells();
+            return code;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock: re-lays the cells out when a new tier or status no longer fits.
+    private void growCells() {
+        int tierCapacity = orderCounts.length() / stride;
+        if (tiers.size() <= tierCapacity && statuses.size() <= stride) {
+            return;
+        }
+        int newStride = statuses.size() <= stride ? stride : stride * 2;
+        int newTierCapacity = tiers.size() <= tierCapacity ? tierCapacity : tierCapacity * 2;
+        AtomicLongArray newOrderCounts = new AtomicLongArray(Math.multiplyExact(newTierCapacity, newStride));
+        AtomicLongArray newItemCounts = new AtomicLongArray(newOrderCounts.length());
+        for (int tier = 0; tier < tierCapacity; tier++) {
+            for (int status = 0; status < stride; status++) {
+                newOrderCounts.set(tier * newStride + status, orderCounts.get(tier * stride + status));
+                newItemCounts.set(tier * newStride + status, itemCounts.get(tier * stride + status));
+            }
+        }
+        stride = newStride;
+        orderCounts = newOrderCounts;
+        itemCounts = newItemCounts;
+    }
+
+    private void add(Order order, int tier, int status) {
+        int items = 0;
+        for (OrderItem item : order.items()) {
+            items += item.quantity();
+        }
+        OrderState state = new OrderState(tier, status, items);
+        if (orders.putIfAbsent(order.id(), state) != null) {
+            throw new IllegalStateException("Order already added: " + order.id());
+        }
+        increment(state, 1);
+    }
+
+    private void move(String orderId, int status) {
+        OrderState moved = orders.computeIfPresent(orderId, (id, state) -> {
+            if (state.status() == status) {
+                return state;
+            }
+            OrderState next = new OrderState(state.tier(), status, state.items());
+            increment(state, -1);
+            increment(next, 1);
+            return next;
+        });
+        if (moved == null) {
+            ignoredEvents.incrementAndGet();
+        }
+    }
+
+    private void increment(OrderState state, int sign) {
+        int cell = state.tier() * stride + state.status();
+        orderCounts.addAndGet(cell, sign);
+        itemCounts.addAndGet(cell, (long) sign * state.items());
+    }
+}
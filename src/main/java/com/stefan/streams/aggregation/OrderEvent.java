@@ -0,0 +1,30 @@
+package com.stefan.streams.aggregation;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStatus;
+
+/**
+ * A change to the set of live orders, applied by {@link LiveOrderStats#apply(OrderEvent)}.
+ */
+public sealed interface OrderEvent {
+
+    String orderId();
+
+    record OrderAdded(Order order) implements OrderEvent {
+        @Override
+        public String orderId() {
+            return order.id();
+        }
+    }
+
+    // The status is a free-form label, like Order.status(); the enum constructor covers the usual ones.
+    record OrderStatusChanged(String orderId, String status) implements OrderEvent {
+
+        public OrderStatusChanged(String orderId, OrderStatus status) {
+            this(orderId, status.label());
+        }
+    }
+
+    record OrderCanceled(String orderId) implements OrderEvent {
+    }
+}
@@ -0,0 +1,149 @@
+package com.stefan.streams.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+final class ArrayContainer extends Container {
+
+    char[] values;
+    int size;
+
+    ArrayContainer() {
+        this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    int cardinality() {
+        return size;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    @Override
+    Container add(char value) {
+        // Row ids usually arrive in ascending order, so appending is the common case
+        int at = size > 0 && values[size - 1] < value ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+        if (at >= 0) {
+            return this;
+        }
+        if (size == ARRAY_MAX) {
+            return toBitmap().add(value);
+        }
+        int insert = -at - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, values.length * 2));
+        }
+        System.arraycopy(values, insert, values, insert + 1, size - insert);
+        values[insert] = value;
+        size++;
+        return this;
+    }
+
+    @Override
+    Container copy() {
+        return new ArrayContainer(Arrays.copyOf(values, size), size);
+    }
+
+    @Override
+    Container and(Container other) {
+        if (other instanceof BitmapContainer bitmap) {
+            char[] result = new char[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (bitmap.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+        ArrayContainer array = (ArrayContainer) other;
+        char[] result = new char[Math.min(size, array.size)];
+        int count = 0;
+        for (int i = 0, j = 0; i < size && j < array.size; ) {
+            if (values[i] < array.values[j]) {
+                i++;
+            } else if (values[i] > array.values[j]) {
+                j++;
+            } else {
+                result[count++] = values[i];
+                i++;
+                j++;
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container or(Container other) {
+        if (other instanceof BitmapContainer bitmap) {
+            return bitmap.or(this);
+        }
+        ArrayContainer array = (ArrayContainer) other;
+        char[] result = new char[size + array.size];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < array.size) {
+            if (values[i] < array.values[j]) {
+                result[count++] = values[i++];
+            } else if (values[i] > array.values[j]) {
+                result[count++] = array.values[j++];
+            } else {
+                result[count++] = values[i++];
+                j++;
+            }
+        }
+        while (i < size) {
+            result[count++] = values[i++];
+        }
+        while (j < array.size) {
+            result[count++] = array.values[j++];
+        }
+        ArrayContainer merged = new ArrayContainer(result, count);
+        return count > ARRAY_MAX ? merged.toBitmap() : merged;
+    }
+
+    @Override
+    Container andNot(Container other) {
+        char[] result = new char[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!other.contains(values[i])) {
+                result[count++] = values[i];
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    void forEach(int high, IntConsumer consumer) {
+        int base = high << 16;
+        for (int i = 0; i < size; i++) {
+            consumer.accept(base | values[i]);
+        }
+    }
+
+    @Override
+    int nextValue(int from) {
+        int at = Arrays.binarySearch(values, 0, size, (char) from);
+        int index = at >= 0 ? at : -at - 1;
+        return index < size ? values[index] : -1;
+    }
+
+    BitmapContainer toBitmap() {
+        BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < size; i++) {
+            bitmap.words[values[i] >>> 6] |= 1L << values[i];
+        }
+        bitmap.cardinality = size;
+        return bitmap;
+    }
+}
@@ -0,0 +1,136 @@
+package com.stefan.streams.bitmap;
+
+import java.util.function.IntConsumer;
+
+final class BitmapContainer extends Container {
+
+    final long[] words = new long[1024];
+    int cardinality;
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(char value) {
+        return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(char value) {
+        long word = words[value >>> 6];
+        long updated = word | (1L << value);
+        if (updated != word) {
+            words[value >>> 6] = updated;
+            cardinality++;
+        }
+        return this;
+    }
+
+    @Override
+    Container copy() {
+        BitmapContainer copy = new BitmapContainer();
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    @Override
+    Container and(Container other) {
+        if (other instanceof ArrayContainer array) {
+            return array.and(this);
+        }
+        BitmapContainer bitmap = (BitmapContainer) other;
+        BitmapContainer result = new BitmapContainer();
+        for (int i = 0; i < words.length; i++) {
+            result.words[i] = words[i] & bitmap.words[i];
+        }
+        return result.normalized();
+    }
+
+    @Override
+    Container or(Container other) {
+        BitmapContainer result = new BitmapContainer();
+        System.arraycopy(words, 0, result.words, 0, words.length);
+        if (other instanceof ArrayContainer array) {
+            for (int i = 0; i < array.size; i++) {
+                char value = array.values[i];
+                result.words[value >>> 6] |= 1L << value;
+            }
+        } else {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] |= bitmap.words[i];
+            }
+        }
+        result.recount();
+        return result;
+    }
+
+    @Override
+    Container andNot(Container other) {
+        BitmapContainer result = new BitmapContainer();
+        System.arraycopy(words, 0, result.words, 0, words.length);
+        if (other instanceof ArrayContainer array) {
+            for (int i = 0; i < array.size; i++) {
+                char value = array.values[i];
+                result.words[value >>> 6] &= ~(1L << value);
+            }
+        } else {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] &= ~bitmap.words[i];
+            }
+        }
+        return result.normalized();
+    }
+
+    @Override
+    void forEach(int high, IntConsumer consumer) {
+        int base = high << 16;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                consumer.accept(base | (i << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    @Override
+    int nextValue(int from) {
+        int index = from >>> 6;
+        if (index >= words.length) {
+            return -1;
+        }
+        long word = words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+        return (index << 6) | Long.numberOfTrailingZeros(word);
+    }
+
+    private void recount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        cardinality = count;
+    }
+
+    // Converts back to an array container once the chunk became sparse.
+    private Container normalized() {
+        recount();
+        if (cardinality > ARRAY_MAX) {
+            return this;
+        }
+        char[] values = new char[cardinality];
+        int[] count = {0};
+        forEach(0, value -> values[count[0]++] = (char) value);
+        return new ArrayContainer(values, cardinality);
+    }
+}
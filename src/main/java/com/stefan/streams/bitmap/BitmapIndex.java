@@ -0,0 +1,60 @@
+package com.stefan.streams.bitmap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * One bitmap of row ids per distinct attribute value. Meant for low-cardinality attributes such as
+ * category, tier or status, where a handful of bitmaps cover every row.
+ */
+public final class BitmapIndex<K> {
+
+    private final Map<K, RowBitmap> bitmaps;
+
+    private BitmapIndex(Map<K, RowBitmap> bitmaps) {
+        this.bitmaps = bitmaps;
+    }
+
+    // Row i has the single key key(rows.get(i)).
+    public static <T, K> BitmapIndex<K> of(List<T> rows, Function<? super T, ? extends K> key) {
+        Map<K, RowBitmap> bitmaps = new HashMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            bitmaps.computeIfAbsent(key.apply(rows.get(row)), k -> new RowBitmap()).add(row);
+        }
+        return new BitmapIndex<>(bitmaps);
+    }
+
+    // Row i appears under every key of keys(rows.get(i)), e.g. each category an order contains.
+    public static <T, K> BitmapIndex<K> ofMany(List<T> rows, Function<? super T, ? extends Collection<? extends K>> keys) {
+        Map<K, RowBitmap> bitmaps = new HashMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            for (K key : keys.apply(rows.get(row))) {
+                bitmaps.computeIfAbsent(key, k -> new RowBitmap()).add(row);
+            }
+        }
+        return new BitmapIndex<>(bitmaps);
+    }
+
+    // Rows with the key; an empty bitmap for unknown keys.
+    public RowBitmap get(K key) {
+        RowBitmap bitmap = bitmaps.get(key);
+        return bitmap != null ? bitmap : new RowBitmap();
+    }
+
+    // Rows with any of the keys.
+    public RowBitmap anyOf(Collection<? extends K> keys) {
+        RowBitmap result = new RowBitmap();
+        for (K key : keys) {
+            result = result.or(get(key));
+        }
+        return result;
+    }
+
+    public Set<K> keys() {
+        return bitmaps.keySet();
+    }
+}
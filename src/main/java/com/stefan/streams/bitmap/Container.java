@@ -0,0 +1,42 @@
+package com.stefan.streams.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The low 16 bits of the row ids sharing one high 16-bit key. Sparse chunks are sorted char arrays,
+ * dense chunks (more than {@link #ARRAY_MAX} values) are 65536-bit bitmaps. Operations return a new
+ * container in whichever representation is smaller; {@link #add} may return a converted container.
+ */
+abstract sealed class Container permits ArrayContainer, BitmapContainer {
+
+    static final int ARRAY_MAX = 4096;
+
+    abstract int cardinality();
+
+    abstract boolean contains(char value);
+
+    abstract Container add(char value);
+
+    // Containers are mutable while a bitmap is built, so results never share them with their inputs.
+    abstract Container copy();
+
+    abstract Container and(Container other);
+
+    abstract Container or(Container other);
+
+    abstract Container andNot(Container other);
+
+    // Calls the consumer with (high << 16 | value) for every value in ascending order.
+    abstract void forEach(int high, IntConsumer consumer);
+
+    // The smallest value >= from, or -1.
+    abstract int nextValue(int from);
+
+    static Container full() {
+        BitmapContainer full = new BitmapContainer();
+        Arrays.fill(full.words, -1L);
+        full.cardinality = 1 << 16;
+        return full;
+    }
+}
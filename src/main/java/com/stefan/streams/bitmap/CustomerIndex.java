@@ -0,0 +1,26 @@
+package com.stefan.streams.bitmap;
+
+import com.stefan.streams.models.Customer;
+
+import java.util.List;
+
+/**
+ * Bitmap index over a customer list by tier.
+ */
+public final class CustomerIndex extends IndexedRows<Customer> {
+
+    private final BitmapIndex<String> tiers;
+
+    private CustomerIndex(List<Customer> customers) {
+        super(customers);
+        this.tiers = BitmapIndex.of(customers, Customer::tier);
+    }
+
+    public static CustomerIndex of(List<Customer> customers) {
+        return new CustomerIndex(customers);
+    }
+
+    public RowBitmap tier(String tier) {
+        return tiers.get(tier);
+    }
+}
@@ -0,0 +1,57 @@
+package com.stefan.streams.bitmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Stream;
+
+/**
+ * Rows addressed by their position, materialized only where a bitmap selects them.
+ */
+public class IndexedRows<T> {
+
+    private final List<T> rows;
+
+    protected IndexedRows(List<T> rows) {
+        this.rows = List.copyOf(rows);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public T row(int row) {
+        return rows.get(row);
+    }
+
+    public RowBitmap all() {
+        return RowBitmap.range(rows.size());
+    }
+
+    // Walks the selected ids in ascending order and fetches only those rows.
+    public Iterator<T> iterator(RowBitmap selection) {
+        PrimitiveIterator.OfInt ids = selection.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return rows.get(ids.nextInt());
+            }
+        };
+    }
+
+    public Stream<T> stream(RowBitmap selection) {
+        return selection.stream().mapToObj(rows::get);
+    }
+
+    public List<T> list(RowBitmap selection) {
+        List<T> selected = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, selection.cardinality()));
+        selection.forEach(row -> selected.add(rows.get(row)));
+        return selected;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stefan.streams.bitmap;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bitmap indexes over an order list: status, customer tier, and the categories and price bands of the
+ * products each order contains.
+ *
+ * Example, premium customers' delivered orders containing Electronics:
+ * <pre>
+ * index.list(index.tier("premium").and(index.status("delivered")).and(index.containsCategory("Electronics")))
+ * </pre>
+ */
+public final class OrderIndex extends IndexedRows<Order> {
+
+    private final BitmapIndex<String> statuses;
+    private final BitmapIndex<String> tiers;
+    private final BitmapIndex<String> categories;
+    private final BitmapIndex<PriceBand> priceBands;
+
+    private OrderIndex(List<Order> orders) {
+        super(orders);
+        this.statuses = BitmapIndex.of(orders, Order::status);
+        this.tiers = BitmapIndex.of(orders, order -> order.customer().tier());
+        this.categories = BitmapIndex.ofMany(orders, OrderIndex::categoriesOf);
+        this.priceBands = BitmapIndex.ofMany(orders, OrderIndex::priceBandsOf);
+    }
+
+    public static OrderIndex of(List<Order> orders) {
+        return new OrderIndex(orders);
+    }
+
+    public RowBitmap status(String status) {
+        return statuses.get(status);
+    }
+
+    public RowBitmap tier(String tier) {
+        return tiers.get(tier);
+    }
+
+    public RowBitmap containsCategory(String category) {
+        return categories.get(category);
+    }
+
+    public RowBitmap containsPriceBand(PriceBand band) {
+        return priceBands.get(band);
+    }
+
+    private static Set<String> categoriesOf(Order order) {
+        Set<String> categories = new HashSet<>();
+        for (OrderItem item : order.items()) {
+            categories.add(item.product().category());
+        }
+        return categories;
+    }
+
+    private static Set<PriceBand> priceBandsOf(Order order) {
+        Set<PriceBand> bands = new HashSet<>();
+        for (OrderItem item : order.items()) {
+            bands.add(PriceBand.of(item.product().price()));
+        }
+        return bands;
+    }
+}
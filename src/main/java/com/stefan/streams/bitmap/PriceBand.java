@@ -0,0 +1,29 @@
+package com.stefan.streams.bitmap;
+
+import java.math.BigDecimal;
+
+/**
+ * Price bands matching the thresholds of the stream exercises: affordable below 20, expensive above 100,
+ * high-priced above 1000.
+ */
+public enum PriceBand {
+    UNDER_20,
+    FROM_20_TO_100,
+    FROM_100_TO_1000,
+    OVER_1000;
+
+    private static final BigDecimal TWENTY = new BigDecimal("20");
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal THOUSAND = new BigDecimal("1000");
+
+    // Band boundaries: [0, 20), [20, 100], (100, 1000], (1000, ...)
+    public static PriceBand of(BigDecimal price) {
+        if (price.compareTo(TWENTY) < 0) {
+            return UNDER_20;
+        }
+        if (price.compareTo(HUNDRED) <= 0) {
+            return FROM_20_TO_100;
+        }
+        return price.compareTo(THOUSAND) <= 0 ? FROM_100_TO_1000 : OVER_1000;
+    }
+}
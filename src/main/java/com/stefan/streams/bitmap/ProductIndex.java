@@ -0,0 +1,38 @@
+package com.stefan.streams.bitmap;
+
+import com.stefan.streams.models.Product;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Bitmap indexes over a product list: category and price band.
+ */
+public final class ProductIndex extends IndexedRows<Product> {
+
+    private final BitmapIndex<String> categories;
+    private final BitmapIndex<PriceBand> priceBands;
+
+    private ProductIndex(List<Product> products) {
+        super(products);
+        this.categories = BitmapIndex.of(products, Product::category);
+        this.priceBands = BitmapIndex.of(products, product -> PriceBand.of(product.price()));
+    }
+
+    public static ProductIndex of(List<Product> products) {
+        return new ProductIndex(products);
+    }
+
+    public RowBitmap category(String category) {
+        return categories.get(category);
+    }
+
+    public RowBitmap priceBand(PriceBand band) {
+        return priceBands.get(band);
+    }
+
+    // Products priced above 100, the "expensive" side of partitionProductsByPrice.
+    public RowBitmap expensive() {
+        return priceBands.anyOf(EnumSet.of(PriceBand.FROM_100_TO_1000, PriceBand.OVER_1000));
+    }
+}
@@ -0,0 +1,235 @@
+package com.stefan.streams.bitmap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed set of non-negative row ids in the style of Roaring bitmaps.
+ *
+ * Ids are split into a 16-bit chunk key and a 16-bit low part; each non-empty chunk is a sorted array of up
+ * to 4096 values or a 1024-word bitmap, whichever is smaller. {@link #and}, {@link #or} and {@link #andNot}
+ * walk the two sorted chunk lists and combine matching chunks container by container, returning new bitmaps.
+ * Iteration is in ascending id order. Not thread-safe while {@link #add} is being called; read-only use can
+ * be shared.
+ */
+public final class RowBitmap {
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public RowBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private RowBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    public static RowBitmap of(int... rows) {
+        RowBitmap bitmap = new RowBitmap();
+        for (int row : rows) {
+            bitmap.add(row);
+        }
+        return bitmap;
+    }
+
+    // All ids in [0, rowCount).
+    public static RowBitmap range(int rowCount) {
+        RowBitmap bitmap = new RowBitmap();
+        int fullChunks = rowCount >>> 16;
+        for (int high = 0; high < fullChunks; high++) {
+            bitmap.append((char) high, Container.full());
+        }
+        for (int row = fullChunks << 16; row < rowCount; row++) {
+            bitmap.add(row);
+        }
+        return bitmap;
+    }
+
+    public void add(int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("Row ids must be non-negative: " + row);
+        }
+        char high = (char) (row >>> 16);
+        int at = size > 0 && keys[size - 1] == high ? size - 1 : Arrays.binarySearch(keys, 0, size, high);
+        if (at >= 0) {
+            containers[at] = containers[at].add((char) row);
+            return;
+        }
+        insert(-at - 1, high, new ArrayContainer().add((char) row));
+    }
+
+    public boolean contains(int row) {
+        if (row < 0) {
+            return false;
+        }
+        int at = Arrays.binarySearch(keys, 0, size, (char) (row >>> 16));
+        return at >= 0 && containers[at].contains((char) row);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public RowBitmap andNot(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendIfNotEmpty(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    public static RowBitmap or(Iterable<RowBitmap> bitmaps) {
+        RowBitmap result = new RowBitmap();
+        for (RowBitmap bitmap : bitmaps) {
+            result = result.or(bitmap);
+        }
+        return result;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i], consumer);
+        }
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int chunk;
+            private int next = advance(0, 0);
+
+            // The next value at or after (chunk, low), moving on to later chunks as needed.
+            private int advance(int fromChunk, int low) {
+                for (chunk = fromChunk; chunk < size; chunk++, low = 0) {
+                    int value = low > 0xFFFF ? -1 : containers[chunk].nextValue(low);
+                    if (value >= 0) {
+                        return keys[chunk] << 16 | value;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = advance(chunk, (current & 0xFFFF) + 1);
+                return current;
+            }
+        };
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), cardinality(),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    public int[] toArray() {
+        return stream().toArray();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RowBitmap bitmap && Arrays.equals(toArray(), bitmap.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "RowBitmap" + Arrays.toString(toArray());
+    }
+
+    private void appendIfNotEmpty(char key, Container container) {
+        if (container.cardinality() > 0) {
+            append(key, container);
+        }
+    }
+
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    private void insert(int at, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = key;
+        containers[at] = container;
+        size++;
+    }
+}
@@ -0,0 +1,13 @@
+package com.stefan.streams.collect;
+
+final class HashMixer {
+
+    private HashMixer() {
+    }
+
+    // Fibonacci hashing: spreads sequential ints and weak hashCodes over the high bits, then folds them down.
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
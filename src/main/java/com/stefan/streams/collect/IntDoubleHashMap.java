@@ -0,0 +1,74 @@
+package com.stefan.streams.collect;
+
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Int to double map on top of an {@link IntIndex}; nothing is boxed. Iteration by position follows
+ * insertion order. Not thread-safe.
+ */
+public final class IntDoubleHashMap {
+
+    private final IntIndex index;
+    private double[] values;
+
+    public IntDoubleHashMap() {
+        this(8);
+    }
+
+    public IntDoubleHashMap(int expectedSize) {
+        this.index = new IntIndex(expectedSize);
+        this.values = new double[Math.max(8, expectedSize)];
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean containsKey(int key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    public double get(int key, double missing) {
+        int id = index.indexOf(key);
+        return id < 0 ? missing : values[id];
+    }
+
+    public void put(int key, double value) {
+        int id = slot(key);
+        values[id] = value;
+    }
+
+    public void addTo(int key, double delta) {
+        int id = slot(key);
+        values[id] += delta;
+    }
+
+    public void accumulate(int key, double value, DoubleBinaryOperator operator) {
+        int size = index.size();
+        int id = slot(key);
+        values[id] = id == size ? value : operator.applyAsDouble(values[id], value);
+    }
+
+    public void accumulateAll(IntDoubleHashMap other, DoubleBinaryOperator operator) {
+        for (int i = 0; i < other.size(); i++) {
+            accumulate(other.key(i), other.valueAt(i), operator);
+        }
+    }
+
+    public int key(int i) {
+        return index.key(i);
+    }
+
+    public double valueAt(int i) {
+        return values[i];
+    }
+
+    private int slot(int key) {
+        int id = index.add(key);
+        if (id == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        return id;
+    }
+}
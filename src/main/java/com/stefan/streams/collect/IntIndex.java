@@ -0,0 +1,78 @@
+package com.stefan.streams.collect;
+
+import java.util.Arrays;
+
+/**
+ * {@link ObjectIndex} for int keys: dense ids in first-seen order without boxing. Not thread-safe.
+ */
+public final class IntIndex {
+
+    private int[] slots;
+    private int[] keys;
+    private int size;
+
+    public IntIndex() {
+        this(8);
+    }
+
+    public IntIndex(int expectedSize) {
+        int capacity = ObjectIndex.tableSizeFor(expectedSize);
+        this.slots = new int[capacity];
+        this.keys = new int[capacity / 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Id of the key, or -1 if it was never added.
+    public int indexOf(int key) {
+        int mask = slots.length - 1;
+        for (int slot = HashMixer.mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0 || keys[id] == key) {
+                return id;
+            }
+        }
+    }
+
+    // Id of the key, assigning the next free id if it is new.
+    public int add(int key) {
+        int mask = slots.length - 1;
+        int slot = HashMixer.mix(key) & mask;
+        for (; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                break;
+            }
+            if (keys[id] == key) {
+                return id;
+            }
+        }
+        int id = size++;
+        keys[id] = key;
+        slots[slot] = id + 1;
+        if (size == keys.length) {
+            grow();
+        }
+        return id;
+    }
+
+    public int key(int id) {
+        return keys[id];
+    }
+
+    private void grow() {
+        int capacity = slots.length * 2;
+        keys = Arrays.copyOf(keys, capacity / 2);
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = HashMixer.mix(keys[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
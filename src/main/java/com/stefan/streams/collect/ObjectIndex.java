@@ -0,0 +1,102 @@
+package com.stefan.streams.collect;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index assigning dense ids {@code 0..size-1} to keys in first-seen order.
+ *
+ * The hash table only holds {@code id + 1} per slot (0 marks an empty slot); keys and their hashes live in
+ * dense arrays indexed by id, so callers can keep per-key accumulators in parallel primitive arrays.
+ * Keys are compared with {@link Object#equals(Object)} and must not be null. Not thread-safe.
+ */
+public final class ObjectIndex<K> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] slots;
+    private Object[] keys;
+    private int[] hashes;
+    private int size;
+
+    public ObjectIndex() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    public ObjectIndex(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize);
+        this.slots = new int[capacity];
+        this.keys = new Object[capacity / 2];
+        this.hashes = new int[capacity / 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Id of the key, or -1 if it was never added.
+    public int indexOf(K key) {
+        int hash = HashMixer.mix(key.hashCode());
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (hashes[id] == hash && keys[id].equals(key)) {
+                return id;
+            }
+        }
+    }
+
+    // Id of the key, assigning the next free id if it is new.
+    public int add(K key) {
+        int hash = HashMixer.mix(key.hashCode());
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                break;
+            }
+            if (hashes[id] == hash && keys[id].equals(key)) {
+                return id;
+            }
+        }
+        int id = size++;
+        keys[id] = key;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if (size == keys.length) {
+            grow();
+        }
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K key(int id) {
+        return (K) keys[id];
+    }
+
+    // Load factor stays at or below one half, so probe sequences stay short.
+    private void grow() {
+        int capacity = slots.length * 2;
+        keys = Arrays.copyOf(keys, capacity / 2);
+        hashes = Arrays.copyOf(hashes, capacity / 2);
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        if (expectedSize < 0 || expectedSize > 1 << 29) {
+            throw new IllegalArgumentException("Expected size out of range: " + expectedSize);
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 4 - 1));
+    }
+}
@@ -0,0 +1,91 @@
+package com.stefan.streams.collect;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Object to long map on top of an {@link ObjectIndex}; values are kept unboxed in a parallel array.
+ * Iteration follows insertion order. Not thread-safe.
+ */
+public final class ObjectLongHashMap<K> {
+
+    private final ObjectIndex<K> index;
+    private long[] values;
+
+    public ObjectLongHashMap() {
+        this(8);
+    }
+
+    public ObjectLongHashMap(int expectedSize) {
+        this.index = new ObjectIndex<>(expectedSize);
+        this.values = new long[Math.max(8, expectedSize)];
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean containsKey(K key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    public long get(K key, long missing) {
+        int id = index.indexOf(key);
+        return id < 0 ? missing : values[id];
+    }
+
+    public void put(K key, long value) {
+        int id = slot(key);
+        values[id] = value;
+    }
+
+    public void addTo(K key, long delta) {
+        int id = slot(key);
+        values[id] += delta;
+    }
+
+    // Stores value for a new key, otherwise combines it with the current value (e.g. Math::min).
+    public void accumulate(K key, long value, LongBinaryOperator operator) {
+        int size = index.size();
+        int id = slot(key);
+        values[id] = id == size ? value : operator.applyAsLong(values[id], value);
+    }
+
+    public void accumulateAll(ObjectLongHashMap<K> other, LongBinaryOperator operator) {
+        for (int i = 0; i < other.size(); i++) {
+            accumulate(other.key(i), other.valueAt(i), operator);
+        }
+    }
+
+    public K key(int i) {
+        return index.key(i);
+    }
+
+    public long valueAt(int i) {
+        return values[i];
+    }
+
+    public void forEach(ObjLongConsumer<? super K> action) {
+        for (int i = 0; i < index.size(); i++) {
+            action.accept(index.key(i), values[i]);
+        }
+    }
+
+    // Boxes once per key, for callers that need a java.util.Map.
+    public Map<K, Long> toMap() {
+        Map<K, Long> map = new HashMap<>(Math.max(16, index.size() * 2));
+        forEach(map::put);
+        return map;
+    }
+
+    private int slot(K key) {
+        int id = index.add(key);
+        if (id == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        return id;
+    }
+}
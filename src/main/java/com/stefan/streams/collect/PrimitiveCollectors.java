@@ -0,0 +1,285 @@
+package com.stefan.streams.collect;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Grouping collectors whose per-key accumulators are primitive slots in open-addressing maps.
+ *
+ * Accumulating an element only hashes its key and updates a long or double in place; nothing is boxed and
+ * no per-element objects are created. Boxing happens once per key when a {@code Map} result is built,
+ * while the {@code ...ByInt} collectors return the primitive maps themselves. Results are equal to the
+ * corresponding {@link java.util.stream.Collectors} compositions, including
+ * {@link #groupingAveragingDouble}, which uses the same compensated summation as
+ * {@code Collectors.averagingDouble}. Map results are plain HashMaps, like {@code Collectors.groupingBy}.
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() {
+    }
+
+    @FunctionalInterface
+    public interface CountAndSumFunction<R> {
+        R apply(long count, long sum);
+    }
+
+    // Collectors.groupingBy(classifier, counting())
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingCounting(Function<? super T, ? extends K> classifier) {
+        return Collector.of(
+                ObjectLongHashMap<K>::new,
+                (map, element) -> map.addTo(key(classifier, element), 1),
+                (left, right) -> merge(left, right, Long::sum),
+                ObjectLongHashMap::toMap);
+    }
+
+    // Collectors.groupingBy(classifier, summingLong(mapper))
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingSummingLong(Function<? super T, ? extends K> classifier,
+                                                                           ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                ObjectLongHashMap<K>::new,
+                (map, element) -> map.addTo(key(classifier, element), mapper.applyAsLong(element)),
+                (left, right) -> merge(left, right, Long::sum),
+                ObjectLongHashMap::toMap);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingMinLong(Function<? super T, ? extends K> classifier,
+                                                                       ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                ObjectLongHashMap<K>::new,
+                (map, element) -> map.accumulate(key(classifier, element), mapper.applyAsLong(element), Math::min),
+                (left, right) -> merge(left, right, Math::min),
+                ObjectLongHashMap::toMap);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> groupingMaxLong(Function<? super T, ? extends K> classifier,
+                                                                       ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                ObjectLongHashMap<K>::new,
+                (map, element) -> map.accumulate(key(classifier, element), mapper.applyAsLong(element), Math::max),
+                (left, right) -> merge(left, right, Math::max),
+                ObjectLongHashMap::toMap);
+    }
+
+    // Count and sum per key in one pass, finished into any value type (e.g. OrderStats).
+    public static <T, K, R> Collector<T, ?, Map<K, R>> groupingCountingAndSumming(
+            Function<? super T, ? extends K> classifier, ToLongFunction<? super T> mapper,
+            CountAndSumFunction<? extends R> finisher) {
+        return Collector.of(
+                () -> new Slots<K>(2, 0),
+                (slots, element) -> {
+                    int at = slots.slot(key(classifier, element)) * 2;
+                    slots.longs[at]++;
+                    slots.longs[at + 1] += mapper.applyAsLong(element);
+                },
+                (left, right) -> {
+                    for (int id = 0; id < right.index.size(); id++) {
+                        int at = left.slot(right.index.key(id)) * 2;
+                        left.longs[at] += right.longs[id * 2];
+                        left.longs[at + 1] += right.longs[id * 2 + 1];
+                    }
+                    return left;
+                },
+                slots -> {
+                    Map<K, R> result = new HashMap<>();
+                    for (int id = 0; id < slots.index.size(); id++) {
+                        result.put(slots.index.key(id), finisher.apply(slots.longs[id * 2], slots.longs[id * 2 + 1]));
+                    }
+                    return result;
+                });
+    }
+
+    // Collectors.groupingBy(classifier, averagingDouble(mapper)), bit for bit.
+    public static <T, K> Collector<T, ?, Map<K, Double>> groupingAveragingDouble(
+            Function<? super T, ? extends K> classifier, ToDoubleFunction<? super T> mapper) {
+        // Per key: high-order sum, negated compensation, count, simple sum (the layout of averagingDouble)
+        return Collector.of(
+                () -> new Slots<K>(0, 4),
+                (slots, element) -> {
+                    int at = slots.slot(key(classifier, element)) * 4;
+                    double value = mapper.applyAsDouble(element);
+                    sumWithCompensation(slots.doubles, at, value);
+                    slots.doubles[at + 2]++;
+                    slots.doubles[at + 3] += value;
+                },
+                (left, right) -> {
+                    for (int id = 0; id < right.index.size(); id++) {
+                        int at = left.slot(right.index.key(id)) * 4;
+                        int from = id * 4;
+                        sumWithCompensation(left.doubles, at, right.doubles[from]);
+                        sumWithCompensation(left.doubles, at, -right.doubles[from + 1]);
+                        left.doubles[at + 2] += right.doubles[from + 2];
+                        left.doubles[at + 3] += right.doubles[from + 3];
+                    }
+                    return left;
+                },
+                slots -> {
+                    Map<K, Double> result = new HashMap<>();
+                    for (int id = 0; id < slots.index.size(); id++) {
+                        int at = id * 4;
+                        double count = slots.doubles[at + 2];
+                        result.put(slots.index.key(id), count == 0 ? 0.0d : finalSum(slots.doubles, at) / count);
+                    }
+                    return result;
+                });
+    }
+
+    // Multi-level grouping: like Collectors.groupingBy(classifier, downstream), with the outer level
+    // in an ObjectIndex. Only a new outer key allocates (its downstream container).
+    public static <T, K, A, R> Collector<T, ?, Map<K, R>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                                     Collector<? super T, A, R> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        BinaryOperator<A> combiner = downstream.combiner();
+        Function<A, R> finisher = downstream.finisher();
+        return Collector.<T, Nested<K, A>, Map<K, R>>of(
+                Nested::new,
+                (nested, element) -> accumulator.accept(nested.container(key(classifier, element), supplier), element),
+                (left, right) -> {
+                    for (int id = 0; id < right.index.size(); id++) {
+                        K key = right.index.key(id);
+                        int existing = left.index.indexOf(key);
+                        A container = right.containers[id];
+                        if (existing < 0) {
+                            left.adopt(key, container);
+                        } else {
+                            left.containers[existing] = combiner.apply(left.containers[existing], container);
+                        }
+                    }
+                    return left;
+                },
+                nested -> {
+                    Map<K, R> result = new HashMap<>();
+                    for (int id = 0; id < nested.index.size(); id++) {
+                        result.put(nested.index.key(id), finisher.apply(nested.containers[id]));
+                    }
+                    return result;
+                });
+    }
+
+    // Count per int key, kept as a primitive map.
+    public static <T> Collector<T, ?, IntLongHashMap> countingByInt(ToIntFunction<? super T> classifier) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (map, element) -> map.addTo(classifier.applyAsInt(element), 1),
+                (left, right) -> {
+                    left.accumulateAll(right, Long::sum);
+                    return left;
+                },
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public static <T> Collector<T, ?, IntLongHashMap> summingLongByInt(ToIntFunction<? super T> classifier,
+                                                                      ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (map, element) -> map.addTo(classifier.applyAsInt(element), mapper.applyAsLong(element)),
+                (left, right) -> {
+                    left.accumulateAll(right, Long::sum);
+                    return left;
+                },
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    // Plain (uncompensated) double sums per int key.
+    public static <T> Collector<T, ?, IntDoubleHashMap> summingDoubleByInt(ToIntFunction<? super T> classifier,
+                                                                          ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                IntDoubleHashMap::new,
+                (map, element) -> map.addTo(classifier.applyAsInt(element), mapper.applyAsDouble(element)),
+                (left, right) -> {
+                    left.accumulateAll(right, Double::sum);
+                    return left;
+                },
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private static <T, K> K key(Function<? super T, ? extends K> classifier, T element) {
+        return Objects.requireNonNull(classifier.apply(element), "element cannot be mapped to a null key");
+    }
+
+    private static <K> ObjectLongHashMap<K> merge(ObjectLongHashMap<K> left, ObjectLongHashMap<K> right,
+                                                  LongBinaryOperator operator) {
+        left.accumulateAll(right, operator);
+        return left;
+    }
+
+    // Kahan step of Collectors.sumWithCompensation on summands[at], summands[at + 1].
+    private static void sumWithCompensation(double[] summands, int at, double value) {
+        double tmp = value - summands[at + 1];
+        double sum = summands[at];
+        double velvel = sum + tmp;
+        summands[at + 1] = (velvel - sum) - tmp;
+        summands[at] = velvel;
+    }
+
+    // Collectors.computeFinalSum: the compensated sum, unless it is a spurious NaN from same-signed infinities.
+    private static double finalSum(double[] summands, int at) {
+        double tmp = summands[at] - summands[at + 1];
+        double simpleSum = summands[at + 3];
+        return Double.isNaN(tmp) && Double.isInfinite(simpleSum) ? simpleSum : tmp;
+    }
+
+    // Fixed-width primitive accumulators per key, laid out id-major in flat arrays.
+    private static final class Slots<K> {
+        final ObjectIndex<K> index = new ObjectIndex<>();
+        final int longWidth;
+        final int doubleWidth;
+        long[] longs;
+        double[] doubles;
+
+        Slots(int longWidth, int doubleWidth) {
+            this.longWidth = longWidth;
+            this.doubleWidth = doubleWidth;
+            this.longs = new long[longWidth * 8];
+            this.doubles = new double[doubleWidth * 8];
+        }
+
+        int slot(K key) {
+            int id = index.add(key);
+            if ((id + 1) * longWidth > longs.length) {
+                longs = Arrays.copyOf(longs, longs.length * 2);
+            }
+            if ((id + 1) * doubleWidth > doubles.length) {
+                doubles = Arrays.copyOf(doubles, doubles.length * 2);
+            }
+            return id;
+        }
+    }
+
+    private static final class Nested<K, A> {
+        final ObjectIndex<K> index = new ObjectIndex<>();
+        @SuppressWarnings("unchecked")
+        A[] containers = (A[]) new Object[8];
+
+        A container(K key, Supplier<A> supplier) {
+            int size = index.size();
+            int id = index.add(key);
+            if (id == size) {
+                store(id, supplier.get());
+            }
+            return containers[id];
+        }
+
+        void adopt(K key, A container) {
+            store(index.add(key), container);
+        }
+
+        private void store(int id, A container) {
+            if (id == containers.length) {
+                containers = Arrays.copyOf(containers, containers.length * 2);
+            }
+            containers[id] = container;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.stefan.streams.columnar;
+
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.money.PriceStatistics;
+import com.stefan.streams.simd.NumericKernels;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-based versions of the order analytics in {@code FirstBatchResolved}.
+ * Each method returns the same result as its record-based counterpart, but runs as a plain loop
+ * over primitive columns and does not print anything. Loops over a whole column run through
+ * {@link NumericKernels}, vectorized when the platform allows it; per-order segments are only a few
+ * lines long, shorter than one vector, so they stay inline.
+ */
+public class ColumnarAnalytics {
+
+    private final NumericKernels kernels;
+
+    public ColumnarAnalytics() {
+        this(NumericKernels.best());
+    }
+
+    public ColumnarAnalytics(NumericKernels kernels) {
+        this.kernels = kernels;
+    }
+
+    // Same as FirstBatchResolved.calculateTotalRevenue, summed exactly in cents.
+    public double calculateTotalRevenue(OrderColumns columns) {
+        long totalCents = kernels.sumOfProducts(columns.linePriceCents, columns.lineQuantities, 0, columns.lineCount());
+        return BigDecimal.valueOf(totalCents, 2).doubleValue();
+    }
+
+    // Same as FirstBatchResolved.mapOrdersToSummaries.
+    public List<OrderSummary> mapOrdersToSummaries(OrderColumns columns) {
+        int[] offsets = columns.orderLineOffsets;
+        int[] quantities = columns.lineQuantities;
+        List<OrderSummary> summaries = new ArrayList<>(columns.orderCount());
+        for (int order = 0; order < columns.orderCount(); order++) {
+            long itemCount = 0;
+            for (int line = offsets[order]; line < offsets[order + 1]; line++) {
+                itemCount += quantities[line];
+            }
+            summaries.add(new OrderSummary(columns.orderIds[order], Math.toIntExact(itemCount)));
+        }
+        return summaries;
+    }
+
+    // Same as FirstBatchResolved.analyzeOrdersByCustomerTierAndStatus.
+    // Counts are accumulated in a flat tier x status array; only non-empty cells become map entries.
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus(OrderColumns columns) {
+        int statusCount = columns.statuses.size();
+        int cellCount = columns.tiers.size() * statusCount;
+        long[] orderCounts = new long[cellCount];
+        long[] totalItems = new long[cellCount];
+
+        int[] offsets = columns.orderLineOffsets;
+        int[] quantities = columns.lineQuantities;
+        for (int order = 0; order < columns.orderCount(); order++) {
+            int cell = columns.orderTierCodes[order] * statusCount + columns.orderStatusCodes[order];
+            orderCounts[cell]++;
+            for (int line = offsets[order]; line < offsets[order + 1]; line++) {
+                totalItems[cell] += quantities[line];
+            }
+        }
+
+        Map<String, Map<String, OrderStats>> result = new HashMap<>();
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (orderCounts[cell] == 0) {
+                continue;
+            }
+            String tier = columns.tiers.decode(cell / statusCount);
+            String status = columns.statuses.decode(cell % statusCount);
+            result.computeIfAbsent(tier, t -> new HashMap<>())
+                    .put(status, new OrderStats(orderCounts[cell], Math.toIntExact(totalItems[cell])));
+        }
+        return result;
+    }
+
+    // Same as MoneyAnalytics.calculateSummaryStatistics of FirstBatchResolved.extractAllOrderedProducts.
+    public PriceStatistics calculateOrderedProductPriceStatistics(OrderColumns columns) {
+        return kernels.statistics(columns.productPriceCents, 0, columns.productCount());
+    }
+}
@@ -0,0 +1,224 @@
+package com.stefan.streams.columnar;
+
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.encoding.StringLookup;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays view of a list of orders.
+ *
+ * Every order line becomes one row in the line columns (order index, product index, quantity,
+ * price in cents, category code). Order level attributes (date as epoch-day, status and tier codes,
+ * customer index) are stored once per order, and {@code orderLineOffsets} points at the lines of each
+ * order, so order {@code o} owns lines {@code [orderLineOffsets[o], orderLineOffsets[o + 1])}.
+ *
+ * Products and customers are deduplicated by record equality and kept in small dimension tables.
+ * Instances are immutable once built: the status, tier and category dictionaries are only exposed
+ * as read-only {@link StringLookup} views.
+ */
+public final class OrderColumns {
+
+    // Order columns
+    final String[] orderIds;
+    final int[] orderEpochDays;
+    final int[] orderStatusCodes;
+    final int[] orderTierCodes;
+    final int[] orderCustomerIndexes;
+    final int[] orderLineOffsets;
+
+    // Line columns
+    final int[] lineOrderIndexes;
+    final int[] lineProductIndexes;
+    final int[] lineQuantities;
+    final long[] linePriceCents;
+    final int[] lineCategoryCodes;
+
+    // Dimension tables
+    final Product[] products;
+    final int[] productCategoryCodes;
+    final long[] productPriceCents;
+    final Customer[] customers;
+    final StringDictionary statuses;
+    final StringDictionary tiers;
+    final StringDictionary categories;
+
+    private OrderColumns(int orderCount, int lineCount, Product[] products, int[] productCategoryCodes,
+                         long[] productPriceCents, Customer[] customers, StringDictionary statuses, StringDictionary tiers,
+                         StringDictionary categories) {
+        this.orderIds = new String[orderCount];
+        this.orderEpochDays = new int[orderCount];
+        this.orderStatusCodes = new int[orderCount];
+        this.orderTierCodes = new int[orderCount];
+        this.orderCustomerIndexes = new int[orderCount];
+        this.orderLineOffsets = new int[orderCount + 1];
+        this.lineOrderIndexes = new int[lineCount];
+        this.lineProductIndexes = new int[lineCount];
+        this.lineQuantities = new int[lineCount];
+        this.linePriceCents = new long[lineCount];
+        this.lineCategoryCodes = new int[lineCount];
+        this.products = products;
+        this.productCategoryCodes = productCategoryCodes;
+        this.productPriceCents = productPriceCents;
+        this.customers = customers;
+        this.statuses = statuses;
+        this.tiers = tiers;
+        this.categories = categories;
+    }
+
+    public static OrderColumns from(List<Order> orders) {
+        StringDictionary statuses = new StringDictionary();
+        StringDictionary tiers = new StringDictionary();
+        StringDictionary categories = new StringDictionary();
+        Map<Product, Integer> productIndexes = new HashMap<>();
+        Map<Customer, Integer> customerIndexes = new HashMap<>();
+
+        // First pass: size the columns and build the dimension tables.
+        int lineCount = 0;
+        for (Order order : orders) {
+            customerIndexes.putIfAbsent(order.customer(), customerIndexes.size());
+            for (OrderItem item : order.items()) {
+                productIndexes.putIfAbsent(item.product(), productIndexes.size());
+            }
+            lineCount = Math.addExact(lineCount, order.items().size());
+        }
+
+        Product[] products = new Product[productIndexes.size()];
+        int[] productCategoryCodes = new int[products.length];
+        long[] productPriceCents = new long[products.length];
+        productIndexes.forEach((product, index) -> products[index] = product);
+        for (int p = 0; p < products.length; p++) {
+            productCategoryCodes[p] = categories.encode(products[p].category());
+            productPriceCents[p] = Money.toCents(products[p].price());
+        }
+        Customer[] customers = new Customer[customerIndexes.size()];
+        customerIndexes.forEach((customer, index) -> customers[index] = customer);
+
+        OrderColumns columns = new OrderColumns(orders.size(), lineCount, products, productCategoryCodes,
+                productPriceCents, customers, statuses, tiers, categories);
+
+        // Second pass: fill the order and line columns.
+        int line = 0;
+        int o = 0;
+        for (Order order : orders) {
+            columns.orderIds[o] = order.id();
+            columns.orderEpochDays[o] = Math.toIntExact(order.orderDate().toEpochDay());
+            columns.orderStatusCodes[o] = statuses.encode(order.status());
+            columns.orderTierCodes[o] = tiers.encode(order.customer().tier());
+            columns.orderCustomerIndexes[o] = customerIndexes.get(order.customer());
+            columns.orderLineOffsets[o] = line;
+            for (OrderItem item : order.items()) {
+                int productIndex = productIndexes.get(item.product());
+                columns.lineOrderIndexes[line] = o;
+                columns.lineProductIndexes[line] = productIndex;
+                columns.lineQuantities[line] = item.quantity();
+                columns.linePriceCents[line] = productPriceCents[productIndex];
+                columns.lineCategoryCodes[line] = productCategoryCodes[productIndex];
+                line++;
+            }
+            o++;
+        }
+        columns.orderLineOffsets[o] = line;
+        return columns;
+    }
+
+    public int orderCount() {
+        return orderIds.length;
+    }
+
+    public int lineCount() {
+        return lineQuantities.length;
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    public int customerCount() {
+        return customers.length;
+    }
+
+    public String orderId(int order) {
+        return orderIds[order];
+    }
+
+    public int orderEpochDay(int order) {
+        return orderEpochDays[order];
+    }
+
+    public int orderStatusCode(int order) {
+        return orderStatusCodes[order];
+    }
+
+    public int orderTierCode(int order) {
+        return orderTierCodes[order];
+    }
+
+    public int orderCustomerIndex(int order) {
+        return orderCustomerIndexes[order];
+    }
+
+    public int firstLine(int order) {
+        return orderLineOffsets[order];
+    }
+
+    // Exclusive end of the lines of the order.
+    public int endLine(int order) {
+        return orderLineOffsets[order + 1];
+    }
+
+    public int lineOrderIndex(int line) {
+        return lineOrderIndexes[line];
+    }
+
+    public int lineProductIndex(int line) {
+        return lineProductIndexes[line];
+    }
+
+    public int lineQuantity(int line) {
+        return lineQuantities[line];
+    }
+
+    public long linePriceCents(int line) {
+        return linePriceCents[line];
+    }
+
+    public int lineCategoryCode(int line) {
+        return lineCategoryCodes[line];
+    }
+
+    public Product product(int productIndex) {
+        return products[productIndex];
+    }
+
+    public int productCategoryCode(int productIndex) {
+        return productCategoryCodes[productIndex];
+    }
+
+    public long productPriceCents(int productIndex) {
+        return productPriceCents[productIndex];
+    }
+
+    public Customer customer(int customerIndex) {
+        return customers[customerIndex];
+    }
+
+    public StringLookup statuses() {
+        return statuses.readOnly();
+    }
+
+    public StringLookup tiers() {
+        return tiers.readOnly();
+    }
+
+    public StringLookup categories() {
+        return categories.readOnly();
+    }
+}
@@ -0,0 +1,28 @@
+package com.stefan.streams.cube;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.OrderStats;
+
+/**
+ * The measures of one cube cell or of a roll-up of cells: orders, items ordered and revenue in cents.
+ * Item counts and revenue add up exactly; see {@link OrderCube} for how orders spanning several
+ * categories are counted.
+ */
+public record CubeCell(long orderCount, long itemCount, long revenueCents) {
+
+    public static final CubeCell EMPTY = new CubeCell(0, 0, 0);
+
+    public CubeCell plus(CubeCell other) {
+        return new CubeCell(Math.addExact(orderCount, other.orderCount), Math.addExact(itemCount, other.itemCount),
+                Math.addExact(revenueCents, other.revenueCents));
+    }
+
+    public Money revenue() {
+        return Money.ofCents(revenueCents);
+    }
+
+    // The OrderStats of analyzeOrdersByCustomerTierAndStatus for this cell; throws if the items overflow an int.
+    public OrderStats toOrderStats() {
+        return new OrderStats(orderCount, Math.toIntExact(itemCount));
+    }
+}
@@ -0,0 +1,9 @@
+package com.stefan.streams.cube;
+
+/** The axes of an {@link OrderCube}, in the order they are laid out in its cell arrays. */
+public enum CubeDimension {
+    TIER,
+    STATUS,
+    CATEGORY,
+    MONTH
+}
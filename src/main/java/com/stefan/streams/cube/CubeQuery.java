@@ -0,0 +1,88 @@
+package com.stefan.streams.cube;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable view of an {@link OrderCube}: the dimensions it is grouped by and the members selected on
+ * each dimension. Drilling down adds a grouping dimension, rolling up sums it out again, and slicing or
+ * dicing restricts a dimension to some of its members. Results are computed from the cube's current cells
+ * each time {@link #cells()} or {@link #total()} is called.
+ */
+public final class CubeQuery {
+
+    private final OrderCube cube;
+    private final List<CubeDimension> groupBy;
+    private final Map<CubeDimension, Set<String>> filters;
+
+    CubeQuery(OrderCube cube, List<CubeDimension> groupBy, Map<CubeDimension, Set<String>> filters) {
+        this.cube = cube;
+        this.groupBy = List.copyOf(groupBy);
+        this.filters = filters;
+    }
+
+    public CubeQuery drillDown(CubeDimension dimension) {
+        if (groupBy.contains(dimension)) {
+            throw new IllegalArgumentException("Already grouped by " + dimension);
+        }
+        List<CubeDimension> dimensions = new ArrayList<>(groupBy);
+        dimensions.add(dimension);
+        return new CubeQuery(cube, dimensions, filters);
+    }
+
+    public CubeQuery rollUp(CubeDimension dimension) {
+        if (!groupBy.contains(dimension)) {
+            throw new IllegalArgumentException("Not grouped by " + dimension);
+        }
+        List<CubeDimension> dimensions = new ArrayList<>(groupBy);
+        dimensions.remove(dimension);
+        return new CubeQuery(cube, dimensions, filters);
+    }
+
+    public CubeQuery slice(CubeDimension dimension, String member) {
+        return dice(dimension, List.of(member));
+    }
+
+    public CubeQuery slice(YearMonth month) {
+        return slice(CubeDimension.MONTH, month.toString());
+    }
+
+    // Replaces any earlier selection on the dimension; unknown members simply match no cells.
+    public CubeQuery dice(CubeDimension dimension, Collection<String> members) {
+        Map<CubeDimension, Set<String>> selected = new EnumMap<>(CubeDimension.class);
+        selected.putAll(filters);
+        selected.put(dimension, Set.copyOf(members));
+        return new CubeQuery(cube, groupBy, selected);
+    }
+
+    // Inclusive month range.
+    public CubeQuery dice(YearMonth from, YearMonth to) {
+        Set<String> months = new LinkedHashSet<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month.toString());
+        }
+        return dice(CubeDimension.MONTH, months);
+    }
+
+    public List<CubeDimension> groupBy() {
+        return groupBy;
+    }
+
+    // One entry per non-empty combination of the grouped dimensions' members, keyed in groupBy() order
+    // and sorted by member index.
+    public Map<List<String>, CubeCell> cells() {
+        return cube.evaluate(groupBy, filters);
+    }
+
+    public CubeCell total() {
+        return groupBy.isEmpty()
+                ? cube.evaluate(groupBy, filters).getOrDefault(List.of(), CubeCell.EMPTY)
+                : new CubeQuery(cube, List.of(), filters).total();
+    }
+}
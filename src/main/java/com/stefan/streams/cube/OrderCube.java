@@ -0,0 +1,363 @@
+package com.stefan.streams.cube;
+
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A dense tier x status x category x month cube of order measures, built once so that every slice is
+ * answered by summing a few thousand array slots instead of re-grouping all orders.
+ *
+ * The measures live in three flat long arrays (orders, items, revenue in cents), one slot per cell, laid
+ * out row-major in {@link CubeDimension} order with the month innermost. Tiers, statuses and categories
+ * are dictionary-encoded in first-seen order; months cover the dense range between the earliest and the
+ * latest order month.
+ *
+ * Items and revenue are line-level and add up across categories, but an order whose lines span several
+ * categories is counted once in each of them. The category axis therefore has an extra "all categories"
+ * slot at index 0 holding the order-level measures, which every query that neither groups nor filters by
+ * category reads instead, so its order counts are exact. Queries that do split by category count an
+ * order once per matching category.
+ *
+ * Orders can be added and removed after the cube is built; an order with a new tier, status, category
+ * or month re-lays out the arrays. Not thread-safe.
+ */
+public final class OrderCube {
+
+    static final int ALL_CATEGORIES = 0;
+
+    private final StringDictionary tiers = new StringDictionary();
+    private final StringDictionary statuses = new StringDictionary();
+    // Category code k is stored at category index k + 1
+    private final StringDictionary categories = new StringDictionary();
+    private YearMonth firstMonth;
+    private int monthCount;
+
+    // Current layout
+    private int tierSize;
+    private int statusSize;
+    private int categorySize = 1;
+    private int monthSize;
+    private long[] orderCounts = new long[0];
+    private long[] itemCounts = new long[0];
+    private long[] revenueCents = new long[0];
+
+    // Per-order scratch: category index, item count and revenue of every line, seen-category stamps and
+    // per-category totals
+    private int[] lineCategories = new int[8];
+    private long[] lineItems = new long[8];
+    private long[] lineRevenue = new long[8];
+    private int[] categoryStamps = new int[8];
+    private long[] categoryItems = new long[8];
+    private long[] categoryRevenue = new long[8];
+    private int stamp;
+
+    public static OrderCube of(Iterable<Order> orders) {
+        OrderCube cube = new OrderCube();
+        for (Order order : orders) {
+            cube.add(order);
+        }
+        return cube;
+    }
+
+    public void add(Order order) {
+        apply(order, 1);
+    }
+
+    // Undoes add(order); throws IllegalArgumentException, leaving the cube unchanged, if any cell the order
+    // touches does not hold an order with at least its items and revenue.
+    public void remove(Order order) {
+        apply(order, -1);
+    }
+
+    // e.g. a status transition: the order moves from its old (tier, status, category, month) cells to the new ones
+    public void replace(Order previous, Order current) {
+        remove(previous);
+        add(current);
+    }
+
+    public CubeQuery query() {
+        return new CubeQuery(this, List.of(), Map.of());
+    }
+
+    public CubeCell total() {
+        return query().total();
+    }
+
+    // Members of a dimension in index order; months as yyyy-MM.
+    public List<String> members(CubeDimension dimension) {
+        return switch (dimension) {
+            case TIER -> tiers.values();
+            case STATUS -> statuses.values();
+            case CATEGORY -> categories.values();
+            case MONTH -> {
+                List<String> months = new ArrayList<>(monthCount);
+                for (int m = 0; m < monthCount; m++) {
+                    months.add(firstMonth.plusMonths(m).toString());
+                }
+                yield months;
+            }
+        };
+    }
+
+    public int cellCount() {
+        return orderCounts.length;
+    }
+
+    private void apply(Order order, int sign) {
+        int lines = order.items().size();
+        if (lines > lineCategories.length) {
+            int capacity = Math.max(lines, lineCategories.length * 2);
+            lineCategories = Arrays.copyOf(lineCategories, capacity);
+            lineItems = Arrays.copyOf(lineItems, capacity);
+            lineRevenue = Arrays.copyOf(lineRevenue, capacity);
+        }
+        int tier;
+        int status;
+        int month;
+        if (sign > 0) {
+            tier = tiers.encode(order.customer().tier());
+            status = statuses.encode(order.status());
+            for (int line = 0; line < lines; line++) {
+                lineCategories[line] = categories.encode(order.items().get(line).product().category()) + 1;
+            }
+            month = extendMonths(YearMonth.from(order.orderDate()));
+            relayout(month < 0 ? -month : 0);
+            month = Math.max(month, 0);
+        } else {
+            tier = requireMember(tiers.code(order.customer().tier()), order);
+            status = requireMember(statuses.code(order.status()), order);
+            for (int line = 0; line < lines; line++) {
+                lineCategories[line] = requireMember(categories.code(order.items().get(line).product().category()),
+                        order) + 1;
+            }
+            month = firstMonth == null
+                    ? -1 : Math.toIntExact(firstMonth.until(YearMonth.from(order.orderDate()), ChronoUnit.MONTHS));
+            requireMember(month < monthCount ? month : -1, order);
+        }
+
+        long orderItems = 0;
+        long orderRevenue = 0;
+        for (int line = 0; line < lines; line++) {
+            OrderItem item = order.items().get(line);
+            lineItems[line] = item.quantity();
+            lineRevenue[line] = Math.multiplyExact(Money.toCents(item.product().price()), (long) item.quantity());
+            orderItems = Math.addExact(orderItems, lineItems[line]);
+            orderRevenue = Math.addExact(orderRevenue, lineRevenue[line]);
+        }
+
+        int all = index(tier, status, ALL_CATEGORIES, month);
+        if (sign < 0) {
+            requireRemovable(order, tier, status, month, lines, orderItems, orderRevenue);
+        }
+        update(all, sign, sign * orderItems, sign * orderRevenue);
+        nextStamp();
+        for (int line = 0; line < lines; line++) {
+            int category = lineCategories[line];
+            boolean firstLineOfCategory = categoryStamps[category] != stamp;
+            categoryStamps[category] = stamp;
+            update(index(tier, status, category, month), firstLineOfCategory ? sign : 0,
+                    sign * lineItems[line], sign * lineRevenue[line]);
+        }
+    }
+
+    // Checks, before anything is changed, that every cell the order touches still holds at least the order
+    // and its items and revenue.
+    private void requireRemovable(Order order, int tier, int status, int month, int lines, long items, long revenue) {
+        requireCovers(order, index(tier, status, ALL_CATEGORIES, month), items, revenue);
+        nextStamp();
+        for (int line = 0; line < lines; line++) {
+            int category = lineCategories[line];
+            if (categoryStamps[category] != stamp) {
+                categoryStamps[category] = stamp;
+                categoryItems[category] = 0;
+                categoryRevenue[category] = 0;
+            }
+            categoryItems[category] += lineItems[line];
+            categoryRevenue[category] += lineRevenue[line];
+        }
+        for (int line = 0; line < lines; line++) {
+            int category = lineCategories[line];
+            requireCovers(order, index(tier, status, category, month), categoryItems[category],
+                    categoryRevenue[category]);
+        }
+    }
+
+    private void requireCovers(Order order, int cell, long items, long revenue) {
+        if (orderCounts[cell] < 1 || itemCounts[cell] < items || revenueCents[cell] < revenue) {
+            throw new IllegalArgumentException("Order " + order.id() + " is not in the cube");
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(categoryStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private void update(int cell, long orders, long items, long revenue) {
+        orderCounts[cell] += orders;
+        itemCounts[cell] = Math.addExact(itemCounts[cell], items);
+        revenueCents[cell] = Math.addExact(revenueCents[cell], revenue);
+    }
+
+    private static int requireMember(int index, Order order) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Order " + order.id() + " is not in the cube");
+        }
+        return index;
+    }
+
+    // Widens the month range to the given month and returns its index; negative when the range grew
+    // backwards, in which case existing months shift up by that many slots.
+    private int extendMonths(YearMonth month) {
+        if (firstMonth == null) {
+            firstMonth = month;
+            monthCount = 1;
+            return 0;
+        }
+        int index = Math.toIntExact(firstMonth.until(month, ChronoUnit.MONTHS));
+        if (index < 0) {
+            firstMonth = month;
+            monthCount -= index;
+        } else if (index >= monthCount) {
+            monthCount = index + 1;
+        }
+        return index;
+    }
+
+    // Copies the cells into a layout sized for the current members; month is innermost, so each
+    // (tier, status, category) row moves as one block.
+    private void relayout(int monthShift) {
+        int newCategorySize = categories.size() + 1;
+        if (tiers.size() == tierSize && statuses.size() == statusSize && newCategorySize == categorySize
+                && monthCount == monthSize) {
+            return;
+        }
+        int cells = Math.multiplyExact(Math.multiplyExact(tiers.size() * statuses.size(), newCategorySize), monthCount);
+        long[] newOrderCounts = new long[cells];
+        long[] newItemCounts = new long[cells];
+        long[] newRevenueCents = new long[cells];
+        for (int t = 0; t < tierSize; t++) {
+            for (int s = 0; s < statusSize; s++) {
+                for (int c = 0; c < categorySize; c++) {
+                    int from = ((t * statusSize + s) * categorySize + c) * monthSize;
+                    int to = ((t * statuses.size() + s) * newCategorySize + c) * monthCount + monthShift;
+                    System.arraycopy(orderCounts, from, newOrderCounts, to, monthSize);
+                    System.arraycopy(itemCounts, from, newItemCounts, to, monthSize);
+                    System.arraycopy(revenueCents, from, newRevenueCents, to, monthSize);
+                }
+            }
+        }
+        tierSize = tiers.size();
+        statusSize = statuses.size();
+        categorySize = newCategorySize;
+        monthSize = monthCount;
+        orderCounts = newOrderCounts;
+        itemCounts = newItemCounts;
+        revenueCents = newRevenueCents;
+        if (categoryStamps.length < categorySize) {
+            int capacity = Math.max(categorySize, categoryStamps.length * 2);
+            categoryStamps = Arrays.copyOf(categoryStamps, capacity);
+            categoryItems = Arrays.copyOf(categoryItems, capacity);
+            categoryRevenue = Arrays.copyOf(categoryRevenue, capacity);
+        }
+    }
+
+    private int index(int tier, int status, int category, int month) {
+        return ((tier * statusSize + status) * categorySize + category) * monthSize + month;
+    }
+
+    // Sums the selected cells into one group per combination of the grouped dimensions' members.
+    Map<List<String>, CubeCell> evaluate(List<CubeDimension> groupBy, Map<CubeDimension, Set<String>> filters) {
+        Map<CubeDimension, List<String>> members = new EnumMap<>(CubeDimension.class);
+        Map<CubeDimension, boolean[]> masks = new EnumMap<>(CubeDimension.class);
+        for (CubeDimension dimension : CubeDimension.values()) {
+            List<String> values = members(dimension);
+            boolean[] mask = new boolean[values.size()];
+            Set<String> selected = filters.get(dimension);
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] = selected == null || selected.contains(values.get(i));
+            }
+            members.put(dimension, values);
+            masks.put(dimension, mask);
+        }
+        boolean[] tierMask = masks.get(CubeDimension.TIER);
+        boolean[] statusMask = masks.get(CubeDimension.STATUS);
+        boolean[] monthMask = masks.get(CubeDimension.MONTH);
+        // Category index 0 is the all-categories slot; categories proper start at 1
+        boolean[] categoryMask = new boolean[categorySize];
+        if (groupBy.contains(CubeDimension.CATEGORY) || filters.containsKey(CubeDimension.CATEGORY)) {
+            System.arraycopy(masks.get(CubeDimension.CATEGORY), 0, categoryMask, 1, categorySize - 1);
+        } else {
+            categoryMask[ALL_CATEGORIES] = true;
+        }
+
+        // Group index = sum of member index x stride over the grouped dimensions, the last one varying fastest
+        int[] strides = new int[CubeDimension.values().length];
+        int groupCount = 1;
+        for (int g = groupBy.size() - 1; g >= 0; g--) {
+            strides[groupBy.get(g).ordinal()] = groupCount;
+            groupCount = Math.multiplyExact(groupCount, members.get(groupBy.get(g)).size());
+        }
+        int tierStride = strides[CubeDimension.TIER.ordinal()];
+        int statusStride = strides[CubeDimension.STATUS.ordinal()];
+        int categoryStride = strides[CubeDimension.CATEGORY.ordinal()];
+        int monthStride = strides[CubeDimension.MONTH.ordinal()];
+
+        long[] orders = new long[groupCount];
+        long[] items = new long[groupCount];
+        long[] revenue = new long[groupCount];
+        for (int t = 0; t < tierSize; t++) {
+            if (!tierMask[t]) {
+                continue;
+            }
+            for (int s = 0; s < statusSize; s++) {
+                if (!statusMask[s]) {
+                    continue;
+                }
+                for (int c = 0; c < categorySize; c++) {
+                    if (!categoryMask[c]) {
+                        continue;
+                    }
+                    int group = t * tierStride + s * statusStride + Math.max(c - 1, 0) * categoryStride;
+                    int row = index(t, s, c, 0);
+                    for (int m = 0; m < monthSize; m++) {
+                        if (monthMask[m]) {
+                            int at = group + m * monthStride;
+                            orders[at] += orderCounts[row + m];
+                            items[at] = Math.addExact(items[at], itemCounts[row + m]);
+                            revenue[at] = Math.addExact(revenue[at], revenueCents[row + m]);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<List<String>, CubeCell> result = new LinkedHashMap<>();
+        for (int group = 0; group < groupCount; group++) {
+            if (orders[group] == 0 && items[group] == 0 && revenue[group] == 0) {
+                continue;
+            }
+            List<String> key = new ArrayList<>(groupBy.size());
+            for (CubeDimension dimension : groupBy) {
+                List<String> values = members.get(dimension);
+                key.add(values.get(group / strides[dimension.ordinal()] % values.size()));
+            }
+            result.put(List.copyOf(key), new CubeCell(orders[group], items[group], revenue[group]));
+        }
+        return result;
+    }
+}
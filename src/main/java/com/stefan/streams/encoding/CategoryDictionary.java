@@ -0,0 +1,70 @@
+package com.stefan.streams.encoding;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe interning dictionary for product categories.
+ *
+ * Unlike tiers and statuses, categories are an open set, so they get dense codes on first sight.
+ * Lookups are lock-free; registering a new category takes a short lock and amortized O(1) time.
+ * Codes never change once assigned. A dictionary grows with every category it sees, so use one per
+ * catalog or computation; {@link #shared()} is an opt-in process-wide dictionary for when codes from
+ * different catalogs must agree, and it never shrinks.
+ */
+public final class CategoryDictionary {
+
+    private static final CategoryDictionary SHARED = new CategoryDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // names[0, size) are the categories by code; the array grows geometrically
+    private volatile String[] names = new String[8];
+    private volatile int size;
+
+    public static CategoryDictionary shared() {
+        return SHARED;
+    }
+
+    public int encode(String category) {
+        Integer code = codes.get(category);
+        return code != null ? code : register(category);
+    }
+
+    // Returns StringDictionary.ABSENT for categories that were never encoded.
+    public int code(String category) {
+        Integer code = codes.get(category);
+        return code == null ? StringDictionary.ABSENT : code;
+    }
+
+    public String decode(int code) {
+        return names[code];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<String> values() {
+        int count = size;
+        return List.of(Arrays.copyOf(names, count));
+    }
+
+    private synchronized int register(String category) {
+        Integer existing = codes.get(category);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        String[] current = names;
+        if (code == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[code] = category;
+        // Publish the name before the size and the code, so any thread that sees either can decode it.
+        names = current;
+        size = code + 1;
+        codes.put(category, code);
+        return code;
+    }
+}
@@ -0,0 +1,136 @@
+package com.stefan.streams.encoding;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category, tier and status analytics on int codes.
+ *
+ * Groupings index into arrays by code instead of hashing strings per element. Codes come from dictionaries
+ * built over the data itself, so free-form labels are grouped like the String-based FirstBatchResolved does.
+ */
+public class EncodedAnalytics {
+
+    // Same as FirstBatchResolved.getElectronicsProductNames, comparing one int per product.
+    public List<String> getElectronicsProductNames(EncodedProducts products) {
+        List<String> names = new ArrayList<>();
+        int electronics = products.categories().code("Electronics");
+        if (electronics == StringDictionary.ABSENT) {
+            return names;
+        }
+        for (int i = 0; i < products.size(); i++) {
+            if (products.categoryCode(i) == electronics) {
+                names.add(products.product(i).name());
+            }
+        }
+        return names;
+    }
+
+    // Counts indexed by category code.
+    public long[] countProductsByCategoryCode(EncodedProducts products) {
+        long[] counts = new long[products.categories().size()];
+        for (int i = 0; i < products.size(); i++) {
+            counts[products.categoryCode(i)]++;
+        }
+        return counts;
+    }
+
+    public Map<String, Long> countProductsByCategory(EncodedProducts products) {
+        long[] counts = countProductsByCategoryCode(products);
+        Map<String, Long> byCategory = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                byCategory.put(products.categories().decode(code), counts[code]);
+            }
+        }
+        return byCategory;
+    }
+
+    // Same as FirstBatchResolved.countProductsByCategory.
+    public Map<String, Long> countProductsByCategory(List<Product> products) {
+        return countProductsByCategory(EncodedProducts.wrap(products));
+    }
+
+    // Same as FirstBatchResolved.groupProductsByCategory: one list per category code, in encounter order.
+    public Map<String, List<Product>> groupProductsByCategory(EncodedProducts products) {
+        List<List<Product>> byCode = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            int code = products.categoryCode(i);
+            while (byCode.size() <= code) {
+                byCode.add(null);
+            }
+            if (byCode.get(code) == null) {
+                byCode.set(code, new ArrayList<>());
+            }
+            byCode.get(code).add(products.product(i));
+        }
+        Map<String, List<Product>> byCategory = new HashMap<>();
+        for (int code = 0; code < byCode.size(); code++) {
+            if (byCode.get(code) != null) {
+                byCategory.put(products.categories().decode(code), byCode.get(code));
+            }
+        }
+        return byCategory;
+    }
+
+    // Same as FirstBatchResolved's status counts; statuses are encoded as they are met, so any label is accepted.
+    public Map<String, Long> countOrdersByStatus(List<Order> orders) {
+        StringDictionary statuses = new StringDictionary();
+        long[] counts = new long[8];
+        for (Order order : orders) {
+            int code = statuses.encode(order.status());
+            if (code == counts.length) {
+                counts = Arrays.copyOf(counts, code * 2);
+            }
+            counts[code]++;
+        }
+        Map<String, Long> byStatus = new HashMap<>();
+        for (int code = 0; code < statuses.size(); code++) {
+            byStatus.put(statuses.decode(code), counts[code]);
+        }
+        return byStatus;
+    }
+
+    // Same as FirstBatchResolved.analyzeOrdersByCustomerTierAndStatus. Tiers and statuses are encoded in a first
+    // pass, then order counts and item totals are summed per (tier, status) cell of a flat array.
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus(List<Order> orders) {
+        StringDictionary tiers = new StringDictionary();
+        StringDictionary statuses = new StringDictionary();
+        int[] tierCodes = new int[orders.size()];
+        int[] statusCodes = new int[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            tierCodes[i] = tiers.encode(order.customer().tier());
+            statusCodes[i] = statuses.encode(order.status());
+        }
+
+        int statusCount = statuses.size();
+        long[] orderCounts = new long[Math.multiplyExact(tiers.size(), statusCount)];
+        long[] totalItems = new long[orderCounts.length];
+        for (int i = 0; i < orders.size(); i++) {
+            int cell = tierCodes[i] * statusCount + statusCodes[i];
+            orderCounts[cell]++;
+            for (OrderItem item : orders.get(i).items()) {
+                totalItems[cell] += item.quantity();
+            }
+        }
+
+        Map<String, Map<String, OrderStats>> result = new HashMap<>();
+        for (int cell = 0; cell < orderCounts.length; cell++) {
+            if (orderCounts[cell] > 0) {
+                result.computeIfAbsent(tiers.decode(cell / statusCount), tier -> new HashMap<>())
+                        .put(statuses.decode(cell % statusCount),
+                                new OrderStats(orderCounts[cell], Math.toIntExact(totalItems[cell])));
+            }
+        }
+        return result;
+    }
+}
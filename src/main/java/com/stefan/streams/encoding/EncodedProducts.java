@@ -0,0 +1,65 @@
+package com.stefan.streams.encoding;
+
+import com.stefan.streams.models.Product;
+
+import java.util.List;
+
+/**
+ * A product list with the category of every product pre-encoded as an int code,
+ * so category filters and groupings compare ints instead of strings.
+ */
+public final class EncodedProducts {
+
+    private final List<Product> products;
+    private final int[] categoryCodes;
+    private final CategoryDictionary categories;
+
+    private EncodedProducts(List<Product> products, int[] categoryCodes, CategoryDictionary categories) {
+        this.products = products;
+        this.categoryCodes = categoryCodes;
+        this.categories = categories;
+    }
+
+    // Encodes with a dictionary of its own; pass CategoryDictionary.shared() to share codes across lists.
+    public static EncodedProducts of(List<Product> products) {
+        return of(products, new CategoryDictionary());
+    }
+
+    public static EncodedProducts of(List<Product> products, CategoryDictionary categories) {
+        return encode(List.copyOf(products), categories);
+    }
+
+    // For adapters whose encoding never outlives the call: the caller's list is used without a copy.
+    static EncodedProducts wrap(List<Product> products) {
+        return encode(products, new CategoryDictionary());
+    }
+
+    private static EncodedProducts encode(List<Product> products, CategoryDictionary categories) {
+        int[] codes = new int[products.size()];
+        int i = 0;
+        for (Product product : products) {
+            codes[i++] = categories.encode(product.category());
+        }
+        return new EncodedProducts(products, codes, categories);
+    }
+
+    public int size() {
+        return categoryCodes.length;
+    }
+
+    public Product product(int index) {
+        return products.get(index);
+    }
+
+    public int categoryCode(int index) {
+        return categoryCodes[index];
+    }
+
+    public List<Product> products() {
+        return products;
+    }
+
+    public CategoryDictionary categories() {
+        return categories;
+    }
+}
@@ -0,0 +1,83 @@
+package com.stefan.streams.encoding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns compact, dense int codes to strings in first-seen order.
+ * Codes start at 0, so they can be used directly as array indexes.
+ *
+ * Not thread-safe: build the dictionary on one thread and share it read-only afterwards, e.g. through
+ * {@link #readOnly()}.
+ */
+public final class StringDictionary implements StringLookup {
+
+    public static final int ABSENT = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final StringLookup readOnly = new ReadOnlyView();
+
+    // Returns the code of the value, registering it first if it was not seen before.
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int newCode = values.size();
+        codes.put(value, newCode);
+        values.add(value);
+        return newCode;
+    }
+
+    @Override
+    public int code(String value) {
+        Integer code = codes.get(value);
+        return code == null ? ABSENT : code;
+    }
+
+    @Override
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public List<String> values() {
+        return List.copyOf(values);
+    }
+
+    // A view that reflects this dictionary but cannot encode new values.
+    public StringLookup readOnly() {
+        return readOnly;
+    }
+
+    private final class ReadOnlyView implements StringLookup {
+
+        @Override
+        public int code(String value) {
+            return StringDictionary.this.code(value);
+        }
+
+        @Override
+        public String decode(int code) {
+            return StringDictionary.this.decode(code);
+        }
+
+        @Override
+        public int size() {
+            return StringDictionary.this.size();
+        }
+
+        @Override
+        public List<String> values() {
+            return StringDictionary.this.values();
+        }
+    }
+}
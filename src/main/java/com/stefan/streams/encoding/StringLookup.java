@@ -0,0 +1,18 @@
+package com.stefan.streams.encoding;
+
+import java.util.List;
+
+/**
+ * Read-only access to a string dictionary: code and value lookups, without a way to register new values.
+ */
+public interface StringLookup {
+
+    // Returns the code of the value, or StringDictionary.ABSENT if it was never encoded.
+    int code(String value);
+
+    String decode(int code);
+
+    int size();
+
+    List<String> values();
+}
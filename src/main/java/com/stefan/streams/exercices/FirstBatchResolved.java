@@ -1,18 +1,50 @@
 package com.stefan.streams.exercices;
 
+import com.stefan.streams.collect.PrimitiveCollectors;
+import com.stefan.streams.index.ProductPager;
+import com.stefan.streams.index.ProductSortOrder;
+import com.stefan.streams.instrument.InstrumentationMode;
+import com.stefan.streams.instrument.PipelineInstrumentation;
+import com.stefan.streams.instrument.PipelineSnapshot;
+import com.stefan.streams.instrument.StageMetrics;
+import com.stefan.streams.join.JoinedOrderAnalytics;
 import com.stefan.streams.models.*;
+import com.stefan.streams.query.FirstBatchQueries;
+import com.stefan.streams.query.QueryBatch;
+import com.stefan.streams.query.QueryResult;
+import com.stefan.streams.report.ReportRenderer;
+import com.stefan.streams.report.ReportSink;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Stream exercises with their solutions. The methods only compute and return their results; the text
+ * each one used to print goes to a {@link ReportSink}, which by default renders asynchronously to the
+ * console. Pass {@link ReportSink#noop()} to skip reporting entirely.
+ */
 public class FirstBatchResolved {
 
+    private final ReportSink reports;
+
+    public FirstBatchResolved() {
+        this(ReportSink.console());
+    }
+
+    public FirstBatchResolved(ReportSink reports) {
+        this.reports = reports;
+    }
+
     // Filtering and Collecting
     // Scenario: Find all electronic products and create a list of their names.
     public List<String> getElectronicsProductNames(List<Product> products) {
@@ -21,7 +53,7 @@ public class FirstBatchResolved {
                 .map(Product::name)
                 .collect(Collectors.toList());
 
-        System.out.println(electronicProductNames);
+        report(() -> List.copyOf(electronicProductNames), (names, out) -> out.println(names));
         // Output: [iPhone 14, MacBook Pro, Wireless Earbuds, Smart Watch]
 
         return electronicProductNames;
@@ -35,8 +67,8 @@ public class FirstBatchResolved {
                 .filter(product -> product.price().compareTo(new BigDecimal("20")) < 0)
                 .findFirst();
 
-        affordableSportswearProduct.ifPresent(product ->
-                System.out.println("Affordable sportswear: " + product.name() + " - $" + product.price()));
+        affordableSportswearProduct.ifPresent(affordable -> report(() -> affordable, (product, out) ->
+                out.println("Affordable sportswear: " + product.name() + " - $" + product.price())));
         // Output: Affordable sportswear: Water Bottle - $12.99
 
         return affordableSportswearProduct.orElse(null);
@@ -52,7 +84,7 @@ public class FirstBatchResolved {
                 ))
                 .collect(Collectors.toList());
 
-        orderSummaries.forEach(System.out::println);
+        report(() -> List.copyOf(orderSummaries), (summaries, out) -> summaries.forEach(out::println));
         // Output:
         // OrderSummary[orderId=O1, itemCount=2]
         // OrderSummary[orderId=O2, itemCount=1]
@@ -69,8 +101,8 @@ public class FirstBatchResolved {
                 .sorted(Comparator.comparing(Product::price))
                 .collect(Collectors.toList());
 
-        sortedProducts.forEach(product ->
-                System.out.println(product.name() + " - $" + product.price()));
+        report(() -> List.copyOf(sortedProducts), (sorted, out) -> sorted.forEach(product ->
+                out.println(product.name() + " - $" + product.price())));
         // Output:
         // Water Bottle - $12.99
         // Yoga Mat - $25.99
@@ -82,13 +114,13 @@ public class FirstBatchResolved {
 
     // Limiting and Skipping
     // Scenario: Implement a simple pagination for products, showing the second page with 3 products per page.
+    // The page is sliced at its offset (see ProductPager.page), so deep pages do not skip element by element.
     public List<Product> getProductsPage(List<Product> products, int pageSize, int pageNumber) {
-        List<Product> paginatedProducts = products.stream()
-                .skip(pageSize * pageNumber)
-                .limit(pageSize)
-                .collect(Collectors.toList());
+        List<Product> paginatedProducts = ProductPager.of(products, ProductSortOrder.LIST)
+                .page(pageSize, pageNumber)
+                .products();
 
-        paginatedProducts.forEach(product -> System.out.println(product.name()));
+        report(() -> paginatedProducts, (page, out) -> page.forEach(product -> out.println(product.name())));
         // Output:
         // Running Shoes
         // Yoga Mat
@@ -100,13 +132,11 @@ public class FirstBatchResolved {
     // Flattening Nested Collections
     // Scenario: Create a list of all products that have been ordered.
     public List<Product> extractAllOrderedProducts(List<Order> orders) {
-        List<Product> orderedProducts = orders.stream()
-                .flatMap(order -> order.items().stream())
-                .map(OrderItem::product)
-                .distinct()
-                .collect(Collectors.toList());
+        // Distinct product records of the order lines, compared by record equality like distinct()
+        List<Product> orderedProducts = new JoinedOrderAnalytics().extractAllOrderedProducts(orders);
 
-        orderedProducts.forEach(product -> System.out.println(product.name()));
+        report(() -> List.copyOf(orderedProducts), (ordered, out) ->
+                ordered.forEach(product -> out.println(product.name())));
         // Output will show each product that appears in at least one order, without duplicates
 
         return orderedProducts;
@@ -120,7 +150,7 @@ public class FirstBatchResolved {
                 .map(item -> item.product().price().multiply(BigDecimal.valueOf(item.quantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        System.out.println("Total Revenue: $" + totalRevenue);
+        report(() -> totalRevenue, (revenue, out) -> out.println("Total Revenue: $" + revenue));
         // Output: Total Revenue: $7267.87
 
         return totalRevenue.doubleValue();
@@ -128,24 +158,26 @@ public class FirstBatchResolved {
 
     // Short-circuiting Operations
     // Scenario: Check if any, all, or none of the products are in the "Electronics" category, and find any product over $1000.
+    // The four checks share one fused scan that stops as soon as every answer is known.
     public Product findExpensiveElectronicsProduct(List<Product> products) {
-        boolean anyElectronics = products.stream()
-                .anyMatch(product -> product.category().equals("Electronics"));
-
-        boolean allExpensive = products.stream()
-                .allMatch(product -> product.price().compareTo(new BigDecimal("100")) > 0);
-
-        boolean noneHome = products.stream()
-                .noneMatch(product -> product.category().equals("Toys"));
-
-        Optional<Product> anyHighPriced = products.stream()
-                .filter(product -> product.price().compareTo(new BigDecimal("1000")) > 0)
-                .findAny();
-
-        System.out.println("Any electronics? " + anyElectronics);
-        System.out.println("All products expensive? " + allExpensive);
-        System.out.println("No toys? " + noneHome);
-        anyHighPriced.ifPresent(p -> System.out.println("A high-priced product: " + p.name()));
+        QueryBatch<Product> checks = new QueryBatch<>();
+        QueryResult<Boolean> anyElectronicsResult = checks.add(FirstBatchQueries.anyElectronics());
+        QueryResult<Boolean> allExpensiveResult = checks.add(FirstBatchQueries.allExpensive());
+        QueryResult<Boolean> noneHomeResult = checks.add(FirstBatchQueries.noToys());
+        QueryResult<Product> anyHighPricedResult = checks.add(FirstBatchQueries.highPricedProduct());
+        checks.run(products);
+
+        boolean anyElectronics = anyElectronicsResult.get();
+        boolean allExpensive = allExpensiveResult.get();
+        boolean noneHome = noneHomeResult.get();
+        Optional<Product> anyHighPriced = Optional.ofNullable(anyHighPricedResult.get());
+
+        report(() -> anyHighPriced, (highPriced, out) -> {
+            out.println("Any electronics? " + anyElectronics);
+            out.println("All products expensive? " + allExpensive);
+            out.println("No toys? " + noneHome);
+            highPriced.ifPresent(p -> out.println("A high-priced product: " + p.name()));
+        });
         // Output:
         // Any electronics? true
         // All products expensive? false
@@ -157,20 +189,40 @@ public class FirstBatchResolved {
 
     // Using peek() for Debugging
     // Scenario: Trace the stream pipeline to debug filtering and mapping.
-    public void demonstratePeekOperation() {
+    // Instead of printing every element from peek(), each stage records counts and timings
+    // and one summary per stage is printed at the end.
+    public PipelineSnapshot demonstratePeekOperation() {
         List<Product> products = List.of(
                 new Product("P1", "iPhone 14", "Electronics", new BigDecimal("999.99")),
                 new Product("P2", "MacBook Pro", "Electronics", new BigDecimal("1999.99")),
                 new Product("P3", "Coffee Maker", "Appliances", new BigDecimal("89.99"))
         );
 
-        List<String> debuggedNames = products.stream()
-                .peek(p -> System.out.println("Before filter: " + p.name()))
-                .filter(product -> product.category().equals("Electronics"))
-                .peek(p -> System.out.println("After filter: " + p.name()))
-                .map(Product::name)
-                .peek(name -> System.out.println("Mapped name: " + name))
-                .collect(Collectors.toList());
+        PipelineInstrumentation trace = PipelineInstrumentation.create("peek-demo", InstrumentationMode.FULL, 1);
+        StageMetrics electronics = trace.stage("filter electronics");
+        StageMetrics names = trace.stage("map name");
+        List<String> debuggedNames = trace.stage("collect").measure(() -> products.stream()
+                .filter(electronics.filter(product -> product.category().equals("Electronics")))
+                .map(names.map(Product::name))
+                .collect(Collectors.toList()));
+
+        PipelineSnapshot snapshot = trace.snapshot();
+        report(() -> snapshot, (traced, out) -> {
+            out.println("Mapped names: " + debuggedNames);
+            // Element stages report per-element counts; the measured collect only has whole-call figures
+            traced.stages().forEach(stage -> out.println(stage.elementsIn() > 0
+                    ? stage.stage() + ": " + stage.elementsIn() + " in, " + stage.elementsOut() + " out, "
+                    + stage.elementNanos().p99() + " ns p99"
+                    : stage.stage() + ": " + stage.invocations() + " call(s), " + stage.invocationNanos().max()
+                    + " ns, " + stage.cpuNanos() + " ns CPU, " + stage.allocatedBytes() + " bytes allocated"));
+        });
+        // Output:
+        // Mapped names: [iPhone 14, MacBook Pro]
+        // filter electronics: 3 in, 2 out, ... ns p99
+        // map name: 2 in, 2 out, ... ns p99
+        // collect: 1 call(s), ... ns, ... ns CPU, ... bytes allocated
+
+        return snapshot;
     }
 
     // Joining Strings
@@ -182,7 +234,7 @@ public class FirstBatchResolved {
                 .sorted()
                 .collect(Collectors.joining(", "));
 
-        System.out.println("Available categories: " + categories);
+        report(() -> categories, (joined, out) -> out.println("Available categories: " + joined));
         // Output: Available categories: Appliances, Electronics, Home, Sportswear
 
         return categories;
@@ -190,17 +242,19 @@ public class FirstBatchResolved {
 
     // Calculating Summary Statistics
     // Scenario: Calculate statistics for product prices.
-    public void calculateSummaryStatistics(List<Product> products) {
+    public DoubleSummaryStatistics calculateSummaryStatistics(List<Product> products) {
         DoubleSummaryStatistics priceStatistics = products.stream()
                 .map(product -> product.price().doubleValue())
                 .collect(Collectors.summarizingDouble(price -> price));
 
-        System.out.println("Product price statistics:");
-        System.out.println("Count: " + priceStatistics.getCount());
-        System.out.println("Average: $" + String.format("%.2f", priceStatistics.getAverage()));
-        System.out.println("Min: $" + String.format("%.2f", priceStatistics.getMin()));
-        System.out.println("Max: $" + String.format("%.2f", priceStatistics.getMax()));
-        System.out.println("Sum: $" + String.format("%.2f", priceStatistics.getSum()));
+        report(() -> priceStatistics, (statistics, out) -> {
+            out.println("Product price statistics:");
+            out.println("Count: " + statistics.getCount());
+            out.println("Average: $" + String.format("%.2f", statistics.getAverage()));
+            out.println("Min: $" + String.format("%.2f", statistics.getMin()));
+            out.println("Max: $" + String.format("%.2f", statistics.getMax()));
+            out.println("Sum: $" + String.format("%.2f", statistics.getSum()));
+        });
         // Output:
         // Product price statistics:
         // Count: 10
@@ -208,6 +262,8 @@ public class FirstBatchResolved {
         // Min: $12.99
         // Max: $1999.99
         // Sum: $3883.89
+
+        return priceStatistics;
     }
 
     // Collecting to Unmodifiable Collections
@@ -229,7 +285,8 @@ public class FirstBatchResolved {
                 .map(Product::category)
                 .collect(Collectors.toSet());
 
-        System.out.println(categorySet);
+        report(() -> Collections.unmodifiableSet(new LinkedHashSet<>(categorySet)),
+                (categories, out) -> out.println(categories));
 
         return categorySet;
     }
@@ -243,7 +300,7 @@ public class FirstBatchResolved {
                         Product::price
                 ));
 
-        System.out.println(productPriceMap);
+        report(() -> copyOf(productPriceMap), (prices, out) -> out.println(prices));
         // Output: {iPhone 14=999.99, MacBook Pro=1999.99, Coffee Maker=89.99, ...}
 
         return productPriceMap;
@@ -261,7 +318,7 @@ public class FirstBatchResolved {
                         )
                 ));
 
-        System.out.println(electronicsNamesByCategory);
+        report(() -> copyOfGroups(electronicsNamesByCategory), (names, out) -> out.println(names));
 
         return electronicsNamesByCategory;
     }
@@ -276,7 +333,7 @@ public class FirstBatchResolved {
                         (name1, name2) -> name1 + ", " + name2
                 ));
 
-        System.out.println(priceToNames);
+        report(() -> copyOf(priceToNames), (names, out) -> out.println(names));
 
         return priceToNames;
     }
@@ -285,7 +342,7 @@ public class FirstBatchResolved {
     // Scenario: Count products in each category and collect their names.
     public Map<String, Long> countProductsByCategory(List<Product> products) {
         Map<String, Long> countByCategory = products.stream()
-                .collect(Collectors.groupingBy(Product::category, Collectors.counting()));
+                .collect(PrimitiveCollectors.groupingCounting(Product::category));
 
         return countByCategory;
     }
@@ -305,10 +362,12 @@ public class FirstBatchResolved {
                         product -> product.price().compareTo(new BigDecimal("100")) > 0
                 ));
 
-        System.out.println("Expensive products:");
-        pricePartition.get(true).forEach(p -> System.out.println("- " + p.name() + " ($" + p.price() + ")"));
-        System.out.println("\nAffordable products:");
-        pricePartition.get(false).forEach(p -> System.out.println("- " + p.name() + " ($" + p.price() + ")"));
+        report(() -> copyOfGroups(pricePartition), (partition, out) -> {
+            out.println("Expensive products:");
+            partition.get(true).forEach(p -> out.println("- " + p.name() + " ($" + p.price() + ")"));
+            out.println("\nAffordable products:");
+            partition.get(false).forEach(p -> out.println("- " + p.name() + " ($" + p.price() + ")"));
+        });
 
         return pricePartition;
     }
@@ -319,10 +378,10 @@ public class FirstBatchResolved {
         Map<String, List<Product>> productsByCategory = products.stream()
                 .collect(Collectors.groupingBy(Product::category));
 
-        productsByCategory.forEach((category, prods) -> {
-            System.out.println(category + ":");
-            prods.forEach(p -> System.out.println("  - " + p.name()));
-        });
+        report(() -> copyOfGroups(productsByCategory), (groups, out) -> groups.forEach((category, prods) -> {
+            out.println(category + ":");
+            prods.forEach(p -> out.println("  - " + p.name()));
+        }));
 
         return productsByCategory;
     }
@@ -331,13 +390,13 @@ public class FirstBatchResolved {
     // Scenario: Get the average price of products by category.
     public Map<String, Double> calculateAveragePriceByCategory(List<Product> products) {
         Map<String, Double> avgPriceByCategory = products.stream()
-                .collect(Collectors.groupingBy(
+                .collect(PrimitiveCollectors.groupingAveragingDouble(
                         Product::category,
-                        Collectors.averagingDouble(p -> p.price().doubleValue())
+                        p -> p.price().doubleValue()
                 ));
 
-        avgPriceByCategory.forEach((category, avgPrice) ->
-                System.out.println(category + ": $" + String.format("%.2f", avgPrice)));
+        report(() -> copyOf(avgPriceByCategory), (averages, out) -> averages.forEach((category, avgPrice) ->
+                out.println(category + ": $" + String.format("%.2f", avgPrice))));
         // Output:
         // Electronics: $877.49
         // Appliances: $84.99
@@ -347,36 +406,62 @@ public class FirstBatchResolved {
         return avgPriceByCategory;
     }
 
-    // Using collectingAndThen to transform the result after collection
+    // Multi-level grouping, finishing each (tier, status) cell into an OrderStats
     // Scenario: Analyze orders by customer tier and order status, showing order count and total items.
     public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus(List<Order> orders) {
         Map<String, Map<String, OrderStats>> orderAnalysisByTierAndStatus = orders.stream()
-                .collect(Collectors.groupingBy(
+                .collect(PrimitiveCollectors.groupingBy(
                         order -> order.customer().tier(),
-                        Collectors.groupingBy(
+                        PrimitiveCollectors.groupingCountingAndSumming(
                                 Order::status,
-                                Collectors.collectingAndThen(
-                                        Collectors.toList(),
-                                        ordersList -> new OrderStats(
-                                                ordersList.size(),
-                                                ordersList.stream()
-                                                        .flatMap(order -> order.items().stream())
-                                                        .mapToInt(OrderItem::quantity)
-                                                        .sum()
-                                        )
-                                )
+                                FirstBatchResolved::totalQuantity,
+                                (orderCount, totalItems) -> new OrderStats(orderCount, (int) totalItems)
                         )
                 ));
 
-        orderAnalysisByTierAndStatus.forEach((tier, statusMap) -> {
-            System.out.println("Customer Tier: " + tier);
-            statusMap.forEach((status, stats) -> {
-                System.out.println("  Status: " + status);
-                System.out.println("    Order Count: " + stats.orderCount());
-                System.out.println("    Total Items: " + stats.totalItems());
-            });
-        });
+        report(() -> copyOfNested(orderAnalysisByTierAndStatus), (analysis, out) ->
+                analysis.forEach((tier, statusMap) -> {
+                    out.println("Customer Tier: " + tier);
+                    statusMap.forEach((status, stats) -> {
+                        out.println("  Status: " + status);
+                        out.println("    Order Count: " + stats.orderCount());
+                        out.println("    Total Items: " + stats.totalItems());
+                    });
+                }));
 
         return orderAnalysisByTierAndStatus;
     }
+
+    // Results are rendered later on the sink's thread, so it gets an unmodifiable copy the caller cannot change.
+    // Nothing is copied when the sink is disabled.
+    private <T> void report(Supplier<T> result, ReportRenderer<? super T> renderer) {
+        if (reports.isEnabled()) {
+            reports.report(result.get(), renderer);
+        }
+    }
+
+    // Copies keep the iteration order of the original map.
+    private static <K, V> Map<K, V> copyOf(Map<K, V> map) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    private static <K, V> Map<K, List<V>> copyOfGroups(Map<K, List<V>> groups) {
+        Map<K, List<V>> copy = new LinkedHashMap<>();
+        groups.forEach((key, values) -> copy.put(key, List.copyOf(values)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static <K1, K2, V> Map<K1, Map<K2, V>> copyOfNested(Map<K1, Map<K2, V>> nested) {
+        Map<K1, Map<K2, V>> copy = new LinkedHashMap<>();
+        nested.forEach((key, inner) -> copy.put(key, copyOf(inner)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static long totalQuantity(Order order) {
+        long quantity = 0;
+        for (OrderItem item : order.items()) {
+            quantity += item.quantity();
+        }
+        return quantity;
+    }
 }
@@ -0,0 +1,184 @@
+package com.stefan.streams.generator;
+
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Deterministic synthetic customers, products and orders.
+ *
+ * Customers and products are generated up front (memory is proportional to their cardinalities).
+ * Orders are never stored: order {@code i} is derived only from the seed and {@code i}, so
+ * {@link #orders()} is a lazy stream that can produce any number of order lines, splits into
+ * independent index ranges for parallel generation, and yields the same data sequentially or in parallel.
+ */
+public class DatasetGenerator {
+
+    private static final long CUSTOMER_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long PRODUCT_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long ORDER_STREAM = 0x165667B19E3779F9L;
+
+    private static final long MIN_PRICE_CENTS = 100;
+    private static final long MAX_PRICE_CENTS = 250_000;
+    private static final int MAX_CUSTOMER_AGE_DAYS = 3 * 365;
+
+    private final DatasetSpec spec;
+    private final Customer[] customers;
+    private final Product[] products;
+    private final ZipfSampler productPopularity;
+    private final long firstOrderEpochDay;
+    private final int orderDateRange;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.customers = new Customer[spec.customerCount()];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = generateCustomer(i);
+        }
+        this.products = new Product[spec.productCount()];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = generateProduct(i);
+        }
+        this.productPopularity = new ZipfSampler(products.length, spec.productSkew());
+        this.firstOrderEpochDay = spec.firstOrderDate().toEpochDay();
+        this.orderDateRange = Math.toIntExact(spec.lastOrderDate().toEpochDay() - firstOrderEpochDay + 1);
+    }
+
+    public DatasetSpec spec() {
+        return spec;
+    }
+
+    public List<Customer> customers() {
+        return List.of(customers);
+    }
+
+    public List<Product> products() {
+        return List.of(products);
+    }
+
+    // The order with the given index, identical to the element at that position of orders().
+    public Order order(long index) {
+        if (index < 0 || index >= spec.orderCount()) {
+            throw new IndexOutOfBoundsException("Order index " + index + " out of range 0.." + spec.orderCount());
+        }
+        SplittableRandom random = randomFor(ORDER_STREAM, index);
+
+        Customer customer = customers[random.nextInt(customers.length)];
+        LocalDate orderDate = LocalDate.ofEpochDay(firstOrderEpochDay + random.nextInt(orderDateRange));
+        String status = spec.statuses().sample(random);
+        int itemCount = 1 + random.nextInt(spec.maxItemsPerOrder());
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = products[productPopularity.sample(random)];
+            items.add(new OrderItem(product, 1 + random.nextInt(spec.maxQuantity())));
+        }
+        return new Order("O" + index, customer, orderDate, List.copyOf(items), status);
+    }
+
+    // Lazily generates all orders of the spec; parallel() splits the index range across cores.
+    public Stream<Order> orders() {
+        return orders(0, spec.orderCount());
+    }
+
+    public Stream<Order> orders(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || toIndex > spec.orderCount() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range " + fromIndex + ".." + toIndex
+                    + " out of 0.." + spec.orderCount());
+        }
+        return StreamSupport.stream(new OrderSpliterator(fromIndex, toIndex), false);
+    }
+
+    private Customer generateCustomer(int index) {
+        SplittableRandom random = randomFor(CUSTOMER_STREAM, index);
+        LocalDate registrationDate = spec.firstOrderDate().minusDays(random.nextInt(MAX_CUSTOMER_AGE_DAYS));
+        return new Customer(
+                "C" + index,
+                "Customer " + index,
+                "customer" + index + "@example.com",
+                registrationDate,
+                spec.tiers().sample(random));
+    }
+
+    private Product generateProduct(int index) {
+        SplittableRandom random = randomFor(PRODUCT_STREAM, index);
+        String category = spec.categories().sample(random);
+        // Log-uniform prices: many cheap products, few expensive ones
+        double logMin = StrictMath.log(MIN_PRICE_CENTS);
+        double logMax = StrictMath.log(MAX_PRICE_CENTS);
+        long cents = Math.round(StrictMath.exp(logMin + random.nextDouble() * (logMax - logMin)));
+        return new Product("P" + index, "Product " + index, category, BigDecimal.valueOf(cents, 2));
+    }
+
+    // Every entity gets its own generator derived from (seed, stream, index), independent of generation order.
+    private SplittableRandom randomFor(long stream, long index) {
+        return new SplittableRandom(mix64(spec.seed() ^ stream) + mix64(index));
+    }
+
+    // Stafford variant 13 of the MurmurHash3 finalizer, as used by SplittableRandom.
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class OrderSpliterator implements Spliterator<Order> {
+
+        private long next;
+        private final long end;
+
+        OrderSpliterator(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Order> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(order(next++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Order> action) {
+            long current = next;
+            next = end;
+            for (; current < end; current++) {
+                action.accept(order(current));
+            }
+        }
+
+        @Override
+        public Spliterator<Order> trySplit() {
+            long middle = (next + end) >>> 1;
+            if (middle <= next) {
+                return null;
+            }
+            OrderSpliterator prefix = new OrderSpliterator(next, middle);
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
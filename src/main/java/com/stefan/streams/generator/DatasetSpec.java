@@ -0,0 +1,104 @@
+package com.stefan.streams.generator;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Shape of a synthetic dataset. Start from {@link #defaults()} and adjust with the {@code with*} methods.
+ *
+ * @param seed              same seed and spec always produce the same dataset
+ * @param customerCount     number of distinct customers
+ * @param productCount      number of distinct products
+ * @param orderCount        number of orders; each has 1..maxItemsPerOrder lines
+ * @param maxItemsPerOrder  upper bound (inclusive) of lines per order
+ * @param maxQuantity       upper bound (inclusive) of the quantity of a line
+ * @param productSkew       Zipf exponent of product popularity, 0 means uniform
+ * @param categories        category of each generated product
+ * @param tiers             tier of each generated customer
+ * @param statuses          status of each generated order
+ * @param firstOrderDate    order dates are uniform in [firstOrderDate, lastOrderDate]
+ * @param lastOrderDate     inclusive end of the order date range
+ */
+public record DatasetSpec(
+        long seed,
+        int customerCount,
+        int productCount,
+        long orderCount,
+        int maxItemsPerOrder,
+        int maxQuantity,
+        double productSkew,
+        Distribution categories,
+        Distribution tiers,
+        Distribution statuses,
+        LocalDate firstOrderDate,
+        LocalDate lastOrderDate
+) {
+
+    public DatasetSpec {
+        if (customerCount <= 0 || productCount <= 0 || orderCount < 0) {
+            throw new IllegalArgumentException("Cardinalities must be positive");
+        }
+        if (maxItemsPerOrder <= 0 || maxQuantity <= 0) {
+            throw new IllegalArgumentException("maxItemsPerOrder and maxQuantity must be positive");
+        }
+        if (lastOrderDate.isBefore(firstOrderDate)) {
+            throw new IllegalArgumentException("lastOrderDate is before firstOrderDate");
+        }
+    }
+
+    public static DatasetSpec defaults() {
+        return new DatasetSpec(
+                42L,
+                10_000,
+                1_000,
+                100_000,
+                4,
+                3,
+                1.1,
+                Distribution.of(List.of("Electronics", "Appliances", "Sportswear", "Home", "Toys"), 30, 15, 25, 20, 10),
+                Distribution.of(List.of("standard", "premium", "elite"), 70, 22, 8),
+                Distribution.of(List.of("placed", "shipped", "delivered", "canceled"), 15, 20, 60, 5),
+                LocalDate.of(2023, 1, 1),
+                LocalDate.of(2023, 12, 31));
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withCustomerCount(int customerCount) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withProductCount(int productCount) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withOrderCount(long orderCount) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withItemsPerOrder(int maxItemsPerOrder, int maxQuantity) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withProductSkew(double productSkew) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withDistributions(Distribution categories, Distribution tiers, Distribution statuses) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+
+    public DatasetSpec withOrderDates(LocalDate firstOrderDate, LocalDate lastOrderDate) {
+        return new DatasetSpec(seed, customerCount, productCount, orderCount, maxItemsPerOrder, maxQuantity,
+                productSkew, categories, tiers, statuses, firstOrderDate, lastOrderDate);
+    }
+}
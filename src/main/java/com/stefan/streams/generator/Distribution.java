@@ -0,0 +1,63 @@
+package com.stefan.streams.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A fixed set of string values with relative weights, sampled by inverse CDF.
+ */
+public final class Distribution {
+
+    private final List<String> values;
+    private final double[] cumulative;
+
+    private Distribution(List<String> values, double[] cumulative) {
+        this.values = values;
+        this.cumulative = cumulative;
+    }
+
+    // Weights are relative and do not need to add up to 1.
+    public static Distribution of(List<String> values, double... weights) {
+        if (values.isEmpty() || values.size() != weights.length) {
+            throw new IllegalArgumentException("Expected one weight per value, got " + values.size()
+                    + " values and " + weights.length + " weights");
+        }
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!(weights[i] >= 0)) {
+                throw new IllegalArgumentException("Weights must be non-negative: " + Arrays.toString(weights));
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return new Distribution(List.copyOf(values), cumulative);
+    }
+
+    public static Distribution uniform(List<String> values) {
+        double[] weights = new double[values.size()];
+        Arrays.fill(weights, 1);
+        return of(values, weights);
+    }
+
+    public String sample(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+
+    public List<String> values() {
+        return values;
+    }
+}
@@ -0,0 +1,38 @@
+package com.stefan.streams.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+ * Rank 0 is the most popular. Uses a precomputed CDF, so memory is O(n) and sampling O(log n).
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must be non-negative: " + exponent);
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            // StrictMath keeps the generated data identical across JVMs and platforms
+            total += 1.0 / StrictMath.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
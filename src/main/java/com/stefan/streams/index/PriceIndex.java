@@ -0,0 +1,209 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Products kept sorted by price, overall and per category, for range and top-N queries.
+ *
+ * Prices are stored as sorted primitive cents next to the products, so a query is a binary search
+ * plus a copy of the k matching products: O(log n + k) instead of a full scan or sort per call.
+ * Products with equal prices keep their insertion order, which makes {@link #all()} equal to
+ * FirstBatchResolved.sortProductsByPrice of the same list. Insert and remove shift the arrays (O(n)).
+ *
+ * Not thread-safe.
+ */
+public class PriceIndex {
+
+    private final Partition all = new Partition();
+    private final Map<String, Partition> byCategory = new HashMap<>();
+
+    // Builds the index with a single (stable) sort instead of n inserts.
+    public static PriceIndex of(List<Product> products) {
+        PriceIndex index = new PriceIndex();
+        Product[] sorted = products.toArray(new Product[0]);
+        Arrays.sort(sorted, Comparator.comparing(Product::price));
+        for (Product product : sorted) {
+            long cents = Money.toCents(product.price());
+            index.all.append(cents, product);
+            index.byCategory.computeIfAbsent(product.category(), c -> new Partition()).append(cents, product);
+        }
+        return index;
+    }
+
+    public void insert(Product product) {
+        long cents = Money.toCents(product.price());
+        all.insert(cents, product);
+        byCategory.computeIfAbsent(product.category(), c -> new Partition()).insert(cents, product);
+    }
+
+    // Removes one occurrence of the product; returns false if it was not indexed.
+    public boolean remove(Product product) {
+        long cents = Money.toCents(product.price());
+        Partition partition = byCategory.get(product.category());
+        if (partition == null || !partition.remove(cents, product)) {
+            return false;
+        }
+        if (partition.size == 0) {
+            byCategory.remove(product.category());
+        }
+        all.remove(cents, product);
+        return true;
+    }
+
+    public int size() {
+        return all.size;
+    }
+
+    // All products, cheapest first.
+    public List<Product> all() {
+        return all.slice(0, all.size);
+    }
+
+    // Products with price < the given price, cheapest first.
+    public List<Product> below(BigDecimal price) {
+        return all.slice(0, all.lowerBound(ceilingCents(price)));
+    }
+
+    public List<Product> below(String category, BigDecimal price) {
+        Partition partition = partition(category);
+        return partition.slice(0, partition.lowerBound(ceilingCents(price)));
+    }
+
+    // Products with price > the given price, cheapest first.
+    public List<Product> above(BigDecimal price) {
+        return all.slice(all.upperBound(floorCents(price)), all.size);
+    }
+
+    public List<Product> above(String category, BigDecimal price) {
+        Partition partition = partition(category);
+        return partition.slice(partition.upperBound(floorCents(price)), partition.size);
+    }
+
+    // Products with min <= price <= max, cheapest first.
+    public List<Product> between(BigDecimal min, BigDecimal max) {
+        return all.slice(all.lowerBound(ceilingCents(min)), all.upperBound(floorCents(max)));
+    }
+
+    public List<Product> between(String category, BigDecimal min, BigDecimal max) {
+        Partition partition = partition(category);
+        return partition.slice(partition.lowerBound(ceilingCents(min)), partition.upperBound(floorCents(max)));
+    }
+
+    public List<Product> cheapestN(String category, int n) {
+        Partition partition = partition(category);
+        return partition.slice(0, Math.min(n, partition.size));
+    }
+
+    public List<Product> mostExpensiveN(String category, int n) {
+        Partition partition = partition(category);
+        List<Product> expensive = new ArrayList<>(partition.slice(Math.max(0, partition.size - n), partition.size));
+        Collections.reverse(expensive);
+        return expensive;
+    }
+
+    private Partition partition(String category) {
+        return byCategory.getOrDefault(category, Partition.EMPTY);
+    }
+
+    // Thresholds may have sub-cent precision: "< 19.995" is "<= 19.99", "> 19.995" is ">= 20.00".
+    private static long ceilingCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    private static long floorCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    // Parallel arrays sorted by cents; equal cents are in insertion order.
+    private static final class Partition {
+
+        static final Partition EMPTY = new Partition();
+
+        long[] cents = new long[8];
+        Product[] products = new Product[8];
+        int size;
+
+        void append(long price, Product product) {
+            ensureCapacity();
+            cents[size] = price;
+            products[size] = product;
+            size++;
+        }
+
+        // A new product goes after every product with the same price.
+        void insert(long price, Product product) {
+            ensureCapacity();
+            int position = upperBound(price);
+            System.arraycopy(cents, position, cents, position + 1, size - position);
+            System.arraycopy(products, position, products, position + 1, size - position);
+            cents[position] = price;
+            products[position] = product;
+            size++;
+        }
+
+        boolean remove(long price, Product product) {
+            for (int i = lowerBound(price); i < size && cents[i] == price; i++) {
+                if (products[i].equals(product)) {
+                    System.arraycopy(cents, i + 1, cents, i, size - i - 1);
+                    System.arraycopy(products, i + 1, products, i, size - i - 1);
+                    products[--size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // First position with cents >= price.
+        int lowerBound(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cents[middle] < price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // First position with cents > price.
+        int upperBound(long price) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cents[middle] <= price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        List<Product> slice(int from, int to) {
+            return from >= to ? List.of() : List.of(Arrays.copyOfRange(products, from, to));
+        }
+
+        private void ensureCapacity() {
+            if (size == cents.length) {
+                int capacity = cents.length * 2;
+                cents = Arrays.copyOf(cents, capacity);
+                products = Arrays.copyOf(products, capacity);
+            }
+        }
+    }
+}
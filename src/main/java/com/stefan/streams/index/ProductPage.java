@@ -0,0 +1,15 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.models.Product;
+
+import java.util.List;
+
+/**
+ * One page of products and the cursor of the page after it ({@code null} on the last page).
+ */
+public record ProductPage(List<Product> products, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.models.Product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination over a product list.
+ *
+ * The products are ordered once when the pager is built. A cursor is an opaque token holding the
+ * sort key and id of the last product of a page; the next page starts at the first product after it,
+ * found by binary search, so every page costs O(log n + pageSize) no matter how deep it is.
+ * Because a cursor stores a key rather than a position, it can also be used with a pager built later
+ * over a changed list and resumes right after the last product seen, without skipping or repeating any.
+ * LIST order has no sort key, so its cursors are positions, and its pager pages the given list in place.
+ *
+ * Offset pages ({@link #page}) are sliced directly from the ordered list and behave like
+ * {@code skip(pageSize * pageNumber).limit(pageSize)}: a page size of 0 gives an empty page, and null
+ * elements are kept.
+ */
+public class ProductPager {
+
+    private final ProductSortOrder order;
+    private final List<Product> products;
+
+    private ProductPager(ProductSortOrder order, List<Product> products) {
+        this.order = order;
+        this.products = products;
+    }
+
+    public static ProductPager of(List<Product> products, ProductSortOrder order) {
+        if (order == ProductSortOrder.LIST) {
+            return new ProductPager(order, products);
+        }
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(order.comparator());
+        return new ProductPager(order, sorted);
+    }
+
+    public ProductSortOrder order() {
+        return order;
+    }
+
+    public ProductPage firstPage(int pageSize) {
+        return pageFrom(0, pageSize);
+    }
+
+    public ProductPage nextPage(String cursor, int pageSize) {
+        return pageFrom(positionAfter(decode(cursor)), pageSize);
+    }
+
+    // Offset pagination: the products are already in order, so the page is a slice at pageSize * pageNumber.
+    public ProductPage page(int pageSize, int pageNumber) {
+        if (pageSize == 0) {
+            return new ProductPage(List.of(), null);
+        }
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("pageNumber must not be negative: " + pageNumber);
+        }
+        long offset = (long) pageSize * pageNumber;
+        if (offset >= products.size()) {
+            return new ProductPage(List.of(), null);
+        }
+        return pageFrom((int) offset, pageSize);
+    }
+
+    private ProductPage pageFrom(int from, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        int to = (int) Math.min(products.size(), (long) from + pageSize);
+        // Not List.copyOf: a LIST-ordered page may contain nulls, as it did with Collectors.toList()
+        List<Product> page = from >= to
+                ? List.of()
+                : Collections.unmodifiableList(new ArrayList<>(products.subList(from, to)));
+        String next = to < products.size() && to > from ? cursorAt(to - 1) : null;
+        return new ProductPage(page, next);
+    }
+
+    // Index of the first product ordered strictly after the cursor.
+    private int positionAfter(Cursor cursor) {
+        if (cursor.order() != order) {
+            throw new IllegalArgumentException("Cursor was created for " + cursor.order() + " order, not " + order);
+        }
+        if (order == ProductSortOrder.LIST) {
+            return (int) Math.min(products.size(), cursor.position() + 1);
+        }
+        int low = 0;
+        int high = products.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (order.comparator().compare(products.get(middle), cursor.probe()) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private String cursorAt(int position) {
+        Product last = products.get(position);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(order.ordinal());
+            switch (order) {
+                case LIST -> out.writeLong(position);
+                case ID -> out.writeUTF(last.id());
+                case PRICE -> {
+                    out.writeUTF(last.price().toString());
+                    out.writeUTF(last.id());
+                }
+                case NAME -> {
+                    out.writeUTF(last.name());
+                    out.writeUTF(last.id());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static Cursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            ProductSortOrder order = ProductSortOrder.values()[in.readUnsignedByte()];
+            // The probe carries only the fields the comparator of the order looks at
+            return switch (order) {
+                case LIST -> {
+                    long position = in.readLong();
+                    if (position < 0) {
+                        throw new IllegalArgumentException("Negative position " + position);
+                    }
+                    yield new Cursor(order, position, null);
+                }
+                case ID -> new Cursor(order, -1, new Product(in.readUTF(), null, null, null));
+                case PRICE -> {
+                    BigDecimal price = new BigDecimal(in.readUTF());
+                    yield new Cursor(order, -1, new Product(in.readUTF(), null, null, price));
+                }
+                case NAME -> {
+                    String name = in.readUTF();
+                    yield new Cursor(order, -1, new Product(in.readUTF(), name, null, null));
+                }
+            };
+        } catch (IOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token, e);
+        }
+    }
+
+    private record Cursor(ProductSortOrder order, long position, Product probe) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.models.Product;
+
+import java.util.Comparator;
+
+/**
+ * Orders in which products can be paged. Every order except LIST is a total order on
+ * (sort key, product id), which is what keyset cursors need to resume exactly after the last seen product.
+ */
+public enum ProductSortOrder {
+
+    // Position in the source list, as skip/limit pagination uses it.
+    LIST(null),
+    ID(Comparator.comparing(Product::id)),
+    PRICE(Comparator.comparing(Product::price).thenComparing(Product::id)),
+    NAME(Comparator.comparing(Product::name).thenComparing(Product::id));
+
+    private final Comparator<Product> comparator;
+
+    ProductSortOrder(Comparator<Product> comparator) {
+        this.comparator = comparator;
+    }
+
+    Comparator<Product> comparator() {
+        return comparator;
+    }
+}
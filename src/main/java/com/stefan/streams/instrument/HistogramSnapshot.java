@@ -0,0 +1,11 @@
+package com.stefan.streams.instrument;
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}. Percentiles are bucket upper bounds, capped at the
+ * maximum; all values are zero when nothing was recorded.
+ */
+public record HistogramSnapshot(long count, long min, long max, double mean,
+                                long p50, long p90, long p99, long p999) {
+
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+}
@@ -0,0 +1,14 @@
+package com.stefan.streams.instrument;
+
+/** How much a {@link PipelineInstrumentation} records. Can be changed at any time, also through JMX. */
+public enum InstrumentationMode {
+
+    // Wrapped functions call straight through: one volatile read per element.
+    OFF,
+    // Element counts only.
+    COUNTS,
+    // Counts, plus the latency of a random sample of the elements.
+    SAMPLED,
+    // Counts and the latency of every element.
+    FULL
+}
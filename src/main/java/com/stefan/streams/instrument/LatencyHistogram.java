@@ -0,0 +1,99 @@
+package com.stefan.streams.instrument;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of non-negative values (usually nanoseconds), in the style of HdrHistogram.
+ *
+ * Values below 32 have their own bucket; above that every power of two is split into 32 linear
+ * sub-buckets, so a reported percentile is at most 1/32 (about 3%) above the recorded value, over the
+ * whole long range, in 1920 counters. Recording is a few atomic increments and never blocks; a snapshot
+ * taken during recording may be off by the values recorded meanwhile.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    // Negative values (a clock going backwards) are recorded as zero.
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        count.increment();
+        sum.add(v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        if (total == 0) {
+            return HistogramSnapshot.EMPTY;
+        }
+        long maximum = max.get();
+        return new HistogramSnapshot(total, min.get(), maximum, (double) sum.sum() / count.sum(),
+                percentile(copy, total, 0.50, maximum), percentile(copy, total, 0.90, maximum),
+                percentile(copy, total, 0.99, maximum), percentile(copy, total, 0.999, maximum));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+    }
+
+    // Largest value that falls into the bucket.
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        int sub = bucket & (SUB_BUCKETS - 1);
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lower + (width - 1) < 0 ? Long.MAX_VALUE : lower + width - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long maximum) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(maximum, upperBound(bucket));
+            }
+        }
+        return maximum;
+    }
+}
@@ -0,0 +1,246 @@
+package com.stefan.streams.instrument;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-stage instrumentation of one stream pipeline, replacing {@code peek(System.out::println)} tracing.
+ *
+ * Stages are created by name and record into lock-free counters and histograms; {@link #snapshot()} reads
+ * them all. The mode decides the cost: OFF leaves one volatile read per element, COUNTS adds two
+ * LongAdder increments, SAMPLED also times one element in {@code sampleRate}, FULL times every element.
+ * With {@link #registerMBeans()} the pipeline and each stage are visible in JMX under
+ * {@code com.stefan.streams:type=Pipeline} and {@code type=PipelineStage}, and the mode can be switched
+ * there; {@link #close()} unregisters them.
+ */
+public final class PipelineInstrumentation implements AutoCloseable {
+
+    public static final int DEFAULT_SAMPLE_RATE = 64;
+
+    private static final String DOMAIN = "com.stefan.streams";
+
+    private final String name;
+    private final int sampleMask;
+    private volatile InstrumentationMode mode;
+    private final Map<String, StageMetrics> stages = new ConcurrentHashMap<>();
+    private final List<StageMetrics> stageOrder = new CopyOnWriteArrayList<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private boolean registered;
+
+    private PipelineInstrumentation(String name, InstrumentationMode mode, int sampleRate) {
+        if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("sampleRate must be a power of two: " + sampleRate);
+        }
+        this.name = name;
+        this.mode = mode;
+        this.sampleMask = sampleRate - 1;
+    }
+
+    // Sampled mode, timing one element in 64.
+    public static PipelineInstrumentation create(String name) {
+        return create(name, InstrumentationMode.SAMPLED, DEFAULT_SAMPLE_RATE);
+    }
+
+    public static PipelineInstrumentation create(String name, InstrumentationMode mode, int sampleRate) {
+        return new PipelineInstrumentation(name, mode, sampleRate);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public InstrumentationMode mode() {
+        return mode;
+    }
+
+    public void setMode(InstrumentationMode mode) {
+        this.mode = mode;
+    }
+
+    // The stage with the name, created on first use.
+    public StageMetrics stage(String stageName) {
+        StageMetrics existing = stages.get(stageName);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            return stages.computeIfAbsent(stageName, ignored -> {
+                StageMetrics stage = new StageMetrics(this, stageName);
+                stageOrder.add(stage);
+                if (registered) {
+                    register(stageName(stageName), new StageBean(stage));
+                }
+                return stage;
+            });
+        }
+    }
+
+    public PipelineSnapshot snapshot() {
+        List<StageSnapshot> snapshots = new ArrayList<>(stageOrder.size());
+        for (StageMetrics stage : stageOrder) {
+            snapshots.add(stage.snapshot());
+        }
+        return new PipelineSnapshot(name, mode, List.copyOf(snapshots));
+    }
+
+    public void reset() {
+        stageOrder.forEach(StageMetrics::reset);
+    }
+
+    public synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        register(pipelineName(), new PipelineBean());
+        for (StageMetrics stage : stageOrder) {
+            register(stageName(stage.name()), new StageBean(stage));
+        }
+    }
+
+    // Unregisters the MBeans; the metrics stay readable.
+    @Override
+    public synchronized void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registeredNames) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException ignored) {
+                // already unregistered by someone else
+            }
+        }
+        registeredNames.clear();
+        registered = false;
+    }
+
+    boolean shouldTime(InstrumentationMode current) {
+        return current == InstrumentationMode.FULL
+                || current == InstrumentationMode.SAMPLED && (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+
+    private void register(ObjectName objectName, Object bean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, objectName);
+            registeredNames.add(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + objectName, e);
+        }
+    }
+
+    private ObjectName pipelineName() {
+        return objectName("type=Pipeline,name=" + ObjectName.quote(name));
+    }
+
+    private ObjectName stageName(String stageName) {
+        return objectName("type=PipelineStage,pipeline=" + ObjectName.quote(name) + ",stage="
+                + ObjectName.quote(stageName));
+    }
+
+    private static ObjectName objectName(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private final class PipelineBean implements PipelineMXBean {
+
+        @Override
+        public String getPipeline() {
+            return name;
+        }
+
+        @Override
+        public String getMode() {
+            return mode.name();
+        }
+
+        @Override
+        public void setMode(String newMode) {
+            PipelineInstrumentation.this.setMode(InstrumentationMode.valueOf(newMode));
+        }
+
+        @Override
+        public void reset() {
+            PipelineInstrumentation.this.reset();
+        }
+    }
+
+    private final class StageBean implements StageMXBean {
+
+        private final StageMetrics stage;
+
+        StageBean(StageMetrics stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public String getPipeline() {
+            return name;
+        }
+
+        @Override
+        public String getStage() {
+            return stage.name();
+        }
+
+        @Override
+        public long getElementsIn() {
+            return stage.snapshot().elementsIn();
+        }
+
+        @Override
+        public long getElementsOut() {
+            return stage.snapshot().elementsOut();
+        }
+
+        @Override
+        public double getSelectivity() {
+            return stage.snapshot().selectivity();
+        }
+
+        @Override
+        public double getMeanElementNanos() {
+            return stage.snapshot().elementNanos().mean();
+        }
+
+        @Override
+        public long getP99ElementNanos() {
+            return stage.snapshot().elementNanos().p99();
+        }
+
+        @Override
+        public long getInvocations() {
+            return stage.snapshot().invocations();
+        }
+
+        @Override
+        public long getP99InvocationNanos() {
+            return stage.snapshot().invocationNanos().p99();
+        }
+
+        @Override
+        public long getCpuNanos() {
+            return stage.snapshot().cpuNanos();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return stage.snapshot().allocatedBytes();
+        }
+
+        @Override
+        public long getAllocatedBytesPerInvocation() {
+            return stage.snapshot().allocatedBytesPerInvocation();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.stefan.streams.instrument;
+
+/** JMX control of a {@link PipelineInstrumentation}: switch the mode at runtime or clear all stages. */
+public interface PipelineMXBean {
+
+    String getPipeline();
+
+    String getMode();
+
+    void setMode(String mode);
+
+    void reset();
+}
@@ -0,0 +1,16 @@
+package com.stefan.streams.instrument;
+
+import java.util.List;
+
+/** Point-in-time metrics of every stage of a pipeline, in the order the stages were created. */
+public record PipelineSnapshot(String pipeline, InstrumentationMode mode, List<StageSnapshot> stages) {
+
+    public StageSnapshot stage(String name) {
+        for (StageSnapshot stage : stages) {
+            if (stage.stage().equals(name)) {
+                return stage;
+            }
+        }
+        throw new IllegalArgumentException("No stage named " + name + " in " + pipeline);
+    }
+}
@@ -0,0 +1,29 @@
+package com.stefan.streams.instrument;
+
+/** JMX view of one {@link StageMetrics}, registered by {@link PipelineInstrumentation#registerMBeans()}. */
+public interface StageMXBean {
+
+    String getPipeline();
+
+    String getStage();
+
+    long getElementsIn();
+
+    long getElementsOut();
+
+    double getSelectivity();
+
+    double getMeanElementNanos();
+
+    long getP99ElementNanos();
+
+    long getInvocations();
+
+    long getP99InvocationNanos();
+
+    long getCpuNanos();
+
+    long getAllocatedBytes();
+
+    long getAllocatedBytesPerInvocation();
+}
@@ -0,0 +1,128 @@
+package com.stefan.streams.instrument;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Counters and histograms of one pipeline stage, and wrappers that record into them.
+ *
+ * Wrap the function of a stream stage ({@code filter(stage.filter(...))}, {@code map(stage.map(...))}) to
+ * count elements in and out and time them, or wrap a whole step or terminal operation in
+ * {@link #measure(Supplier)} to record its wall time, CPU time and allocations. All counters are
+ * LongAdders and the histograms are lock-free, so parallel streams can record from every worker.
+ */
+public final class StageMetrics {
+
+    private final PipelineInstrumentation owner;
+    private final String name;
+    private final LongAdder in = new LongAdder();
+    private final LongAdder out = new LongAdder();
+    private final LatencyHistogram elementNanos = new LatencyHistogram();
+    private final LongAdder invocations = new LongAdder();
+    private final LatencyHistogram invocationNanos = new LatencyHistogram();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    StageMetrics(PipelineInstrumentation owner, String name) {
+        this.owner = owner;
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public <T> Predicate<T> filter(Predicate<? super T> predicate) {
+        return element -> {
+            InstrumentationMode mode = owner.mode();
+            if (mode == InstrumentationMode.OFF) {
+                return predicate.test(element);
+            }
+            in.increment();
+            boolean kept;
+            if (owner.shouldTime(mode)) {
+                long start = System.nanoTime();
+                kept = predicate.test(element);
+                elementNanos.record(System.nanoTime() - start);
+            } else {
+                kept = predicate.test(element);
+            }
+            if (kept) {
+                out.increment();
+            }
+            return kept;
+        };
+    }
+
+    public <T, R> Function<T, R> map(Function<? super T, ? extends R> mapper) {
+        return element -> {
+            InstrumentationMode mode = owner.mode();
+            if (mode == InstrumentationMode.OFF) {
+                return mapper.apply(element);
+            }
+            in.increment();
+            R result;
+            if (owner.shouldTime(mode)) {
+                long start = System.nanoTime();
+                result = mapper.apply(element);
+                elementNanos.record(System.nanoTime() - start);
+            } else {
+                result = mapper.apply(element);
+            }
+            out.increment();
+            return result;
+        };
+    }
+
+    // For peek(): counts the elements that flow past this point.
+    public <T> Consumer<T> count() {
+        return element -> {
+            if (owner.mode() != InstrumentationMode.OFF) {
+                in.increment();
+                out.increment();
+            }
+        };
+    }
+
+    // Runs the operation on the calling thread and records its wall time, CPU time and allocated bytes.
+    public <T> T measure(Supplier<T> operation) {
+        if (owner.mode() == InstrumentationMode.OFF) {
+            return operation.get();
+        }
+        long cpuStart = ThreadResources.cpuNanos();
+        long bytesStart = ThreadResources.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            invocationNanos.record(System.nanoTime() - start);
+            long cpuEnd = ThreadResources.cpuNanos();
+            long bytesEnd = ThreadResources.allocatedBytes();
+            if (cpuStart >= 0 && cpuEnd >= 0) {
+                cpuNanos.add(cpuEnd - cpuStart);
+            }
+            if (bytesStart >= 0 && bytesEnd >= 0) {
+                allocatedBytes.add(bytesEnd - bytesStart);
+            }
+            invocations.increment();
+        }
+    }
+
+    public StageSnapshot snapshot() {
+        return new StageSnapshot(name, in.sum(), out.sum(), elementNanos.snapshot(), invocations.sum(),
+                invocationNanos.snapshot(), cpuNanos.sum(), allocatedBytes.sum());
+    }
+
+    public void reset() {
+        in.reset();
+        out.reset();
+        elementNanos.reset();
+        invocations.reset();
+        invocationNanos.reset();
+        cpuNanos.reset();
+        allocatedBytes.reset();
+    }
+}
@@ -0,0 +1,33 @@
+package com.stefan.streams.instrument;
+
+/**
+ * Point-in-time metrics of one stage.
+ *
+ * Element counts are exact in every mode except OFF. {@code elementNanos} only holds the timed (sampled)
+ * elements; {@code estimatedElementNanos} scales their mean to all elements. The invocation fields come
+ * from {@link StageMetrics#measure}: wall time per invocation, and CPU time and allocated bytes of the
+ * calling thread, summed over invocations (work done on other threads, as in parallel streams, is not
+ * included).
+ */
+public record StageSnapshot(String stage,
+                            long elementsIn,
+                            long elementsOut,
+                            HistogramSnapshot elementNanos,
+                            long invocations,
+                            HistogramSnapshot invocationNanos,
+                            long cpuNanos,
+                            long allocatedBytes) {
+
+    // Fraction of the elements that came out; 1 for a stage that saw no elements.
+    public double selectivity() {
+        return elementsIn == 0 ? 1.0 : (double) elementsOut / elementsIn;
+    }
+
+    public long estimatedElementNanos() {
+        return Math.round(elementNanos.mean() * elementsIn);
+    }
+
+    public long allocatedBytesPerInvocation() {
+        return invocations == 0 ? 0 : allocatedBytes / invocations;
+    }
+}
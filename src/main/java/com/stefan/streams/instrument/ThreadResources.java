@@ -0,0 +1,29 @@
+package com.stefan.streams.instrument;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU time and allocated bytes of the current thread from the platform ThreadMXBean. Either reads as -1
+ * where the JVM does not support or has disabled the measurement.
+ */
+final class ThreadResources {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+            THREADS instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemorySupported()
+                    ? hotspot : null;
+
+    private ThreadResources() {
+    }
+
+    static long cpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()
+                ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    static long allocatedBytes() {
+        return HOTSPOT_THREADS != null && HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()
+                ? HOTSPOT_THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
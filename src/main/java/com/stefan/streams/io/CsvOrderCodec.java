@@ -0,0 +1,291 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * CSV rows of order lines, one order line per row.
+ */
+final class CsvOrderCodec {
+
+    static final String HEADER = "order_id,order_date,status,customer_id,customer_name,customer_email,"
+            + "customer_registration_date,customer_tier,product_id,product_name,product_category,product_price,quantity";
+
+    private static final int ORDER_ID = 0;
+    private static final int ORDER_DATE = 1;
+    private static final int STATUS = 2;
+    private static final int CUSTOMER_ID = 3;
+    private static final int CUSTOMER_NAME = 4;
+    private static final int CUSTOMER_EMAIL = 5;
+    private static final int CUSTOMER_REGISTRATION_DATE = 6;
+    private static final int CUSTOMER_TIER = 7;
+    private static final int PRODUCT_ID = 8;
+    private static final int PRODUCT_NAME = 9;
+    private static final int PRODUCT_CATEGORY = 10;
+    private static final int PRODUCT_PRICE = 11;
+    private static final int QUANTITY = 12;
+    private static final int FIELD_COUNT = 13;
+
+    private CsvOrderCodec() {
+    }
+
+    static void writeOrder(Order order, StringBuilder out) {
+        if (order.items().isEmpty()) {
+            writeRow(order, null, out);
+        }
+        for (OrderItem item : order.items()) {
+            writeRow(order, item, out);
+        }
+    }
+
+    private static void writeRow(Order order, OrderItem item, StringBuilder out) {
+        Customer customer = order.customer();
+        appendField(out, order.id()).append(',');
+        out.append(order.orderDate()).append(',');
+        appendField(out, order.status()).append(',');
+        appendField(out, customer.id()).append(',');
+        appendField(out, customer.name()).append(',');
+        appendField(out, customer.email()).append(',');
+        out.append(customer.registrationDate()).append(',');
+        appendField(out, customer.tier()).append(',');
+        if (item != null) {
+            Product product = item.product();
+            appendField(out, product.id()).append(',');
+            appendField(out, product.name()).append(',');
+            appendField(out, product.category()).append(',');
+            out.append(product.price().toPlainString()).append(',');
+            out.append(item.quantity());
+        } else {
+            out.append(",,,,");
+        }
+        out.append('\n');
+    }
+
+    private static StringBuilder appendField(StringBuilder out, String value) {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("CSV export does not support line breaks in values: " + value);
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return out.append(value);
+        }
+        return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // The order id of a row, used to find where one order ends and the next begins.
+    static String orderId(byte[] row, int offset, int length) {
+        Row parsed = new Row();
+        parsed.parse(row, offset, length);
+        return parsed.count == 0 ? "" : parsed.text(ORDER_ID);
+    }
+
+    /**
+     * Turns consecutive rows into orders. Customers and products are interned by id: a row reuses the
+     * interned instance only when its columns match it byte for byte, and otherwise gets its own record,
+     * so every order carries exactly the values of its rows whichever split saw an id first.
+     */
+    static final class Assembler implements OrderAssembler {
+
+        private final ConcurrentHashMap<String, Customer> customers;
+        private final ConcurrentHashMap<String, Product> products;
+        private final Row row = new Row();
+
+        private String orderId;
+        private LocalDate orderDate;
+        private String status;
+        private Customer customer;
+        private List<OrderItem> items = new ArrayList<>();
+
+        Assembler(ConcurrentHashMap<String, Customer> customers, ConcurrentHashMap<String, Product> products) {
+            this.customers = customers;
+            this.products = products;
+        }
+
+        @Override
+        public void acceptLine(byte[] line, int offset, int length, Consumer<? super Order> sink) {
+            if (length == 0 || (length == 1 && line[offset] == '\r')) {
+                return;
+            }
+            row.parse(line, offset, length);
+            if (row.count != FIELD_COUNT) {
+                throw new IllegalArgumentException("Expected " + FIELD_COUNT + " CSV columns but found " + row.count
+                        + ": " + new String(line, offset, length, StandardCharsets.UTF_8));
+            }
+            if (orderId == null || !row.fieldEquals(ORDER_ID, orderId)) {
+                finish(sink);
+                orderId = row.text(ORDER_ID);
+                orderDate = row.date(ORDER_DATE);
+                status = row.text(STATUS);
+                String customerId = row.text(CUSTOMER_ID);
+                Customer interned = customers.computeIfAbsent(customerId, this::customer);
+                customer = matchesCustomer(interned) ? interned : customer(customerId);
+            }
+            if (!row.isEmpty(PRODUCT_ID)) {
+                String productId = row.text(PRODUCT_ID);
+                Product interned = products.computeIfAbsent(productId, this::product);
+                Product product = matchesProduct(interned) ? interned : product(productId);
+                items.add(new OrderItem(product, row.integer(QUANTITY)));
+            }
+        }
+
+        private Customer customer(String id) {
+            return new Customer(
+                    id,
+                    row.text(CUSTOMER_NAME),
+                    row.text(CUSTOMER_EMAIL),
+                    row.date(CUSTOMER_REGISTRATION_DATE),
+                    row.text(CUSTOMER_TIER));
+        }
+
+        private Product product(String id) {
+            return new Product(
+                    id,
+                    row.text(PRODUCT_NAME),
+                    row.text(PRODUCT_CATEGORY),
+                    new BigDecimal(row.text(PRODUCT_PRICE)));
+        }
+
+        private boolean matchesCustomer(Customer customer) {
+            return row.fieldEquals(CUSTOMER_NAME, customer.name())
+                    && row.fieldEquals(CUSTOMER_EMAIL, customer.email())
+                    && row.date(CUSTOMER_REGISTRATION_DATE).equals(customer.registrationDate())
+                    && row.fieldEquals(CUSTOMER_TIER, customer.tier());
+        }
+
+        // The price must match as written, since BigDecimal equality also compares the scale
+        private boolean matchesProduct(Product product) {
+            return row.fieldEquals(PRODUCT_NAME, product.name())
+                    && row.fieldEquals(PRODUCT_CATEGORY, product.category())
+                    && row.fieldEquals(PRODUCT_PRICE, product.price().toPlainString());
+        }
+
+        @Override
+        public void finish(Consumer<? super Order> sink) {
+            if (orderId != null) {
+                sink.accept(new Order(orderId, customer, orderDate, List.copyOf(items), status));
+                orderId = null;
+                items = new ArrayList<>();
+            }
+        }
+    }
+
+    // Field boundaries of one row; quoted fields are unescaped when decoded.
+    private static final class Row {
+
+        private final int[] starts = new int[FIELD_COUNT + 1];
+        private final int[] ends = new int[FIELD_COUNT + 1];
+        private final boolean[] quoted = new boolean[FIELD_COUNT + 1];
+        private byte[] bytes;
+        private int count;
+
+        void parse(byte[] line, int offset, int length) {
+            bytes = line;
+            count = 0;
+            int end = offset + length;
+            if (end > offset && line[end - 1] == '\r') {
+                end--;
+            }
+            int position = offset;
+            while (count <= FIELD_COUNT) {
+                boolean isQuoted = position < end && line[position] == '"';
+                int fieldStart = isQuoted ? position + 1 : position;
+                int fieldEnd;
+                if (isQuoted) {
+                    int i = fieldStart;
+                    while (i < end && !(line[i] == '"' && (i + 1 >= end || line[i + 1] != '"'))) {
+                        i += line[i] == '"' ? 2 : 1;
+                    }
+                    fieldEnd = i;
+                    position = Math.min(i + 1, end);
+                } else {
+                    int i = fieldStart;
+                    while (i < end && line[i] != ',') {
+                        i++;
+                    }
+                    fieldEnd = i;
+                    position = i;
+                }
+                starts[count] = fieldStart;
+                ends[count] = fieldEnd;
+                quoted[count] = isQuoted;
+                count++;
+                if (position >= end) {
+                    break;
+                }
+                position++; // skip the comma
+            }
+        }
+
+        boolean isEmpty(int field) {
+            return starts[field] == ends[field];
+        }
+
+        boolean fieldEquals(int field, String value) {
+            if (quoted[field]) {
+                return text(field).equals(value);
+            }
+            int length = ends[field] - starts[field];
+            if (length != value.length()) {
+                return false;
+            }
+            // Ids are ASCII in practice; fall back to decoding otherwise
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[starts[field] + i];
+                if (b < 0) {
+                    return text(field).equals(value);
+                }
+                if (b != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String text(int field) {
+            String text = new String(bytes, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+            return quoted[field] ? text.replace("\"\"", "\"") : text;
+        }
+
+        int integer(int field) {
+            int value = 0;
+            for (int i = starts[field]; i < ends[field]; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(text(field));
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), digit);
+            }
+            return value;
+        }
+
+        // yyyy-MM-dd without going through a String
+        LocalDate date(int field) {
+            int s = starts[field];
+            if (ends[field] - s != 10 || bytes[s + 4] != '-' || bytes[s + 7] != '-') {
+                return LocalDate.parse(text(field));
+            }
+            return LocalDate.of(digits(s, 4), digits(s + 5, 2), digits(s + 8, 2));
+        }
+
+        private int digits(int from, int length) {
+            int value = 0;
+            for (int i = from; i < from + length; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("Invalid date: " + new String(bytes, from, length, StandardCharsets.UTF_8));
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An open export file shared by all spliterators reading it: the channel, the format, where records
+ * start, and the customers and products interned so far.
+ */
+final class MappedOrderFile implements AutoCloseable {
+
+    private static final int SCAN_CHUNK = 8 * 1024;
+    private static final int MAX_ORDER_ID_BYTES = 64 * 1024;
+
+    final FileChannel channel;
+    final OrderFileFormat format;
+    final long size;
+    final long dataStart;
+    final int windowBytes;
+    final long minSplitBytes;
+    private final ConcurrentHashMap<String, Customer> customers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Product> products = new ConcurrentHashMap<>();
+
+    MappedOrderFile(Path path, OrderFileFormat format, int windowBytes, long minSplitBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.format = format;
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+        this.minSplitBytes = minSplitBytes;
+        this.dataStart = format == OrderFileFormat.CSV && startsWithHeader() ? endOfFirstLine() : 0;
+    }
+
+    OrderAssembler newAssembler() {
+        return format == OrderFileFormat.CSV
+                ? new CsvOrderCodec.Assembler(customers, products)
+                : new NdjsonOrderCodec.Assembler();
+    }
+
+    // First position >= the given one where a record starts (or the end of the file).
+    // For CSV a record is an order, so lines continuing the previous order are skipped.
+    long alignToRecord(long position) {
+        long start = lineStart(position);
+        if (format == OrderFileFormat.NDJSON || start <= dataStart || start >= size) {
+            return start;
+        }
+        String previousOrderId = orderIdAt(previousLineStart(start));
+        while (start < size && orderIdAt(start).equals(previousOrderId)) {
+            start = lineStart(start + 1);
+        }
+        return start;
+    }
+
+    // First line start >= position.
+    private long lineStart(long position) {
+        if (position <= dataStart) {
+            return dataStart;
+        }
+        long newline = indexOfNewline(position - 1);
+        return newline < 0 ? size : newline + 1;
+    }
+
+    private long indexOfNewline(long from) {
+        byte[] chunk = new byte[SCAN_CHUNK];
+        for (long offset = from; offset < size; offset += SCAN_CHUNK) {
+            int read = read(offset, chunk);
+            for (int i = 0; i < read; i++) {
+                if (chunk[i] == '\n') {
+                    return offset + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // lineStart is the start of a line after dataStart; returns the start of the line before it.
+    private long previousLineStart(long lineStart) {
+        byte[] chunk = new byte[SCAN_CHUNK];
+        long end = lineStart - 1; // the newline that terminates the previous line
+        while (end > dataStart) {
+            long from = Math.max(dataStart, end - SCAN_CHUNK);
+            int read = read(from, chunk, (int) (end - from));
+            for (int i = read - 1; i >= 0; i--) {
+                if (chunk[i] == '\n') {
+                    return from + i + 1;
+                }
+            }
+            end = from;
+        }
+        return dataStart;
+    }
+
+    private String orderIdAt(long lineStart) {
+        byte[] head = new byte[(int) Math.min(MAX_ORDER_ID_BYTES, size - lineStart)];
+        int read = read(lineStart, head);
+        int length = 0;
+        while (length < read && head[length] != '\n') {
+            length++;
+        }
+        return CsvOrderCodec.orderId(head, 0, length);
+    }
+
+    private long endOfFirstLine() {
+        long newline = indexOfNewline(0);
+        return newline < 0 ? size : newline + 1;
+    }
+
+    private boolean startsWithHeader() {
+        byte[] header = CsvOrderCodec.HEADER.getBytes(StandardCharsets.UTF_8);
+        byte[] head = new byte[(int) Math.min(header.length, size)];
+        int read = read(0, head);
+        return read == header.length && new String(head, StandardCharsets.UTF_8).equals(CsvOrderCodec.HEADER);
+    }
+
+    private int read(long position, byte[] target) {
+        return read(position, target, target.length);
+    }
+
+    // Positional reads do not move the channel position, so concurrent splits do not interfere.
+    private int read(long position, byte[] target, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(target, 0, (int) Math.min(length, Math.max(0, size - position)));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.position();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
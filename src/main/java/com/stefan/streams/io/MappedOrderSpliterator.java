@@ -0,0 +1,157 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Parses the records in a byte range [position, end) of a memory-mapped export.
+ *
+ * The range is mapped one window at a time, so files and ranges larger than 2 GB are fine as long as
+ * a single line fits in a window. Both ends of a range are record starts; trySplit halves the range
+ * and moves the split point forward to the next record start, so every record is parsed exactly once.
+ */
+final class MappedOrderSpliterator implements Spliterator<Order> {
+
+    private static final long ESTIMATED_RECORD_BYTES = 128;
+
+    private final MappedOrderFile file;
+    private final long end;
+    private long position;
+
+    private OrderAssembler assembler;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+    private byte[] line = new byte[512];
+    private final ArrayDeque<Order> ready = new ArrayDeque<>();
+    private boolean finished;
+
+    MappedOrderSpliterator(MappedOrderFile file, long position, long end) {
+        this.file = file;
+        this.position = position;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Order> action) {
+        while (ready.isEmpty() && !finished) {
+            if (!parseNextLine(ready::add)) {
+                assembler().finish(ready::add);
+                finished = true;
+            }
+        }
+        if (ready.isEmpty()) {
+            return false;
+        }
+        action.accept(ready.poll());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Order> action) {
+        while (!ready.isEmpty()) {
+            action.accept(ready.poll());
+        }
+        if (finished) {
+            return;
+        }
+        while (parseNextLine(action)) {
+            // each line may complete an order
+        }
+        assembler().finish(action);
+        finished = true;
+    }
+
+    @Override
+    public Spliterator<Order> trySplit() {
+        // Once parsing started, the assembler may hold part of an order: no prefix can be handed out
+        if (assembler != null || end - position < file.minSplitBytes) {
+            return null;
+        }
+        long boundary = file.alignToRecord(position + (end - position) / 2);
+        if (boundary <= position || boundary >= end) {
+            return null;
+        }
+        MappedOrderSpliterator prefix = new MappedOrderSpliterator(file, position, boundary);
+        position = boundary;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(1, (end - position) / ESTIMATED_RECORD_BYTES);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    private OrderAssembler assembler() {
+        if (assembler == null) {
+            assembler = file.newAssembler();
+        }
+        return assembler;
+    }
+
+    // Hands the next line of the range to the assembler; false when the range is exhausted.
+    private boolean parseNextLine(Consumer<? super Order> sink) {
+        OrderAssembler lineAssembler = assembler();
+        if (position >= end) {
+            return false;
+        }
+        if (window == null || position < windowStart || position >= windowEnd) {
+            map(position);
+        }
+        int from = (int) (position - windowStart);
+        int limit = (int) (windowEnd - windowStart);
+        int newline = indexOfNewline(from, limit);
+        if (newline < 0 && windowEnd < end) {
+            // The line continues past the window: remap starting at the line
+            map(position);
+            from = 0;
+            limit = (int) (windowEnd - windowStart);
+            newline = indexOfNewline(from, limit);
+            if (newline < 0 && windowEnd < end) {
+                throw new IllegalStateException("Line at byte " + position + " is longer than the "
+                        + file.windowBytes + " byte mapping window");
+            }
+        }
+        int lineEnd = newline < 0 ? limit : newline;
+        int length = lineEnd - from;
+        if (line.length < length) {
+            line = Arrays.copyOf(line, Math.max(length, line.length * 2));
+        }
+        window.get(from, line, 0, length);
+        position = windowStart + lineEnd + 1;
+        lineAssembler.acceptLine(line, 0, length, sink);
+        return true;
+    }
+
+    private int indexOfNewline(int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long start) {
+        try {
+            windowStart = start;
+            windowEnd = Math.min(end, start + file.windowBytes);
+            window = file.channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.stefan.streams.io;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stefan.streams.models.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * One JSON object per line, mapped straight onto the Order record by Jackson.
+ */
+final class NdjsonOrderCodec {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final ObjectReader READER = MAPPER.readerFor(Order.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(Order.class);
+
+    private NdjsonOrderCodec() {
+    }
+
+    static void writeOrder(Order order, StringBuilder out) {
+        try {
+            out.append(WRITER.writeValueAsString(order)).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static final class Assembler implements OrderAssembler {
+
+        @Override
+        public void acceptLine(byte[] line, int offset, int length, Consumer<? super Order> sink) {
+            if (isBlank(line, offset, length)) {
+                return;
+            }
+            try {
+                sink.accept(READER.readValue(line, offset, length));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid order JSON: "
+                        + new String(line, offset, length, StandardCharsets.UTF_8), e);
+            }
+        }
+
+        @Override
+        public void finish(Consumer<? super Order> sink) {
+            // Every line is a complete order
+        }
+
+        private static boolean isBlank(byte[] line, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
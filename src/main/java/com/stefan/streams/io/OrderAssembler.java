@@ -0,0 +1,17 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Order;
+
+import java.util.function.Consumer;
+
+/**
+ * Builds orders from the lines of an export, in file order. One instance per reading thread.
+ */
+interface OrderAssembler {
+
+    // Parses one line (without its line terminator) and emits every order it completes.
+    void acceptLine(byte[] line, int offset, int length, Consumer<? super Order> sink);
+
+    // Emits the order still being assembled, if any.
+    void finish(Consumer<? super Order> sink);
+}
@@ -0,0 +1,14 @@
+package com.stefan.streams.io;
+
+/**
+ * Text layouts of order exports.
+ *
+ * CSV has a header row and one row per order line; the rows of an order are contiguous and repeat
+ * the order and customer columns. An order without items is a single row with empty product columns.
+ * NDJSON has one JSON object per order, with the same shape as the Order record.
+ * In both formats a record never spans more than one line.
+ */
+public enum OrderFileFormat {
+    CSV,
+    NDJSON
+}
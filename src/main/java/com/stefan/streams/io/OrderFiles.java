@@ -0,0 +1,65 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Order;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reading and writing order exports (see {@link OrderFileFormat}).
+ *
+ * Reading memory-maps the file and parses it lazily while the stream is consumed, so analytics can
+ * start on the first orders before the rest of the file has been read. A parallel stream splits the
+ * file into byte ranges at record boundaries and parses them on several cores.
+ * Like Files.lines, the returned stream holds the file open and should be closed.
+ */
+public final class OrderFiles {
+
+    private static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+    private static final long DEFAULT_MIN_SPLIT_BYTES = 1024 * 1024;
+
+    private OrderFiles() {
+    }
+
+    public static Stream<Order> read(Path file, OrderFileFormat format) throws IOException {
+        return read(file, format, DEFAULT_WINDOW_BYTES, DEFAULT_MIN_SPLIT_BYTES);
+    }
+
+    // Small windows and split sizes let tests exercise remapping and splitting on tiny files.
+    static Stream<Order> read(Path file, OrderFileFormat format, int windowBytes, long minSplitBytes) throws IOException {
+        MappedOrderFile mapped = new MappedOrderFile(file, format, windowBytes, minSplitBytes);
+        return StreamSupport.stream(new MappedOrderSpliterator(mapped, mapped.dataStart, mapped.size), false)
+                .onClose(mapped::close);
+    }
+
+    public static void write(Path file, Stream<Order> orders, OrderFileFormat format) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format == OrderFileFormat.CSV) {
+                writer.write(CsvOrderCodec.HEADER);
+                writer.write('\n');
+            }
+            StringBuilder record = new StringBuilder(256);
+            orders.forEachOrdered(order -> {
+                record.setLength(0);
+                if (format == OrderFileFormat.CSV) {
+                    CsvOrderCodec.writeOrder(order, record);
+                } else {
+                    NdjsonOrderCodec.writeOrder(order, record);
+                }
+                try {
+                    writer.append(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static com.stefan.streams.io.SnapshotLayout.BLOCK_SIZE;
+import static com.stefan.streams.io.SnapshotLayout.Section;
+
+/**
+ * Read-only view of a snapshot written by {@link OrderSnapshotWriter}.
+ *
+ * Opening only reads the header and maps each section; nothing is decoded up front, so load time does not
+ * depend on the dataset size. Fixed-width columns are read in place, varint columns are decoded from the
+ * start of the enclosing block. Records are only materialized by {@link #order(int)} and {@link #orders()}.
+ * The checksum is not verified on open; call {@link #verify()} when the file may be damaged.
+ */
+public final class OrderSnapshot implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long checksum;
+    private final int productCount;
+    private final int customerCount;
+    private final int orderCount;
+    private final int lineCount;
+    private final Map<Section, ByteBuffer> sections = new EnumMap<>(Section.class);
+
+    private OrderSnapshot(Path file, FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(SnapshotLayout.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // keep reading until the header is complete or the file ends
+        }
+        if (header.hasRemaining()) {
+            throw new IOException("Not an order snapshot (truncated header): " + file);
+        }
+        header.flip();
+        if (header.getInt() != SnapshotLayout.MAGIC) {
+            throw new IOException("Not an order snapshot: " + file);
+        }
+        short version = header.getShort();
+        if (version != SnapshotLayout.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ": " + file);
+        }
+        if (header.getShort() != Section.values().length) {
+            throw new IOException("Unexpected section count: " + file);
+        }
+        header.getInt(); // dictionary size, implied by the length of DICTIONARY_OFFSETS
+        this.productCount = header.getInt();
+        this.customerCount = header.getInt();
+        this.orderCount = header.getInt();
+        this.lineCount = header.getInt();
+        if (header.getInt() != BLOCK_SIZE) {
+            throw new IOException("Unexpected block size: " + file);
+        }
+        this.checksum = header.getLong();
+        long fileSize = channel.size();
+        for (Section section : Section.values()) {
+            long offset = header.getLong();
+            long length = header.getLong();
+            if (offset < SnapshotLayout.HEADER_BYTES || length < 0 || offset + length > fileSize) {
+                throw new IOException("Section " + section + " out of bounds: " + file);
+            }
+            sections.put(section, channel.map(FileChannel.MapMode.READ_ONLY, offset, length)
+                    .order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public static OrderSnapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new OrderSnapshot(file, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Recomputes the CRC32C over every section and fails if it differs from the header.
+    public void verify() {
+        try {
+            CRC32C crc = new CRC32C();
+            long position = SnapshotLayout.HEADER_BYTES;
+            long end = channel.size();
+            while (position < end) {
+                long length = Math.min(end - position, Integer.MAX_VALUE);
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                position += length;
+            }
+            if (crc.getValue() != checksum) {
+                throw new IllegalStateException("Snapshot checksum mismatch: expected "
+                        + Long.toHexString(checksum) + " but was " + Long.toHexString(crc.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public int customerCount() {
+        return customerCount;
+    }
+
+    public String orderId(int order) {
+        ByteBuffer offsets = sections.get(Section.ORDER_ID_OFFSETS);
+        int start = offsets.getInt(order * Integer.BYTES);
+        int end = offsets.getInt((order + 1) * Integer.BYTES);
+        return utf8(sections.get(Section.ORDER_ID_DATA), start, end - start);
+    }
+
+    public int orderEpochDay(int order) {
+        int[] day = new int[1];
+        readEpochDays(order, day, 1);
+        return day[0];
+    }
+
+    public int orderCustomerIndex(int order) {
+        return sections.get(Section.ORDERS).getInt(order * SnapshotLayout.ORDER_BYTES);
+    }
+
+    public String orderStatus(int order) {
+        return string(sections.get(Section.ORDERS).getInt(order * SnapshotLayout.ORDER_BYTES + 4));
+    }
+
+    public int firstLine(int order) {
+        return sections.get(Section.ORDER_LINE_OFFSETS).getInt(order * Integer.BYTES);
+    }
+
+    // Exclusive end of the lines of the order.
+    public int endLine(int order) {
+        return firstLine(order + 1);
+    }
+
+    public int lineProductIndex(int line) {
+        return sections.get(Section.LINE_PRODUCTS).getInt(line * Integer.BYTES);
+    }
+
+    public int lineQuantity(int line) {
+        int[] quantity = new int[1];
+        readQuantities(line, quantity, 1);
+        return quantity[0];
+    }
+
+    public long productPriceCents(int product) {
+        return sections.get(Section.PRODUCTS).getLong(product * SnapshotLayout.PRODUCT_BYTES + 12);
+    }
+
+    public String productCategory(int product) {
+        return string(sections.get(Section.PRODUCTS).getInt(product * SnapshotLayout.PRODUCT_BYTES + 8));
+    }
+
+    public Product product(int product) {
+        ByteBuffer products = sections.get(Section.PRODUCTS);
+        int at = product * SnapshotLayout.PRODUCT_BYTES;
+        return new Product(
+                string(products.getInt(at)),
+                string(products.getInt(at + 4)),
+                string(products.getInt(at + 8)),
+                BigDecimal.valueOf(products.getLong(at + 12), 2));
+    }
+
+    public Customer customer(int customer) {
+        ByteBuffer customers = sections.get(Section.CUSTOMERS);
+        int at = customer * SnapshotLayout.CUSTOMER_BYTES;
+        return new Customer(
+                string(customers.getInt(at)),
+                string(customers.getInt(at + 4)),
+                string(customers.getInt(at + 8)),
+                LocalDate.ofEpochDay(customers.getInt(at + 12)),
+                string(customers.getInt(at + 16)));
+    }
+
+    // Decodes count consecutive order dates starting at fromOrder.
+    public void readEpochDays(int fromOrder, int[] target, int count) {
+        readBlocked(Section.ORDER_DATE_BLOCKS, Section.ORDER_DATES, true, fromOrder, target, count);
+    }
+
+    // Decodes count consecutive line quantities starting at fromLine.
+    public void readQuantities(int fromLine, int[] target, int count) {
+        readBlocked(Section.LINE_QUANTITY_BLOCKS, Section.LINE_QUANTITIES, false, fromLine, target, count);
+    }
+
+    // Total revenue in cents, computed from the mapped columns without materializing any record.
+    public Money totalRevenue() {
+        long[] priceCents = new long[productCount];
+        for (int p = 0; p < productCount; p++) {
+            priceCents[p] = productPriceCents(p);
+        }
+        ByteBuffer lineProducts = sections.get(Section.LINE_PRODUCTS);
+        int[] quantities = new int[BLOCK_SIZE];
+        long total = 0;
+        for (int first = 0; first < lineCount; first += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, lineCount - first);
+            readQuantities(first, quantities, count);
+            for (int i = 0; i < count; i++) {
+                int product = lineProducts.getInt((first + i) * Integer.BYTES);
+                total = Math.addExact(total, Math.multiplyExact(priceCents[product], (long) quantities[i]));
+            }
+        }
+        return Money.ofCents(total);
+    }
+
+    public Order order(int order) {
+        int[] epochDay = new int[1];
+        readEpochDays(order, epochDay, 1);
+        int first = firstLine(order);
+        int[] quantities = new int[endLine(order) - first];
+        readQuantities(first, quantities, quantities.length);
+        return assemble(order, epochDay[0], quantities, 0, this::product, this::customer);
+    }
+
+    // All orders in file order; each block of orders is decoded once, blocks split evenly in parallel.
+    public Stream<Order> orders() {
+        Product[] products = new Product[productCount];
+        Customer[] customers = new Customer[customerCount];
+        Arrays.setAll(products, this::product);
+        Arrays.setAll(customers, this::customer);
+        return IntStream.range(0, SnapshotLayout.blockCount(orderCount))
+                .mapToObj(block -> ordersOfBlock(block, products, customers))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Order> ordersOfBlock(int block, Product[] products, Customer[] customers) {
+        int firstOrder = block * BLOCK_SIZE;
+        int count = Math.min(BLOCK_SIZE, orderCount - firstOrder);
+        int[] epochDays = new int[count];
+        readEpochDays(firstOrder, epochDays, count);
+        int firstLine = firstLine(firstOrder);
+        int[] quantities = new int[firstLine(firstOrder + count) - firstLine];
+        readQuantities(firstLine, quantities, quantities.length);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int order = firstOrder + i;
+            orders.add(assemble(order, epochDays[i], quantities, firstLine(order) - firstLine,
+                    p -> products[p], c -> customers[c]));
+        }
+        return orders;
+    }
+
+    private Order assemble(int order, int epochDay, int[] quantities, int quantityOffset,
+                           IntFunction<Product> products, IntFunction<Customer> customers) {
+        ByteBuffer lineProducts = sections.get(Section.LINE_PRODUCTS);
+        int first = firstLine(order);
+        int lines = endLine(order) - first;
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem(products.apply(lineProducts.getInt((first + i) * Integer.BYTES)),
+                    quantities[quantityOffset + i]));
+        }
+        return new Order(orderId(order), customers.apply(orderCustomerIndex(order)), LocalDate.ofEpochDay(epochDay),
+                List.copyOf(items), orderStatus(order));
+    }
+
+    private void readBlocked(Section blocks, Section data, boolean delta, int from, int[] target, int count) {
+        ByteBuffer blockOffsets = sections.get(blocks);
+        ByteBuffer values = sections.get(data);
+        int[] position = new int[1];
+        int written = 0;
+        int index = from - from % BLOCK_SIZE;
+        int previous = 0;
+        while (written < count) {
+            if (index % BLOCK_SIZE == 0) {
+                position[0] = (int) blockOffsets.getLong(index / BLOCK_SIZE * Long.BYTES);
+                previous = 0;
+            }
+            int value = Varints.unzigzag(Varints.read(values, position));
+            if (delta) {
+                value += previous;
+                previous = value;
+            }
+            if (index >= from) {
+                target[written++] = value;
+            }
+            index++;
+        }
+    }
+
+    private String string(int code) {
+        ByteBuffer offsets = sections.get(Section.DICTIONARY_OFFSETS);
+        int start = offsets.getInt(code * Integer.BYTES);
+        int end = offsets.getInt((code + 1) * Integer.BYTES);
+        return utf8(sections.get(Section.DICTIONARY_DATA), start, end - start);
+    }
+
+    private static String utf8(ByteBuffer data, int offset, int length) {
+        byte[] bytes = new byte[length];
+        data.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
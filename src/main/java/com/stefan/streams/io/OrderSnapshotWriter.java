@@ -0,0 +1,270 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.columnar.OrderColumns;
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static com.stefan.streams.io.SnapshotLayout.BLOCK_SIZE;
+import static com.stefan.streams.io.SnapshotLayout.Section;
+
+/**
+ * Writes an order dataset as a binary snapshot (see {@link SnapshotLayout}) to be opened with {@link OrderSnapshot}.
+ */
+public final class OrderSnapshotWriter {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+    private final Map<Section, long[]> sections = new EnumMap<>(Section.class);
+    private long position = SnapshotLayout.HEADER_BYTES;
+    private long[] current;
+
+    private OrderSnapshotWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static void write(Path file, List<Order> orders) throws IOException {
+        write(file, OrderColumns.from(orders));
+    }
+
+    public static void write(Path file, OrderColumns columns) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            new OrderSnapshotWriter(channel).writeSnapshot(columns);
+        }
+    }
+
+    private void writeSnapshot(OrderColumns columns) throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        int[][] productCodes = new int[columns.productCount()][];
+        for (int p = 0; p < columns.productCount(); p++) {
+            Product product = columns.product(p);
+            productCodes[p] = new int[]{
+                    dictionary.encode(product.id()),
+                    dictionary.encode(product.name()),
+                    dictionary.encode(product.category())};
+        }
+        int[][] customerCodes = new int[columns.customerCount()][];
+        for (int c = 0; c < columns.customerCount(); c++) {
+            Customer customer = columns.customer(c);
+            customerCodes[c] = new int[]{
+                    dictionary.encode(customer.id()),
+                    dictionary.encode(customer.name()),
+                    dictionary.encode(customer.email()),
+                    dictionary.encode(customer.tier())};
+        }
+        int[] statusCodes = new int[columns.statuses().size()];
+        for (int s = 0; s < statusCodes.length; s++) {
+            statusCodes[s] = dictionary.encode(columns.statuses().decode(s));
+        }
+
+        // Dictionary
+        begin(Section.DICTIONARY_OFFSETS);
+        int dictionaryBytes = 0;
+        byte[][] encoded = new byte[dictionary.size()][];
+        for (int code = 0; code < dictionary.size(); code++) {
+            encoded[code] = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+            putInt(dictionaryBytes);
+            dictionaryBytes = Math.addExact(dictionaryBytes, encoded[code].length);
+        }
+        putInt(dictionaryBytes);
+        end();
+        begin(Section.DICTIONARY_DATA);
+        for (byte[] bytes : encoded) {
+            putBytes(bytes);
+        }
+        end();
+
+        // Dimension tables
+        begin(Section.PRODUCTS);
+        for (int p = 0; p < columns.productCount(); p++) {
+            putInt(productCodes[p][0]);
+            putInt(productCodes[p][1]);
+            putInt(productCodes[p][2]);
+            putLong(Money.toCents(columns.product(p).price()));
+        }
+        end();
+        begin(Section.CUSTOMERS);
+        for (int c = 0; c < columns.customerCount(); c++) {
+            putInt(customerCodes[c][0]);
+            putInt(customerCodes[c][1]);
+            putInt(customerCodes[c][2]);
+            putInt(Math.toIntExact(columns.customer(c).registrationDate().toEpochDay()));
+            putInt(customerCodes[c][3]);
+        }
+        end();
+
+        // Orders
+        int orderCount = columns.orderCount();
+        begin(Section.ORDER_ID_OFFSETS);
+        int orderIdBytes = 0;
+        for (int o = 0; o < orderCount; o++) {
+            putInt(orderIdBytes);
+            orderIdBytes = Math.addExact(orderIdBytes, columns.orderId(o).getBytes(StandardCharsets.UTF_8).length);
+        }
+        putInt(orderIdBytes);
+        end();
+        begin(Section.ORDER_ID_DATA);
+        for (int o = 0; o < orderCount; o++) {
+            putBytes(columns.orderId(o).getBytes(StandardCharsets.UTF_8));
+        }
+        end();
+        begin(Section.ORDERS);
+        for (int o = 0; o < orderCount; o++) {
+            putInt(columns.orderCustomerIndex(o));
+            putInt(statusCodes[columns.orderStatusCode(o)]);
+        }
+        end();
+        begin(Section.ORDER_LINE_OFFSETS);
+        for (int o = 0; o < orderCount; o++) {
+            putInt(columns.firstLine(o));
+        }
+        putInt(columns.lineCount());
+        end();
+        int[] epochDays = new int[orderCount];
+        for (int o = 0; o < orderCount; o++) {
+            epochDays[o] = columns.orderEpochDay(o);
+        }
+        writeBlockedVarints(Section.ORDER_DATE_BLOCKS, Section.ORDER_DATES, epochDays, true);
+
+        // Lines
+        begin(Section.LINE_PRODUCTS);
+        for (int line = 0; line < columns.lineCount(); line++) {
+            putInt(columns.lineProductIndex(line));
+        }
+        end();
+        int[] quantities = new int[columns.lineCount()];
+        for (int line = 0; line < quantities.length; line++) {
+            quantities[line] = columns.lineQuantity(line);
+        }
+        writeBlockedVarints(Section.LINE_QUANTITY_BLOCKS, Section.LINE_QUANTITIES, quantities, false);
+
+        flush();
+        writeHeader(dictionary.size(), columns);
+    }
+
+    // Blocks of BLOCK_SIZE zigzag varints; with delta encoding each block restarts from an absolute value.
+    private void writeBlockedVarints(Section blocks, Section data, int[] values, boolean delta) throws IOException {
+        long[] blockOffsets = new long[SnapshotLayout.blockCount(values.length)];
+        begin(data);
+        long dataStart = position + buffer.position();
+        int previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = position + buffer.position() - dataStart;
+                previous = 0;
+            }
+            putVarint(Varints.zigzag(delta ? values[i] - previous : values[i]));
+            previous = values[i];
+        }
+        end();
+        // The block table is only known once the data is written; readers find both through the header
+        begin(blocks);
+        for (long offset : blockOffsets) {
+            putLong(offset);
+        }
+        end();
+    }
+
+    private void begin(Section section) throws IOException {
+        // Align every section to 8 bytes so fixed-width columns can be read with aligned accesses
+        while ((position + buffer.position()) % 8 != 0) {
+            put((byte) 0);
+        }
+        current = new long[]{position + buffer.position(), 0};
+        sections.put(section, current);
+    }
+
+    private void end() {
+        current[1] = position + buffer.position() - current[0];
+    }
+
+    private void writeHeader(int dictionarySize, OrderColumns columns) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SnapshotLayout.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SnapshotLayout.MAGIC);
+        header.putShort(SnapshotLayout.VERSION);
+        header.putShort((short) Section.values().length);
+        header.putInt(dictionarySize);
+        header.putInt(columns.productCount());
+        header.putInt(columns.customerCount());
+        header.putInt(columns.orderCount());
+        header.putInt(columns.lineCount());
+        header.putInt(BLOCK_SIZE);
+        header.putLong(checksum.getValue());
+        for (Section section : Section.values()) {
+            long[] bounds = sections.get(section);
+            header.putLong(bounds[0]);
+            header.putLong(bounds[1]);
+        }
+        header.flip();
+        long at = 0;
+        while (header.hasRemaining()) {
+            at += channel.write(header, at);
+        }
+    }
+
+    private void putVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        put((byte) value);
+    }
+
+    private void put(byte value) throws IOException {
+        ensure(1);
+        buffer.put(value);
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+}
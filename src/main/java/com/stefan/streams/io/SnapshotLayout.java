@@ -0,0 +1,51 @@
+package com.stefan.streams.io;
+
+/**
+ * Byte layout of an order snapshot (little-endian).
+ *
+ * <pre>
+ * header   magic "OSNP", version, section count, entity counts, block size, CRC32C of all sections,
+ *          then (offset, length) of every section
+ * sections see {@link Section}; each starts on an 8-byte boundary and can be mapped on its own
+ * </pre>
+ *
+ * Low-cardinality strings (product, customer, tier, status and category values) are stored once in a
+ * dictionary and referenced by code; order ids are a plain string column. Dates and quantities are
+ * zigzag varints, dates delta-encoded, in blocks of {@link #BLOCK_SIZE} values with a block offset
+ * table so any value can be decoded without reading the column from the start.
+ */
+final class SnapshotLayout {
+
+    static final int MAGIC = 0x504E534F; // "OSNP" read as little-endian bytes
+    static final short VERSION = 1;
+    static final int BLOCK_SIZE = 1024;
+    static final int FIXED_HEADER_BYTES = 40;
+    static final int PRODUCT_BYTES = 20;
+    static final int CUSTOMER_BYTES = 20;
+    static final int ORDER_BYTES = 8;
+
+    enum Section {
+        DICTIONARY_OFFSETS,      // int[dictionarySize + 1]
+        DICTIONARY_DATA,         // UTF-8
+        PRODUCTS,                // id, name, category codes; price in cents (long)
+        CUSTOMERS,               // id, name, email codes; registration epoch-day; tier code
+        ORDER_ID_OFFSETS,        // int[orderCount + 1]
+        ORDER_ID_DATA,           // UTF-8
+        ORDERS,                  // customer index, status code
+        ORDER_LINE_OFFSETS,      // int[orderCount + 1]
+        ORDER_DATE_BLOCKS,       // long[] offsets into ORDER_DATES
+        ORDER_DATES,             // zigzag varint epoch-day deltas
+        LINE_PRODUCTS,           // int[lineCount] product index
+        LINE_QUANTITY_BLOCKS,    // long[] offsets into LINE_QUANTITIES
+        LINE_QUANTITIES          // zigzag varint quantities
+    }
+
+    static final int HEADER_BYTES = FIXED_HEADER_BYTES + Section.values().length * 16;
+
+    private SnapshotLayout() {
+    }
+
+    static int blockCount(int valueCount) {
+        return (valueCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+}
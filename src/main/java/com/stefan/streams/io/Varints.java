@@ -0,0 +1,34 @@
+package com.stefan.streams.io;
+
+import java.nio.ByteBuffer;
+
+// Zigzag LEB128 helpers shared by the snapshot writer and reader.
+final class Varints {
+
+    private Varints() {
+    }
+
+    static long zigzag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    // Decodes the varint at position[0] of an absolute-indexed buffer and advances position[0] past it.
+    static long read(ByteBuffer buffer, int[] position) {
+        long value = 0;
+        int shift = 0;
+        int at = position[0];
+        byte b;
+        do {
+            b = buffer.get(at++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        position[0] = at;
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.stefan.streams.join;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Build side of a hash join: rows of {@code B} hashed by a key, usually a unique id.
+ *
+ * The first row per key lives in one map and further rows with the same key in an overflow map, so unique
+ * keys (Customer.id, Product.id) cost one entry and no per-key list. Immutable once built, so it can be
+ * probed from any number of threads.
+ */
+public final class JoinTable<K, B> {
+
+    private final Map<K, B> first;
+    private final Map<K, List<B>> duplicates;
+
+    private JoinTable(Map<K, B> first, Map<K, List<B>> duplicates) {
+        this.first = first;
+        this.duplicates = duplicates;
+    }
+
+    public static <K, B> JoinTable<K, B> build(Iterable<? extends B> rows, Function<? super B, ? extends K> key) {
+        Map<K, B> first = new HashMap<>();
+        Map<K, List<B>> duplicates = new HashMap<>();
+        for (B row : rows) {
+            K k = key.apply(row);
+            if (first.putIfAbsent(k, row) != null) {
+                duplicates.computeIfAbsent(k, ignored -> new ArrayList<>()).add(row);
+            }
+        }
+        return new JoinTable<>(first, duplicates);
+    }
+
+    // Build side keyed by a primary key: the first row per key wins and later rows with the same key are
+    // ignored, as when hashing every product an order list refers to.
+    public static <K, B> JoinTable<K, B> buildUnique(Iterable<? extends B> rows, Function<? super B, ? extends K> key) {
+        Map<K, B> first = new HashMap<>();
+        for (B row : rows) {
+            first.putIfAbsent(key.apply(row), row);
+        }
+        return new JoinTable<>(first, Map.of());
+    }
+
+    public boolean contains(K key) {
+        return first.containsKey(key);
+    }
+
+    // The first row built with the key, or null.
+    public B get(K key) {
+        return first.get(key);
+    }
+
+    // Every row built with the key, in build order.
+    public void forEachMatch(K key, Consumer<? super B> action) {
+        B row = first.get(key);
+        if (row == null) {
+            return;
+        }
+        action.accept(row);
+        if (!duplicates.isEmpty()) {
+            List<B> more = duplicates.get(key);
+            if (more != null) {
+                more.forEach(action);
+            }
+        }
+    }
+
+    public int keyCount() {
+        return first.size();
+    }
+}
@@ -0,0 +1,124 @@
+package com.stefan.streams.join;
+
+import com.stefan.streams.collect.PrimitiveCollectors;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.parallel.ParallelOrderAnalytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Order reports expressed as hash joins of order lines against the customer and product tables.
+ *
+ * The dimension tables are the build side (hashed by Customer.id and Product.id), the order lines are
+ * the probe side. Without a {@link ParallelOrderAnalytics} the probe is a sequential stream; with one, the
+ * probe lines are split across its pool and the shared, read-only build tables are probed concurrently.
+ * Results are the same either way.
+ */
+public class JoinedOrderAnalytics {
+
+    private final ParallelOrderAnalytics parallel;
+
+    public JoinedOrderAnalytics() {
+        this(null);
+    }
+
+    public JoinedOrderAnalytics(ParallelOrderAnalytics parallel) {
+        this.parallel = parallel;
+    }
+
+    // Tier -> category -> revenue of the lines whose customer is known, and category -> revenue of the lines
+    // whose customer is not; kept apart so a real tier can have any name.
+    public record TierRevenue(Map<String, Map<String, Money>> byTier, Map<String, Money> unknownCustomers) {
+    }
+
+    // Same result as the distinct() pipeline of FirstBatchResolved.extractAllOrderedProducts: the whole product
+    // record is the key, so products that share an id but differ in any field are all kept, in first-ordered order.
+    public List<Product> extractAllOrderedProducts(List<Order> orders) {
+        List<Product> referenced = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.items()) {
+                referenced.add(item.product());
+            }
+        }
+        return probe(referenced, stream -> stream.distinct().collect(Collectors.toList()));
+    }
+
+    // Distinct products of the lines in first-ordered order: distinct product ids joined to the product table.
+    public List<Product> orderedProducts(List<OrderLine> lines, List<Product> products) {
+        JoinTable<String, Product> productsById = JoinTable.buildUnique(products, Product::id);
+        return probe(lines, stream -> Joins.inner(stream.map(OrderLine::productId).distinct(),
+                        Function.identity(), productsById, (id, product) -> product)
+                .collect(Collectors.toList()));
+    }
+
+    // lines ⋈ products (inner: a line without a known product has no price) ⟕ customers (left: lines of
+    // unknown customers are reported apart rather than dropped). Tier -> category -> revenue.
+    public TierRevenue revenueByTierAndCategory(List<OrderLine> lines, List<Customer> customers,
+                                                List<Product> products) {
+        JoinTable<String, Product> productsById = JoinTable.buildUnique(products, Product::id);
+        JoinTable<String, Customer> customersById = JoinTable.buildUnique(customers, Customer::id);
+        Map<Optional<String>, Map<String, Long>> cents = probe(lines, stream -> Joins.left(
+                        Joins.inner(stream, OrderLine::productId, productsById, PricedLine::new),
+                        priced -> priced.line().customerId(), customersById, RevenueCell::of)
+                .collect(PrimitiveCollectors.groupingBy(RevenueCell::tier,
+                        PrimitiveCollectors.groupingSummingLong(RevenueCell::category, RevenueCell::cents))));
+
+        Map<String, Map<String, Money>> byTier = new TreeMap<>();
+        Map<String, Money> unknownCustomers = new TreeMap<>();
+        cents.forEach((tier, byCategory) -> {
+            Map<String, Money> row = tier.isPresent() ? new TreeMap<>() : unknownCustomers;
+            byCategory.forEach((category, total) -> row.put(category, Money.ofCents(total)));
+            tier.ifPresent(label -> byTier.put(label, row));
+        });
+        return new TierRevenue(byTier, unknownCustomers);
+    }
+
+    // Anti join: products no line refers to, in product list order. Only key membership matters, so the
+    // build side keeps one line per product.
+    public List<Product> productsNeverOrdered(List<OrderLine> lines, List<Product> products) {
+        JoinTable<String, OrderLine> linesByProduct = JoinTable.buildUnique(lines, OrderLine::productId);
+        return probe(products, stream -> Joins.anti(stream, Product::id, linesByProduct)
+                .collect(Collectors.toList()));
+    }
+
+    // Anti join: customers without any order line, in customer list order.
+    public List<Customer> customersWithoutOrders(List<OrderLine> lines, List<Customer> customers) {
+        JoinTable<String, OrderLine> linesByCustomer = JoinTable.buildUnique(lines, OrderLine::customerId);
+        return probe(customers, stream -> Joins.anti(stream, Customer::id, linesByCustomer)
+                .collect(Collectors.toList()));
+    }
+
+    // Runs the pipeline over the probe rows, in the parallel pool when there is one.
+    private <P, R> R probe(List<P> rows, Function<Stream<P>, R> pipeline) {
+        if (parallel == null) {
+            return pipeline.apply(rows.stream());
+        }
+        List<P> splittable = rows instanceof RandomAccess ? rows : new ArrayList<>(rows);
+        return parallel.execute(() -> pipeline.apply(splittable.parallelStream()));
+    }
+
+    private record PricedLine(OrderLine line, Product product) {
+    }
+
+    // The tier is empty for lines whose customer is unknown.
+    private record RevenueCell(Optional<String> tier, String category, long cents) {
+
+        static RevenueCell of(PricedLine priced, Customer customer) {
+            long cents = Math.multiplyExact(Money.toCents(priced.product().price()), priced.line().quantity());
+            return new RevenueCell(customer == null ? Optional.empty() : Optional.of(customer.tier()),
+                    priced.product().category(), cents);
+        }
+    }
+}
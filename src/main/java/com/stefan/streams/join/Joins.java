@@ -0,0 +1,43 @@
+package com.stefan.streams.join;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Hash join operators: the probe side is a stream, the build side a {@link JoinTable}.
+ *
+ * Joins are lazy stream stages built on {@code mapMulti}, so they compose with other stream operations,
+ * keep the encounter order of the probe side and run in parallel when the probe stream is parallel.
+ */
+public final class Joins {
+
+    private Joins() {
+    }
+
+    // One result per (probe row, matching build row) pair; probe rows without a match are dropped.
+    public static <P, K, B, R> Stream<R> inner(Stream<P> probe, Function<? super P, ? extends K> probeKey,
+                                               JoinTable<K, B> build, BiFunction<? super P, ? super B, ? extends R> combiner) {
+        return probe.mapMulti((row, downstream) ->
+                build.forEachMatch(probeKey.apply(row), match -> downstream.accept(combiner.apply(row, match))));
+    }
+
+    // Like inner, but probe rows without a match produce one result with a null build row.
+    public static <P, K, B, R> Stream<R> left(Stream<P> probe, Function<? super P, ? extends K> probeKey,
+                                              JoinTable<K, B> build, BiFunction<? super P, ? super B, ? extends R> combiner) {
+        return probe.mapMulti((row, downstream) -> {
+            K key = probeKey.apply(row);
+            if (build.contains(key)) {
+                build.forEachMatch(key, match -> downstream.accept(combiner.apply(row, match)));
+            } else {
+                downstream.accept(combiner.apply(row, null));
+            }
+        });
+    }
+
+    // Probe rows with no match on the build side.
+    public static <P, K> Stream<P> anti(Stream<P> probe, Function<? super P, ? extends K> probeKey,
+                                        JoinTable<K, ?> build) {
+        return probe.filter(row -> !build.contains(probeKey.apply(row)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.stefan.streams.join;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One order item as a fact row that refers to its customer and product by id only, the way an order
+ * export or a normalized table stores it. Customers and products are found again through joins.
+ */
+public record OrderLine(String orderId, String customerId, String status, String productId, int quantity) {
+
+    public static List<OrderLine> of(List<Order> orders) {
+        List<OrderLine> lines = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.items()) {
+                lines.add(new OrderLine(order.id(), order.customer().id(), order.status(), item.product().id(),
+                        item.quantity()));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,48 @@
+package com.stefan.streams.models;
+
+/**
+ * The tiers a Customer can have, with the labels used in {@link Customer#tier()}.
+ * The ordinal is the compact code used to index per-tier arrays.
+ */
+public enum CustomerTier {
+    STANDARD("standard"),
+    PREMIUM("premium"),
+    ELITE("elite");
+
+    private static final CustomerTier[] BY_CODE = values();
+
+    private final String label;
+
+    CustomerTier(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int code() {
+        return ordinal();
+    }
+
+    public static CustomerTier ofCode(int code) {
+        return BY_CODE[code];
+    }
+
+    public static int count() {
+        return BY_CODE.length;
+    }
+
+    public static CustomerTier fromLabel(String label) {
+        return switch (label) {
+            case "standard" -> STANDARD;
+            case "premium" -> PREMIUM;
+            case "elite" -> ELITE;
+            default -> throw new IllegalArgumentException("Unknown customer tier: " + label);
+        };
+    }
+
+    public static CustomerTier of(Customer customer) {
+        return fromLabel(customer.tier());
+    }
+}
@@ -0,0 +1,56 @@
+package com.stefan.streams.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount of money in whole cents. All arithmetic is overflow-checked and throws
+ * ArithmeticException instead of wrapping around.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    // Throws ArithmeticException if the amount has sub-cent precision or does not fit in a long.
+    public static Money of(BigDecimal amount) {
+        return new Money(toCents(amount));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(cents, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public double toDouble() {
+        return toBigDecimal().doubleValue();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
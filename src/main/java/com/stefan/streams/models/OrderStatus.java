@@ -0,0 +1,50 @@
+package com.stefan.streams.models;
+
+/**
+ * The statuses an Order can have, with the labels used in {@link Order#status()}.
+ * The ordinal is the compact code used to index per-status arrays.
+ */
+public enum OrderStatus {
+    PLACED("placed"),
+    SHIPPED("shipped"),
+    DELIVERED("delivered"),
+    CANCELED("canceled");
+
+    private static final OrderStatus[] BY_CODE = values();
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int code() {
+        return ordinal();
+    }
+
+    public static OrderStatus ofCode(int code) {
+        return BY_CODE[code];
+    }
+
+    public static int count() {
+        return BY_CODE.length;
+    }
+
+    public static OrderStatus fromLabel(String label) {
+        return switch (label) {
+            case "placed" -> PLACED;
+            case "shipped" -> SHIPPED;
+            case "delivered" -> DELIVERED;
+            case "canceled" -> CANCELED;
+            default -> throw new IllegalArgumentException("Unknown order status: " + label);
+        };
+    }
+
+    public static OrderStatus of(Order order) {
+        return fromLabel(order.status());
+    }
+}
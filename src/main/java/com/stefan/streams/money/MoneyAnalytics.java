@@ -0,0 +1,67 @@
+package com.stefan.streams.money;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exact revenue and price statistics in long cents.
+ *
+ * Counterparts of calculateTotalRevenue, calculateSummaryStatistics and calculateAveragePriceByCategory
+ * in FirstBatchResolved. Each product price is converted from BigDecimal once (through a PriceBook for
+ * order lines), and all accumulation happens in primitive fields, so nothing is allocated per order line.
+ */
+public class MoneyAnalytics {
+
+    public Money calculateTotalRevenue(List<Order> orders) {
+        return calculateTotalRevenue(orders, new PriceBook());
+    }
+
+    // Reuse the PriceBook across calls over the same catalog to skip even the one-time conversion.
+    public Money calculateTotalRevenue(List<Order> orders, PriceBook priceBook) {
+        RevenueAccumulator revenue = new RevenueAccumulator();
+        for (Order order : orders) {
+            for (OrderItem item : order.items()) {
+                revenue.add(priceBook.priceCents(item.product()), item.quantity());
+            }
+        }
+        return revenue.total();
+    }
+
+    public PriceStatistics calculateSummaryStatistics(List<Product> products) {
+        PriceStatistics statistics = new PriceStatistics();
+        for (Product product : products) {
+            statistics.accept(Money.toCents(product.price()));
+        }
+        return statistics;
+    }
+
+    // One PriceStatistics per category; the per-product work is a map lookup and four primitive updates.
+    public Map<String, PriceStatistics> calculatePriceStatisticsByCategory(List<Product> products) {
+        Map<String, PriceStatistics> byCategory = new HashMap<>();
+        for (Product product : products) {
+            PriceStatistics statistics = byCategory.get(product.category());
+            if (statistics == null) {
+                statistics = new PriceStatistics();
+                byCategory.put(product.category(), statistics);
+            }
+            statistics.accept(Money.toCents(product.price()));
+        }
+        return byCategory;
+    }
+
+    // Exact averages rounded half-even to whole cents.
+    public Map<String, BigDecimal> calculateAveragePriceByCategory(List<Product> products) {
+        Map<String, BigDecimal> averages = new HashMap<>();
+        calculatePriceStatisticsByCategory(products).forEach((category, statistics) ->
+                averages.put(category, statistics.average(2, RoundingMode.HALF_EVEN)));
+        return averages;
+    }
+}
@@ -0,0 +1,32 @@
+package com.stefan.streams.money;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Product;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Converts each Product price to cents once and remembers it, so hot loops over order lines
+ * read a cached long instead of doing BigDecimal arithmetic per line.
+ *
+ * Keyed by identity: orders normally share their Product instances, and identity lookups avoid
+ * hashing the BigDecimal price on every call. Not thread-safe.
+ */
+public final class PriceBook {
+
+    private final Map<Product, Money> prices = new IdentityHashMap<>();
+
+    public long priceCents(Product product) {
+        Money price = prices.get(product);
+        if (price == null) {
+            price = Money.of(product.price());
+            prices.put(product, price);
+        }
+        return price.cents();
+    }
+
+    public int size() {
+        return prices.size();
+    }
+}
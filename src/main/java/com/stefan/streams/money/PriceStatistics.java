@@ -0,0 +1,96 @@
+package com.stefan.streams.money;
+
+import com.stefan.streams.models.Money;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Exact count, sum, min and max of prices in cents; the long-cents counterpart of DoubleSummaryStatistics.
+ * Accepting a price allocates nothing, and the sum is overflow-checked.
+ * Not thread-safe; use one per thread and {@link #merge} them.
+ */
+public final class PriceStatistics {
+
+    private long count;
+    private long sumCents;
+    private long minCents = Long.MAX_VALUE;
+    private long maxCents = Long.MIN_VALUE;
+
+    // Statistics of prices aggregated elsewhere, e.g. by the vector kernels; min and max are ignored when empty.
+    public static PriceStatistics of(long count, long sumCents, long minCents, long maxCents) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        PriceStatistics statistics = new PriceStatistics();
+        if (count > 0) {
+            statistics.count = count;
+            statistics.sumCents = sumCents;
+            statistics.minCents = minCents;
+            statistics.maxCents = maxCents;
+        }
+        return statistics;
+    }
+
+    public void accept(long priceCents) {
+        count++;
+        sumCents = Math.addExact(sumCents, priceCents);
+        minCents = Math.min(minCents, priceCents);
+        maxCents = Math.max(maxCents, priceCents);
+    }
+
+    public void merge(PriceStatistics other) {
+        count += other.count;
+        sumCents = Math.addExact(sumCents, other.sumCents);
+        minCents = Math.min(minCents, other.minCents);
+        maxCents = Math.max(maxCents, other.maxCents);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public Money sum() {
+        return Money.ofCents(sumCents);
+    }
+
+    // Like DoubleSummaryStatistics, min and max of an empty statistic are meaningless; they throw instead.
+    public Money min() {
+        requireNonEmpty();
+        return Money.ofCents(minCents);
+    }
+
+    public Money max() {
+        requireNonEmpty();
+        return Money.ofCents(maxCents);
+    }
+
+    // The exact average rounded to the given number of decimals.
+    public BigDecimal average(int scale, RoundingMode roundingMode) {
+        requireNonEmpty();
+        return BigDecimal.valueOf(sumCents, 2).divide(BigDecimal.valueOf(count), scale, roundingMode);
+    }
+
+    // The exact average rounded once to the nearest double (0.0 when empty, like averagingDouble).
+    public double averageAsDouble() {
+        if (count == 0) {
+            return 0.0;
+        }
+        return BigDecimal.valueOf(sumCents, 2).divide(BigDecimal.valueOf(count), MathContext.DECIMAL128).doubleValue();
+    }
+
+    private void requireNonEmpty() {
+        if (count == 0) {
+            throw new IllegalStateException("No prices were accepted");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return count == 0
+                ? "PriceStatistics[count=0]"
+                : "PriceStatistics[count=" + count + ", sum=" + sum() + ", min=" + min() + ", max=" + max()
+                + ", average=" + average(2, RoundingMode.HALF_EVEN) + "]";
+    }
+}
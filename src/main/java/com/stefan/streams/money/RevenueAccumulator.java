@@ -0,0 +1,28 @@
+package com.stefan.streams.money;
+
+import com.stefan.streams.models.Money;
+
+/**
+ * Mutable, allocation-free running total of price x quantity in cents.
+ * Overflow throws ArithmeticException. Not thread-safe; use one per thread and {@link #merge} them.
+ */
+public final class RevenueAccumulator {
+
+    private long totalCents;
+
+    public void add(long priceCents, int quantity) {
+        totalCents = Math.addExact(totalCents, Math.multiplyExact(priceCents, quantity));
+    }
+
+    public void merge(RevenueAccumulator other) {
+        totalCents = Math.addExact(totalCents, other.totalCents);
+    }
+
+    public long totalCents() {
+        return totalCents;
+    }
+
+    public Money total() {
+        return Money.ofCents(totalCents);
+    }
+}
@@ -0,0 +1,86 @@
+package com.stefan.streams.offheap;
+
+import java.nio.ByteBuffer;
+
+import static com.stefan.streams.offheap.LineLayout.*;
+
+/**
+ * Forward-only cursor over a range of rows of {@link OffHeapOrderLines}.
+ *
+ * The field accessors read the current row straight from the off-heap page; nothing is decoded into
+ * records and a full scan allocates only the cursor itself. A cursor sees the rows that existed when it
+ * was opened and is meant to be used by one thread.
+ */
+public final class LineCursor {
+
+    private final ByteBuffer[] pages;
+    private final long end;
+    private long row;
+    private ByteBuffer page;
+    private int offset;
+
+    LineCursor(ByteBuffer[] pages, long fromRow, long toRow) {
+        this.pages = pages;
+        this.end = toRow;
+        this.row = fromRow - 1;
+    }
+
+    // Moves to the next row; false once the range is exhausted.
+    public boolean next() {
+        if (row + 1 >= end) {
+            row = end;
+            return false;
+        }
+        row++;
+        page = pages[(int) (row >>> PAGE_SHIFT)];
+        offset = (int) (row & PAGE_MASK) * ROW_BYTES;
+        return true;
+    }
+
+    public long row() {
+        return row;
+    }
+
+    public int orderIndex() {
+        return page.getInt(offset + ORDER_INDEX);
+    }
+
+    public int epochDay() {
+        return page.getInt(offset + EPOCH_DAY);
+    }
+
+    public int customerIndex() {
+        return page.getInt(offset + CUSTOMER_INDEX);
+    }
+
+    // -1 on the placeholder row of an order without items.
+    public int productIndex() {
+        return page.getInt(offset + PRODUCT_INDEX);
+    }
+
+    public int quantity() {
+        return page.getInt(offset + QUANTITY);
+    }
+
+    // -1 on the placeholder row of an order without items.
+    public int categoryCode() {
+        return page.getShort(offset + CATEGORY_CODE);
+    }
+
+    public int statusCode() {
+        return page.get(offset + STATUS_CODE);
+    }
+
+    public int tierCode() {
+        return page.get(offset + TIER_CODE);
+    }
+
+    public long priceCents() {
+        return page.getLong(offset + PRICE_CENTS);
+    }
+
+    // Unit price times quantity, overflow-checked.
+    public long lineCents() {
+        return Math.multiplyExact(priceCents(), quantity());
+    }
+}
@@ -0,0 +1,43 @@
+package com.stefan.streams.offheap;
+
+/**
+ * Row layout of {@link OffHeapOrderLines}: one fixed-width, little-endian row per order line.
+ *
+ * <pre>
+ *  0  int    order index (position of the order in append order)
+ *  4  int    order date as epoch-day
+ *  8  int    customer index
+ * 12  int    product index, -1 for the placeholder row of an order without items
+ * 16  int    quantity
+ * 20  short  category code, -1 on placeholder rows
+ * 22  byte   status code
+ * 23  byte   tier code
+ * 24  long   unit price in cents
+ * </pre>
+ *
+ * Rows are stored in pages of {@link #PAGE_ROWS} rows so no single buffer comes near the 2 GB limit.
+ */
+final class LineLayout {
+
+    static final int ROW_BYTES = 32;
+    static final int PAGE_SHIFT = 16;
+    static final int PAGE_ROWS = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_ROWS - 1;
+    static final int PAGE_BYTES = PAGE_ROWS * ROW_BYTES;
+
+    static final int ORDER_INDEX = 0;
+    static final int EPOCH_DAY = 4;
+    static final int CUSTOMER_INDEX = 8;
+    static final int PRODUCT_INDEX = 12;
+    static final int QUANTITY = 16;
+    static final int CATEGORY_CODE = 20;
+    static final int STATUS_CODE = 22;
+    static final int TIER_CODE = 23;
+    static final int PRICE_CENTS = 24;
+
+    static final int MAX_BYTE_CODE = Byte.MAX_VALUE;
+    static final int MAX_SHORT_CODE = Short.MAX_VALUE;
+
+    private LineLayout() {
+    }
+}
@@ -0,0 +1,133 @@
+package com.stefan.streams.offheap;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The FirstBatchResolved revenue, summary and grouping reports computed by scanning
+ * {@link OffHeapOrderLines} with a {@link LineCursor}.
+ *
+ * Every report is a single pass over the rows; accumulators are sized by the dimension dictionaries, not
+ * by the number of orders, so the heap footprint does not grow with the dataset. Results equal the
+ * FirstBatchResolved results for the same orders.
+ */
+public final class OffHeapOrderAnalytics {
+
+    private OffHeapOrderAnalytics() {
+    }
+
+    /** Receives one order index and the total quantity of its items. */
+    @FunctionalInterface
+    public interface OrderQuantityConsumer {
+        void accept(int orderIndex, int itemCount);
+    }
+
+    public static Money calculateTotalRevenue(OffHeapOrderLines lines) {
+        LineCursor cursor = lines.cursor();
+        long cents = 0;
+        while (cursor.next()) {
+            cents = Math.addExact(cents, cursor.lineCents());
+        }
+        return Money.ofCents(cents);
+    }
+
+    public static Map<String, Money> calculateRevenueByCategory(OffHeapOrderLines lines) {
+        long[] cents = new long[lines.categories().size()];
+        LineCursor cursor = lines.cursor();
+        while (cursor.next()) {
+            int category = cursor.categoryCode();
+            if (category >= 0) {
+                cents[category] = Math.addExact(cents[category], cursor.lineCents());
+            }
+        }
+        Map<String, Money> revenue = new HashMap<>();
+        for (int category = 0; category < cents.length; category++) {
+            revenue.put(lines.categories().decode(category), Money.ofCents(cents[category]));
+        }
+        return revenue;
+    }
+
+    // Lines of an order are consecutive rows, so an order ends where the order index changes.
+    public static void forEachOrderSummary(OffHeapOrderLines lines, OrderQuantityConsumer action) {
+        LineCursor cursor = lines.cursor();
+        int current = -1;
+        int itemCount = 0;
+        while (cursor.next()) {
+            int order = cursor.orderIndex();
+            if (order != current) {
+                if (current >= 0) {
+                    action.accept(current, itemCount);
+                }
+                current = order;
+                itemCount = 0;
+            }
+            itemCount += cursor.quantity();
+        }
+        if (current >= 0) {
+            action.accept(current, itemCount);
+        }
+    }
+
+    // Lazy equivalent of mapOrdersToSummaries; ids are not stored off-heap, so the caller maps indexes to ids.
+    public static Stream<OrderSummary> mapOrdersToSummaries(OffHeapOrderLines lines, IntFunction<String> orderIds) {
+        LineCursor cursor = lines.cursor();
+        Spliterator<OrderSummary> summaries = new Spliterators.AbstractSpliterator<>(lines.orderCount(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+
+            private boolean hasRow = cursor.next();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super OrderSummary> action) {
+                if (!hasRow) {
+                    return false;
+                }
+                int order = cursor.orderIndex();
+                int itemCount = 0;
+                do {
+                    itemCount += cursor.quantity();
+                    hasRow = cursor.next();
+                } while (hasRow && cursor.orderIndex() == order);
+                action.accept(new OrderSummary(orderIds.apply(order), itemCount));
+                return true;
+            }
+        };
+        return StreamSupport.stream(summaries, false);
+    }
+
+    public static Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus(OffHeapOrderLines lines) {
+        int statusCount = lines.statuses().size();
+        long[] orderCounts = new long[lines.tiers().size() * statusCount];
+        long[] itemCounts = new long[orderCounts.length];
+        LineCursor cursor = lines.cursor();
+        int current = -1;
+        while (cursor.next()) {
+            int cell = cursor.tierCode() * statusCount + cursor.statusCode();
+            int order = cursor.orderIndex();
+            if (order != current) {
+                orderCounts[cell]++;
+                current = order;
+            }
+            itemCounts[cell] += cursor.quantity();
+        }
+
+        Map<String, Map<String, OrderStats>> stats = new HashMap<>();
+        for (int cell = 0; cell < orderCounts.length; cell++) {
+            if (orderCounts[cell] > 0) {
+                stats.computeIfAbsent(lines.tiers().decode(cell / statusCount), tier -> new HashMap<>())
+                        .put(lines.statuses().decode(cell % statusCount),
+                                new OrderStats(orderCounts[cell], (int) itemCounts[cell]));
+            }
+        }
+        return stats;
+    }
+}
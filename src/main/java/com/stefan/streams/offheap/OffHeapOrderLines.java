@@ -0,0 +1,237 @@
+package com.stefan.streams.offheap;
+
+import com.stefan.streams.collect.ObjectIndex;
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static com.stefan.streams.offheap.LineLayout.*;
+
+/**
+ * Order lines stored outside the Java heap, as fixed-width rows (see {@link LineLayout}) in pages of
+ * direct buffers or of a memory-mapped file.
+ *
+ * Only the small dimension tables stay on the heap: status, tier and category dictionaries and the
+ * distinct customers and products. Orders are appended one at a time, typically straight from a lazy
+ * stream such as {@code DatasetGenerator.orders()}, so the heap never holds more than the order being
+ * appended; the lines of an order occupy consecutive rows. Order ids are not stored, orders are
+ * identified by their index in append order. An order without items gets one placeholder row so it is
+ * still counted.
+ *
+ * Appending is single-threaded; cursors opened after an append see it. Direct pages are released when
+ * the store becomes unreachable, the mapped file stays on disk after {@link #close()}.
+ */
+public final class OffHeapOrderLines implements AutoCloseable {
+
+    private final FileChannel channel;
+    private ByteBuffer[] pages = new ByteBuffer[0];
+    private long rowCount;
+    private int orderCount;
+
+    private final StringDictionary statuses = new StringDictionary();
+    private final StringDictionary tiers = new StringDictionary();
+    private final StringDictionary categories = new StringDictionary();
+    private final ObjectIndex<Customer> customers = new ObjectIndex<>();
+    private final ObjectIndex<Product> products = new ObjectIndex<>();
+    private long[] productPriceCents = new long[16];
+    private short[] productCategoryCodes = new short[16];
+
+    private OffHeapOrderLines(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Pages are direct buffers: off-heap, but bounded by -XX:MaxDirectMemorySize.
+    public static OffHeapOrderLines direct() {
+        return new OffHeapOrderLines(null);
+    }
+
+    // Pages are mapped from the file, which is created or truncated; only bounded by disk space.
+    public static OffHeapOrderLines mapped(Path file) {
+        try {
+            return new OffHeapOrderLines(FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public OffHeapOrderLines appendAll(Stream<Order> orders) {
+        orders.sequential().forEachOrdered(this::append);
+        return this;
+    }
+
+    public OffHeapOrderLines appendAll(Iterable<Order> orders) {
+        orders.forEach(this::append);
+        return this;
+    }
+
+    // Returns the index of the appended order. An order that fails, e.g. on a price with fractions of a cent,
+    // leaves no rows behind: the rows it wrote are dropped and its index goes to the next order.
+    public int append(Order order) {
+        if (orderCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many orders for one store");
+        }
+        int orderIndex = orderCount;
+        long firstRow = rowCount;
+        try {
+            int epochDay = Math.toIntExact(order.orderDate().toEpochDay());
+            int customerIndex = customers.add(order.customer());
+            int statusCode = code(statuses, order.status(), MAX_BYTE_CODE, "statuses");
+            int tierCode = code(tiers, order.customer().tier(), MAX_BYTE_CODE, "tiers");
+            if (order.items().isEmpty()) {
+                writeRow(orderIndex, epochDay, customerIndex, -1, 0, -1, statusCode, tierCode, 0);
+            }
+            for (OrderItem item : order.items()) {
+                int productIndex = productIndex(item.product());
+                writeRow(orderIndex, epochDay, customerIndex, productIndex, item.quantity(),
+                        productCategoryCodes[productIndex], statusCode, tierCode, productPriceCents[productIndex]);
+            }
+        } catch (RuntimeException e) {
+            rowCount = firstRow;
+            throw e;
+        }
+        orderCount++;
+        return orderIndex;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    // Off-heap bytes held by the pages.
+    public long storageBytes() {
+        return (long) pages.length * PAGE_BYTES;
+    }
+
+    public LineCursor cursor() {
+        return cursor(0, rowCount);
+    }
+
+    public LineCursor cursor(long fromRow, long toRow) {
+        if (fromRow < 0 || toRow > rowCount || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("Rows " + fromRow + ".." + toRow + " out of 0.." + rowCount);
+        }
+        return new LineCursor(pages, fromRow, toRow);
+    }
+
+    public StringDictionary statuses() {
+        return statuses;
+    }
+
+    public StringDictionary tiers() {
+        return tiers;
+    }
+
+    public StringDictionary categories() {
+        return categories;
+    }
+
+    public int customerCount() {
+        return customers.size();
+    }
+
+    public Customer customer(int customerIndex) {
+        return customers.key(customerIndex);
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public Product product(int productIndex) {
+        return products.key(productIndex);
+    }
+
+    @Override
+    public void close() {
+        pages = new ByteBuffer[0];
+        rowCount = 0;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // A product is only registered once its price and category converted, so no product is left without them.
+    private int productIndex(Product product) {
+        int productIndex = products.indexOf(product);
+        if (productIndex >= 0) {
+            return productIndex;
+        }
+        long priceCents = Money.toCents(product.price());
+        short categoryCode = (short) code(categories, product.category(), MAX_SHORT_CODE, "categories");
+        productIndex = products.add(product);
+        if (productIndex == productPriceCents.length) {
+            productPriceCents = Arrays.copyOf(productPriceCents, productIndex * 2);
+            productCategoryCodes = Arrays.copyOf(productCategoryCodes, productIndex * 2);
+        }
+        productPriceCents[productIndex] = priceCents;
+        productCategoryCodes[productIndex] = categoryCode;
+        return productIndex;
+    }
+
+    private static int code(StringDictionary dictionary, String value, int maxCode, String what) {
+        int code = dictionary.encode(value);
+        if (code > maxCode) {
+            throw new IllegalStateException("More than " + (maxCode + 1) + " distinct " + what);
+        }
+        return code;
+    }
+
+    private void writeRow(int orderIndex, int epochDay, int customerIndex, int productIndex, int quantity,
+                          int categoryCode, int statusCode, int tierCode, long priceCents) {
+        int pageIndex = (int) (rowCount >>> PAGE_SHIFT);
+        if (pageIndex == pages.length) {
+            addPage();
+        }
+        ByteBuffer page = pages[pageIndex];
+        int offset = (int) (rowCount & PAGE_MASK) * ROW_BYTES;
+        page.putInt(offset + ORDER_INDEX, orderIndex);
+        page.putInt(offset + EPOCH_DAY, epochDay);
+        page.putInt(offset + CUSTOMER_INDEX, customerIndex);
+        page.putInt(offset + PRODUCT_INDEX, productIndex);
+        page.putInt(offset + QUANTITY, quantity);
+        page.putShort(offset + CATEGORY_CODE, (short) categoryCode);
+        page.put(offset + STATUS_CODE, (byte) statusCode);
+        page.put(offset + TIER_CODE, (byte) tierCode);
+        page.putLong(offset + PRICE_CENTS, priceCents);
+        rowCount++;
+    }
+
+    // Cursors keep the array they were opened with, so pages are added to a copy.
+    private void addPage() {
+        ByteBuffer page;
+        if (channel == null) {
+            page = ByteBuffer.allocateDirect(PAGE_BYTES);
+        } else {
+            try {
+                page = channel.map(FileChannel.MapMode.READ_WRITE, (long) pages.length * PAGE_BYTES, PAGE_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        ByteBuffer[] grown = Arrays.copyOf(pages, pages.length + 1);
+        grown[pages.length] = page.order(ByteOrder.LITTLE_ENDIAN);
+        pages = grown;
+    }
+}
@@ -0,0 +1,167 @@
+package com.stefan.streams.parallel;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel versions of the FirstBatchResolved pipelines, running on a dedicated ForkJoinPool
+ * instead of the shared common pool.
+ *
+ * A parallel stream whose terminal operation is invoked from a ForkJoinPool worker forks its subtasks
+ * into that worker's pool, so every pipeline here is started inside {@link #execute(Supplier)}.
+ * Results are equal to the sequential FirstBatchResolved results, including list order wherever the
+ * sequential path defines one. Nothing is printed.
+ */
+public class ParallelOrderAnalytics implements AutoCloseable {
+
+    private static final BigDecimal AFFORDABLE_THRESHOLD = new BigDecimal("20");
+    private static final BigDecimal EXPENSIVE_THRESHOLD = new BigDecimal("100");
+    private static final AtomicInteger POOL_IDS = new AtomicInteger();
+
+    private final ForkJoinPool pool;
+
+    public ParallelOrderAnalytics() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelOrderAnalytics(int parallelism) {
+        String prefix = "order-analytics-" + POOL_IDS.incrementAndGet() + "-worker-";
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    // Runs any task (typically a parallel stream pipeline) inside the dedicated pool and waits for it.
+    public <T> T execute(Supplier<T> task) {
+        return pool.submit(task::get).join();
+    }
+
+    public List<String> getElectronicsProductNames(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .filter(product -> product.category().equals("Electronics"))
+                .map(Product::name)
+                .collect(Collectors.toList()));
+    }
+
+    public Product findAffordableSportswearProduct(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .filter(product -> product.category().equals("Sportswear"))
+                .filter(product -> product.price().compareTo(AFFORDABLE_THRESHOLD) < 0)
+                .findFirst()
+                .orElse(null));
+    }
+
+    public List<OrderSummary> mapOrdersToSummaries(List<Order> orders) {
+        return execute(() -> splittable(orders).parallelStream()
+                .map(order -> new OrderSummary(
+                        order.id(),
+                        order.items().stream().mapToInt(OrderItem::quantity).sum()))
+                .collect(Collectors.toList()));
+    }
+
+    // Stream.sorted is stable on ordered streams, so equal prices keep their encounter order.
+    public List<Product> sortProductsByPrice(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .sorted(Comparator.comparing(Product::price))
+                .collect(Collectors.toList()));
+    }
+
+    public List<Product> extractAllOrderedProducts(List<Order> orders) {
+        return execute(() -> splittable(orders).parallelStream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderItem::product)
+                .distinct()
+                .collect(Collectors.toList()));
+    }
+
+    // BigDecimal addition is exact and associative, so the partial sums combine to the sequential total.
+    public double calculateTotalRevenue(List<Order> orders) {
+        BigDecimal totalRevenue = execute(() -> splittable(orders).parallelStream()
+                .flatMap(order -> order.items().stream())
+                .map(item -> item.product().price().multiply(BigDecimal.valueOf(item.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return totalRevenue.doubleValue();
+    }
+
+    public Map<String, BigDecimal> mapProductNamesToPrices(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .collect(Collectors.toMap(Product::name, Product::price)));
+    }
+
+    public Map<Boolean, List<Product>> partitionProductsByPrice(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .collect(Collectors.partitioningBy(
+                        product -> product.price().compareTo(EXPENSIVE_THRESHOLD) > 0)));
+    }
+
+    // Counts do not depend on encounter order, so all workers update one concurrent map.
+    public Map<String, Long> countProductsByCategory(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .collect(Collectors.groupingByConcurrent(Product::category, Collectors.counting())));
+    }
+
+    // Merge-based: each worker groups its own chunk and the chunks are merged left to right,
+    // which keeps every category list in encounter order.
+    public Map<String, List<Product>> groupProductsByCategory(List<Product> products) {
+        return execute(() -> splittable(products).parallelStream()
+                .collect(Collectors.groupingBy(Product::category)));
+    }
+
+    // Merge-based as well, but each (tier, status) cell only keeps two running totals
+    // instead of collecting the orders into a list first.
+    public Map<String, Map<String, OrderStats>> analyzeOrdersByCustomerTierAndStatus(List<Order> orders) {
+        return execute(() -> splittable(orders).parallelStream()
+                .collect(Collectors.groupingBy(
+                        order -> order.customer().tier(),
+                        Collectors.groupingBy(Order::status, toOrderStats()))));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static Collector<Order, long[], OrderStats> toOrderStats() {
+        return Collector.of(
+                () -> new long[2],
+                (totals, order) -> {
+                    totals[0]++;
+                    for (OrderItem item : order.items()) {
+                        totals[1] += item.quantity();
+                    }
+                },
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                    return left;
+                },
+                totals -> new OrderStats(totals[0], (int) totals[1]));
+    }
+
+    // ArrayList and List.of split evenly by index; linked or lazily computed lists are copied once first.
+    private static <T> List<T> splittable(List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+}
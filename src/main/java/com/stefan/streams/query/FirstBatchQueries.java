@@ -0,0 +1,127 @@
+package com.stefan.streams.query;
+
+import com.stefan.streams.collect.PrimitiveCollectors;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderSummary;
+import com.stefan.streams.models.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The FirstBatchResolved reports as {@link Query} objects, so any combination of them can share one scan
+ * through a {@link QueryBatch}. Each query returns exactly what the FirstBatchResolved method of the same
+ * name returns; nothing is printed.
+ */
+public final class FirstBatchQueries {
+
+    private static final BigDecimal AFFORDABLE_THRESHOLD = new BigDecimal("20");
+    private static final BigDecimal EXPENSIVE_THRESHOLD = new BigDecimal("100");
+    private static final BigDecimal HIGH_PRICE_THRESHOLD = new BigDecimal("1000");
+
+    private FirstBatchQueries() {
+    }
+
+    public static Query<Product, List<String>> electronicsProductNames() {
+        return Query.over(Product.class)
+                .where(product -> product.category().equals("Electronics"))
+                .select(Product::name)
+                .toList();
+    }
+
+    public static Query<Product, Product> affordableSportswearProduct() {
+        return Query.over(Product.class)
+                .where(product -> product.category().equals("Sportswear"))
+                .where(product -> product.price().compareTo(AFFORDABLE_THRESHOLD) < 0)
+                .findFirst()
+                .andThen(product -> product.orElse(null));
+    }
+
+    public static Query<Product, Boolean> anyElectronics() {
+        return Query.over(Product.class).anyMatch(product -> product.category().equals("Electronics"));
+    }
+
+    public static Query<Product, Boolean> allExpensive() {
+        return Query.over(Product.class).allMatch(product -> product.price().compareTo(EXPENSIVE_THRESHOLD) > 0);
+    }
+
+    public static Query<Product, Boolean> noToys() {
+        return Query.over(Product.class).noneMatch(product -> product.category().equals("Toys"));
+    }
+
+    public static Query<Product, Product> highPricedProduct() {
+        return Query.over(Product.class)
+                .where(product -> product.price().compareTo(HIGH_PRICE_THRESHOLD) > 0)
+                .findFirst()
+                .andThen(product -> product.orElse(null));
+    }
+
+    public static Query<Product, Set<String>> categories() {
+        return Query.over(Product.class).select(Product::category).collect(Collectors.toSet());
+    }
+
+    public static Query<Product, Map<String, BigDecimal>> productNamesToPrices() {
+        return Query.over(Product.class).collect(Collectors.toMap(Product::name, Product::price));
+    }
+
+    public static Query<Product, Map<Boolean, List<Product>>> productsPartitionedByPrice() {
+        return Query.over(Product.class).collect(Collectors.partitioningBy(
+                product -> product.price().compareTo(EXPENSIVE_THRESHOLD) > 0));
+    }
+
+    public static Query<Product, Map<String, Long>> productCountByCategory() {
+        return Query.over(Product.class).groupBy(Product::category).count();
+    }
+
+    public static Query<Product, Map<String, List<Product>>> productsByCategory() {
+        return Query.over(Product.class).groupBy(Product::category).toList();
+    }
+
+    public static Query<Product, Map<String, Double>> averagePriceByCategory() {
+        return Query.over(Product.class).groupBy(Product::category).averageDouble(p -> p.price().doubleValue());
+    }
+
+    public static Query<Order, List<OrderSummary>> orderSummaries() {
+        return Query.over(Order.class)
+                .select(order -> new OrderSummary(order.id(), totalQuantity(order)))
+                .toList();
+    }
+
+    public static Query<Order, List<Product>> allOrderedProducts() {
+        return Query.over(Order.class)
+                .flatSelect(Order::items)
+                .select(OrderItem::product)
+                .distinct()
+                .toList();
+    }
+
+    public static Query<Order, Double> totalRevenue() {
+        return Query.over(Order.class)
+                .flatSelect(Order::items)
+                .select(item -> item.product().price().multiply(BigDecimal.valueOf(item.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .andThen(BigDecimal::doubleValue);
+    }
+
+    public static Query<Order, Map<String, Map<String, OrderStats>>> ordersByCustomerTierAndStatus() {
+        return Query.over(Order.class)
+                .groupBy(order -> order.customer().tier())
+                .collect(PrimitiveCollectors.groupingCountingAndSumming(
+                        Order::status,
+                        FirstBatchQueries::totalQuantity,
+                        (orderCount, totalItems) -> new OrderStats(orderCount, (int) totalItems)));
+    }
+
+    private static int totalQuantity(Order order) {
+        int quantity = 0;
+        for (OrderItem item : order.items()) {
+            quantity += item.quantity();
+        }
+        return quantity;
+    }
+}
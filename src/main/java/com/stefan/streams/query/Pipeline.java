@@ -0,0 +1,269 @@
+package com.stefan.streams.query;
+
+import com.stefan.streams.collect.PrimitiveCollectors;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * The intermediate steps of a {@link Query}: source elements {@code T} currently seen as {@code E}.
+ *
+ * Steps are composed into a chain of {@link Stage}s when a query run starts, so every element is pushed
+ * through plain method calls with no intermediate collections. Short-circuiting aggregates
+ * ({@link #anyMatch}, {@link #allMatch}, {@link #noneMatch}, {@link #findFirst}) stop consuming as soon as
+ * their answer is known. Pipelines are immutable; every step returns a new one.
+ */
+public final class Pipeline<T, E> {
+
+    private final Function<Stage<E>, Stage<T>> link;
+
+    Pipeline(Function<Stage<E>, Stage<T>> link) {
+        this.link = link;
+    }
+
+    public Pipeline<T, E> where(Predicate<? super E> predicate) {
+        return then(downstream -> element -> !predicate.test(element) || downstream.accept(element));
+    }
+
+    public <F> Pipeline<T, F> select(Function<? super E, ? extends F> mapper) {
+        return then(downstream -> element -> downstream.accept(mapper.apply(element)));
+    }
+
+    public <F> Pipeline<T, F> flatSelect(Function<? super E, ? extends Iterable<? extends F>> mapper) {
+        return then(downstream -> element -> {
+            for (F inner : mapper.apply(element)) {
+                if (!downstream.accept(inner)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    // Keeps the first occurrence of every element (equals/hashCode), like Stream.distinct.
+    public Pipeline<T, E> distinct() {
+        return then(downstream -> {
+            Set<E> seen = new HashSet<>();
+            return element -> !seen.add(element) || downstream.accept(element);
+        });
+    }
+
+    public <K> Grouping<T, E, K> groupBy(Function<? super E, ? extends K> key) {
+        return new Grouping<>(this, key);
+    }
+
+    public Query<T, Boolean> anyMatch(Predicate<? super E> predicate) {
+        return terminal(() -> new Terminal<E, Boolean>() {
+            boolean matched;
+
+            @Override
+            public boolean accept(E element) {
+                matched = predicate.test(element);
+                return !matched;
+            }
+
+            @Override
+            public Boolean result() {
+                return matched;
+            }
+        });
+    }
+
+    public Query<T, Boolean> allMatch(Predicate<? super E> predicate) {
+        return terminal(() -> new Terminal<E, Boolean>() {
+            boolean allMatched = true;
+
+            @Override
+            public boolean accept(E element) {
+                allMatched = predicate.test(element);
+                return allMatched;
+            }
+
+            @Override
+            public Boolean result() {
+                return allMatched;
+            }
+        });
+    }
+
+    public Query<T, Boolean> noneMatch(Predicate<? super E> predicate) {
+        return terminal(() -> new Terminal<E, Boolean>() {
+            boolean matched;
+
+            @Override
+            public boolean accept(E element) {
+                matched = predicate.test(element);
+                return !matched;
+            }
+
+            @Override
+            public Boolean result() {
+                return !matched;
+            }
+        });
+    }
+
+    // The first element in source order. A fused scan is sequential, so findAny gives the same answer.
+    public Query<T, Optional<E>> findFirst() {
+        return terminal(() -> new Terminal<E, Optional<E>>() {
+            E first;
+
+            @Override
+            public boolean accept(E element) {
+                first = element;
+                return false;
+            }
+
+            @Override
+            public Optional<E> result() {
+                return Optional.ofNullable(first);
+            }
+        });
+    }
+
+    public Query<T, Long> count() {
+        return terminal(() -> new Terminal<E, Long>() {
+            long count;
+
+            @Override
+            public boolean accept(E element) {
+                count++;
+                return true;
+            }
+
+            @Override
+            public Long result() {
+                return count;
+            }
+        });
+    }
+
+    public Query<T, Long> sumLong(ToLongFunction<? super E> mapper) {
+        return terminal(() -> new Terminal<E, Long>() {
+            long sum;
+
+            @Override
+            public boolean accept(E element) {
+                sum += mapper.applyAsLong(element);
+                return true;
+            }
+
+            @Override
+            public Long result() {
+                return sum;
+            }
+        });
+    }
+
+    public Query<T, E> reduce(E identity, BinaryOperator<E> accumulator) {
+        return terminal(() -> new Terminal<E, E>() {
+            E value = identity;
+
+            @Override
+            public boolean accept(E element) {
+                value = accumulator.apply(value, element);
+                return true;
+            }
+
+            @Override
+            public E result() {
+                return value;
+            }
+        });
+    }
+
+    public Query<T, List<E>> toList() {
+        return collect(Collectors.toList());
+    }
+
+    // Any java.util.stream Collector as the aggregate; only its sequential functions are used.
+    public <A, R> Query<T, R> collect(Collector<? super E, A, R> collector) {
+        Supplier<A> supplier = collector.supplier();
+        BiConsumer<A, ? super E> accumulator = collector.accumulator();
+        Function<A, R> finisher = collector.finisher();
+        return terminal(() -> new Terminal<E, R>() {
+            final A container = supplier.get();
+
+            @Override
+            public boolean accept(E element) {
+                accumulator.accept(container, element);
+                return true;
+            }
+
+            @Override
+            public R result() {
+                return finisher.apply(container);
+            }
+        });
+    }
+
+    <R> Query<T, R> terminal(Supplier<Terminal<E, R>> terminals) {
+        return new Query<>(() -> {
+            Terminal<E, R> terminal = terminals.get();
+            Stage<T> head = link.apply(terminal);
+            return new Terminal<T, R>() {
+                @Override
+                public boolean accept(T element) {
+                    return head.accept(element);
+                }
+
+                @Override
+                public R result() {
+                    return terminal.result();
+                }
+            };
+        });
+    }
+
+    private <F> Pipeline<T, F> then(Function<Stage<F>, Stage<E>> step) {
+        return new Pipeline<>(downstream -> link.apply(step.apply(downstream)));
+    }
+
+    /**
+     * Group-by aggregates of a pipeline, accumulated in the primitive maps of {@link PrimitiveCollectors}.
+     * Results are the same HashMaps {@code Collectors.groupingBy} would build.
+     */
+    public static final class Grouping<T, E, K> {
+
+        private final Pipeline<T, E> pipeline;
+        private final Function<? super E, ? extends K> key;
+
+        Grouping(Pipeline<T, E> pipeline, Function<? super E, ? extends K> key) {
+            this.pipeline = pipeline;
+            this.key = key;
+        }
+
+        public Query<T, Map<K, Long>> count() {
+            return pipeline.collect(PrimitiveCollectors.groupingCounting(key));
+        }
+
+        public Query<T, Map<K, Long>> sumLong(ToLongFunction<? super E> mapper) {
+            return pipeline.collect(PrimitiveCollectors.groupingSummingLong(key, mapper));
+        }
+
+        public Query<T, Map<K, Double>> averageDouble(ToDoubleFunction<? super E> mapper) {
+            return pipeline.collect(PrimitiveCollectors.groupingAveragingDouble(key, mapper));
+        }
+
+        public Query<T, Map<K, List<E>>> toList() {
+            return pipeline.collect(Collectors.groupingBy(key));
+        }
+
+        public <R> Query<T, Map<K, R>> collect(Collector<? super E, ?, R> downstream) {
+            return pipeline.collect(PrimitiveCollectors.groupingBy(key, downstream));
+        }
+    }
+}
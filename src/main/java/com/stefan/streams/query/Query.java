@@ -0,0 +1,56 @@
+package com.stefan.streams.query;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A declarative, reusable query over elements of type {@code T} producing an {@code R}.
+ *
+ * Queries are built from a {@link Pipeline} ({@code where}, {@code select}, {@code flatSelect}, ...) ending in an
+ * aggregate. A query holds no data or state; every run starts a fresh terminal, so one query can be run
+ * many times and from several threads. Several queries over the same source are fused into one scan by
+ * {@link QueryBatch}.
+ */
+public final class Query<T, R> {
+
+    private final Supplier<Terminal<T, R>> terminals;
+
+    Query(Supplier<Terminal<T, R>> terminals) {
+        this.terminals = terminals;
+    }
+
+    // Starts a pipeline; the class literal only pins the element type, e.g. Query.over(Product.class).
+    public static <T> Pipeline<T, T> over(Class<T> type) {
+        return new Pipeline<>(downstream -> downstream);
+    }
+
+    // Runs just this query in a single pass over the data.
+    public R run(Iterable<? extends T> data) {
+        QueryBatch<T> batch = new QueryBatch<>();
+        QueryResult<R> result = batch.add(this);
+        batch.run(data);
+        return result.get();
+    }
+
+    // The same query with its result transformed once at the end of the run.
+    public <X> Query<T, X> andThen(Function<? super R, ? extends X> finisher) {
+        return new Query<>(() -> {
+            Terminal<T, R> terminal = start();
+            return new Terminal<T, X>() {
+                @Override
+                public boolean accept(T element) {
+                    return terminal.accept(element);
+                }
+
+                @Override
+                public X result() {
+                    return finisher.apply(terminal.result());
+                }
+            };
+        });
+    }
+
+    Terminal<T, R> start() {
+        return terminals.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.stefan.streams.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs several queries over the same source in one fused pass.
+ *
+ * Every element is read once and offered to each query that still needs input; a short-circuiting query
+ * drops out as soon as its answer is known, and the scan stops early once no query needs more elements.
+ * N reports therefore cost one scan instead of N. A batch is not thread-safe; running it again recomputes
+ * all results.
+ */
+public final class QueryBatch<T> {
+
+    private final List<Query<T, ?>> queries = new ArrayList<>();
+    private final List<QueryResult<?>> results = new ArrayList<>();
+
+    public <R> QueryResult<R> add(Query<T, R> query) {
+        QueryResult<R> result = new QueryResult<>();
+        queries.add(query);
+        results.add(result);
+        return result;
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    public void run(Iterable<? extends T> data) {
+        Terminal<T, ?>[] terminals = new Terminal[queries.size()];
+        for (int i = 0; i < terminals.length; i++) {
+            terminals[i] = queries.get(i).start();
+        }
+        // The first `active` entries still want input; finished terminals are swapped past the end
+        Terminal<T, ?>[] active = terminals.clone();
+        int activeCount = active.length;
+        Iterator<? extends T> elements = data.iterator();
+        while (activeCount > 0 && elements.hasNext()) {
+            T element = elements.next();
+            for (int i = 0; i < activeCount; ) {
+                if (active[i].accept(element)) {
+                    i++;
+                } else {
+                    active[i] = active[--activeCount];
+                }
+            }
+        }
+        for (int i = 0; i < terminals.length; i++) {
+            ((QueryResult<Object>) results.get(i)).set(terminals[i].result());
+        }
+    }
+}
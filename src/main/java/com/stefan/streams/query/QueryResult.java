@@ -0,0 +1,25 @@
+package com.stefan.streams.query;
+
+/**
+ * The result slot of a query added to a {@link QueryBatch}; filled when the batch runs.
+ */
+public final class QueryResult<R> {
+
+    private R value;
+    private boolean available;
+
+    QueryResult() {
+    }
+
+    void set(R value) {
+        this.value = value;
+        this.available = true;
+    }
+
+    public R get() {
+        if (!available) {
+            throw new IllegalStateException("The batch of this query has not been run yet");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package com.stefan.streams.query;
+
+// One step of a fused query; accept returns false once the query needs no further elements.
+@FunctionalInterface
+interface Stage<E> {
+
+    boolean accept(E element);
+}
@@ -0,0 +1,7 @@
+package com.stefan.streams.query;
+
+// The end of a query pipeline for one run: consumes elements and produces the result.
+interface Terminal<E, R> extends Stage<E> {
+
+    R result();
+}
@@ -0,0 +1,34 @@
+package com.stefan.streams.reactive;
+
+/**
+ * End-to-end latency of the events aggregated so far. Percentiles are upper bounds of power-of-two
+ * nanosecond buckets, so they overstate the exact value by less than a factor of two.
+ */
+public record LatencySummary(long count, long meanNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+
+    static LatencySummary of(long[] buckets, long count, long totalNanos, long maxNanos) {
+        return new LatencySummary(count, count == 0 ? 0 : totalNanos / count,
+                percentile(buckets, count, 0.50, maxNanos), percentile(buckets, count, 0.99, maxNanos), maxNanos);
+    }
+
+    private static long percentile(long[] buckets, long count, double quantile, long maxNanos) {
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank && seen > 0) {
+                return Math.min(maxNanos, upperBound(bucket));
+            }
+        }
+        return 0;
+    }
+
+    // Bucket b holds latencies in [2^(b-1), 2^b); bucket 0 holds zero.
+    static int bucket(long nanos) {
+        return 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
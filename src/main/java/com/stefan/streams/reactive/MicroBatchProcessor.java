@@ -0,0 +1,269 @@
+package com.stefan.streams.reactive;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups items into batches of up to {@code batchSize}, driven entirely by demand.
+ *
+ * Upstream is never asked for more than {@code batchSize * bufferedBatches} items beyond what is buffered,
+ * and a batch is only emitted when downstream has requested one. A slow subscriber therefore stops the
+ * processor from requesting, which in turn fills the publisher's bounded buffer and makes producers block
+ * instead of queueing without limit. A partial batch is emitted once buffered items have waited
+ * {@code maxDelay} (measured from the first item after the previous batch), or when upstream completes.
+ *
+ * Only one subscriber is supported. The processor's monitor only guards its state: signals to the
+ * subscriber and requests to upstream are sent outside it, by whichever thread wins the work-in-progress
+ * counter. Signals from other threads, or re-entrant request() calls from the subscriber, just bump the
+ * counter and are handled by the emitting thread's next pass instead of blocking or recursing.
+ */
+public final class MicroBatchProcessor<T> implements Flow.Processor<T, List<T>> {
+
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int batchSize;
+    private final int capacity;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+    private final AtomicInteger workInProgress = new AtomicInteger();
+
+    private final ArrayDeque<T> buffer = new ArrayDeque<>();
+    private Flow.Subscription upstream;
+    private boolean subscribed;
+    private Flow.Subscriber<? super List<T>> downstream;
+    private long batchDemand;
+    private long requestedItems;
+    private long oldestItemNanos;
+    private boolean upstreamDone;
+    private Throwable failure;
+    private boolean terminated;
+
+    public MicroBatchProcessor(int batchSize, int bufferedBatches, long maxDelay, TimeUnit unit) {
+        if (batchSize < 1 || bufferedBatches < 1) {
+            throw new IllegalArgumentException("Batch size and buffered batches must be positive");
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        this.batchSize = batchSize;
+        this.capacity = Math.multiplyExact(batchSize, bufferedBatches);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "micro-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Overdue partial batches are checked on every signal anyway; the timer only covers idle upstreams,
+        // so it never needs to run more often than once per millisecond.
+        long tick = Math.max(MIN_TICK_NANOS, maxDelayNanos / 2);
+        timer.scheduleAtFixedRate(this::drain, tick, tick, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+        boolean first;
+        synchronized (this) {
+            first = !subscribed;
+            subscribed = true;
+        }
+        if (!first) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("MicroBatchProcessor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                onRequest(n);
+            }
+
+            @Override
+            public void cancel() {
+                onCancel();
+            }
+        });
+        // Only visible to drain() once onSubscribe has returned, so no signal can overtake it
+        synchronized (this) {
+            downstream = subscriber;
+        }
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        boolean duplicate;
+        synchronized (this) {
+            duplicate = upstream != null;
+            if (!duplicate) {
+                upstream = subscription;
+            }
+        }
+        if (duplicate) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            requestedItems--;
+            if (buffer.isEmpty()) {
+                oldestItemNanos = System.nanoTime();
+            }
+            buffer.add(item);
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            failure = throwable;
+            upstreamDone = true;
+            buffer.clear();
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    private void onRequest(long n) {
+        Flow.Subscription cancelled = null;
+        synchronized (this) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Requested " + n + " batches, expected a positive number");
+                cancelled = stopUpstream();
+            } else {
+                batchDemand = batchDemand + n < 0 ? Long.MAX_VALUE : batchDemand + n;
+            }
+        }
+        if (cancelled != null) {
+            cancelled.cancel();
+        }
+        drain();
+    }
+
+    private void onCancel() {
+        Flow.Subscription cancelled;
+        synchronized (this) {
+            cancelled = stopUpstream();
+            terminate();
+        }
+        if (cancelled != null) {
+            cancelled.cancel();
+        }
+    }
+
+    // Marks upstream as finished and returns the subscription to cancel once the monitor is released.
+    private Flow.Subscription stopUpstream() {
+        upstreamDone = true;
+        buffer.clear();
+        return upstream;
+    }
+
+    // Only the thread that moves the counter from 0 runs the loop; everyone else leaves it a missed pass.
+    private void drain() {
+        if (workInProgress.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainLoop();
+            missed = workInProgress.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Emits what the current demand allows, finishes when upstream is done, and tops up upstream demand.
+    // Each step is decided under the monitor and signalled after releasing it.
+    private void drainLoop() {
+        while (true) {
+            Flow.Subscriber<? super List<T>> subscriber;
+            Throwable error = null;
+            boolean complete = false;
+            List<T> batch = null;
+            Flow.Subscription source = null;
+            long wanted = 0;
+            synchronized (this) {
+                if (terminated || downstream == null) {
+                    return;
+                }
+                subscriber = downstream;
+                boolean overdue = !buffer.isEmpty() && System.nanoTime() - oldestItemNanos >= maxDelayNanos;
+                if (failure != null) {
+                    error = failure;
+                    terminate();
+                } else if (batchDemand > 0 && buffer.size() >= batchSize) {
+                    batch = poll(batchSize);
+                } else if (batchDemand > 0 && !buffer.isEmpty() && (overdue || upstreamDone)) {
+                    batch = poll(buffer.size());
+                } else if (upstreamDone) {
+                    if (!buffer.isEmpty()) {
+                        return;
+                    }
+                    complete = true;
+                    terminate();
+                } else {
+                    wanted = capacity - buffer.size() - requestedItems;
+                    if (upstream == null || wanted <= 0) {
+                        return;
+                    }
+                    requestedItems += wanted;
+                    source = upstream;
+                }
+            }
+            if (error != null) {
+                subscriber.onError(error);
+                return;
+            }
+            if (complete) {
+                subscriber.onComplete();
+                return;
+            }
+            if (batch != null) {
+                subscriber.onNext(batch);
+            } else {
+                source.request(wanted);
+            }
+        }
+    }
+
+    private List<T> poll(int count) {
+        List<T> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(buffer.poll());
+        }
+        batchDemand--;
+        oldestItemNanos = System.nanoTime();
+        return batch;
+    }
+
+    private void terminate() {
+        terminated = true;
+        timer.shutdownNow();
+    }
+}
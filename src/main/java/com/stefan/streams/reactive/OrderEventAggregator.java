@@ -0,0 +1,114 @@
+package com.stefan.streams.reactive;
+
+import com.stefan.streams.aggregation.LiveOrderStats;
+import com.stefan.streams.aggregation.OrderEvent;
+import com.stefan.streams.collect.ObjectLongHashMap;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.money.RevenueAccumulator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Terminal subscriber of the order-event pipeline: applies micro-batches of events to the running
+ * aggregates and asks for the next batch only after the current one is done.
+ *
+ * Because demand is requested one batch at a time (after an initial {@code prefetch}), a slow batch
+ * handler, including the optional {@code afterBatch} stage, directly slows down everything upstream.
+ * {@link #stats()} may be called from any thread.
+ */
+public class OrderEventAggregator implements Flow.Subscriber<List<TimedOrderEvent>> {
+
+    private final int prefetch;
+    private final Consumer<List<TimedOrderEvent>> afterBatch;
+    private final CompletableFuture<PipelineStats> completion = new CompletableFuture<>();
+
+    private final LiveOrderStats orderStats = new LiveOrderStats();
+    private final RevenueAccumulator revenue = new RevenueAccumulator();
+    private final ObjectLongHashMap<String> itemsByCategory = new ObjectLongHashMap<>();
+    private final long[] latencyBuckets = new long[64];
+    private long latencyTotalNanos;
+    private long latencyMaxNanos;
+    private long events;
+    private long batches;
+    private Flow.Subscription subscription;
+
+    public OrderEventAggregator() {
+        this(1, batch -> {
+        });
+    }
+
+    public OrderEventAggregator(int prefetch, Consumer<List<TimedOrderEvent>> afterBatch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+        }
+        this.prefetch = prefetch;
+        this.afterBatch = afterBatch;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(List<TimedOrderEvent> batch) {
+        try {
+            synchronized (this) {
+                for (TimedOrderEvent timed : batch) {
+                    apply(timed.event());
+                    record(System.nanoTime() - timed.submittedNanos());
+                }
+                batches++;
+            }
+            afterBatch.accept(batch);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(stats());
+    }
+
+    // Completes with the final stats once the publisher is closed and every event was aggregated.
+    public CompletableFuture<PipelineStats> completion() {
+        return completion;
+    }
+
+    public synchronized PipelineStats stats() {
+        return new PipelineStats(events, batches, Money.ofCents(revenue.totalCents()), orderStats.snapshot(),
+                itemsByCategory.toMap(),
+                LatencySummary.of(latencyBuckets, events, latencyTotalNanos, latencyMaxNanos));
+    }
+
+    private void apply(OrderEvent event) {
+        orderStats.apply(event);
+        if (event instanceof OrderEvent.OrderAdded added) {
+            for (OrderItem item : added.order().items()) {
+                revenue.add(Money.toCents(item.product().price()), item.quantity());
+                itemsByCategory.addTo(item.product().category(), item.quantity());
+            }
+        }
+        events++;
+    }
+
+    private void record(long latencyNanos) {
+        latencyBuckets[LatencySummary.bucket(latencyNanos)]++;
+        latencyTotalNanos += latencyNanos;
+        latencyMaxNanos = Math.max(latencyMaxNanos, latencyNanos);
+    }
+}
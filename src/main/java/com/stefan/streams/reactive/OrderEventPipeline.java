@@ -0,0 +1,77 @@
+package com.stefan.streams.reactive;
+
+import com.stefan.streams.aggregation.OrderEvent;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publisher -> {@link MicroBatchProcessor} -> {@link OrderEventAggregator}, with bounded buffers at every step.
+ *
+ * Producers call {@link #submit} (blocks while the publisher buffer is full) or {@link #offer} (gives up after
+ * a timeout). Memory in flight is bounded by {@code bufferCapacity} events in the publisher plus
+ * {@code batchSize * 2} in the processor, whatever the speed of the aggregation. {@link #close()} completes
+ * the stream; {@link #awaitCompletion} waits until everything submitted before it has been aggregated.
+ */
+public final class OrderEventPipeline implements AutoCloseable {
+
+    private static final int BUFFERED_BATCHES = 2;
+
+    private final ExecutorService executor;
+    private final SubmissionPublisher<TimedOrderEvent> publisher;
+    private final OrderEventAggregator aggregator;
+
+    public OrderEventPipeline(int bufferCapacity, int batchSize, Duration maxBatchDelay,
+                              OrderEventAggregator aggregator) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-event-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.aggregator = aggregator;
+        MicroBatchProcessor<TimedOrderEvent> batcher = new MicroBatchProcessor<>(batchSize, BUFFERED_BATCHES,
+                maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS);
+        batcher.subscribe(aggregator);
+        publisher.subscribe(batcher);
+    }
+
+    // Blocks while the pipeline is full; returns the estimated number of events still buffered.
+    public int submit(OrderEvent event) {
+        return publisher.submit(new TimedOrderEvent(event, System.nanoTime()));
+    }
+
+    // Returns false when the event could not be buffered within the timeout, i.e. the pipeline is saturated.
+    public boolean offer(OrderEvent event, Duration timeout) {
+        return publisher.offer(new TimedOrderEvent(event, System.nanoTime()), timeout.toNanos(),
+                TimeUnit.NANOSECONDS, (subscriber, dropped) -> false) >= 0;
+    }
+
+    // Events accepted by the publisher but not yet taken by the batcher.
+    public int pendingEvents() {
+        return publisher.estimateMaximumLag();
+    }
+
+    public PipelineStats stats() {
+        return aggregator.stats();
+    }
+
+    public PipelineStats awaitCompletion(Duration timeout) throws InterruptedException, TimeoutException {
+        try {
+            return aggregator.completion().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Order event pipeline failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+        aggregator.completion().whenComplete((stats, failure) -> executor.shutdown());
+    }
+}
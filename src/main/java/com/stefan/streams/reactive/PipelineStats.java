@@ -0,0 +1,16 @@
+package com.stefan.streams.reactive;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.OrderStats;
+
+import java.util.Map;
+
+/**
+ * A consistent snapshot of {@link OrderEventAggregator}: the FirstBatchResolved results for every order added
+ * so far (total revenue, tier x status statistics, ordered item quantities per category) plus pipeline
+ * counters and end-to-end latency.
+ */
+public record PipelineStats(long events, long batches, Money revenue,
+                            Map<String, Map<String, OrderStats>> ordersByTierAndStatus,
+                            Map<String, Long> itemsByCategory, LatencySummary latency) {
+}
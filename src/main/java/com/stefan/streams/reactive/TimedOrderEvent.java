@@ -0,0 +1,9 @@
+package com.stefan.streams.reactive;
+
+import com.stefan.streams.aggregation.OrderEvent;
+
+/**
+ * An order event stamped with {@link System#nanoTime()} when it entered the pipeline, for latency tracking.
+ */
+public record TimedOrderEvent(OrderEvent event, long submittedNanos) {
+}
@@ -0,0 +1,252 @@
+package com.stefan.streams.report;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Report sink that renders on a background thread into a large buffered writer.
+ *
+ * {@link #report} only enqueues the result and renderer, so the calling thread does no formatting and no
+ * I/O; it blocks only when the bounded queue is full. The writer thread drains the queue in batches and
+ * flushes whenever it catches up, so output is written in large chunks instead of one synchronized
+ * {@code println} per line. Reports are written in the order they were made. A failing renderer does not
+ * stop the sink; the first failure is rethrown by the next {@link #flush()} or {@link #close()}.
+ *
+ * Checking {@code closed} and enqueueing happen under the sink's lock, so nothing lands behind the stop
+ * marker. If the writer thread dies anyway, e.g. on an Error, flushes still queued fail and later calls
+ * throw instead of waiting for it.
+ */
+public final class AsyncReportSink implements ReportSink {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final Object STOP = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final ReportWriter writer;
+    private final boolean ownsTarget;
+    private final Thread thread;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private volatile Throwable stopCause;
+
+    private AsyncReportSink(Writer target, int queueCapacity, boolean ownsTarget) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new ReportWriter(target);
+        this.ownsTarget = ownsTarget;
+        this.thread = new Thread(this::drain, "report-sink-" + THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // The sink owns the writer and closes it on close().
+    public static AsyncReportSink to(Writer target) {
+        return to(target, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public static AsyncReportSink to(Writer target, int queueCapacity) {
+        return new AsyncReportSink(target instanceof BufferedWriter ? target
+                : new BufferedWriter(target, DEFAULT_BUFFER_BYTES), queueCapacity, true);
+    }
+
+    static AsyncReportSink console() {
+        return Console.SINK;
+    }
+
+    @Override
+    public <T> void report(T result, ReportRenderer<? super T> renderer) {
+        Report<T> report = new Report<>(result, renderer);
+        synchronized (this) {
+            requireRunning();
+            enqueue(report);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !closed && !stopped;
+    }
+
+    @Override
+    public void flush() {
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                rethrowFailure();
+                return;
+            }
+            requireRunning();
+            enqueue(flushed);
+        }
+        try {
+            flushed.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Report sink stopped", e.getCause());
+        }
+        rethrowFailure();
+    }
+
+    @Override
+    public void close() {
+        if (!ownsTarget) {
+            flush();
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!stopped) {
+                enqueue(STOP);
+            }
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the report sink", e);
+        }
+        rethrowFailure();
+    }
+
+    private void requireRunning() {
+        if (closed) {
+            throw new IllegalStateException("Report sink is closed");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Report sink stopped", stopCause);
+        }
+    }
+
+    private void enqueue(Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reporting", e);
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>();
+        Throwable cause = new IllegalStateException("Report sink stopped");
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (Object item : batch) {
+                    if (item == STOP) {
+                        writer.flush();
+                        writer.close();
+                        return;
+                    }
+                    if (item instanceof CompletableFuture<?> flushed) {
+                        flushQuietly();
+                        flushed.complete(null);
+                    } else {
+                        render((Report<?>) item);
+                    }
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    flushQuietly();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cause = e;
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            cause = e;
+        } catch (Error e) {
+            cause = e;
+            throw e;
+        } finally {
+            stop(cause);
+        }
+    }
+
+    // Runs when the writer thread exits for any reason. Emptying the queue first wakes an enqueuer blocked on a
+    // full queue while holding the lock; once the lock is taken, nothing more can be enqueued.
+    private void stop(Throwable cause) {
+        stopCause = cause;
+        stopped = true;
+        failQueued(cause);
+        synchronized (this) {
+            failQueued(cause);
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        for (Object item = queue.poll(); item != null; item = queue.poll()) {
+            if (item instanceof CompletableFuture<?> flushed) {
+                flushed.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private <T> void render(Report<T> report) {
+        try {
+            report.renderer().render(report.result(), writer);
+        } catch (RuntimeException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            writer.flush();
+        } catch (RuntimeException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void recordFailure(RuntimeException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private void rethrowFailure() {
+        RuntimeException first = failure;
+        if (first != null) {
+            failure = null;
+            throw new IllegalStateException("Rendering a report failed", first);
+        }
+    }
+
+    private record Report<T>(T result, ReportRenderer<? super T> renderer) {
+    }
+
+    // Created on first use; flushed when the JVM exits, never closed so System.out stays open.
+    private static final class Console {
+
+        static final AsyncReportSink SINK = create();
+
+        private static AsyncReportSink create() {
+            OutputStream out = System.out;
+            AsyncReportSink sink = new AsyncReportSink(new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8), DEFAULT_BUFFER_BYTES),
+                    DEFAULT_QUEUE_CAPACITY, false);
+            Runtime.getRuntime().addShutdownHook(new Thread(sink::flush, "report-sink-shutdown"));
+            return sink;
+        }
+    }
+}
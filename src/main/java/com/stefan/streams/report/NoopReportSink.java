@@ -0,0 +1,24 @@
+package com.stefan.streams.report;
+
+/** Discards every report. */
+enum NoopReportSink implements ReportSink {
+
+    INSTANCE;
+
+    @Override
+    public <T> void report(T result, ReportRenderer<? super T> renderer) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,8 @@
+package com.stefan.streams.report;
+
+/** Turns one result into text. Runs on the sink's writer thread, so it must only read the result. */
+@FunctionalInterface
+public interface ReportRenderer<T> {
+
+    void render(T result, ReportWriter out);
+}
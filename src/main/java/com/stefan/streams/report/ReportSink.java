@@ -0,0 +1,31 @@
+package com.stefan.streams.report;
+
+/**
+ * Destination for the human-readable output of the analytics, kept out of the computation.
+ *
+ * A computation hands over its (immutable) result and a renderer; when and where the text is produced is up
+ * to the sink. {@link #noop()} drops everything and reports itself as disabled, so callers can skip even
+ * preparing the result for rendering.
+ */
+public interface ReportSink extends AutoCloseable {
+
+    <T> void report(T result, ReportRenderer<? super T> renderer);
+
+    // False when reports are discarded anyway.
+    boolean isEnabled();
+
+    // Blocks until everything reported so far has been written.
+    void flush();
+
+    @Override
+    void close();
+
+    static ReportSink noop() {
+        return NoopReportSink.INSTANCE;
+    }
+
+    // Shared asynchronous sink on System.out; close() only flushes it.
+    static ReportSink console() {
+        return AsyncReportSink.console();
+    }
+}
@@ -0,0 +1,53 @@
+package com.stefan.streams.report;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/** Line-oriented text output handed to a {@link ReportRenderer}; I/O errors are rethrown unchecked. */
+public final class ReportWriter {
+
+    private final Writer out;
+
+    ReportWriter(Writer out) {
+        this.out = out;
+    }
+
+    public ReportWriter print(Object value) {
+        try {
+            out.write(String.valueOf(value));
+            return this;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ReportWriter println(Object value) {
+        return print(value).println();
+    }
+
+    public ReportWriter println() {
+        try {
+            out.write('\n');
+            return this;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.stefan.streams.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.OptionalDouble;
+
+/**
+ * Average kept as an exact count and sum. Averages themselves cannot be merged without their weights,
+ * so the division only happens in {@link #average()}.
+ */
+public record AveragePartial(long count, long sum) implements Partial<AveragePartial> {
+
+    public static final AveragePartial EMPTY = new AveragePartial(0, 0);
+
+    public static AveragePartial of(long value) {
+        return new AveragePartial(1, value);
+    }
+
+    public AveragePartial add(long value) {
+        return new AveragePartial(Math.addExact(count, 1), Math.addExact(sum, value));
+    }
+
+    // Empty when nothing was added.
+    public OptionalDouble average() {
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sum / count);
+    }
+
+    @Override
+    public AveragePartial merge(AveragePartial other) {
+        return new AveragePartial(Math.addExact(count, other.count), Math.addExact(sum, other.sum));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        VarLongs.writeUnsigned(out, count);
+        VarLongs.writeSigned(out, sum);
+    }
+
+    public static AveragePartial readFrom(DataInput in) throws IOException {
+        return new AveragePartial(VarLongs.readUnsigned(in), VarLongs.readSigned(in));
+    }
+}
@@ -0,0 +1,31 @@
+package com.stefan.streams.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Number of rows seen. */
+public record CountPartial(long count) implements Partial<CountPartial> {
+
+    public static final CountPartial EMPTY = new CountPartial(0);
+
+    public CountPartial {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+    }
+
+    @Override
+    public CountPartial merge(CountPartial other) {
+        return new CountPartial(Math.addExact(count, other.count));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        VarLongs.writeUnsigned(out, count);
+    }
+
+    public static CountPartial readFrom(DataInput in) throws IOException {
+        return new CountPartial(VarLongs.readUnsigned(in));
+    }
+}
@@ -0,0 +1,36 @@
+package com.stefan.streams.shard;
+
+import com.stefan.streams.sketch.HyperLogLog;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Approximate distinct count backed by a {@link HyperLogLog}. Unlike a set of ids it has a fixed size, and
+ * a value seen on several shards is still counted once after merging.
+ */
+public record DistinctPartial(HyperLogLog sketch) implements Partial<DistinctPartial> {
+
+    public static DistinctPartial empty() {
+        return new DistinctPartial(HyperLogLog.create());
+    }
+
+    public long estimate() {
+        return sketch.estimate();
+    }
+
+    @Override
+    public DistinctPartial merge(DistinctPartial other) {
+        return new DistinctPartial(sketch.merge(other.sketch));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        sketch.writeTo(out);
+    }
+
+    public static DistinctPartial readFrom(DataInput in) throws IOException {
+        return new DistinctPartial(HyperLogLog.readFrom(in));
+    }
+}
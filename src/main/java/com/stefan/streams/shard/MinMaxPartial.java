@@ -0,0 +1,48 @@
+package com.stefan.streams.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/** Smallest and largest value seen; EMPTY is the identity of merge. */
+public record MinMaxPartial(long count, long min, long max) implements Partial<MinMaxPartial> {
+
+    public static final MinMaxPartial EMPTY = new MinMaxPartial(0, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    public static MinMaxPartial of(long value) {
+        return new MinMaxPartial(1, value, value);
+    }
+
+    public MinMaxPartial add(long value) {
+        return new MinMaxPartial(Math.addExact(count, 1), Math.min(min, value), Math.max(max, value));
+    }
+
+    public OptionalLong minimum() {
+        return count == 0 ? OptionalLong.empty() : OptionalLong.of(min);
+    }
+
+    public OptionalLong maximum() {
+        return count == 0 ? OptionalLong.empty() : OptionalLong.of(max);
+    }
+
+    @Override
+    public MinMaxPartial merge(MinMaxPartial other) {
+        return new MinMaxPartial(Math.addExact(count, other.count), Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    // An empty partial is just its zero count.
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        VarLongs.writeUnsigned(out, count);
+        if (count > 0) {
+            VarLongs.writeSigned(out, min);
+            VarLongs.writeSigned(out, max);
+        }
+    }
+
+    public static MinMaxPartial readFrom(DataInput in) throws IOException {
+        long count = VarLongs.readUnsigned(in);
+        return count == 0 ? EMPTY : new MinMaxPartial(count, VarLongs.readSigned(in), VarLongs.readSigned(in));
+    }
+}
@@ -0,0 +1,16 @@
+package com.stefan.streams.shard;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A partial aggregate computed on one shard. {@code merge} is associative and commutative and does not
+ * modify either input, so shard results can be combined in any grouping and order. Every partial type
+ * has a static {@code readFrom(DataInput)} matching its {@link #writeTo(DataOutput)}.
+ */
+public interface Partial<P extends Partial<P>> {
+
+    P merge(P other);
+
+    void writeTo(DataOutput out) throws IOException;
+}
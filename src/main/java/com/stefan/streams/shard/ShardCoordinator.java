@@ -0,0 +1,28 @@
+package com.stefan.streams.shard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Combines the partials written by the shards. Each file is read once and merged into the running result,
+ * so only one shard's partials are decoded at a time.
+ */
+public final class ShardCoordinator {
+
+    private ShardCoordinator() {
+    }
+
+    public static ShardPartials combine(Collection<Path> shardFiles) throws IOException {
+        ShardPartials combined = ShardPartials.empty();
+        for (Path file : shardFiles) {
+            combined = combined.merge(ShardPartials.read(file));
+        }
+        return combined;
+    }
+
+    // Orders are routed by customer id, so all orders of a customer land on the same shard.
+    public static int shardOf(String customerId, int shardCount) {
+        return Math.floorMod(customerId.hashCode(), shardCount);
+    }
+}
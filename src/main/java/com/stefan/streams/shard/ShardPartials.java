@@ -0,0 +1,146 @@
+package com.stefan.streams.shard;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.sketch.HyperLogLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Everything one shard reports about its orders, as mergeable partials: order count, revenue in cents,
+ * items per order, order value range, distinct customers and products, and the tier/status grouping.
+ *
+ * Files start with a magic number and a format version and are read back with {@link #read(Path)}.
+ */
+public record ShardPartials(CountPartial orders,
+                            SumPartial revenueCents,
+                            AveragePartial itemsPerOrder,
+                            MinMaxPartial orderValueCents,
+                            DistinctPartial distinctCustomers,
+                            DistinctPartial distinctProducts,
+                            TierStatusPartial tierStatus) implements Partial<ShardPartials> {
+
+    static final int MAGIC = 0x50415254;
+    static final int VERSION = 1;
+
+    public static ShardPartials empty() {
+        return new ShardPartials(CountPartial.EMPTY, SumPartial.EMPTY, AveragePartial.EMPTY, MinMaxPartial.EMPTY,
+                DistinctPartial.empty(), DistinctPartial.empty(), TierStatusPartial.EMPTY);
+    }
+
+    // One pass over the orders with mutable accumulators; the partials are built at the end.
+    public static ShardPartials of(Iterable<Order> orders) {
+        long orderCount = 0;
+        long revenue = 0;
+        long items = 0;
+        long minValue = Long.MAX_VALUE;
+        long maxValue = Long.MIN_VALUE;
+        HyperLogLog customers = HyperLogLog.create();
+        HyperLogLog products = HyperLogLog.create();
+        Map<String, Map<String, long[]>> tierStatus = new TreeMap<>();
+
+        for (Order order : orders) {
+            long orderItems = 0;
+            long orderValue = 0;
+            for (OrderItem item : order.items()) {
+                orderItems += item.quantity();
+                orderValue = Math.addExact(orderValue,
+                        Math.multiplyExact(Money.toCents(item.product().price()), item.quantity()));
+                products.add(item.product().id());
+            }
+            orderCount++;
+            items += orderItems;
+            revenue = Math.addExact(revenue, orderValue);
+            minValue = Math.min(minValue, orderValue);
+            maxValue = Math.max(maxValue, orderValue);
+            customers.add(order.customer().id());
+            long[] cell = tierStatus.computeIfAbsent(order.customer().tier(), tier -> new TreeMap<>())
+                    .computeIfAbsent(order.status(), status -> new long[2]);
+            cell[0]++;
+            cell[1] += orderItems;
+        }
+
+        Map<String, Map<String, TierStatusPartial.Cell>> cells = new TreeMap<>();
+        tierStatus.forEach((tier, statuses) -> statuses.forEach((status, cell) ->
+                cells.computeIfAbsent(tier, ignored -> new TreeMap<>())
+                        .put(status, new TierStatusPartial.Cell(cell[0], cell[1]))));
+        return new ShardPartials(
+                new CountPartial(orderCount),
+                new SumPartial(revenue),
+                new AveragePartial(orderCount, items),
+                orderCount == 0 ? MinMaxPartial.EMPTY : new MinMaxPartial(orderCount, minValue, maxValue),
+                new DistinctPartial(customers),
+                new DistinctPartial(products),
+                TierStatusPartial.of(cells));
+    }
+
+    public Money revenue() {
+        return Money.ofCents(revenueCents.sum());
+    }
+
+    @Override
+    public ShardPartials merge(ShardPartials other) {
+        return new ShardPartials(
+                orders.merge(other.orders),
+                revenueCents.merge(other.revenueCents),
+                itemsPerOrder.merge(other.itemsPerOrder),
+                orderValueCents.merge(other.orderValueCents),
+                distinctCustomers.merge(other.distinctCustomers),
+                distinctProducts.merge(other.distinctProducts),
+                tierStatus.merge(other.tierStatus));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        orders.writeTo(out);
+        revenueCents.writeTo(out);
+        itemsPerOrder.writeTo(out);
+        orderValueCents.writeTo(out);
+        distinctCustomers.writeTo(out);
+        distinctProducts.writeTo(out);
+        tierStatus.writeTo(out);
+    }
+
+    public static ShardPartials readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a shard partials file");
+        }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported shard partials version " + version);
+        }
+        return new ShardPartials(
+                CountPartial.readFrom(in),
+                SumPartial.readFrom(in),
+                AveragePartial.readFrom(in),
+                MinMaxPartial.readFrom(in),
+                DistinctPartial.readFrom(in),
+                DistinctPartial.readFrom(in),
+                TierStatusPartial.readFrom(in));
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            writeTo(out);
+        }
+    }
+
+    public static ShardPartials read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return readFrom(in);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.stefan.streams.shard;
+
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * One shard as a separate JVM: generates the default dataset with the given number of orders, keeps the
+ * orders routed to this shard and writes their partials to a file.
+ *
+ * <pre>java -cp ... com.stefan.streams.shard.ShardWorker orderCount shardCount shardIndex output</pre>
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("usage: ShardWorker orderCount shardCount shardIndex output");
+            System.exit(2);
+        }
+        long orderCount = Long.parseLong(args[0]);
+        int shardCount = Integer.parseInt(args[1]);
+        int shardIndex = Integer.parseInt(args[2]);
+        Path output = Path.of(args[3]);
+
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(orderCount));
+        try (Stream<Order> orders = generator.orders()) {
+            Iterable<Order> shard = orders
+                    .filter(order -> ShardCoordinator.shardOf(order.customer().id(), shardCount) == shardIndex)
+                    ::iterator;
+            ShardPartials.of(shard).write(output);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.stefan.streams.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/** Exact sum of long values, such as cents; overflow throws ArithmeticException. */
+public record SumPartial(long sum) implements Partial<SumPartial> {
+
+    public static final SumPartial EMPTY = new SumPartial(0);
+
+    @Override
+    public SumPartial merge(SumPartial other) {
+        return new SumPartial(Math.addExact(sum, other.sum));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        VarLongs.writeSigned(out, sum);
+    }
+
+    public static SumPartial readFrom(DataInput in) throws IOException {
+        return new SumPartial(VarLongs.readSigned(in));
+    }
+}
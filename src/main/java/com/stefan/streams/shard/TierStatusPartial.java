@@ -0,0 +1,115 @@
+package com.stefan.streams.shard;
+
+import com.stefan.streams.models.OrderStats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The tier -> status -> (order count, total items) grouping of analyzeOrdersByCustomerTierAndStatus as a
+ * partial. Totals are longs here and only narrowed to OrderStats' int when the final result is read.
+ * Serialized in sorted key order, so equal partials produce identical bytes.
+ */
+public final class TierStatusPartial implements Partial<TierStatusPartial> {
+
+    public static final TierStatusPartial EMPTY = new TierStatusPartial(new TreeMap<>());
+
+    /** One (tier, status) cell. */
+    public record Cell(long orderCount, long totalItems) {
+
+        Cell merge(Cell other) {
+            return new Cell(Math.addExact(orderCount, other.orderCount), Math.addExact(totalItems, other.totalItems));
+        }
+    }
+
+    private final Map<String, Map<String, Cell>> cells;
+
+    private TierStatusPartial(TreeMap<String, Map<String, Cell>> cells) {
+        this.cells = Collections.unmodifiableMap(cells);
+    }
+
+    public static TierStatusPartial of(Map<String, ? extends Map<String, Cell>> cells) {
+        TreeMap<String, Map<String, Cell>> copy = new TreeMap<>();
+        cells.forEach((tier, statuses) -> copy.put(tier, Collections.unmodifiableMap(new TreeMap<>(statuses))));
+        return new TierStatusPartial(copy);
+    }
+
+    public Map<String, Map<String, Cell>> cells() {
+        return cells;
+    }
+
+    // Same shape as FirstBatchResolved.analyzeOrdersByCustomerTierAndStatus.
+    public Map<String, Map<String, OrderStats>> toOrderStats() {
+        Map<String, Map<String, OrderStats>> stats = new HashMap<>();
+        cells.forEach((tier, statuses) -> {
+            Map<String, OrderStats> row = new HashMap<>();
+            statuses.forEach((status, cell) ->
+                    row.put(status, new OrderStats(cell.orderCount(), Math.toIntExact(cell.totalItems()))));
+            stats.put(tier, row);
+        });
+        return stats;
+    }
+
+    @Override
+    public TierStatusPartial merge(TierStatusPartial other) {
+        TreeMap<String, Map<String, Cell>> merged = new TreeMap<>();
+        for (Map<String, Map<String, Cell>> side : List.of(cells, other.cells)) {
+            side.forEach((tier, statuses) -> {
+                Map<String, Cell> row = merged.computeIfAbsent(tier, ignored -> new TreeMap<>());
+                statuses.forEach((status, cell) -> row.merge(status, cell, Cell::merge));
+            });
+        }
+        merged.replaceAll((tier, row) -> Collections.unmodifiableMap(row));
+        return new TierStatusPartial(merged);
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        VarLongs.writeUnsigned(out, cells.size());
+        for (Map.Entry<String, Map<String, Cell>> tier : cells.entrySet()) {
+            out.writeUTF(tier.getKey());
+            VarLongs.writeUnsigned(out, tier.getValue().size());
+            for (Map.Entry<String, Cell> status : tier.getValue().entrySet()) {
+                out.writeUTF(status.getKey());
+                VarLongs.writeUnsigned(out, status.getValue().orderCount());
+                VarLongs.writeUnsigned(out, status.getValue().totalItems());
+            }
+        }
+    }
+
+    public static TierStatusPartial readFrom(DataInput in) throws IOException {
+        TreeMap<String, Map<String, Cell>> cells = new TreeMap<>();
+        long tierCount = VarLongs.readUnsigned(in);
+        for (long t = 0; t < tierCount; t++) {
+            String tier = in.readUTF();
+            TreeMap<String, Cell> row = new TreeMap<>();
+            long statusCount = VarLongs.readUnsigned(in);
+            for (long s = 0; s < statusCount; s++) {
+                row.put(in.readUTF(), new Cell(VarLongs.readUnsigned(in), VarLongs.readUnsigned(in)));
+            }
+            cells.put(tier, Collections.unmodifiableMap(row));
+        }
+        return new TierStatusPartial(cells);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TierStatusPartial partial && partial.cells.equals(cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return cells.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TierStatusPartial" + cells;
+    }
+}
@@ -0,0 +1,44 @@
+package com.stefan.streams.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * LEB128 varints on DataInput/DataOutput: counts and sums are usually small, so most take one to three bytes.
+ * Signed values are zigzag-encoded first.
+ */
+final class VarLongs {
+
+    private VarLongs() {
+    }
+
+    static void writeUnsigned(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readUnsigned(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeSigned(DataOutput out, long value) throws IOException {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readSigned(DataInput in) throws IOException {
+        long zigzag = readUnsigned(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,30 @@
+package com.stefan.streams.simd;
+
+/**
+ * Picks the kernels once per JVM. The vector implementation lives in {@code src/vector/java} and is only
+ * compiled by the {@code vector} profile, so it is looked up reflectively; setting
+ * {@code -Dstreams.kernels=scalar} forces the scalar loops.
+ */
+final class KernelSelector {
+
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+    static final String VECTOR_KERNELS = "com.stefan.streams.simd.VectorKernels";
+
+    static final NumericKernels BEST = select();
+
+    private KernelSelector() {
+    }
+
+    private static NumericKernels select() {
+        if ("scalar".equals(System.getProperty("streams.kernels"))
+                || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return NumericKernels.scalar();
+        }
+        try {
+            return (NumericKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the vector profile, or the incubator API changed under us.
+            return NumericKernels.scalar();
+        }
+    }
+}
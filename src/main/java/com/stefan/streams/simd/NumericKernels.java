@@ -0,0 +1,34 @@
+package com.stefan.streams.simd;
+
+import com.stefan.streams.money.PriceStatistics;
+
+/**
+ * The tight numeric loops of the order analytics over primitive columns: quantity sums, price x quantity
+ * revenue and price statistics. Every method works on the half-open range {@code [from, to)}.
+ *
+ * Results are exact and identical for every implementation. {@link #scalar()} is a plain loop;
+ * {@link #best()} uses the {@code jdk.incubator.vector} kernels when the sources were built with the
+ * {@code vector} profile and the JVM runs with {@code --add-modules jdk.incubator.vector}, and falls back
+ * to the scalar loops otherwise.
+ */
+public interface NumericKernels {
+
+    // Sum of the ints, widened to long; it cannot overflow for fewer than 2^32 values.
+    long sum(int[] values, int from, int to);
+
+    // Sum of prices[i] * quantities[i]; throws ArithmeticException on overflow.
+    long sumOfProducts(long[] prices, int[] quantities, int from, int to);
+
+    // Count, sum, min and max of the prices; the sum is overflow-checked like PriceStatistics.accept.
+    PriceStatistics statistics(long[] prices, int from, int to);
+
+    String implementation();
+
+    static NumericKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    static NumericKernels best() {
+        return KernelSelector.BEST;
+    }
+}
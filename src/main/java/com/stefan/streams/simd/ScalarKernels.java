@@ -0,0 +1,46 @@
+package com.stefan.streams.simd;
+
+import com.stefan.streams.money.PriceStatistics;
+
+import java.util.Objects;
+
+/** Plain-loop kernels; the reference every other implementation must agree with. */
+enum ScalarKernels implements NumericKernels {
+    INSTANCE;
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfProducts(long[] prices, int[] quantities, int from, int to) {
+        Objects.checkFromToIndex(from, to, prices.length);
+        Objects.checkFromToIndex(from, to, quantities.length);
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(prices[i], quantities[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public PriceStatistics statistics(long[] prices, int from, int to) {
+        Objects.checkFromToIndex(from, to, prices.length);
+        PriceStatistics statistics = new PriceStatistics();
+        for (int i = from; i < to; i++) {
+            statistics.accept(prices[i]);
+        }
+        return statistics;
+    }
+
+    @Override
+    public String implementation() {
+        return "scalar";
+    }
+}
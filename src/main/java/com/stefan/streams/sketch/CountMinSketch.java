@@ -0,0 +1,134 @@
+package com.stefan.streams.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min sketch (Cormode and Muthukrishnan, 2005): {@code depth} rows of {@code width} counters, each
+ * row indexed by its own hash of the key, and a key's count estimated as the minimum of its counters.
+ *
+ * Error bound: estimates never undercount, and overcount by more than {@code epsilon * totalCount} with
+ * probability at most {@code delta}, where {@code epsilon = e / width} and {@code delta = e^-depth}.
+ * Memory is {@code 8 * width * depth} bytes. Counts must not be negative.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long totalCount;
+
+    private CountMinSketch(int width, int depth, long[] counters, long totalCount) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = counters;
+        this.totalCount = totalCount;
+    }
+
+    public static CountMinSketch withSize(int width, int depth) {
+        if (width < 1 || depth < 1 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid sketch size " + width + "x" + depth);
+        }
+        return new CountMinSketch(width, depth, new long[width * depth], 0);
+    }
+
+    // Smallest sketch that overcounts by at most epsilon * totalCount with probability 1 - delta.
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("epsilon and delta must be in (0, 1): " + epsilon + ", " + delta);
+        }
+        return withSize((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        long h1 = HyperLogLog.hash(key);
+        long h2 = HyperLogLog.mix64(h1) | 1;
+        for (int row = 0; row < depth; row++) {
+            int cell = row * width + column(h1 + row * h2);
+            counters[cell] = Math.addExact(counters[cell], count);
+        }
+        totalCount = Math.addExact(totalCount, count);
+    }
+
+    public long estimate(String key) {
+        long h1 = HyperLogLog.hash(key);
+        long h2 = HyperLogLog.mix64(h1) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + column(h1 + row * h2)]);
+        }
+        return estimate;
+    }
+
+    // Sketch of both inputs; neither input changes.
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge " + other.width + "x" + other.depth + " into "
+                    + width + "x" + depth);
+        }
+        long[] merged = counters.clone();
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = Math.addExact(merged[i], other.counters[i]);
+        }
+        return new CountMinSketch(width, depth, merged, Math.addExact(totalCount, other.totalCount));
+    }
+
+    public CountMinSketch copy() {
+        return new CountMinSketch(width, depth, counters.clone(), totalCount);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeLong(totalCount);
+        for (long counter : counters) {
+            out.writeLong(counter);
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInput in) throws IOException {
+        int width = in.readInt();
+        int depth = in.readInt();
+        if (width < 1 || depth < 1 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IOException("Invalid Count-Min size " + width + "x" + depth);
+        }
+        long totalCount = in.readLong();
+        long[] counters = new long[width * depth];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = in.readLong();
+        }
+        return new CountMinSketch(width, depth, counters, totalCount);
+    }
+
+    private int column(long hash) {
+        return (int) Long.remainderUnsigned(hash, width);
+    }
+}
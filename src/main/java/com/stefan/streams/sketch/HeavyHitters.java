@@ -0,0 +1,106 @@
+package com.stefan.streams.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top keys by count in bounded memory: a {@link CountMinSketch} estimates every key's count and at most
+ * {@code capacity} candidate keys are kept with their latest estimate. A new key replaces the candidate
+ * with the smallest estimate once its own estimate is larger.
+ *
+ * Any key whose true count exceeds {@code totalCount / capacity + epsilon * totalCount} is a candidate
+ * (with the sketch's probability {@code 1 - delta}), and the reported counts carry the Count-Min error bound.
+ */
+public final class HeavyHitters {
+
+    /** A candidate key and its estimated count. */
+    public record HeavyHitter(String key, long estimate) {
+    }
+
+    private static final Comparator<HeavyHitter> BY_ESTIMATE = Comparator
+            .comparingLong(HeavyHitter::estimate).reversed()
+            .thenComparing(HeavyHitter::key);
+
+    private final CountMinSketch counts;
+    private final int capacity;
+    private final Map<String, Long> candidates;
+    // Never above the smallest candidate estimate, since estimates only grow; rescans happen only past it.
+    private long minimumBound;
+
+    private HeavyHitters(CountMinSketch counts, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.counts = counts;
+        this.capacity = capacity;
+        this.candidates = new HashMap<>(capacity * 2);
+    }
+
+    public static HeavyHitters of(int capacity, double epsilon, double delta) {
+        return new HeavyHitters(CountMinSketch.withError(epsilon, delta), capacity);
+    }
+
+    public CountMinSketch counts() {
+        return counts;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void add(String key, long count) {
+        counts.add(key, count);
+        offer(key, counts.estimate(key));
+    }
+
+    public long estimate(String key) {
+        return counts.estimate(key);
+    }
+
+    // The n candidates with the largest estimates, largest first (ties by key).
+    public List<HeavyHitter> top(int n) {
+        List<HeavyHitter> top = new ArrayList<>(candidates.size());
+        candidates.keySet().forEach(key -> top.add(new HeavyHitter(key, counts.estimate(key))));
+        top.sort(BY_ESTIMATE);
+        return List.copyOf(top.subList(0, Math.min(n, top.size())));
+    }
+
+    // Union of the sketches; the candidates of both are re-estimated against the merged counts.
+    public HeavyHitters merge(HeavyHitters other) {
+        HeavyHitters merged = new HeavyHitters(counts.merge(other.counts), Math.max(capacity, other.capacity));
+        for (Map<String, Long> side : List.of(candidates, other.candidates)) {
+            for (String key : side.keySet()) {
+                merged.offer(key, merged.counts.estimate(key));
+            }
+        }
+        return merged;
+    }
+
+    private void offer(String key, long estimate) {
+        if (candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            return;
+        }
+        if (estimate <= minimumBound) {
+            return;
+        }
+        String smallest = null;
+        long smallestEstimate = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            // Stored estimates are from the key's last add; refresh them before picking the victim
+            candidate.setValue(counts.estimate(candidate.getKey()));
+            if (candidate.getValue() < smallestEstimate) {
+                smallest = candidate.getKey();
+                smallestEstimate = candidate.getValue();
+            }
+        }
+        minimumBound = smallestEstimate;
+        if (estimate > smallestEstimate) {
+            candidates.remove(smallest);
+            candidates.put(key, estimate);
+        }
+    }
+}
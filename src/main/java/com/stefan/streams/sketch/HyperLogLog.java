@@ -0,0 +1,159 @@
+package com.stefan.streams.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct-count sketch with {@code 2^precision} one-byte registers.
+ *
+ * Adding is idempotent and merging takes the register-wise maximum, so a sketch of the union of several
+ * inputs is the same no matter how the inputs were split, ordered or merged. Values are hashed to 64 bits,
+ * which makes the large-range correction of the original 32-bit algorithm unnecessary; small cardinalities
+ * use linear counting.
+ *
+ * Error bound: the relative standard error of {@link #estimate()} is {@code 1.04 / sqrt(2^precision)},
+ * about 1.6% at the default precision of 12 (4 KB of registers); estimates fall within three standard
+ * errors of the true count with better than 99% probability. Memory does not depend on the input size.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public static HyperLogLog create() {
+        return withPrecision(DEFAULT_PRECISION);
+    }
+
+    public static HyperLogLog withPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be in " + MIN_PRECISION + ".." + MAX_PRECISION
+                    + ": " + precision);
+        }
+        return new HyperLogLog(precision, new byte[1 << precision]);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    // Relative standard error of the estimate for this precision.
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public void add(String value) {
+        addHash(hash(value));
+    }
+
+    public void add(long value) {
+        addHash(mix64(value));
+    }
+
+    // The hash must be uniformly distributed over all 64 bits.
+    public void addHash(long hash) {
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        // The sentinel bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // Sketch of the union; neither input changes.
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+        byte[] merged = registers.clone();
+        for (int i = 0; i < merged.length; i++) {
+            if (other.registers[i] > merged[i]) {
+                merged[i] = other.registers[i];
+            }
+        }
+        return new HyperLogLog(precision, merged);
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(precision, registers.clone());
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(precision);
+        out.write(registers);
+    }
+
+    public static HyperLogLog readFrom(DataInput in) throws IOException {
+        int precision = in.readUnsignedByte();
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IOException("Invalid HyperLogLog precision: " + precision);
+        }
+        byte[] registers = new byte[1 << precision];
+        in.readFully(registers);
+        return new HyperLogLog(precision, registers);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HyperLogLog sketch && sketch.precision == precision
+                && Arrays.equals(sketch.registers, registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * precision + Arrays.hashCode(registers);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with mix64 so every output bit depends on every input bit.
+    public static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix64(hash);
+    }
+
+    // Stafford variant 13 of the MurmurHash3 finalizer.
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,284 @@
+package com.stefan.streams.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch over doubles (Karnin, Lang and Liberty, 2016).
+ *
+ * Values enter level 0. When a level reaches its capacity it is sorted and every other item, starting at a
+ * random offset, moves to the next level, where each item stands for twice as many values. Capacities shrink
+ * geometrically (factor 2/3) from the top level down to 8, so the sketch retains about {@code 3k} values
+ * however many were added. Count, minimum and maximum are exact.
+ *
+ * Error bound: the rank of {@code quantile(q)} differs from {@code q} by at most
+ * {@link #normalizedRankError()} (about 1.3% for the default k = 200) with 99% probability. Merging two
+ * sketches gives a sketch of the combined input with the same bound. The random offsets come from a seeded
+ * generator, so results are reproducible.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double DECAY = 2.0 / 3.0;
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    private final int k;
+    private final long seed;
+    private final SplittableRandom random;
+    private final List<Level> levels = new ArrayList<>();
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    private KllSketch(int k, long seed) {
+        if (k < MIN_CAPACITY || k > 65_535) {
+            throw new IllegalArgumentException("k must be in " + MIN_CAPACITY + "..65535: " + k);
+        }
+        this.k = k;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        levels.add(new Level());
+    }
+
+    public static KllSketch create() {
+        return withK(DEFAULT_K);
+    }
+
+    public static KllSketch withK(int k) {
+        return new KllSketch(k, DEFAULT_SEED);
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Values currently held; bounded by roughly 3k.
+    public int retained() {
+        int retained = 0;
+        for (Level level : levels) {
+            retained += level.size;
+        }
+        return retained;
+    }
+
+    // Normalized rank error with 99% confidence for a single quantile query (empirical fit for KLL).
+    public double normalizedRankError() {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("NaN cannot be ranked");
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        levels.get(0).add(value);
+        compress();
+    }
+
+    // Smallest retained value whose weighted rank reaches q; 0 gives the minimum and 1 the maximum.
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in 0..1: " + q);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Empty sketch has no quantiles");
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        Weighted[] items = sortedItems();
+        double target = q * count;
+        long cumulative = 0;
+        for (Weighted item : items) {
+            cumulative += item.weight();
+            if (cumulative >= target) {
+                return item.value();
+            }
+        }
+        return max;
+    }
+
+    // Estimated fraction of the values that are less than or equal to the value.
+    public double rank(double value) {
+        if (count == 0) {
+            throw new IllegalStateException("Empty sketch has no ranks");
+        }
+        long weight = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                if (level.items[i] <= value) {
+                    weight += 1L << h;
+                }
+            }
+        }
+        return (double) weight / count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    // Sketch of both inputs; neither input changes.
+    public KllSketch merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge k=" + other.k + " into k=" + k);
+        }
+        KllSketch merged = new KllSketch(k, HyperLogLog.mix64(seed * 31 + other.seed));
+        merged.levels.clear();
+        for (int h = 0; h < Math.max(levels.size(), other.levels.size()); h++) {
+            Level level = new Level();
+            if (h < levels.size()) {
+                level.addAll(levels.get(h));
+            }
+            if (h < other.levels.size()) {
+                level.addAll(other.levels.get(h));
+            }
+            merged.levels.add(level);
+        }
+        merged.count = count + other.count;
+        merged.min = count == 0 ? other.min : other.count == 0 ? min : Math.min(min, other.min);
+        merged.max = count == 0 ? other.max : other.count == 0 ? max : Math.max(max, other.max);
+        merged.compress();
+        return merged;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeShort(k);
+        out.writeLong(seed);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeByte(levels.size());
+        for (Level level : levels) {
+            out.writeInt(level.size);
+            for (int i = 0; i < level.size; i++) {
+                out.writeDouble(level.items[i]);
+            }
+        }
+    }
+
+    // The generator is reseeded from the stored seed and count, so a read sketch stays reproducible.
+    public static KllSketch readFrom(DataInput in) throws IOException {
+        int k = in.readUnsignedShort();
+        long seed = in.readLong();
+        long count = in.readLong();
+        KllSketch sketch = new KllSketch(k, HyperLogLog.mix64(seed ^ count));
+        sketch.count = count;
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int levelCount = in.readUnsignedByte();
+        sketch.levels.clear();
+        for (int h = 0; h < levelCount; h++) {
+            Level level = new Level();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                level.add(in.readDouble());
+            }
+            sketch.levels.add(level);
+        }
+        if (sketch.levels.isEmpty()) {
+            throw new IOException("KLL sketch without levels");
+        }
+        return sketch;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+    }
+
+    // Compacts the lowest full level until none is full; a new top level changes every capacity, so rescan.
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int h = 0; h < levels.size(); h++) {
+                if (levels.get(h).size >= capacity(h)) {
+                    compact(h);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Halves the level into the next one; with an odd size the smallest item stays behind.
+    private void compact(int h) {
+        if (h + 1 == levels.size()) {
+            levels.add(new Level());
+        }
+        Level level = levels.get(h);
+        Level next = levels.get(h + 1);
+        Arrays.sort(level.items, 0, level.size);
+        int keep = level.size & 1;
+        for (int i = keep + (random.nextBoolean() ? 1 : 0); i < level.size; i += 2) {
+            next.add(level.items[i]);
+        }
+        level.size = keep;
+    }
+
+    private Weighted[] sortedItems() {
+        Weighted[] items = new Weighted[retained()];
+        int n = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            Level level = levels.get(h);
+            for (int i = 0; i < level.size; i++) {
+                items[n++] = new Weighted(level.items[i], 1L << h);
+            }
+        }
+        Arrays.sort(items, (a, b) -> Double.compare(a.value(), b.value()));
+        return items;
+    }
+
+    private record Weighted(double value, long weight) {
+    }
+
+    private static final class Level {
+
+        double[] items = new double[MIN_CAPACITY];
+        int size;
+
+        void add(double value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        void addAll(Level other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.items[i]);
+            }
+        }
+    }
+}
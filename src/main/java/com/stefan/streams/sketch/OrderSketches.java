@@ -0,0 +1,113 @@
+package com.stefan.streams.sketch;
+
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+
+import java.util.List;
+
+/**
+ * Bounded-memory summary of an order stream: distinct products and customers (HyperLogLog), unit-price and
+ * order-value quantiles in cents (KLL) and the most ordered products by quantity (Count-Min heavy hitters).
+ *
+ * Replaces the exact {@code distinct()} set of extractAllOrderedProducts and extends
+ * calculateSummaryStatistics with percentiles; every component is mergeable, so sketches of disjoint order
+ * sets combine into the sketch of their union. Error bounds are documented on each sketch type.
+ */
+public final class OrderSketches {
+
+    public static final int HEAVY_HITTER_CAPACITY = 64;
+    public static final double HEAVY_HITTER_EPSILON = 0.001;
+    public static final double HEAVY_HITTER_DELTA = 0.001;
+
+    private final HyperLogLog distinctProducts;
+    private final HyperLogLog distinctCustomers;
+    private final KllSketch linePriceCents;
+    private final KllSketch orderValueCents;
+    private final HeavyHitters productQuantities;
+
+    private OrderSketches(HyperLogLog distinctProducts, HyperLogLog distinctCustomers, KllSketch linePriceCents,
+                          KllSketch orderValueCents, HeavyHitters productQuantities) {
+        this.distinctProducts = distinctProducts;
+        this.distinctCustomers = distinctCustomers;
+        this.linePriceCents = linePriceCents;
+        this.orderValueCents = orderValueCents;
+        this.productQuantities = productQuantities;
+    }
+
+    public static OrderSketches create() {
+        return new OrderSketches(HyperLogLog.create(), HyperLogLog.create(), KllSketch.create(), KllSketch.create(),
+                HeavyHitters.of(HEAVY_HITTER_CAPACITY, HEAVY_HITTER_EPSILON, HEAVY_HITTER_DELTA));
+    }
+
+    public static OrderSketches of(Iterable<Order> orders) {
+        OrderSketches sketches = create();
+        orders.forEach(sketches::add);
+        return sketches;
+    }
+
+    public void add(Order order) {
+        distinctCustomers.add(order.customer().id());
+        long orderValue = 0;
+        for (OrderItem item : order.items()) {
+            long priceCents = Money.toCents(item.product().price());
+            distinctProducts.add(item.product().id());
+            linePriceCents.add(priceCents);
+            productQuantities.add(item.product().id(), item.quantity());
+            orderValue = Math.addExact(orderValue, Math.multiplyExact(priceCents, item.quantity()));
+        }
+        orderValueCents.add(orderValue);
+    }
+
+    public long distinctProducts() {
+        return distinctProducts.estimate();
+    }
+
+    public long distinctCustomers() {
+        return distinctCustomers.estimate();
+    }
+
+    // Unit price of the order lines at quantile q (0.5 = median, 0.99 = p99).
+    public Money linePriceQuantile(double q) {
+        return Money.ofCents(Math.round(linePriceCents.quantile(q)));
+    }
+
+    public Money orderValueQuantile(double q) {
+        return Money.ofCents(Math.round(orderValueCents.quantile(q)));
+    }
+
+    // Product ids with the largest ordered quantities, largest first.
+    public List<HeavyHitters.HeavyHitter> topProducts(int n) {
+        return productQuantities.top(n);
+    }
+
+    public HyperLogLog productSketch() {
+        return distinctProducts;
+    }
+
+    public HyperLogLog customerSketch() {
+        return distinctCustomers;
+    }
+
+    public KllSketch linePriceSketch() {
+        return linePriceCents;
+    }
+
+    public KllSketch orderValueSketch() {
+        return orderValueCents;
+    }
+
+    public HeavyHitters productQuantitySketch() {
+        return productQuantities;
+    }
+
+    // Sketches of both order sets; neither input changes.
+    public OrderSketches merge(OrderSketches other) {
+        return new OrderSketches(
+                distinctProducts.merge(other.distinctProducts),
+                distinctCustomers.merge(other.distinctCustomers),
+                linePriceCents.merge(other.linePriceCents),
+                orderValueCents.merge(other.orderValueCents),
+                productQuantities.merge(other.productQuantities));
+    }
+}
@@ -0,0 +1,175 @@
+package com.stefan.streams.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * External merge sort for inputs larger than the heap.
+ *
+ * Records are buffered until their estimated size reaches the memory budget, then the buffer is sorted and
+ * spilled to a temporary file as one run. The result merges the runs with a priority queue and is read
+ * lazily through {@link SortedRecords}; when more runs exist than the fan-in allows, consecutive groups are
+ * merged into longer runs first. Input that fits the budget is sorted in memory and never touches disk.
+ *
+ * The sort is stable: runs hold consecutive slices of the input and ties between runs go to the earlier
+ * one, so equal records keep their input order, as with {@code Stream.sorted}.
+ */
+public final class ExternalSorter<T> {
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+    public static final int DEFAULT_MAX_FAN_IN = 64;
+
+    private static final int BUFFER_BYTES = 64 << 10;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> comparator;
+    private final long memoryBudget;
+    private final int maxFanIn;
+    private final Path tempDirectory;
+
+    private ExternalSorter(RecordCodec<T> codec, Comparator<? super T> comparator, long memoryBudget,
+                           int maxFanIn, Path tempDirectory) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+        }
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("maxFanIn must be at least 2: " + maxFanIn);
+        }
+        this.codec = codec;
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.maxFanIn = maxFanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    public static <T> ExternalSorter<T> of(RecordCodec<T> codec, Comparator<? super T> comparator) {
+        return of(codec, comparator, DEFAULT_MEMORY_BUDGET);
+    }
+
+    // Runs go to the default temporary-file directory.
+    public static <T> ExternalSorter<T> of(RecordCodec<T> codec, Comparator<? super T> comparator,
+                                           long memoryBudgetBytes) {
+        return new ExternalSorter<>(codec, comparator, memoryBudgetBytes, DEFAULT_MAX_FAN_IN, null);
+    }
+
+    public ExternalSorter<T> withTempDirectory(Path directory) {
+        return new ExternalSorter<>(codec, comparator, memoryBudget, maxFanIn, directory);
+    }
+
+    public ExternalSorter<T> withMaxFanIn(int maxFanIn) {
+        return new ExternalSorter<>(codec, comparator, memoryBudget, maxFanIn, tempDirectory);
+    }
+
+    // Sorted view of the input; the caller must close it (or read it to the end) to delete the runs.
+    public SortedRecords<T> sort(Stream<? extends T> input) {
+        try (input) {
+            return sort(input.iterator());
+        }
+    }
+
+    public SortedRecords<T> sort(Iterator<? extends T> input) {
+        List<T> buffer = new ArrayList<>();
+        long bufferedBytes = 0;
+        List<Path> runs = new ArrayList<>();
+        Path directory = null;
+        try {
+            while (input.hasNext()) {
+                T record = input.next();
+                buffer.add(record);
+                bufferedBytes += codec.estimatedBytes(record);
+                if (bufferedBytes >= memoryBudget) {
+                    if (directory == null) {
+                        directory = createDirectory();
+                    }
+                    runs.add(spill(directory, buffer));
+                    buffer.clear();
+                    bufferedBytes = 0;
+                }
+            }
+            if (runs.isEmpty()) {
+                buffer.sort(comparator);
+                return SortedRecords.inMemory(buffer);
+            }
+            if (!buffer.isEmpty()) {
+                runs.add(spill(directory, buffer));
+                buffer.clear();
+            }
+            long spilledBytes = 0;
+            for (Path run : runs) {
+                spilledBytes += Files.size(run);
+            }
+            int initialRuns = runs.size();
+            while (runs.size() > maxFanIn) {
+                runs = mergePass(directory, runs);
+            }
+            return SortedRecords.merged(directory, runs, codec, comparator, initialRuns, spilledBytes);
+        } catch (IOException e) {
+            SortedRecords.deleteQuietly(directory);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            SortedRecords.deleteQuietly(directory);
+            throw e;
+        }
+    }
+
+    // Stream over the sorted input; closing the stream deletes the runs.
+    public Stream<T> sorted(Stream<? extends T> input) {
+        SortedRecords<T> sorted = sort(input);
+        return sorted.stream();
+    }
+
+    private Path createDirectory() throws IOException {
+        return tempDirectory == null
+                ? Files.createTempDirectory("external-sort-")
+                : Files.createTempDirectory(tempDirectory, "external-sort-");
+    }
+
+    private Path spill(Path directory, List<T> buffer) throws IOException {
+        buffer.sort(comparator);
+        Path run = Files.createTempFile(directory, "run-", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run),
+                BUFFER_BYTES))) {
+            out.writeLong(buffer.size());
+            for (T record : buffer) {
+                codec.write(out, record);
+            }
+        }
+        return run;
+    }
+
+    // Merges consecutive groups of maxFanIn runs, keeping the groups in input order.
+    private List<Path> mergePass(Path directory, List<Path> runs) throws IOException {
+        List<Path> merged = new ArrayList<>();
+        for (int from = 0; from < runs.size(); from += maxFanIn) {
+            List<Path> group = runs.subList(from, Math.min(runs.size(), from + maxFanIn));
+            if (group.size() == 1) {
+                merged.add(group.get(0));
+                continue;
+            }
+            Path run = Files.createTempFile(directory, "run-", ".bin");
+            try (SortedRecords<T> records = SortedRecords.merged(null, List.copyOf(group), codec, comparator,
+                    group.size(), 0);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run),
+                         BUFFER_BYTES))) {
+                out.writeLong(records.size());
+                while (records.hasNext()) {
+                    codec.write(out, records.next());
+                }
+            }
+            for (Path input : group) {
+                Files.delete(input);
+            }
+            merged.add(run);
+        }
+        return merged;
+    }
+}
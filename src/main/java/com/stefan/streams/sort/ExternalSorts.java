@@ -0,0 +1,36 @@
+package com.stefan.streams.sort;
+
+import com.stefan.streams.io.OrderFileFormat;
+import com.stefan.streams.io.OrderFiles;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed versions of the sorting reports, for product and order listings that do not fit the heap.
+ */
+public final class ExternalSorts {
+
+    private ExternalSorts() {
+    }
+
+    // Same order as FirstBatchResolved.sortProductsByPrice; the returned stream must be closed.
+    public static Stream<Product> sortProductsByPrice(Stream<Product> products, long memoryBudgetBytes) {
+        return ExternalSorter.of(RecordCodecs.products(), Comparator.comparing(Product::price), memoryBudgetBytes)
+                .sorted(products);
+    }
+
+    // Sorts the orders and writes them to the file as they come out of the merge.
+    public static void exportSortedOrders(Stream<Order> orders, Comparator<? super Order> comparator,
+                                          long memoryBudgetBytes, Path file, OrderFileFormat format)
+            throws IOException {
+        try (Stream<Order> sorted = ExternalSorter.of(RecordCodecs.orders(), comparator, memoryBudgetBytes)
+                .sorted(orders)) {
+            OrderFiles.write(file, sorted, format);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.stefan.streams.sort;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of one record type for spilled sort runs, plus an estimate of the heap a decoded record
+ * occupies, which is what the memory budget of {@link ExternalSorter} is measured in.
+ */
+public interface RecordCodec<T> {
+
+    void write(DataOutput out, T record) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    // Rough heap footprint of the record, in bytes.
+    long estimatedBytes(T record);
+}
@@ -0,0 +1,166 @@
+package com.stefan.streams.sort;
+
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codecs for the model records. Strings use modified UTF-8 with a two-byte length, prices are written as
+ * scale plus unscaled value (a long whenever it fits), dates as epoch-days.
+ */
+public final class RecordCodecs {
+
+    // Object header plus reference fields; string and BigDecimal bodies are added per record.
+    private static final long RECORD_OVERHEAD = 32;
+    private static final long STRING_OVERHEAD = 40;
+    private static final long DECIMAL_BYTES = 40;
+    private static final long DATE_BYTES = 24;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final RecordCodec<Product> PRODUCTS = new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, Product product) throws IOException {
+            writeProduct(out, product);
+        }
+
+        @Override
+        public Product read(DataInput in) throws IOException {
+            return readProduct(in);
+        }
+
+        @Override
+        public long estimatedBytes(Product product) {
+            return productBytes(product);
+        }
+    };
+
+    private static final RecordCodec<Order> ORDERS = new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, Order order) throws IOException {
+            out.writeUTF(order.id());
+            writeCustomer(out, order.customer());
+            writeDate(out, order.orderDate());
+            out.writeUTF(order.status());
+            out.writeInt(order.items().size());
+            for (OrderItem item : order.items()) {
+                writeProduct(out, item.product());
+                out.writeInt(item.quantity());
+            }
+        }
+
+        @Override
+        public Order read(DataInput in) throws IOException {
+            String id = in.readUTF();
+            Customer customer = readCustomer(in);
+            LocalDate orderDate = readDate(in);
+            String status = in.readUTF();
+            int itemCount = in.readInt();
+            List<OrderItem> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(new OrderItem(readProduct(in), in.readInt()));
+            }
+            return new Order(id, customer, orderDate, List.copyOf(items), status);
+        }
+
+        // Decoded orders no longer share customers and products, so each one is counted in full.
+        @Override
+        public long estimatedBytes(Order order) {
+            Customer customer = order.customer();
+            long bytes = RECORD_OVERHEAD + stringBytes(order.id()) + DATE_BYTES + stringBytes(order.status())
+                    + RECORD_OVERHEAD + stringBytes(customer.id()) + stringBytes(customer.name())
+                    + stringBytes(customer.email()) + DATE_BYTES + stringBytes(customer.tier())
+                    + RECORD_OVERHEAD + 8L * order.items().size();
+            for (OrderItem item : order.items()) {
+                bytes += RECORD_OVERHEAD + productBytes(item.product());
+            }
+            return bytes;
+        }
+    };
+
+    private RecordCodecs() {
+    }
+
+    public static RecordCodec<Product> products() {
+        return PRODUCTS;
+    }
+
+    public static RecordCodec<Order> orders() {
+        return ORDERS;
+    }
+
+    private static void writeProduct(DataOutput out, Product product) throws IOException {
+        out.writeUTF(product.id());
+        out.writeUTF(product.name());
+        out.writeUTF(product.category());
+        writeDecimal(out, product.price());
+    }
+
+    private static Product readProduct(DataInput in) throws IOException {
+        return new Product(in.readUTF(), in.readUTF(), in.readUTF(), readDecimal(in));
+    }
+
+    private static void writeCustomer(DataOutput out, Customer customer) throws IOException {
+        out.writeUTF(customer.id());
+        out.writeUTF(customer.name());
+        out.writeUTF(customer.email());
+        writeDate(out, customer.registrationDate());
+        out.writeUTF(customer.tier());
+    }
+
+    private static Customer readCustomer(DataInput in) throws IOException {
+        return new Customer(in.readUTF(), in.readUTF(), in.readUTF(), readDate(in), in.readUTF());
+    }
+
+    // Negative length marks an unscaled value that did not fit in a long and follows as big-endian bytes.
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeByte(0);
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(-1);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readInt();
+        if (in.readByte() == 0) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static long productBytes(Product product) {
+        return RECORD_OVERHEAD + stringBytes(product.id()) + stringBytes(product.name())
+                + stringBytes(product.category()) + DECIMAL_BYTES;
+    }
+
+    private static long stringBytes(String value) {
+        return STRING_OVERHEAD + value.length();
+    }
+}
@@ -0,0 +1,221 @@
+package com.stefan.streams.sort;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily merged output of {@link ExternalSorter}: each run file is read through a small buffer and only the
+ * current record of every run is on the heap. The run files are deleted by {@link #close()}, which also
+ * happens automatically once the last record has been read.
+ */
+public final class SortedRecords<T> implements Iterator<T>, AutoCloseable {
+
+    private static final int BUFFER_BYTES = 64 << 10;
+
+    private final Path directory;
+    private final Iterator<T> inMemory;
+    private final PriorityQueue<RunReader<T>> heads;
+    private final List<RunReader<T>> readers;
+    private final long size;
+    private final int runCount;
+    private final long spilledBytes;
+    private long remaining;
+    private boolean closed;
+
+    private SortedRecords(Path directory, Iterator<T> inMemory, PriorityQueue<RunReader<T>> heads,
+                          List<RunReader<T>> readers, long size, int runCount, long spilledBytes) {
+        this.directory = directory;
+        this.inMemory = inMemory;
+        this.heads = heads;
+        this.readers = readers;
+        this.size = size;
+        this.runCount = runCount;
+        this.spilledBytes = spilledBytes;
+        this.remaining = size;
+    }
+
+    static <T> SortedRecords<T> inMemory(List<T> sorted) {
+        return new SortedRecords<>(null, sorted.iterator(), null, List.of(), sorted.size(), 0, 0);
+    }
+
+    // Without a directory the run files belong to the caller and are left in place on close.
+    static <T> SortedRecords<T> merged(Path directory, List<Path> runs, RecordCodec<T> codec,
+                                       Comparator<? super T> comparator, int runCount, long spilledBytes)
+            throws IOException {
+        PriorityQueue<RunReader<T>> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                Comparator.<RunReader<T>, T>comparing(reader -> reader.head, comparator)
+                        .thenComparingInt(reader -> reader.order));
+        List<RunReader<T>> readers = new ArrayList<>(runs.size());
+        long size = 0;
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader<T> reader = new RunReader<>(i, runs.get(i), codec);
+                readers.add(reader);
+                size += reader.remaining;
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (RunReader<T> reader : readers) {
+                reader.closeQuietly();
+            }
+            throw e;
+        }
+        return new SortedRecords<>(directory, null, heads, readers, size, runCount, spilledBytes);
+    }
+
+    // Total number of sorted records.
+    public long size() {
+        return size;
+    }
+
+    // Runs spilled to disk before merging; 0 when the input fit the memory budget.
+    public int runCount() {
+        return runCount;
+    }
+
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (remaining > 0 && !closed) {
+            return true;
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        remaining--;
+        if (inMemory != null) {
+            return inMemory.next();
+        }
+        RunReader<T> reader = heads.poll();
+        T record = reader.head;
+        try {
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(this, size, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    // Consecutive pages of up to pageSize records, for paging or exporting without holding the whole result.
+    public Stream<List<T>> pages(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        long pageCount = (size + pageSize - 1) / pageSize;
+        Iterator<List<T>> pages = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return SortedRecords.this.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> page = new ArrayList<>((int) Math.min(pageSize, remaining));
+                while (page.size() < pageSize && SortedRecords.this.hasNext()) {
+                    page.add(SortedRecords.this.next());
+                }
+                if (page.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                return List.copyOf(page);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(pages, pageCount, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (RunReader<T> reader : readers) {
+            reader.closeQuietly();
+        }
+        deleteQuietly(directory);
+    }
+
+    // Deletes the run directory and everything in it; cleanup failures must not hide the original error.
+    static void deleteQuietly(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException | UncheckedIOException ignored) {
+            // left for the OS to clean up with the rest of the temporary directory
+        }
+    }
+
+    private static final class RunReader<T> {
+
+        final int order;
+        final DataInputStream in;
+        final RecordCodec<T> codec;
+        long remaining;
+        T head;
+
+        RunReader(int order, Path run, RecordCodec<T> codec) throws IOException {
+            this.order = order;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_BYTES));
+            this.codec = codec;
+            this.remaining = in.readLong();
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                head = null;
+                closeQuietly();
+                return false;
+            }
+            remaining--;
+            head = codec.read(in);
+            return true;
+        }
+
+        void closeQuietly() {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // read-only stream, nothing was lost
+            }
+        }
+    }
+}
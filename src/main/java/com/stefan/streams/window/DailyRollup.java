@@ -0,0 +1,319 @@
+package com.stefan.streams.window;
+
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue and order counts per category and day, pre-aggregated from orders by {@link Order#orderDate()}.
+ *
+ * Buckets are primitive arrays indexed by {@code epochDay - firstEpochDay}, one row per category plus one
+ * for all categories. The day range grows in either direction as orders arrive, so late and out-of-order
+ * orders simply update the bucket of their own day. Range, tumbling and sliding window queries only read
+ * buckets and never rescan orders: a range costs O(days x categories) whatever the number of orders.
+ *
+ * Revenue is exact, in cents. Not thread-safe: feed it from one thread or guard it externally.
+ */
+public class DailyRollup {
+
+    private static final int INITIAL_DAYS = 64;
+
+    private final StringDictionary categories = new StringDictionary();
+    // Row c holds category c; the totals across all categories are kept separately
+    private long[][] categoryRevenueCents = new long[0][];
+    private long[][] categoryOrders = new long[0][];
+    private long[] revenueCents = new long[0];
+    private long[] orders = new long[0];
+    private long firstEpochDay;
+    // Per-order scratch: category and cents of every line, then the distinct categories of the order with
+    // their cents, found through generation marks
+    private int[] lineCategories = new int[8];
+    private long[] lineCents = new long[8];
+    private int[] orderCategories = new int[8];
+    private long[] orderCategoryCents = new long[8];
+    private int[] orderCategoryMarks = new int[8];
+    private int markGeneration;
+
+    public static DailyRollup of(Iterable<Order> orders) {
+        DailyRollup rollup = new DailyRollup();
+        for (Order order : orders) {
+            rollup.add(order);
+        }
+        return rollup;
+    }
+
+    public void add(Order order) {
+        apply(order, 1);
+    }
+
+    // Takes back an order added before, e.g. when it is corrected or deleted upstream. Throws
+    // IllegalArgumentException, leaving the rollup unchanged, when its day or categories cannot hold it.
+    public void remove(Order order) {
+        apply(order, -1);
+    }
+
+    // The first and last day with any bucket allocated, or null when nothing was added yet.
+    public LocalDate firstDay() {
+        return orders.length == 0 ? null : LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public LocalDate lastDay() {
+        return orders.length == 0 ? null : LocalDate.ofEpochDay(firstEpochDay + orders.length - 1);
+    }
+
+    public WindowTotals range(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Window end " + end + " is before its start " + start);
+        }
+        int categoryCount = categories.size();
+        long[] windowRevenue = new long[categoryCount];
+        long[] windowOrders = new long[categoryCount];
+        long totalRevenue = 0;
+        long totalOrders = 0;
+        int from = clampedIndex(start.toEpochDay());
+        int to = clampedIndex(end.toEpochDay() + 1);
+        for (int day = from; day < to; day++) {
+            totalRevenue += revenueCents[day];
+            totalOrders += orders[day];
+        }
+        for (int c = 0; c < categoryCount; c++) {
+            long[] revenueRow = categoryRevenueCents[c];
+            long[] orderRow = categoryOrders[c];
+            for (int day = from; day < to; day++) {
+                windowRevenue[c] += revenueRow[day];
+                windowOrders[c] += orderRow[day];
+            }
+        }
+        return totals(start, end, windowRevenue, windowOrders, totalRevenue, totalOrders);
+    }
+
+    // The trailing window of the given length ending on (and including) end, e.g. the last 30 days.
+    public WindowTotals trailing(LocalDate end, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Window length must be positive: " + days);
+        }
+        return range(end.minusDays(days - 1), end);
+    }
+
+    // Calendar-aligned windows covering start..end; the first and last are clipped to the range.
+    public List<WindowTotals> tumbling(LocalDate start, LocalDate end, WindowUnit unit) {
+        List<WindowTotals> windows = new ArrayList<>();
+        for (LocalDate windowStart = unit.start(start); !windowStart.isAfter(end); windowStart = unit.next(windowStart)) {
+            LocalDate from = windowStart.isBefore(start) ? start : windowStart;
+            LocalDate to = unit.next(windowStart).minusDays(1);
+            windows.add(range(from, to.isAfter(end) ? end : to));
+        }
+        return windows;
+    }
+
+    // Windows of `days` days ending on firstEnd, firstEnd + step, ... up to lastEnd. Each window is derived
+    // from the previous one by adding the days that enter and subtracting the days that leave, so the cost
+    // is O(days touched x categories) instead of O(windows x length x categories).
+    public List<WindowTotals> sliding(LocalDate firstEnd, LocalDate lastEnd, int days, int step) {
+        if (days < 1 || step < 1) {
+            throw new IllegalArgumentException("Window length and step must be positive: " + days + ", " + step);
+        }
+        int categoryCount = categories.size();
+        long[] windowRevenue = new long[categoryCount];
+        long[] windowOrders = new long[categoryCount];
+        long[] totals = new long[2];
+        List<WindowTotals> windows = new ArrayList<>();
+        long windowFirst = firstEnd.toEpochDay() - days + 1;
+        long windowLast = windowFirst - 1; // empty
+        for (long end = firstEnd.toEpochDay(); end <= lastEnd.toEpochDay(); end += step) {
+            long first = end - days + 1;
+            if (first > windowLast) {
+                // Consecutive windows do not overlap: start over instead of subtracting everything
+                Arrays.fill(windowRevenue, 0);
+                Arrays.fill(windowOrders, 0);
+                totals[0] = 0;
+                totals[1] = 0;
+                accumulate(first, end, 1, windowRevenue, windowOrders, totals);
+            } else {
+                accumulate(windowFirst, first - 1, -1, windowRevenue, windowOrders, totals);
+                accumulate(windowLast + 1, end, 1, windowRevenue, windowOrders, totals);
+            }
+            windowFirst = first;
+            windowLast = end;
+            windows.add(totals(LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(end),
+                    windowRevenue, windowOrders, totals[0], totals[1]));
+        }
+        return windows;
+    }
+
+    private void accumulate(long fromDay, long toDay, int sign, long[] windowRevenue, long[] windowOrders,
+                            long[] totals) {
+        int from = clampedIndex(fromDay);
+        int to = clampedIndex(toDay + 1);
+        for (int day = from; day < to; day++) {
+            totals[0] += sign * revenueCents[day];
+            totals[1] += sign * orders[day];
+        }
+        for (int c = 0; c < windowRevenue.length; c++) {
+            for (int day = from; day < to; day++) {
+                windowRevenue[c] += sign * categoryRevenueCents[c][day];
+                windowOrders[c] += sign * categoryOrders[c][day];
+            }
+        }
+    }
+
+    private WindowTotals totals(LocalDate start, LocalDate end, long[] windowRevenue, long[] windowOrders,
+                                long totalRevenue, long totalOrders) {
+        Map<String, Money> revenueByCategory = new HashMap<>();
+        Map<String, Long> ordersByCategory = new HashMap<>();
+        for (int c = 0; c < windowRevenue.length; c++) {
+            if (windowOrders[c] != 0) {
+                revenueByCategory.put(categories.decode(c), Money.ofCents(windowRevenue[c]));
+                ordersByCategory.put(categories.decode(c), windowOrders[c]);
+            }
+        }
+        return new WindowTotals(start, end, revenueByCategory, ordersByCategory, Money.ofCents(totalRevenue),
+                totalOrders);
+    }
+
+    // Every line is converted and every bucket checked before anything changes, so an order that fails
+    // (bad price, overflow, not removable) leaves the rollup as it was.
+    private void apply(Order order, int sign) {
+        int lines = order.items().size();
+        if (lines > lineCategories.length) {
+            int capacity = Math.max(lines, lineCategories.length * 2);
+            lineCategories = Arrays.copyOf(lineCategories, capacity);
+            lineCents = Arrays.copyOf(lineCents, capacity);
+            orderCategories = Arrays.copyOf(orderCategories, capacity);
+        }
+        long orderRevenue = 0;
+        for (int line = 0; line < lines; line++) {
+            OrderItem item = order.items().get(line);
+            lineCents[line] = Math.multiplyExact(Money.toCents(item.product().price()), (long) item.quantity());
+            orderRevenue = Math.addExact(orderRevenue, lineCents[line]);
+        }
+
+        int day;
+        if (sign > 0) {
+            for (int line = 0; line < lines; line++) {
+                lineCategories[line] = categoryCode(order.items().get(line).product().category());
+            }
+            day = bucket(order.orderDate().toEpochDay());
+        } else {
+            for (int line = 0; line < lines; line++) {
+                lineCategories[line] = requireMember(categories.code(order.items().get(line).product().category()),
+                        order);
+            }
+            day = requireMember(dayIndex(order.orderDate().toEpochDay()), order);
+        }
+
+        // Each category of the order counts the order once, however many of its lines fall in it
+        int generation = ++markGeneration;
+        int distinct = 0;
+        for (int line = 0; line < lines; line++) {
+            int category = lineCategories[line];
+            if (orderCategoryMarks[category] != generation) {
+                orderCategoryMarks[category] = generation;
+                orderCategories[distinct++] = category;
+                orderCategoryCents[category] = 0;
+            }
+            orderCategoryCents[category] = Math.addExact(orderCategoryCents[category], lineCents[line]);
+        }
+
+        if (sign < 0) {
+            requireCovers(order, orders[day], revenueCents[day], orderRevenue);
+        }
+        long dayRevenue = Math.addExact(revenueCents[day], sign * orderRevenue);
+        for (int i = 0; i < distinct; i++) {
+            int category = orderCategories[i];
+            if (sign < 0) {
+                requireCovers(order, categoryOrders[category][day], categoryRevenueCents[category][day],
+                        orderCategoryCents[category]);
+            }
+            Math.addExact(categoryRevenueCents[category][day], sign * orderCategoryCents[category]);
+        }
+
+        revenueCents[day] = dayRevenue;
+        orders[day] += sign;
+        for (int i = 0; i < distinct; i++) {
+            int category = orderCategories[i];
+            categoryRevenueCents[category][day] += sign * orderCategoryCents[category];
+            categoryOrders[category][day] += sign;
+        }
+    }
+
+    // A bucket still holds the order only if it counts at least one order and at least the order's revenue.
+    private static void requireCovers(Order order, long orderCount, long revenue, long orderRevenue) {
+        if (orderCount < 1 || revenue < orderRevenue) {
+            throw new IllegalArgumentException("Order " + order.id() + " is not in the rollup");
+        }
+    }
+
+    private static int requireMember(int index, Order order) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Order " + order.id() + " is not in the rollup");
+        }
+        return index;
+    }
+
+    // Index of the bucket of the epoch-day without growing the range, or -1 when it has no bucket.
+    private int dayIndex(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        return orders.length == 0 || index < 0 || index >= orders.length ? -1 : (int) index;
+    }
+
+    private int categoryCode(String category) {
+        int code = categories.encode(category);
+        if (code == categoryRevenueCents.length) {
+            categoryRevenueCents = Arrays.copyOf(categoryRevenueCents, code + 1);
+            categoryOrders = Arrays.copyOf(categoryOrders, code + 1);
+            categoryRevenueCents[code] = new long[orders.length];
+            categoryOrders[code] = new long[orders.length];
+            if (code == orderCategoryMarks.length) {
+                orderCategoryMarks = Arrays.copyOf(orderCategoryMarks, code * 2);
+                orderCategoryCents = Arrays.copyOf(orderCategoryCents, code * 2);
+            }
+        }
+        return code;
+    }
+
+    // Index of the bucket of the epoch-day, growing the day range (both directions) when needed.
+    private int bucket(long epochDay) {
+        if (orders.length == 0) {
+            firstEpochDay = epochDay - INITIAL_DAYS / 2;
+            resize(INITIAL_DAYS, 0);
+        } else if (epochDay < firstEpochDay) {
+            long missing = firstEpochDay - epochDay;
+            int grow = Math.toIntExact(Math.max(missing, orders.length));
+            firstEpochDay -= grow;
+            resize(orders.length + grow, grow);
+        } else if (epochDay >= firstEpochDay + orders.length) {
+            long missing = epochDay - firstEpochDay - orders.length + 1;
+            resize(Math.toIntExact(orders.length + Math.max(missing, orders.length)), 0);
+        }
+        return (int) (epochDay - firstEpochDay);
+    }
+
+    private void resize(int length, int shift) {
+        revenueCents = shifted(revenueCents, length, shift);
+        orders = shifted(orders, length, shift);
+        for (int c = 0; c < categoryRevenueCents.length; c++) {
+            categoryRevenueCents[c] = shifted(categoryRevenueCents[c], length, shift);
+            categoryOrders[c] = shifted(categoryOrders[c], length, shift);
+        }
+    }
+
+    private static long[] shifted(long[] values, int length, int shift) {
+        long[] copy = new long[length];
+        System.arraycopy(values, 0, copy, shift, values.length);
+        return copy;
+    }
+
+    // Bucket index of the epoch-day clamped to 0..length, for half-open range loops.
+    private int clampedIndex(long epochDay) {
+        return (int) Math.max(0, Math.min(orders.length, epochDay - firstEpochDay));
+    }
+}
@@ -0,0 +1,15 @@
+package com.stefan.streams.window;
+
+import com.stefan.streams.models.Money;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Revenue and order counts of the days {@code start..end} (both inclusive). Per-category maps only contain
+ * categories with at least one order in the window; an order with items in several categories counts once
+ * for each of them, and once in {@code orderCount}.
+ */
+public record WindowTotals(LocalDate start, LocalDate end, Map<String, Money> revenueByCategory,
+                           Map<String, Long> ordersByCategory, Money revenue, long orderCount) {
+}
@@ -0,0 +1,50 @@
+package com.stefan.streams.window;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar-aligned tumbling window sizes. Weeks start on Monday (ISO), months on the first day.
+ */
+public enum WindowUnit {
+    DAY {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    // First day of the window containing the date.
+    public abstract LocalDate start(LocalDate date);
+
+    // First day of the window after the one starting at start.
+    public abstract LocalDate next(LocalDate start);
+}
@@ -0,0 +1,144 @@
+package com.stefan.streams.aggregation;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.OrderStatus;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveOrderStatsTest {
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    @Test
+    void shouldMatchTheBatchAnalysis() {
+        LiveOrderStats stats = LiveOrderStats.of(StreamsTestData.orders());
+
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(StreamsTestData.orders()), stats.snapshot());
+    }
+
+    @Test
+    void shouldMoveOrdersBetweenCells() {
+        List<Order> orders = new ArrayList<>(StreamsTestData.orders());
+        LiveOrderStats stats = LiveOrderStats.of(orders);
+
+        Order first = orders.get(0);
+        stats.apply(new OrderEvent.OrderStatusChanged(first.id(), OrderStatus.DELIVERED));
+        orders.set(0, withStatus(first, "delivered"));
+        Order second = orders.get(1);
+        stats.apply(new OrderEvent.OrderCanceled(second.id()));
+        orders.set(1, withStatus(second, "canceled"));
+
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders), stats.snapshot());
+    }
+
+    @Test
+    void shouldRejectDuplicateOrders() {
+        LiveOrderStats stats = LiveOrderStats.of(StreamsTestData.orders());
+
+        assertThrows(IllegalStateException.class,
+                () -> stats.apply(new OrderEvent.OrderAdded(StreamsTestData.orders().get(0))));
+    }
+
+    @Test
+    void shouldIgnoreAndCountEventsForUnknownOrders() {
+        LiveOrderStats stats = LiveOrderStats.of(StreamsTestData.orders());
+
+        stats.apply(new OrderEvent.OrderCanceled("missing"));
+        stats.apply(new OrderEvent.OrderStatusChanged("missing", "lost"));
+
+        assertEquals(2, stats.ignoredEvents());
+        assertEquals(StreamsTestData.orders().size(), stats.liveOrderCount());
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(StreamsTestData.orders()), stats.snapshot());
+    }
+
+    @Test
+    void shouldAcceptTiersAndStatusesOutsideTheKnownLabels() {
+        List<Order> orders = new ArrayList<>(StreamsTestData.orders());
+        for (int i = 0; i < 20; i++) {
+            Order order = orders.get(i % StreamsTestData.orders().size());
+            Customer customer = order.customer();
+            orders.add(new Order("X" + i, new Customer(customer.id(), customer.name(), customer.email(),
+                    customer.registrationDate(), "tier " + i), order.orderDate(), order.items(), "status " + i));
+        }
+        LiveOrderStats stats = LiveOrderStats.of(orders);
+        int returned = StreamsTestData.orders().size() + 3;
+        stats.apply(new OrderEvent.OrderStatusChanged(orders.get(returned).id(), "returned"));
+        orders.set(returned, withStatus(orders.get(returned), "returned"));
+
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders), stats.snapshot());
+        assertEquals(1, stats.stats("tier 3", "returned").orderCount());
+        assertEquals(0, stats.stats("gold", "placed").orderCount());
+    }
+
+    @Test
+    void shouldGiveConsistentSnapshotsUnderConcurrentUpdates() throws Exception {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(20_000))
+                .orders().collect(Collectors.toList());
+        LiveOrderStats stats = LiveOrderStats.of(orders);
+        OrderStatus[] lifecycle = {OrderStatus.PLACED, OrderStatus.SHIPPED, OrderStatus.DELIVERED};
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> updaters = new ArrayList<>();
+            for (int worker = 0; worker < 3; worker++) {
+                int offset = worker;
+                updaters.add(executor.submit(() -> {
+                    for (int round = 0; round < 3; round++) {
+                        for (int i = offset; i < orders.size(); i += 3) {
+                            stats.apply(new OrderEvent.OrderStatusChanged(orders.get(i).id(), lifecycle[round]));
+                        }
+                    }
+                }));
+            }
+            Future<Integer> reader = executor.submit(() -> {
+                int snapshots = 0;
+                while (running.get()) {
+                    // Status moves never change the totals, so every consistent snapshot sees all orders
+                    assertEquals(orders.size(), totalOrders(stats.snapshot()));
+                    snapshots++;
+                }
+                return snapshots;
+            });
+            for (Future<?> updater : updaters) {
+                updater.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Order> delivered = orders.stream().map(order -> withStatus(order, "delivered")).collect(Collectors.toList());
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(delivered), stats.snapshot());
+        assertEquals(0, stats.stats("elite", "placed").orderCount());
+    }
+
+    private static long totalOrders(Map<String, Map<String, OrderStats>> snapshot) {
+        return snapshot.values().stream()
+                .flatMap(byStatus -> byStatus.values().stream())
+                .mapToLong(OrderStats::orderCount)
+                .sum();
+    }
+
+    private static Order withStatus(Order order, String status) {
+        return new Order(order.id(), order.customer(), order.orderDate(), order.items(), status);
+    }
+}
@@ -0,0 +1,145 @@
+package com.stefan.streams.bitmap;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapIndexTest {
+
+    @Test
+    void shouldCombineBitmapsLikeBitSets() {
+        SplittableRandom random = new SplittableRandom(11);
+        // Sparse and dense chunks, spread over several 65536-id chunks
+        BitSet dense = randomBits(random, 300_000, 0.4);
+        BitSet sparse = randomBits(random, 300_000, 0.01);
+        RowBitmap denseBitmap = toBitmap(dense);
+        RowBitmap sparseBitmap = toBitmap(sparse);
+
+        assertBits(dense, denseBitmap);
+        assertBits(sparse, sparseBitmap);
+        assertBits(and(dense, sparse), denseBitmap.and(sparseBitmap));
+        assertBits(and(dense, dense), denseBitmap.and(denseBitmap));
+        assertBits(or(dense, sparse), denseBitmap.or(sparseBitmap));
+        assertBits(or(sparse, sparse), sparseBitmap.or(sparseBitmap));
+        assertBits(andNot(dense, sparse), denseBitmap.andNot(sparseBitmap));
+        assertBits(andNot(sparse, dense), sparseBitmap.andNot(denseBitmap));
+        assertTrue(denseBitmap.andNot(denseBitmap).isEmpty());
+        assertEquals(200_000, RowBitmap.range(200_000).cardinality());
+        assertTrue(RowBitmap.range(200_000).contains(199_999));
+        assertFalse(RowBitmap.range(200_000).contains(200_000));
+    }
+
+    @Test
+    void shouldNotShareContainersWithInputs() {
+        RowBitmap left = RowBitmap.of(1, 2, 3);
+        RowBitmap union = left.or(RowBitmap.of(70_000));
+        left.add(4);
+
+        assertEquals(RowBitmap.of(1, 2, 3, 70_000), union);
+    }
+
+    @Test
+    void shouldAnswerMultiPredicateOrderFilters() {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(50_000))
+                .orders().collect(Collectors.toList());
+        OrderIndex index = OrderIndex.of(orders);
+
+        RowBitmap selection = index.tier("premium")
+                .and(index.status("delivered"))
+                .and(index.containsCategory("Electronics"));
+        List<Order> expected = orders.stream()
+                .filter(order -> order.customer().tier().equals("premium"))
+                .filter(order -> order.status().equals("delivered"))
+                .filter(order -> order.items().stream().anyMatch(item -> item.product().category().equals("Electronics")))
+                .collect(Collectors.toList());
+        assertEquals(expected, index.list(selection));
+        assertEquals(expected, index.stream(selection).collect(Collectors.toList()));
+        List<Order> iterated = new ArrayList<>();
+        index.iterator(selection).forEachRemaining(iterated::add);
+        assertEquals(expected, iterated);
+
+        RowBitmap notCanceledCheap = index.all()
+                .andNot(index.status("canceled"))
+                .and(index.containsPriceBand(PriceBand.UNDER_20).or(index.tier("elite")));
+        assertEquals(orders.stream()
+                        .filter(order -> !order.status().equals("canceled"))
+                        .filter(order -> order.customer().tier().equals("elite") || order.items().stream()
+                                .anyMatch(item -> PriceBand.of(item.product().price()) == PriceBand.UNDER_20))
+                        .count(),
+                notCanceledCheap.cardinality());
+    }
+
+    @Test
+    void shouldMatchTheProductExercises() {
+        List<Product> products = StreamsTestData.products();
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+        ProductIndex index = ProductIndex.of(products);
+
+        assertEquals(resolved.getElectronicsProductNames(products),
+                index.stream(index.category("Electronics")).map(Product::name).collect(Collectors.toList()));
+        assertEquals(resolved.partitionProductsByPrice(products).get(true), index.list(index.expensive()));
+        Iterator<Product> affordable = index.iterator(index.category("Sportswear").and(index.priceBand(PriceBand.UNDER_20)));
+        assertEquals(resolved.findAffordableSportswearProduct(products), affordable.next());
+        assertTrue(index.category("Toys").isEmpty());
+        assertEquals(RowBitmap.of(2), CustomerIndex.of(StreamsTestData.customers()).tier("premium"));
+    }
+
+    private static BitSet randomBits(SplittableRandom random, int bound, double density) {
+        BitSet bits = new BitSet();
+        for (int i = 0; i < bound; i++) {
+            if (random.nextDouble() < density) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    private static RowBitmap toBitmap(BitSet bits) {
+        RowBitmap bitmap = new RowBitmap();
+        // Insert out of order to exercise the non-append paths too
+        bits.stream().filter(i -> i % 2 == 1).forEach(bitmap::add);
+        bits.stream().filter(i -> i % 2 == 0).forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertBits(BitSet expected, RowBitmap actual) {
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int[] iterated = new int[expected.cardinality()];
+        int[] count = {0};
+        actual.iterator().forEachRemaining((int row) -> iterated[count[0]++] = row);
+        assertArrayEquals(expected.stream().toArray(), iterated);
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    private static BitSet or(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.or(b);
+        return result;
+    }
+
+    private static BitSet andNot(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.andNot(b);
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.stefan.streams.collect;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveCollectorsTest {
+
+    private final List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(20_000))
+            .products();
+    private final List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(20_000))
+            .orders().collect(Collectors.toList());
+
+    @Test
+    void shouldMatchJdkGroupingCollectors() {
+        assertEquals(products.stream().collect(Collectors.groupingBy(Product::category, Collectors.counting())),
+                products.stream().collect(PrimitiveCollectors.groupingCounting(Product::category)));
+        assertEquals(products.stream().collect(Collectors.groupingBy(Product::category,
+                        Collectors.summingLong(product -> product.price().unscaledValue().longValue()))),
+                products.stream().collect(PrimitiveCollectors.groupingSummingLong(Product::category,
+                        product -> product.price().unscaledValue().longValue())));
+        assertEquals(products.stream().collect(Collectors.groupingBy(Product::category,
+                        Collectors.averagingDouble(product -> product.price().doubleValue()))),
+                products.stream().collect(PrimitiveCollectors.groupingAveragingDouble(Product::category,
+                        product -> product.price().doubleValue())));
+    }
+
+    @Test
+    void shouldAverageBitForBitInParallel() {
+        Map<String, Double> expected = products.parallelStream().collect(Collectors.groupingBy(Product::category,
+                Collectors.averagingDouble(product -> product.price().doubleValue() / 3)));
+
+        assertEquals(expected, products.parallelStream().collect(PrimitiveCollectors.groupingAveragingDouble(
+                Product::category, product -> product.price().doubleValue() / 3)));
+    }
+
+    @Test
+    void shouldTrackMinAndMax() {
+        Map<String, Long> min = products.stream().collect(PrimitiveCollectors.groupingMinLong(Product::category,
+                product -> product.price().unscaledValue().longValue()));
+        Map<String, Long> max = products.parallelStream().collect(PrimitiveCollectors.groupingMaxLong(
+                Product::category, product -> product.price().unscaledValue().longValue()));
+
+        products.stream().collect(Collectors.groupingBy(Product::category)).forEach((category, group) -> {
+            assertEquals(group.stream().mapToLong(p -> p.price().unscaledValue().longValue()).min().getAsLong(),
+                    min.get(category));
+            assertEquals(group.stream().mapToLong(p -> p.price().unscaledValue().longValue()).max().getAsLong(),
+                    max.get(category));
+        });
+    }
+
+    @Test
+    void shouldGroupOnTwoLevels() {
+        Map<String, Map<String, OrderStats>> expected = orders.stream().collect(Collectors.groupingBy(
+                order -> order.customer().tier(),
+                Collectors.groupingBy(Order::status, Collectors.collectingAndThen(Collectors.toList(),
+                        list -> new OrderStats(list.size(), list.stream()
+                                .flatMap(order -> order.items().stream())
+                                .mapToInt(OrderItem::quantity)
+                                .sum())))));
+
+        var collector = PrimitiveCollectors.groupingBy(
+                (Order order) -> order.customer().tier(),
+                PrimitiveCollectors.groupingCountingAndSumming(Order::status,
+                        order -> order.items().stream().mapToLong(OrderItem::quantity).sum(),
+                        (count, items) -> new OrderStats(count, (int) items)));
+        assertEquals(expected, orders.stream().collect(collector));
+        assertEquals(expected, orders.parallelStream().collect(collector));
+    }
+
+    @Test
+    void shouldCountIntKeysWithoutBoxing() {
+        IntLongHashMap counts = IntStream.range(0, 100_000).boxed().parallel()
+                .collect(PrimitiveCollectors.countingByInt(i -> i % 1_000 - 500));
+        IntDoubleHashMap sums = IntStream.range(0, 100_000).boxed()
+                .collect(PrimitiveCollectors.summingDoubleByInt(i -> i % 10, i -> 0.5));
+
+        assertEquals(1_000, counts.size());
+        assertEquals(100, counts.get(-500, 0));
+        assertEquals(0, counts.get(500, 0));
+        assertEquals(5_000.0, sums.get(3, 0));
+    }
+
+    @Test
+    void shouldGrowAndKeepInsertionOrder() {
+        ObjectLongHashMap<String> map = new ObjectLongHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.addTo("k" + i, i);
+            map.addTo("k" + i, 1);
+        }
+
+        assertEquals(10_000, map.size());
+        assertEquals("k1234", map.key(1234));
+        assertEquals(1235, map.get("k1234", -1));
+        assertEquals(-1, map.get("missing", -1));
+        assertThrows(NullPointerException.class, () -> StreamsTestData.products().stream()
+                .collect(PrimitiveCollectors.groupingCounting(product -> (String) null)));
+    }
+}
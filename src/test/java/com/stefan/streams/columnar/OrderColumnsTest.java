@@ -0,0 +1,68 @@
+package com.stefan.streams.columnar;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.encoding.StringDictionary;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnsTest {
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+    private final ColumnarAnalytics columnar = new ColumnarAnalytics();
+
+    @Test
+    void shouldLayOutOrdersAsColumns() {
+        List<Order> orders = StreamsTestData.orders();
+        OrderColumns columns = OrderColumns.from(orders);
+
+        assertEquals(8, columns.orderCount());
+        assertEquals(14, columns.lineCount());
+        assertEquals(10, columns.productCount());
+        assertEquals(5, columns.customerCount());
+
+        // O4 has three lines: Running Shoes x1, Yoga Mat x1, Water Bottle x2
+        assertEquals("O4", columns.orderId(3));
+        assertEquals(3, columns.endLine(3) - columns.firstLine(3));
+        int waterBottleLine = columns.firstLine(3) + 2;
+        assertEquals(2, columns.lineQuantity(waterBottleLine));
+        assertEquals(1299, columns.linePriceCents(waterBottleLine));
+        assertEquals("Water Bottle", columns.product(columns.lineProductIndex(waterBottleLine)).name());
+        assertEquals("Sportswear", columns.categories().decode(columns.lineCategoryCode(waterBottleLine)));
+        assertEquals(orders.get(3).orderDate().toEpochDay(), columns.orderEpochDay(3));
+        assertEquals("placed", columns.statuses().decode(columns.orderStatusCode(3)));
+        assertEquals("elite", columns.tiers().decode(columns.orderTierCode(3)));
+        // The dictionaries are read-only views, so a built store cannot gain codes
+        assertFalse(columns.categories() instanceof StringDictionary);
+        assertEquals(StringDictionary.ABSENT, columns.categories().code("Toys"));
+        assertEquals(columns.categories().size(), columns.categories().values().size());
+    }
+
+    @Test
+    void shouldMatchRecordBasedAnalytics() {
+        List<Order> orders = StreamsTestData.orders();
+        OrderColumns columns = OrderColumns.from(orders);
+
+        assertEquals(resolved.calculateTotalRevenue(orders), columnar.calculateTotalRevenue(columns));
+        assertEquals(resolved.mapOrdersToSummaries(orders), columnar.mapOrdersToSummaries(columns));
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders),
+                columnar.analyzeOrdersByCustomerTierAndStatus(columns));
+    }
+
+    @Test
+    void shouldRejectSubCentPrices() {
+        Product oddPrice = new Product("P99", "Odd", "Home", new BigDecimal("1.005"));
+        Order order = new Order("O99", StreamsTestData.customers().get(0), StreamsTestData.orders().get(0).orderDate(),
+                List.of(new OrderItem(oddPrice, 1)), "placed");
+
+        assertThrows(ArithmeticException.class, () -> OrderColumns.from(List.of(order)));
+    }
+}
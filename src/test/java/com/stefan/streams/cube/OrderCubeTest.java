@@ -0,0 +1,149 @@
+package com.stefan.streams.cube;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.stefan.streams.cube.CubeDimension.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCubeTest {
+
+    private final List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(5_000)).orders()
+            .collect(Collectors.toList());
+
+    @Test
+    void shouldRollUpToTheTierAndStatusAnalysis() {
+        OrderCube cube = OrderCube.of(orders);
+
+        Map<String, Map<String, OrderStats>> rolledUp = new HashMap<>();
+        cube.query().drillDown(TIER).drillDown(STATUS).cells().forEach((key, cell) ->
+                rolledUp.computeIfAbsent(key.get(0), tier -> new HashMap<>()).put(key.get(1), cell.toOrderStats()));
+
+        assertEquals(new FirstBatchResolved(ReportSink.noop()).analyzeOrdersByCustomerTierAndStatus(orders), rolledUp);
+        assertEquals(orders.size(), cube.total().orderCount());
+        assertEquals(orders.stream().mapToLong(OrderCubeTest::revenueCents).sum(), cube.total().revenueCents());
+    }
+
+    @Test
+    void shouldSliceDiceAndDrillDown() {
+        OrderCube cube = OrderCube.of(orders);
+        YearMonth march = YearMonth.of(2023, 3);
+        List<String> tiers = cube.members(TIER).subList(0, 2);
+
+        // Revenue by category for two tiers in Q1, against a fresh group-by over the lines
+        Map<List<String>, CubeCell> byCategory = cube.query()
+                .dice(TIER, tiers)
+                .dice(YearMonth.of(2023, 1), march)
+                .drillDown(CATEGORY)
+                .cells();
+        Map<String, Long> expected = orders.stream()
+                .filter(order -> tiers.contains(order.customer().tier()))
+                .filter(order -> !YearMonth.from(order.orderDate()).isAfter(march))
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().category(),
+                        Collectors.summingLong(OrderCubeTest::revenueCents)));
+        assertEquals(expected.size(), byCategory.size());
+        expected.forEach((category, revenue) ->
+                assertEquals(revenue, byCategory.get(List.of(category)).revenueCents(), category));
+
+        // Drilling a slice down by month and summing the months back gives the slice total
+        CubeQuery shipped = cube.query().slice(STATUS, "shipped");
+        CubeCell monthly = shipped.drillDown(MONTH).cells().values().stream().reduce(CubeCell.EMPTY, CubeCell::plus);
+        assertEquals(shipped.total(), monthly);
+        assertEquals(12, shipped.drillDown(MONTH).cells().size());
+        assertEquals(shipped.total(), shipped.drillDown(MONTH).rollUp(MONTH).total());
+        assertEquals(orders.stream().filter(order -> order.status().equals("shipped")).count(),
+                shipped.total().orderCount());
+        assertEquals(CubeCell.EMPTY, cube.query().slice(STATUS, "lost").total());
+        assertEquals(CubeCell.EMPTY, cube.query().slice(march.plusYears(5)).total());
+    }
+
+    @Test
+    void shouldCountOrdersSpanningCategoriesExactlyWhenRolledUp() {
+        // O3 and O6 each hold an Appliances line and a Home line
+        OrderCube cube = OrderCube.of(StreamsTestData.orders());
+
+        Map<List<String>, CubeCell> byCategory = cube.query().drillDown(CATEGORY).cells();
+        long perCategory = byCategory.values().stream().mapToLong(CubeCell::orderCount).sum();
+        assertEquals(StreamsTestData.orders().size(), cube.total().orderCount());
+        assertEquals(cube.total().orderCount() + 2, perCategory);
+        assertEquals(cube.total().itemCount(), byCategory.values().stream().mapToLong(CubeCell::itemCount).sum());
+        assertEquals(cube.total().revenueCents(),
+                byCategory.values().stream().mapToLong(CubeCell::revenueCents).sum());
+    }
+
+    @Test
+    void shouldApplyIncrementalUpdates() {
+        List<Order> later = orders.subList(2_500, orders.size());
+        OrderCube cube = OrderCube.of(later);
+        orders.subList(0, 2_500).forEach(cube::add);
+        OrderCube rebuilt = OrderCube.of(orders);
+        assertEquals(rebuilt.query().drillDown(TIER).drillDown(STATUS).drillDown(CATEGORY).drillDown(MONTH).cells(),
+                cube.query().drillDown(TIER).drillDown(STATUS).drillDown(CATEGORY).drillDown(MONTH).cells());
+
+        // A new category in an earlier month re-lays out the cube without disturbing existing cells
+        Order vintage = new Order("V1", new Customer("C-V", "Vera", "vera@example.com", LocalDate.of(2020, 1, 1), "gold"), LocalDate.of(2022, 11, 5),
+                List.of(new OrderItem(new Product("P-V", "Gramophone", "Antiques", new BigDecimal("249.50")), 2)), "placed");
+        CubeCell before = cube.total();
+        cube.add(vintage);
+        assertEquals(YearMonth.of(2022, 11).toString(), cube.members(MONTH).get(0));
+        assertEquals(new CubeCell(1, 2, 49_900), cube.query().slice(CATEGORY, "Antiques").total());
+        assertEquals(before.plus(new CubeCell(1, 2, 49_900)), cube.total());
+
+        Order delivered = new Order(vintage.id(), vintage.customer(), vintage.orderDate(), vintage.items(), "delivered");
+        cube.replace(vintage, delivered);
+        assertEquals(CubeCell.EMPTY, cube.query().slice(STATUS, "placed").slice(CATEGORY, "Antiques").total());
+        assertEquals(1, cube.query().slice(STATUS, "delivered").slice(CATEGORY, "Antiques").total().orderCount());
+
+        cube.remove(delivered);
+        assertEquals(before, cube.total());
+        assertThrows(IllegalArgumentException.class, () -> cube.remove(delivered));
+    }
+
+    @Test
+    void shouldRejectRemovingAnOrderThatWasNeverAdded() {
+        OrderCube cube = OrderCube.of(StreamsTestData.orders());
+        Map<List<String>, CubeCell> before = cube.query().drillDown(TIER).drillDown(STATUS).drillDown(CATEGORY)
+                .drillDown(MONTH).cells();
+
+        // Same customer, status and month as O4, but with more Sportswear items and an Electronics line it never had
+        Order o4 = StreamsTestData.orders().get(3);
+        Order phantom = new Order("P1", o4.customer(), o4.orderDate(),
+                List.of(new OrderItem(o4.items().get(0).product(), 1),
+                        new OrderItem(StreamsTestData.products().get(0), 1)),
+                o4.status());
+        Order heavier = new Order("P2", o4.customer(), o4.orderDate(),
+                List.of(new OrderItem(o4.items().get(0).product(), 10)), o4.status());
+
+        assertThrows(IllegalArgumentException.class, () -> cube.remove(phantom));
+        assertThrows(IllegalArgumentException.class, () -> cube.remove(heavier));
+        assertEquals(before, cube.query().drillDown(TIER).drillDown(STATUS).drillDown(CATEGORY).drillDown(MONTH).cells());
+        assertThrows(ArithmeticException.class, () -> new CubeCell(1, Integer.MAX_VALUE + 1L, 0).toOrderStats());
+    }
+
+    private static long revenueCents(Order order) {
+        return order.items().stream().mapToLong(OrderCubeTest::revenueCents).sum();
+    }
+
+    private static long revenueCents(OrderItem item) {
+        return Money.toCents(item.product().price()) * item.quantity();
+    }
+}
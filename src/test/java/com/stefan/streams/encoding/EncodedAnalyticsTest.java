@@ -0,0 +1,103 @@
+package com.stefan.streams.encoding;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.CustomerTier;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedAnalyticsTest {
+
+    private final EncodedAnalytics encoded = new EncodedAnalytics();
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    @Test
+    void shouldMatchStringBasedProductResults() {
+        List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(5_000)).products();
+        EncodedProducts encodedProducts = EncodedProducts.of(products);
+
+        assertEquals(resolved.getElectronicsProductNames(products), encoded.getElectronicsProductNames(encodedProducts));
+        assertEquals(resolved.countProductsByCategory(products), encoded.countProductsByCategory(products));
+        assertEquals(resolved.groupProductsByCategory(products), encoded.groupProductsByCategory(encodedProducts));
+    }
+
+    @Test
+    void shouldMatchStringBasedOrderResults() {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(10_000))
+                .orders().collect(Collectors.toList());
+
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders),
+                encoded.analyzeOrdersByCustomerTierAndStatus(orders));
+    }
+
+    @Test
+    void shouldGroupByLabels() {
+        Map<String, Map<String, OrderStats>> result =
+                encoded.analyzeOrdersByCustomerTierAndStatus(StreamsTestData.orders());
+
+        assertEquals(new OrderStats(2, 5), result.get("elite").get("placed"));
+        assertEquals(new OrderStats(1, 3), result.get("standard").get("shipped"));
+        assertEquals(Map.of("placed", 4L, "shipped", 1L, "delivered", 2L, "canceled", 1L),
+                encoded.countOrdersByStatus(StreamsTestData.orders()));
+    }
+
+    @Test
+    void shouldGroupLabelsOutsideTheKnownTiersAndStatuses() {
+        Customer gold = new Customer("C99", "Gold", "gold@example.com", LocalDate.of(2024, 1, 1), "gold");
+        Product product = StreamsTestData.products().get(0);
+        List<Order> orders = List.of(
+                new Order("O101", gold, LocalDate.of(2024, 2, 1), List.of(new OrderItem(product, 2)), "returned"),
+                new Order("O102", gold, LocalDate.of(2024, 2, 2), List.of(new OrderItem(product, 1)), "placed"));
+
+        Map<String, Map<String, OrderStats>> result = encoded.analyzeOrdersByCustomerTierAndStatus(orders);
+
+        assertEquals(new OrderStats(1, 2), result.get("gold").get("returned"));
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders), result);
+        assertEquals(Map.of("returned", 1L, "placed", 1L), encoded.countOrdersByStatus(orders));
+    }
+
+    @Test
+    void shouldKeepCategoryCodesStable() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+
+        int electronics = dictionary.encode("Electronics");
+        int home = dictionary.encode("Home");
+
+        assertEquals(electronics, dictionary.encode("Electronics"));
+        assertNotEquals(electronics, home);
+        assertEquals("Home", dictionary.decode(home));
+        assertEquals(StringDictionary.ABSENT, dictionary.code("Toys"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 2, dictionary.encode("Category " + i));
+        }
+        assertEquals(102, dictionary.size());
+        assertEquals("Category 99", dictionary.values().get(101));
+    }
+
+    @Test
+    void shouldUseACallLocalDictionaryByDefault() {
+        EncodedProducts encoded = EncodedProducts.of(StreamsTestData.products());
+
+        assertNotSame(CategoryDictionary.shared(), encoded.categories());
+        assertEquals(StringDictionary.ABSENT, CategoryDictionary.shared().code("Sportswear"));
+    }
+
+    @Test
+    void shouldRejectUnknownTierLabels() {
+        assertThrows(IllegalArgumentException.class, () -> CustomerTier.fromLabel("gold"));
+    }
+}
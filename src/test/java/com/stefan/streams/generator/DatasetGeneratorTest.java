@@ -0,0 +1,77 @@
+package com.stefan.streams.generator;
+
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private final DatasetSpec spec = DatasetSpec.defaults()
+            .withOrderCount(20_000)
+            .withProductCount(200)
+            .withCustomerCount(500);
+
+    @Test
+    void shouldGenerateTheSameDataForTheSameSeed() {
+        List<Order> first = new DatasetGenerator(spec).orders().collect(Collectors.toList());
+        List<Order> second = new DatasetGenerator(spec).orders().collect(Collectors.toList());
+
+        assertEquals(first, second);
+        assertNotEquals(first, new DatasetGenerator(spec.withSeed(7)).orders().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldGenerateTheSameOrdersInParallel() {
+        DatasetGenerator generator = new DatasetGenerator(spec);
+
+        List<Order> sequential = generator.orders().collect(Collectors.toList());
+        List<Order> parallel = generator.orders().parallel().collect(Collectors.toList());
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.get(12_345), generator.order(12_345));
+        assertEquals(sequential.subList(100, 200), generator.orders(100, 200).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldRespectTheSpec() {
+        LocalDate first = LocalDate.of(2024, 2, 1);
+        LocalDate last = LocalDate.of(2024, 2, 29);
+        DatasetGenerator generator = new DatasetGenerator(spec.withOrderDates(first, last).withItemsPerOrder(2, 5));
+
+        assertEquals(500, generator.customers().size());
+        assertEquals(200, generator.products().size());
+        assertEquals(20_000, generator.orders().count());
+        generator.orders().forEach(order -> {
+            assertFalse(order.orderDate().isBefore(first));
+            assertFalse(order.orderDate().isAfter(last));
+            assertTrue(order.items().size() >= 1 && order.items().size() <= 2);
+            order.items().forEach(item -> assertTrue(item.quantity() >= 1 && item.quantity() <= 5));
+            assertTrue(spec.statuses().values().contains(order.status()));
+            assertTrue(spec.tiers().values().contains(order.customer().tier()));
+        });
+    }
+
+    @Test
+    void shouldSkewProductPopularity() {
+        DatasetGenerator generator = new DatasetGenerator(spec.withProductSkew(1.2));
+
+        Map<Product, Long> lines = generator.orders()
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(OrderItem::product, Collectors.counting()));
+        Map<String, Product> byId = generator.products().stream()
+                .collect(Collectors.toMap(Product::id, Function.identity()));
+
+        long head = lines.getOrDefault(byId.get("P0"), 0L);
+        long tail = lines.getOrDefault(byId.get("P199"), 0L);
+        assertTrue(head > 50 * Math.max(tail, 1), "head=" + head + " tail=" + tail);
+    }
+}
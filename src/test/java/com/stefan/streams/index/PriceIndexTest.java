@@ -0,0 +1,88 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceIndexTest {
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    @Test
+    void shouldListProductsInTheSameOrderAsSortProductsByPrice() {
+        List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(5_000)).products();
+
+        PriceIndex index = PriceIndex.of(products);
+
+        assertEquals(resolved.sortProductsByPrice(products), index.all());
+    }
+
+    @Test
+    void shouldAnswerRangeQueriesLikeAFullScan() {
+        List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(5_000)).products();
+        PriceIndex index = PriceIndex.of(products);
+        BigDecimal twenty = new BigDecimal("20");
+        BigDecimal thousand = new BigDecimal("1000");
+
+        assertEquals(scan(products, p -> p.category().equals("Sportswear") && p.price().compareTo(twenty) < 0),
+                index.below("Sportswear", twenty));
+        assertEquals(scan(products, p -> p.category().equals("Electronics") && p.price().compareTo(thousand) > 0),
+                index.above("Electronics", thousand));
+        assertEquals(scan(products, p -> p.price().compareTo(twenty) >= 0 && p.price().compareTo(thousand) <= 0),
+                index.between(twenty, thousand));
+        assertEquals(scan(products, p -> p.category().equals("Home")).subList(0, 5), index.cheapestN("Home", 5));
+        assertEquals(List.of(), index.below("Garden", thousand));
+    }
+
+    @Test
+    void shouldFindTheFixtureProducts() {
+        PriceIndex index = PriceIndex.of(StreamsTestData.products());
+
+        assertEquals(List.of("Water Bottle"), names(index.below("Sportswear", new BigDecimal("20"))));
+        assertEquals(List.of("MacBook Pro"), names(index.above(new BigDecimal("1000"))));
+        // Sub-cent thresholds: 12.99 < 12.995 and 1999.99 > 1999.985
+        assertEquals(List.of("Water Bottle"), names(index.below(new BigDecimal("12.995"))));
+        assertEquals(List.of("MacBook Pro"), names(index.above(new BigDecimal("1999.985"))));
+    }
+
+    @Test
+    void shouldInsertAndRemoveIncrementally() {
+        PriceIndex index = PriceIndex.of(StreamsTestData.products());
+        Product cheapShoes = new Product("P11", "Flip Flops", "Sportswear", new BigDecimal("12.99"));
+
+        index.insert(cheapShoes);
+
+        assertEquals(11, index.size());
+        assertEquals(List.of("Water Bottle", "Flip Flops", "Yoga Mat"), names(index.cheapestN("Sportswear", 3)));
+
+        assertTrue(index.remove(StreamsTestData.products().get(5)));
+        assertFalse(index.remove(StreamsTestData.products().get(5)));
+
+        assertEquals(List.of("Flip Flops", "Yoga Mat"), names(index.cheapestN("Sportswear", 2)));
+        assertEquals(10, index.size());
+        assertEquals(List.of("Running Shoes", "Yoga Mat"), names(index.mostExpensiveN("Sportswear", 2)));
+    }
+
+    private static List<Product> scan(List<Product> products, Predicate<Product> filter) {
+        return products.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Product::price))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,95 @@
+package com.stefan.streams.index;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPagerTest {
+
+    private final List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(1_003)).products();
+
+    @Test
+    void shouldWalkEverySortOrderPageByPage() {
+        for (ProductSortOrder order : ProductSortOrder.values()) {
+            ProductPager pager = ProductPager.of(products, order);
+            List<Product> walked = new ArrayList<>();
+
+            ProductPage page = pager.firstPage(50);
+            walked.addAll(page.products());
+            while (page.hasNext()) {
+                page = pager.nextPage(page.nextCursor(), 50);
+                walked.addAll(page.products());
+            }
+
+            List<Product> expected = order == ProductSortOrder.LIST
+                    ? products
+                    : products.stream().sorted(order.comparator()).collect(Collectors.toList());
+            assertEquals(expected, walked, order.name());
+        }
+    }
+
+    @Test
+    void shouldMatchSkipLimitForOffsetPages() {
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+        for (int pageNumber = 0; pageNumber <= 21; pageNumber++) {
+            List<Product> skipLimit = products.stream().skip(48L * pageNumber).limit(48).collect(Collectors.toList());
+            assertEquals(skipLimit, resolved.getProductsPage(products, 48, pageNumber));
+        }
+        List<String> secondPage = resolved.getProductsPage(StreamsTestData.products(), 3, 1).stream()
+                .map(Product::name)
+                .collect(Collectors.toList());
+        assertEquals(List.of("Running Shoes", "Yoga Mat", "Water Bottle"), secondPage);
+    }
+
+    @Test
+    void shouldKeepSkipLimitEdgeCases() {
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+        List<Product> withNulls = new LinkedList<>(StreamsTestData.products());
+        withNulls.set(4, null);
+
+        assertEquals(List.of(), resolved.getProductsPage(products, 0, 3));
+        assertEquals(withNulls.stream().skip(3).limit(3).collect(Collectors.toList()),
+                resolved.getProductsPage(withNulls, 3, 1));
+        assertEquals(List.of(), resolved.getProductsPage(withNulls, 5, 2));
+        assertThrows(IllegalArgumentException.class, () -> resolved.getProductsPage(products, -1, 1));
+    }
+
+    @Test
+    void shouldResumeAfterTheLastSeenProductWhenTheListChanges() {
+        ProductPage first = ProductPager.of(StreamsTestData.products(), ProductSortOrder.PRICE).firstPage(3);
+        assertEquals(List.of("Water Bottle", "Yoga Mat", "Desk Lamp"),
+                first.products().stream().map(Product::name).collect(Collectors.toList()));
+
+        // A cheaper product and one between the pages show up before the next page is requested
+        List<Product> changed = new ArrayList<>(StreamsTestData.products());
+        changed.add(new Product("P11", "Sticker", "Home", new BigDecimal("1.99")));
+        changed.add(new Product("P12", "Socks", "Sportswear", new BigDecimal("39.99")));
+        ProductPage second = ProductPager.of(changed, ProductSortOrder.PRICE).nextPage(first.nextCursor(), 3);
+
+        assertEquals(List.of("Socks", "Blender", "Coffee Maker"),
+                second.products().stream().map(Product::name).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldRejectForeignCursors() {
+        String priceCursor = ProductPager.of(products, ProductSortOrder.PRICE).firstPage(10).nextCursor();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductPager.of(products, ProductSortOrder.NAME).nextPage(priceCursor, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProductPager.of(products, ProductSortOrder.NAME).nextPage("not-a-cursor", 10));
+    }
+}
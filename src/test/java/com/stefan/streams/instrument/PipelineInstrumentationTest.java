@@ -0,0 +1,166 @@
+package com.stefan.streams.instrument;
+
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.AsyncReportSink;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineInstrumentationTest {
+
+    @Test
+    void shouldReportPercentilesWithinOneSubBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(22);
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            long value = (long) Math.exp(random.nextDouble(0, Math.log(1e10)));
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(null);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(values.size(), snapshot.count());
+        assertEquals(values.get(0), snapshot.min());
+        assertEquals(values.get(values.size() - 1), snapshot.max());
+        long[] reported = {snapshot.p50(), snapshot.p90(), snapshot.p99(), snapshot.p999()};
+        double[] quantiles = {0.50, 0.90, 0.99, 0.999};
+        for (int i = 0; i < quantiles.length; i++) {
+            long exact = values.get((int) Math.ceil(quantiles[i] * values.size()) - 1);
+            assertTrue(reported[i] >= exact && reported[i] <= exact + exact / 32 + 1,
+                    "p" + quantiles[i] + ": " + reported[i] + " vs " + exact);
+        }
+        for (long value : new long[]{0, 31, 32, 33, 1_000_003, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket < LatencyHistogram.BUCKETS);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+        histogram.reset();
+        assertEquals(HistogramSnapshot.EMPTY, histogram.snapshot());
+    }
+
+    @Test
+    void shouldCountElementsPerStageOnParallelStreams() {
+        List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(50_000)).products();
+        long electronicsCount = products.stream().filter(product -> product.category().equals("Electronics")).count();
+        PipelineInstrumentation trace = PipelineInstrumentation.create("products", InstrumentationMode.FULL, 1);
+        StageMetrics filter = trace.stage("filter");
+        StageMetrics map = trace.stage("map");
+
+        List<String> names = trace.stage("collect").measure(() -> products.parallelStream()
+                .filter(filter.filter(product -> product.category().equals("Electronics")))
+                .map(map.map(Product::name))
+                .collect(Collectors.toList()));
+
+        PipelineSnapshot snapshot = trace.snapshot();
+        assertEquals(List.of("filter", "map", "collect"), snapshot.stages().stream().map(StageSnapshot::stage).toList());
+        assertEquals(electronicsCount, names.size());
+        assertEquals(products.size(), snapshot.stage("filter").elementsIn());
+        assertEquals(electronicsCount, snapshot.stage("filter").elementsOut());
+        assertEquals((double) electronicsCount / products.size(), snapshot.stage("filter").selectivity(), 1e-12);
+        assertEquals(products.size(), snapshot.stage("filter").elementNanos().count());
+        assertEquals(1.0, snapshot.stage("map").selectivity());
+        assertEquals(1, snapshot.stage("collect").invocations());
+        assertTrue(snapshot.stage("collect").invocationNanos().max() > 0);
+    }
+
+    @Test
+    void shouldSampleOrSkipRecordingByMode() {
+        PipelineInstrumentation trace = PipelineInstrumentation.create("modes", InstrumentationMode.SAMPLED, 16);
+        StageMetrics stage = trace.stage("map");
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < 64_000; i++) {
+            input.add(i);
+        }
+
+        input.stream().map(stage.map(i -> i + 1)).forEach(i -> { });
+        StageSnapshot sampled = stage.snapshot();
+        assertEquals(64_000, sampled.elementsIn());
+        assertEquals(4_000, sampled.elementNanos().count(), 400);
+
+        trace.setMode(InstrumentationMode.OFF);
+        input.stream().map(stage.map(i -> i + 1)).forEach(stage.count());
+        stage.measure(() -> 1);
+        assertEquals(sampled, stage.snapshot());
+
+        trace.setMode(InstrumentationMode.COUNTS);
+        trace.reset();
+        input.stream().peek(stage.count()).forEach(i -> { });
+        assertEquals(64_000, stage.snapshot().elementsOut());
+        assertEquals(0, stage.snapshot().elementNanos().count());
+    }
+
+    @Test
+    void shouldMeasureAllocationsOfTheCallingThread() {
+        PipelineInstrumentation trace = PipelineInstrumentation.create("alloc");
+        StageMetrics stage = trace.stage("allocate");
+        for (int i = 0; i < 4; i++) {
+            stage.measure(() -> new long[250_000]);
+        }
+        StageSnapshot snapshot = stage.snapshot();
+        assertEquals(4, snapshot.invocations());
+        if (ThreadResources.allocatedBytes() >= 0) {
+            assertTrue(snapshot.allocatedBytesPerInvocation() >= 2_000_000, "bytes " + snapshot.allocatedBytes());
+        }
+    }
+
+    @Test
+    void shouldExposeStagesThroughJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName stageName = new ObjectName("com.stefan.streams:type=PipelineStage,pipeline=\"jmx\",stage=\"filter\"");
+        ObjectName pipelineName = new ObjectName("com.stefan.streams:type=Pipeline,name=\"jmx\"");
+        try (PipelineInstrumentation trace = PipelineInstrumentation.create("jmx", InstrumentationMode.COUNTS, 1)) {
+            trace.registerMBeans();
+            StageMetrics filter = trace.stage("filter");
+            List.of(1, 2, 3, 4).stream().filter(filter.filter(i -> i % 2 == 0)).forEach(i -> { });
+
+            assertEquals(4L, server.getAttribute(stageName, "ElementsIn"));
+            assertEquals(2L, server.getAttribute(stageName, "ElementsOut"));
+            assertEquals(0.5, server.getAttribute(stageName, "Selectivity"));
+            server.setAttribute(pipelineName, new Attribute("Mode", "OFF"));
+            assertEquals(InstrumentationMode.OFF, trace.mode());
+        }
+        assertFalse(server.isRegistered(stageName));
+        assertFalse(server.isRegistered(pipelineName));
+    }
+
+    @Test
+    void shouldTracePeekDemoWithoutPrintingEveryElement() {
+        PipelineSnapshot snapshot = new FirstBatchResolved(ReportSink.noop()).demonstratePeekOperation();
+
+        assertEquals(3, snapshot.stage("filter electronics").elementsIn());
+        assertEquals(2, snapshot.stage("filter electronics").elementsOut());
+        assertEquals(2, snapshot.stage("map name").elementsOut());
+        assertEquals(1, snapshot.stage("collect").invocations());
+    }
+
+    @Test
+    void shouldRenderMeasuredStagesWithCallFigures() {
+        StringWriter target = new StringWriter();
+        try (AsyncReportSink sink = AsyncReportSink.to(target)) {
+            new FirstBatchResolved(sink).demonstratePeekOperation();
+            sink.flush();
+        }
+        List<String> lines = target.toString().lines().collect(Collectors.toList());
+
+        assertEquals("Mapped names: [iPhone 14, MacBook Pro]", lines.get(0));
+        assertTrue(lines.get(1).startsWith("filter electronics: 3 in, 2 out, "), lines.get(1));
+        assertTrue(lines.get(3).startsWith("collect: 1 call(s), "), lines.get(3));
+    }
+}
@@ -0,0 +1,128 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderFilesTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Order> orders = withAwkwardOrders(new DatasetGenerator(DatasetSpec.defaults()
+            .withOrderCount(5_000)
+            .withProductCount(300))
+            .orders().collect(Collectors.toList()));
+
+    @Test
+    void shouldRoundTripCsv() throws IOException {
+        assertRoundTrip(OrderFileFormat.CSV);
+    }
+
+    @Test
+    void shouldRoundTripNdjson() throws IOException {
+        assertRoundTrip(OrderFileFormat.NDJSON);
+    }
+
+    @Test
+    void shouldFeedTheAnalyticsWhileReading() throws IOException {
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+        Path file = directory.resolve("fixture.csv");
+        OrderFiles.write(file, StreamsTestData.orders().stream(), OrderFileFormat.CSV);
+
+        try (Stream<Order> read = OrderFiles.read(file, OrderFileFormat.CSV)) {
+            List<Order> loaded = read.collect(Collectors.toList());
+            assertEquals(resolved.calculateTotalRevenue(StreamsTestData.orders()), resolved.calculateTotalRevenue(loaded));
+            assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(StreamsTestData.orders()),
+                    resolved.analyzeOrdersByCustomerTierAndStatus(loaded));
+        }
+    }
+
+    @Test
+    void shouldInternCustomersAndProducts() throws IOException {
+        Path file = directory.resolve("orders.csv");
+        OrderFiles.write(file, orders.stream(), OrderFileFormat.CSV);
+
+        try (Stream<Order> read = OrderFiles.read(file, OrderFileFormat.CSV)) {
+            List<Order> loaded = read.collect(Collectors.toList());
+            Order first = loaded.get(0);
+            loaded.stream()
+                    .filter(order -> order.customer().id().equals(first.customer().id()))
+                    .forEach(order -> assertSame(first.customer(), order.customer()));
+            Product product = first.items().get(0).product();
+            loaded.stream()
+                    .flatMap(order -> order.items().stream())
+                    .filter(item -> item.product().id().equals(product.id()))
+                    .forEach(item -> assertSame(product, item.product()));
+        }
+    }
+
+    @Test
+    void shouldKeepEachRowsCustomerAndProductWhenIdsDisagree() throws IOException {
+        Customer before = new Customer("C-moved", "Ann Lee", "ann@example.com", LocalDate.of(2021, 3, 1), "standard");
+        Customer after = new Customer("C-moved", "Ann Lee", "ann@example.com", LocalDate.of(2021, 3, 1), "elite");
+        Product cheap = new Product("P-repriced", "Mug", "Home", new BigDecimal("4.00"));
+        Product dear = new Product("P-repriced", "Mug", "Home", new BigDecimal("5.00"));
+        List<Order> changing = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            boolean late = i >= 1_000;
+            changing.add(new Order("O-" + i, late ? after : before, LocalDate.of(2023, 1, 1),
+                    List.of(new OrderItem(late ? dear : cheap, 1)), "placed"));
+        }
+        Path file = directory.resolve("changing.csv");
+        OrderFiles.write(file, changing.stream(), OrderFileFormat.CSV);
+
+        try (Stream<Order> sequential = OrderFiles.read(file, OrderFileFormat.CSV)) {
+            assertEquals(changing, sequential.collect(Collectors.toList()));
+        }
+        try (Stream<Order> parallel = OrderFiles.read(file, OrderFileFormat.CSV, 4096, 2048).parallel()) {
+            assertEquals(changing, parallel.collect(Collectors.toList()));
+        }
+    }
+
+    private void assertRoundTrip(OrderFileFormat format) throws IOException {
+        Path file = directory.resolve("orders." + format.name().toLowerCase());
+        OrderFiles.write(file, orders.stream(), format);
+
+        try (Stream<Order> sequential = OrderFiles.read(file, format)) {
+            assertEquals(orders, sequential.collect(Collectors.toList()));
+        }
+        // Tiny windows and split sizes force remapping and many record-aligned splits
+        try (Stream<Order> parallel = OrderFiles.read(file, format, 4096, 2048).parallel()) {
+            assertEquals(orders, parallel.collect(Collectors.toList()));
+        }
+        try (Stream<Order> firstFew = OrderFiles.read(file, format, 4096, 2048)) {
+            assertEquals(orders.subList(0, 10), firstFew.limit(10).collect(Collectors.toList()));
+        }
+    }
+
+    private static List<Order> withAwkwardOrders(List<Order> generated) {
+        Customer customer = new Customer("C-quoted", "Smith, \"Jr\"", "smith@example.com",
+                LocalDate.of(2020, 2, 29), "premium");
+        Product product = new Product("P-quoted", "Lamp, \"Deluxe\"", "Home", new BigDecimal("10.50"));
+        List<Order> all = new ArrayList<>(generated);
+        all.add(100, new Order("O-quoted", customer, LocalDate.of(2023, 6, 1),
+                List.of(new OrderItem(product, 2), new OrderItem(product, 1)), "placed"));
+        all.add(200, new Order("O-empty", customer, LocalDate.of(2023, 6, 2), List.of(), "canceled"));
+        return all;
+    }
+}
@@ -0,0 +1,112 @@
+package com.stefan.streams.io;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.money.MoneyAnalytics;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Order> orders = generatedOrders();
+
+    @Test
+    void shouldRoundTripOrders() throws IOException {
+        Path file = directory.resolve("orders.snap");
+        OrderSnapshotWriter.write(file, orders);
+
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            snapshot.verify();
+            assertEquals(orders.size(), snapshot.orderCount());
+            assertEquals(orders, snapshot.orders().collect(Collectors.toList()));
+            assertEquals(orders, snapshot.orders().parallel().collect(Collectors.toList()));
+            // Random access into the middle of a varint block
+            assertEquals(orders.get(2_500), snapshot.order(2_500));
+            assertEquals(orders.get(orders.size() - 1), snapshot.order(orders.size() - 1));
+        }
+    }
+
+    @Test
+    void shouldAnswerQueriesFromTheMappedColumns() throws IOException {
+        Path file = directory.resolve("orders.snap");
+        OrderSnapshotWriter.write(file, orders);
+
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            assertEquals(new MoneyAnalytics().calculateTotalRevenue(orders), snapshot.totalRevenue());
+            Order order = orders.get(1_234);
+            assertEquals(order.id(), snapshot.orderId(1_234));
+            assertEquals(order.orderDate().toEpochDay(), snapshot.orderEpochDay(1_234));
+            assertEquals(order.status(), snapshot.orderStatus(1_234));
+            int first = snapshot.firstLine(1_234);
+            assertEquals(order.items().get(0).quantity(), snapshot.lineQuantity(first));
+            assertEquals(order.items().get(0).product(), snapshot.product(snapshot.lineProductIndex(first)));
+        }
+    }
+
+    @Test
+    void shouldFeedTheAnalytics() throws IOException {
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+        Path file = directory.resolve("fixture.snap");
+        OrderSnapshotWriter.write(file, StreamsTestData.orders());
+
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            List<Order> loaded = snapshot.orders().collect(Collectors.toList());
+            assertEquals(resolved.calculateTotalRevenue(StreamsTestData.orders()), resolved.calculateTotalRevenue(loaded));
+            assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(StreamsTestData.orders()),
+                    resolved.analyzeOrdersByCustomerTierAndStatus(loaded));
+        }
+    }
+
+    @Test
+    void shouldDetectCorruption() throws IOException {
+        Path file = directory.resolve("orders.snap");
+        OrderSnapshotWriter.write(file, orders);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), Files.size(file) - 1);
+        }
+
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            assertThrows(IllegalStateException.class, snapshot::verify);
+        }
+    }
+
+    @Test
+    void shouldRejectOtherFiles() throws IOException {
+        Path file = directory.resolve("orders.csv");
+        OrderFiles.write(file, orders.stream(), OrderFileFormat.CSV);
+
+        assertThrows(IOException.class, () -> OrderSnapshot.open(file));
+    }
+
+    private static List<Order> generatedOrders() {
+        List<Order> orders = new ArrayList<>(new DatasetGenerator(DatasetSpec.defaults()
+                .withOrderCount(5_000)
+                .withProductCount(300))
+                .orders().collect(Collectors.toList()));
+        // An order without lines and one dated before the epoch exercise the zigzag deltas
+        Order first = orders.get(0);
+        orders.add(new Order("O-empty", first.customer(), first.orderDate(), List.of(), "placed"));
+        orders.add(new Order("O-old", first.customer(), LocalDate.of(1960, 1, 1), first.items(), "shipped"));
+        return orders;
+    }
+}
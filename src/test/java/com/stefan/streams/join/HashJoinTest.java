@@ -0,0 +1,141 @@
+package com.stefan.streams.join;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Customer;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.parallel.ParallelOrderAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashJoinTest {
+
+    @Test
+    void shouldJoinInnerLeftAndAnti() {
+        JoinTable<Integer, String> build = JoinTable.build(List.of("1a", "2a", "2b", "4a"),
+                row -> row.charAt(0) - '0');
+        List<Integer> probe = List.of(1, 2, 3, 4);
+
+        assertEquals(List.of("1:1a", "2:2a", "2:2b", "4:4a"),
+                Joins.inner(probe.stream(), key -> key, build, (key, row) -> key + ":" + row).toList());
+        assertEquals(List.of("1:1a", "2:2a", "2:2b", "3:null", "4:4a"),
+                Joins.left(probe.stream(), key -> key, build, (key, row) -> key + ":" + row).toList());
+        assertEquals(List.of(3), Joins.anti(probe.stream(), key -> key, build).toList());
+        assertEquals(3, build.keyCount());
+        assertEquals("2a", build.get(2));
+    }
+
+    @Test
+    void shouldExtractOrderedProductsLikeTheStreamPipeline() {
+        List<Order> orders = StreamsTestData.orders();
+        List<Product> expected = orders.stream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderItem::product)
+                .distinct()
+                .collect(Collectors.toList());
+
+        assertEquals(expected, new JoinedOrderAnalytics().extractAllOrderedProducts(orders));
+        try (ParallelOrderAnalytics parallel = new ParallelOrderAnalytics(4)) {
+            assertEquals(expected, new JoinedOrderAnalytics(parallel).extractAllOrderedProducts(orders));
+        }
+    }
+
+    @Test
+    void shouldReportRevenueByTierAndCategoryOnBothPaths() {
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.defaults()
+                .withOrderCount(20_000).withCustomerCount(500).withProductCount(300));
+        List<Order> orders = generator.orders().toList();
+        List<OrderLine> lines = OrderLine.of(orders);
+
+        Map<String, Map<String, Money>> expected = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.items()) {
+                Money revenue = Money.of(item.product().price()).times(item.quantity());
+                expected.computeIfAbsent(order.customer().tier(), tier -> new TreeMap<>())
+                        .merge(item.product().category(), revenue, Money::plus);
+            }
+        }
+
+        JoinedOrderAnalytics.TierRevenue allKnown = new JoinedOrderAnalytics.TierRevenue(expected, Map.of());
+        assertEquals(allKnown, new JoinedOrderAnalytics()
+                .revenueByTierAndCategory(lines, generator.customers(), generator.products()));
+        try (ParallelOrderAnalytics parallel = new ParallelOrderAnalytics(4)) {
+            assertEquals(allKnown, new JoinedOrderAnalytics(parallel)
+                    .revenueByTierAndCategory(lines, generator.customers(), generator.products()));
+        }
+    }
+
+    @Test
+    void shouldKeepLinesOfUnknownCustomersApartAndDropUnknownProducts() {
+        Product lamp = new Product("P1", "Lamp", "Home", new BigDecimal("10.00"));
+        Customer known = new Customer("C1", "Ann", "ann@example.com", null, "premium");
+        Customer namedUnknown = new Customer("C2", "Bob", "bob@example.com", null, "unknown");
+        List<OrderLine> lines = List.of(
+                new OrderLine("O1", "C1", "DELIVERED", "P1", 2),
+                new OrderLine("O2", "C9", "DELIVERED", "P1", 1),
+                new OrderLine("O3", "C1", "DELIVERED", "P9", 5),
+                new OrderLine("O4", "C2", "DELIVERED", "P1", 3));
+
+        JoinedOrderAnalytics.TierRevenue revenue = new JoinedOrderAnalytics()
+                .revenueByTierAndCategory(lines, List.of(known, namedUnknown), List.of(lamp));
+
+        assertEquals(Map.of(
+                "premium", Map.of("Home", Money.ofCents(2000)),
+                "unknown", Map.of("Home", Money.ofCents(3000))), revenue.byTier());
+        assertEquals(Map.of("Home", Money.ofCents(1000)), revenue.unknownCustomers());
+    }
+
+    @Test
+    void shouldKeepProductsThatShareAnIdButDiffer() {
+        List<Order> orders = new ArrayList<>(StreamsTestData.orders());
+        Order first = orders.get(0);
+        Product original = first.items().get(0).product();
+        Product repriced = new Product(original.id(), original.name(), original.category(),
+                original.price().add(BigDecimal.ONE));
+        orders.add(new Order("O-repriced", first.customer(), first.orderDate(),
+                List.of(new OrderItem(repriced, 1), new OrderItem(original, 1)), first.status()));
+        List<Product> expected = orders.stream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderItem::product)
+                .distinct()
+                .collect(Collectors.toList());
+
+        assertTrue(expected.contains(repriced));
+        assertEquals(expected, new JoinedOrderAnalytics().extractAllOrderedProducts(orders));
+        try (ParallelOrderAnalytics parallel = new ParallelOrderAnalytics(4)) {
+            assertEquals(expected, new JoinedOrderAnalytics(parallel).extractAllOrderedProducts(orders));
+        }
+    }
+
+    @Test
+    void shouldFindProductsAndCustomersWithoutOrders() {
+        List<Order> orders = StreamsTestData.orders();
+        List<OrderLine> lines = OrderLine.of(orders);
+        Set<Product> ordered = new HashSet<>(new JoinedOrderAnalytics().extractAllOrderedProducts(orders));
+        Set<String> buyers = orders.stream().map(order -> order.customer().id()).collect(Collectors.toSet());
+
+        List<Product> neverOrdered = new JoinedOrderAnalytics()
+                .productsNeverOrdered(lines, StreamsTestData.products());
+        List<Customer> withoutOrders = new JoinedOrderAnalytics()
+                .customersWithoutOrders(lines, StreamsTestData.customers());
+
+        assertEquals(StreamsTestData.products().stream().filter(product -> !ordered.contains(product)).toList(),
+                neverOrdered);
+        assertEquals(StreamsTestData.customers().stream().filter(customer -> !buyers.contains(customer.id())).toList(),
+                withoutOrders);
+    }
+}
@@ -0,0 +1,76 @@
+package com.stefan.streams.money;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyAnalyticsTest {
+
+    private final MoneyAnalytics analytics = new MoneyAnalytics();
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    @Test
+    void shouldCheckOverflow() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertEquals("12.99", Money.of(new BigDecimal("12.990")).toString());
+    }
+
+    @Test
+    void shouldCalculateExactRevenue() {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(20_000))
+                .orders().collect(Collectors.toList());
+
+        Money revenue = analytics.calculateTotalRevenue(orders);
+
+        BigDecimal expected = orders.stream()
+                .flatMap(order -> order.items().stream())
+                .map(item -> item.product().price().multiply(BigDecimal.valueOf(item.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, expected.compareTo(revenue.toBigDecimal()));
+        assertEquals(resolved.calculateTotalRevenue(orders), revenue.toDouble());
+    }
+
+    @Test
+    void shouldCalculateExactPriceStatistics() {
+        List<Product> products = StreamsTestData.products();
+
+        PriceStatistics statistics = analytics.calculateSummaryStatistics(products);
+
+        assertEquals(10, statistics.count());
+        assertEquals(Money.of(new BigDecimal("3883.90")), statistics.sum());
+        assertEquals(Money.of(new BigDecimal("12.99")), statistics.min());
+        assertEquals(Money.of(new BigDecimal("1999.99")), statistics.max());
+        assertEquals(new BigDecimal("388.39"), statistics.average(2, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    void shouldCalculateAveragePriceByCategory() {
+        List<Product> products = StreamsTestData.products();
+
+        Map<String, BigDecimal> averages = analytics.calculateAveragePriceByCategory(products);
+        Map<String, PriceStatistics> statistics = analytics.calculatePriceStatisticsByCategory(products);
+
+        assertEquals(new BigDecimal("877.49"), averages.get("Electronics"));
+        assertEquals(new BigDecimal("56.32"), averages.get("Sportswear"));
+        resolved.calculateAveragePriceByCategory(products).forEach((category, average) ->
+                assertEquals(average, statistics.get(category).averageAsDouble(), 1e-9));
+    }
+}
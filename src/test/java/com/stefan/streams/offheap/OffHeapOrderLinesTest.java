@@ -0,0 +1,131 @@
+package com.stefan.streams.offheap;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.parallel.ParallelOrderAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrderLinesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldMatchHeapReportsFromDirectAndMappedPages() throws IOException {
+        // More lines than one page, so the scans cross page boundaries
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(40_000));
+        List<Order> orders = generator.orders().toList();
+
+        try (OffHeapOrderLines direct = OffHeapOrderLines.direct().appendAll(generator.orders());
+             OffHeapOrderLines mapped = OffHeapOrderLines.mapped(dir.resolve("lines.bin")).appendAll(orders);
+             ParallelOrderAnalytics heap = new ParallelOrderAnalytics(2)) {
+            assertTrue(direct.rowCount() > LineLayout.PAGE_ROWS);
+            assertTrue(Files.size(dir.resolve("lines.bin")) >= mapped.rowCount() * LineLayout.ROW_BYTES);
+
+            for (OffHeapOrderLines lines : List.of(direct, mapped)) {
+                assertEquals(orders.size(), lines.orderCount());
+                assertEquals(revenueByCategory(orders).values().stream().reduce(Money.ZERO, Money::plus),
+                        OffHeapOrderAnalytics.calculateTotalRevenue(lines));
+                assertEquals(revenueByCategory(orders), OffHeapOrderAnalytics.calculateRevenueByCategory(lines));
+                assertEquals(heap.mapOrdersToSummaries(orders),
+                        OffHeapOrderAnalytics.mapOrdersToSummaries(lines, index -> "O" + index).toList());
+                assertEquals(heap.analyzeOrdersByCustomerTierAndStatus(orders),
+                        OffHeapOrderAnalytics.analyzeOrdersByCustomerTierAndStatus(lines));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadFieldsInPlaceAndKeepOrdersWithoutItems() {
+        List<Order> orders = new ArrayList<>(StreamsTestData.orders());
+        orders.add(new Order("EMPTY", StreamsTestData.customers().get(2), LocalDate.of(2024, 3, 1), List.of(),
+                "PENDING"));
+
+        try (OffHeapOrderLines lines = OffHeapOrderLines.direct().appendAll(orders)) {
+            Order first = orders.get(0);
+            LineCursor cursor = lines.cursor(0, first.items().size());
+            for (OrderItem item : first.items()) {
+                assertTrue(cursor.next());
+                assertEquals(0, cursor.orderIndex());
+                assertEquals(first.orderDate().toEpochDay(), cursor.epochDay());
+                assertEquals(first.customer(), lines.customer(cursor.customerIndex()));
+                assertEquals(item.product(), lines.product(cursor.productIndex()));
+                assertEquals(item.quantity(), cursor.quantity());
+                assertEquals(Money.toCents(item.product().price()), cursor.priceCents());
+                assertEquals(item.product().category(), lines.categories().decode(cursor.categoryCode()));
+                assertEquals(first.status(), lines.statuses().decode(cursor.statusCode()));
+                assertEquals(first.customer().tier(), lines.tiers().decode(cursor.tierCode()));
+            }
+            assertFalse(cursor.next());
+
+            LineCursor last = lines.cursor(lines.rowCount() - 1, lines.rowCount());
+            assertTrue(last.next());
+            assertEquals(orders.size() - 1, last.orderIndex());
+            assertEquals(-1, last.productIndex());
+            assertEquals(0, last.lineCents());
+
+            List<Integer> itemCounts = new ArrayList<>();
+            OffHeapOrderAnalytics.forEachOrderSummary(lines, (order, itemCount) -> itemCounts.add(itemCount));
+            assertEquals(orders.stream().map(order -> order.items().stream().mapToInt(OrderItem::quantity).sum())
+                    .toList(), itemCounts);
+            assertThrows(IndexOutOfBoundsException.class, () -> lines.cursor(0, lines.rowCount() + 1));
+        }
+    }
+
+    private static Map<String, Money> revenueByCategory(List<Order> orders) {
+        Map<String, Money> revenue = new HashMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.items()) {
+                revenue.merge(item.product().category(), Money.of(item.product().price()).times(item.quantity()),
+                        Money::plus);
+            }
+        }
+        return revenue;
+    }
+
+    @Test
+    void shouldDropThePartialRowsOfAFailedAppend() {
+        List<Order> orders = StreamsTestData.orders();
+        try (OffHeapOrderLines lines = OffHeapOrderLines.direct().appendAll(orders)) {
+            long rows = lines.rowCount();
+            int products = lines.productCount();
+            Order first = orders.get(0);
+            Product fractional = new Product("P-fraction", "Bolt", "Hardware", new BigDecimal("0.125"));
+            Order failing = new Order("FAILING", first.customer(), first.orderDate(),
+                    List.of(first.items().get(0), new OrderItem(fractional, 1)), first.status());
+
+            assertThrows(ArithmeticException.class, () -> lines.append(failing));
+            assertEquals(rows, lines.rowCount());
+            assertEquals(orders.size(), lines.orderCount());
+            assertEquals(products, lines.productCount());
+
+            assertEquals(orders.size(), lines.append(first));
+            LineCursor cursor = lines.cursor(rows, lines.rowCount());
+            for (OrderItem item : first.items()) {
+                assertTrue(cursor.next());
+                assertEquals(orders.size(), cursor.orderIndex());
+                assertEquals(item.product(), lines.product(cursor.productIndex()));
+                assertEquals(Money.toCents(item.product().price()), cursor.priceCents());
+            }
+            assertFalse(cursor.next());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.stefan.streams.parallel;
+
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelOrderAnalyticsTest {
+
+    private final FirstBatchResolved sequential = new FirstBatchResolved(ReportSink.noop());
+    private ParallelOrderAnalytics parallel;
+    private List<Product> products;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        parallel = new ParallelOrderAnalytics(4);
+        DatasetGenerator generator = new DatasetGenerator(DatasetSpec.defaults()
+                .withOrderCount(50_000)
+                .withProductCount(5_000));
+        products = generator.products();
+        orders = generator.orders().collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallel.close();
+    }
+
+    @Test
+    void shouldMatchSequentialProductResults() {
+        assertEquals(sequential.getElectronicsProductNames(products), parallel.getElectronicsProductNames(products));
+        assertEquals(sequential.findAffordableSportswearProduct(products), parallel.findAffordableSportswearProduct(products));
+        assertEquals(sequential.sortProductsByPrice(products), parallel.sortProductsByPrice(products));
+        assertEquals(sequential.mapProductNamesToPrices(products), parallel.mapProductNamesToPrices(products));
+        assertEquals(sequential.partitionProductsByPrice(products), parallel.partitionProductsByPrice(products));
+        assertEquals(sequential.countProductsByCategory(products), parallel.countProductsByCategory(products));
+        assertEquals(sequential.groupProductsByCategory(products), parallel.groupProductsByCategory(products));
+    }
+
+    @Test
+    void shouldMatchSequentialOrderResults() {
+        assertEquals(sequential.mapOrdersToSummaries(orders), parallel.mapOrdersToSummaries(orders));
+        assertEquals(sequential.extractAllOrderedProducts(orders), parallel.extractAllOrderedProducts(orders));
+        assertEquals(sequential.calculateTotalRevenue(orders), parallel.calculateTotalRevenue(orders));
+        assertEquals(sequential.analyzeOrdersByCustomerTierAndStatus(orders),
+                parallel.analyzeOrdersByCustomerTierAndStatus(orders));
+    }
+
+    @Test
+    void shouldAcceptPoorlySplittingLists() {
+        List<Order> linked = new LinkedList<>(orders);
+
+        assertEquals(sequential.mapOrdersToSummaries(orders), parallel.mapOrdersToSummaries(linked));
+    }
+
+    @Test
+    void shouldRunOnTheDedicatedPool() {
+        Set<String> threads = parallel.execute(() -> orders.parallelStream()
+                .map(order -> Thread.currentThread().getName())
+                .collect(Collectors.toSet()));
+
+        assertFalse(threads.isEmpty());
+        threads.forEach(name -> assertTrue(name.startsWith("order-analytics-"), name));
+    }
+}
@@ -0,0 +1,117 @@
+package com.stefan.streams.query;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBatchTest {
+
+    private final FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+
+    @Test
+    void shouldAnswerProductReportsInOnePass() {
+        List<Product> products = StreamsTestData.products();
+        QueryBatch<Product> batch = new QueryBatch<>();
+        QueryResult<List<String>> electronics = batch.add(FirstBatchQueries.electronicsProductNames());
+        QueryResult<Product> sportswear = batch.add(FirstBatchQueries.affordableSportswearProduct());
+        QueryResult<Product> highPriced = batch.add(FirstBatchQueries.highPricedProduct());
+        var categories = batch.add(FirstBatchQueries.categories());
+        var prices = batch.add(FirstBatchQueries.productNamesToPrices());
+        var partition = batch.add(FirstBatchQueries.productsPartitionedByPrice());
+        var counts = batch.add(FirstBatchQueries.productCountByCategory());
+        var groups = batch.add(FirstBatchQueries.productsByCategory());
+        var averages = batch.add(FirstBatchQueries.averagePriceByCategory());
+        AtomicInteger reads = new AtomicInteger();
+
+        batch.run(counting(products, reads));
+
+        assertEquals(products.size(), reads.get());
+        assertEquals(resolved.getElectronicsProductNames(products), electronics.get());
+        assertEquals(resolved.findAffordableSportswearProduct(products), sportswear.get());
+        assertEquals(resolved.findExpensiveElectronicsProduct(products), highPriced.get());
+        assertEquals(resolved.collectCategoriesToSet(products), categories.get());
+        assertEquals(resolved.mapProductNamesToPrices(products), prices.get());
+        assertEquals(resolved.partitionProductsByPrice(products), partition.get());
+        assertEquals(resolved.countProductsByCategory(products), counts.get());
+        assertEquals(resolved.groupProductsByCategory(products), groups.get());
+        assertEquals(resolved.calculateAveragePriceByCategory(products), averages.get());
+    }
+
+    @Test
+    void shouldAnswerOrderReportsInOnePass() {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(5_000))
+                .orders().collect(Collectors.toList());
+        QueryBatch<Order> batch = new QueryBatch<>();
+        var summaries = batch.add(FirstBatchQueries.orderSummaries());
+        var products = batch.add(FirstBatchQueries.allOrderedProducts());
+        var revenue = batch.add(FirstBatchQueries.totalRevenue());
+        var stats = batch.add(FirstBatchQueries.ordersByCustomerTierAndStatus());
+
+        batch.run(orders);
+
+        assertEquals(resolved.mapOrdersToSummaries(orders), summaries.get());
+        assertEquals(resolved.extractAllOrderedProducts(orders), products.get());
+        assertEquals(resolved.calculateTotalRevenue(orders), revenue.get());
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders), stats.get());
+    }
+
+    @Test
+    void shouldStopScanningOnceEveryQueryIsAnswered() {
+        List<Product> products = StreamsTestData.products();
+        QueryBatch<Product> batch = new QueryBatch<>();
+        QueryResult<Boolean> anyElectronics = batch.add(FirstBatchQueries.anyElectronics());
+        QueryResult<Boolean> allExpensive = batch.add(FirstBatchQueries.allExpensive());
+        QueryResult<Product> highPriced = batch.add(FirstBatchQueries.highPricedProduct());
+        AtomicInteger reads = new AtomicInteger();
+
+        batch.run(counting(products, reads));
+
+        // The Coffee Maker (third product) settles allMatch, the last open question; noneMatch on a fixture
+        // without toys would have to read everything
+        assertEquals(3, reads.get());
+        QueryResult<Boolean> noToys = batch.add(FirstBatchQueries.noToys());
+        batch.run(products);
+        assertEquals(products.stream().anyMatch(p -> p.category().equals("Electronics")), anyElectronics.get());
+        assertEquals(products.stream().allMatch(p -> p.price().doubleValue() > 100), allExpensive.get());
+        assertEquals(products.stream().noneMatch(p -> p.category().equals("Toys")), noToys.get());
+        assertEquals("MacBook Pro", highPriced.get().name());
+    }
+
+    @Test
+    void shouldRerunQueriesFromScratch() {
+        Query<Product, Long> count = Query.over(Product.class).where(p -> p.category().equals("Home")).count();
+
+        assertEquals(count.run(StreamsTestData.products()), count.run(StreamsTestData.products()));
+        assertEquals(0L, count.run(List.of()));
+        assertThrows(IllegalStateException.class, () -> new QueryBatch<Product>().add(count).get());
+    }
+
+    private static <T> Iterable<T> counting(List<T> data, AtomicInteger reads) {
+        return () -> new Iterator<>() {
+            private final Iterator<T> delegate = data.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public T next() {
+                reads.incrementAndGet();
+                return delegate.next();
+            }
+        };
+    }
+}
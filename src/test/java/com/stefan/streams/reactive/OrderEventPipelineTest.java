@@ -0,0 +1,253 @@
+package com.stefan.streams.reactive;
+
+import com.stefan.streams.aggregation.OrderEvent;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.OrderStatus;
+import com.stefan.streams.money.MoneyAnalytics;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventPipelineTest {
+
+    private final List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(10_000))
+            .orders().collect(Collectors.toList());
+
+    @Test
+    void shouldAggregateLikeTheListBasedAnalytics() throws Exception {
+        List<Order> finalStates = new ArrayList<>();
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(256, 64, Duration.ofMillis(5),
+                new OrderEventAggregator())) {
+            for (Order order : orders) {
+                pipeline.submit(new OrderEvent.OrderAdded(order));
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                if (i % 3 == 0) {
+                    pipeline.submit(new OrderEvent.OrderCanceled(order.id()));
+                    order = new Order(order.id(), order.customer(), order.orderDate(), order.items(), "canceled");
+                }
+                finalStates.add(order);
+            }
+            pipeline.close();
+            PipelineStats stats = pipeline.awaitCompletion(Duration.ofSeconds(30));
+
+            assertEquals(orders.size() + (orders.size() + 2) / 3, stats.events());
+            assertEquals(new MoneyAnalytics().calculateTotalRevenue(orders), stats.revenue());
+            assertEquals(new FirstBatchResolved(ReportSink.noop()).analyzeOrdersByCustomerTierAndStatus(finalStates),
+                    stats.ordersByTierAndStatus());
+            assertEquals(orders.stream().flatMap(order -> order.items().stream()).collect(Collectors.groupingBy(
+                    item -> item.product().category(), Collectors.summingLong(OrderItem::quantity))),
+                    stats.itemsByCategory());
+            assertEquals(stats.events(), stats.latency().count());
+            assertTrue(stats.latency().p50Nanos() <= stats.latency().p99Nanos());
+            assertTrue(stats.latency().p99Nanos() <= stats.latency().maxNanos());
+        }
+    }
+
+    @Test
+    void shouldThrottleProducersWhenAggregationStalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OrderEventAggregator stalled = new OrderEventAggregator(1, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(16, 8, Duration.ofMillis(1), stalled)) {
+            int accepted = 0;
+            for (Order order : orders) {
+                if (!pipeline.offer(new OrderEvent.OrderAdded(order), Duration.ofMillis(20))) {
+                    break;
+                }
+                accepted++;
+            }
+            // Publisher buffer + batcher buffer + the batch stuck in the aggregator
+            assertTrue(accepted < 16 + 2 * 8 + 8 + 8, "accepted " + accepted);
+            assertTrue(pipeline.pendingEvents() <= accepted);
+
+            release.countDown();
+            pipeline.close();
+            assertEquals(accepted, pipeline.awaitCompletion(Duration.ofSeconds(30)).events());
+        }
+    }
+
+    @Test
+    void shouldFlushPartialBatchesAfterTheDelay() throws Exception {
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(256, 1_000, Duration.ofMillis(10),
+                new OrderEventAggregator())) {
+            for (int i = 0; i < 3; i++) {
+                pipeline.submit(new OrderEvent.OrderAdded(orders.get(i)));
+            }
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (pipeline.stats().events() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            PipelineStats stats = pipeline.stats();
+            assertEquals(3, stats.events());
+            assertEquals(1, stats.batches());
+        }
+    }
+
+    @Test
+    void shouldFailTheStreamOnInvalidEvents() {
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(256, 16, Duration.ofMillis(5),
+                new OrderEventAggregator())) {
+            pipeline.submit(new OrderEvent.OrderAdded(orders.get(0)));
+            pipeline.submit(new OrderEvent.OrderAdded(orders.get(0)));
+            pipeline.close();
+
+            IllegalStateException failure = assertThrows(IllegalStateException.class,
+                    () -> pipeline.awaitCompletion(Duration.ofSeconds(30)));
+            assertTrue(failure.getCause().getMessage().contains(orders.get(0).id()));
+        }
+    }
+
+    @Test
+    void shouldKeepTheStreamAliveOnEventsForUnknownOrders() throws Exception {
+        try (OrderEventPipeline pipeline = new OrderEventPipeline(256, 16, Duration.ofMillis(5),
+                new OrderEventAggregator())) {
+            pipeline.submit(new OrderEvent.OrderStatusChanged("unknown", OrderStatus.SHIPPED));
+            pipeline.submit(new OrderEvent.OrderAdded(orders.get(0)));
+            pipeline.close();
+
+            PipelineStats stats = pipeline.awaitCompletion(Duration.ofSeconds(30));
+            assertEquals(2, stats.events());
+            assertEquals(new FirstBatchResolved(ReportSink.noop()).analyzeOrdersByCustomerTierAndStatus(List.of(orders.get(0))),
+                    stats.ordersByTierAndStatus());
+        }
+    }
+
+    @Test
+    void shouldRejectASecondSubscriber() {
+        MicroBatchProcessor<String> processor = new MicroBatchProcessor<>(4, 2, 10, TimeUnit.MILLISECONDS);
+        processor.subscribe(new RecordingSubscriber());
+        RecordingSubscriber second = new RecordingSubscriber();
+        processor.subscribe(second);
+
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    void shouldHandleRequestsFromOnNextWithoutRecursing() {
+        // A long delay keeps the timer thread out of it, so every batch is emitted by this thread
+        MicroBatchProcessor<String> processor = new MicroBatchProcessor<>(1, 4, 1, TimeUnit.MINUTES);
+        int[] depth = new int[2];
+        List<String> received = new ArrayList<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<String> batch) {
+                depth[1] = Math.max(depth[1], ++depth[0]);
+                received.addAll(batch);
+                subscription.request(1);
+                depth[0]--;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        for (int i = 0; i < 1_000; i++) {
+            processor.onNext("item-" + i);
+        }
+
+        assertEquals(1_000, received.size());
+        assertEquals(1, depth[1]);
+    }
+
+    @Test
+    void shouldNotBlockThePublisherWhileTheSubscriberIsBusy() throws Exception {
+        MicroBatchProcessor<String> processor = new MicroBatchProcessor<>(1, 4, 10, TimeUnit.MILLISECONDS);
+        CountDownLatch inOnNext = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<String> batch) {
+                inOnNext.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Thread emitter = new Thread(() -> processor.onNext("slow"));
+        emitter.start();
+        assertTrue(inOnNext.await(10, TimeUnit.SECONDS));
+
+        // The emitting thread is parked in the subscriber; other signals must not wait for it
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            processor.onNext("queued");
+            processor.onComplete();
+        });
+        release.countDown();
+        emitter.join(10_000);
+        assertFalse(emitter.isAlive());
+    }
+
+    @Test
+    void shouldRejectNegativeDelays() {
+        assertThrows(IllegalArgumentException.class, () -> new MicroBatchProcessor<>(4, 2, -1, TimeUnit.MILLISECONDS));
+        assertDoesNotThrow(() -> new MicroBatchProcessor<>(4, 2, 0, TimeUnit.NANOSECONDS));
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<List<String>> {
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+        }
+
+        @Override
+        public void onNext(List<String> item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.stefan.streams.report;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncReportSinkTest {
+
+    @Test
+    void shouldRenderReportsInSubmissionOrder() {
+        StringWriter target = new StringWriter();
+        try (AsyncReportSink sink = AsyncReportSink.to(target, 4)) {
+            for (int i = 0; i < 1000; i++) {
+                sink.report(i, (value, out) -> out.print("line ").println(value));
+            }
+            sink.flush();
+            String expected = IntStream.range(0, 1000)
+                    .mapToObj(i -> "line " + i + "\n")
+                    .collect(Collectors.joining());
+            assertEquals(expected, target.toString());
+        }
+    }
+
+    @Test
+    void shouldRethrowRendererFailureOnFlush() {
+        AsyncReportSink sink = AsyncReportSink.to(new StringWriter());
+        sink.report("boom", (value, out) -> {
+            throw new IllegalStateException(value);
+        });
+        IllegalStateException failure = assertThrows(IllegalStateException.class, sink::flush);
+        assertEquals("boom", failure.getCause().getMessage());
+        assertDoesNotThrow(sink::close, "a failure is reported once");
+    }
+
+    @Test
+    void shouldFailFlushesInsteadOfHangingWhenTheWriterThreadDies() {
+        AsyncReportSink sink = AsyncReportSink.to(new StringWriter());
+        sink.report("fatal", (value, out) -> {
+            throw new AssertionError(value);
+        });
+
+        IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, sink::flush));
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertFalse(sink.isEnabled());
+        assertThrows(IllegalStateException.class, () -> sink.report("late", (value, out) -> out.println(value)));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), sink::close);
+    }
+
+    @Test
+    void shouldWriteEveryAcceptedReportWhenClosedConcurrently() throws Exception {
+        StringWriter target = new StringWriter();
+        AsyncReportSink sink = AsyncReportSink.to(target, 2);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> reporters = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reporters.add(executor.submit(() -> {
+                    try {
+                        while (true) {
+                            sink.report("line", (value, out) -> out.println(value));
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // expected once the sink is closed
+                    }
+                }));
+            }
+            while (accepted.get() < 1_000) {
+                Thread.onSpinWait();
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(10), sink::close);
+            for (Future<?> reporter : reporters) {
+                reporter.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(accepted.get(), target.toString().lines().count());
+    }
+
+    @Test
+    void shouldSkipRenderingWhenDisabled() {
+        ReportSink sink = ReportSink.noop();
+        AtomicInteger rendered = new AtomicInteger();
+        sink.report("ignored", (value, out) -> rendered.incrementAndGet());
+        sink.flush();
+
+        assertFalse(sink.isEnabled());
+        assertEquals(0, rendered.get());
+    }
+
+    @Test
+    void shouldRenderExerciseResultsOnlyThroughTheSink() {
+        StringWriter target = new StringWriter();
+        double revenue;
+        try (AsyncReportSink sink = AsyncReportSink.to(target)) {
+            revenue = new FirstBatchResolved(sink).calculateTotalRevenue(StreamsTestData.orders());
+            sink.flush();
+        }
+
+        assertEquals("Total Revenue: $" + revenue + "\n", target.toString());
+        assertEquals(revenue, new FirstBatchResolved(ReportSink.noop())
+                .calculateTotalRevenue(StreamsTestData.orders()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.stefan.streams.shard;
+
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderStats;
+import com.stefan.streams.parallel.ParallelOrderAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardPartialsTest {
+
+    private static final int ORDER_COUNT = 6_000;
+    private static final int SHARD_COUNT = 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldMergeAssociativelyAndRoundTrip() throws IOException {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(3_000)).orders().toList();
+        ShardPartials a = ShardPartials.of(orders.subList(0, 1_000));
+        ShardPartials b = ShardPartials.of(orders.subList(1_000, 1_200));
+        ShardPartials c = ShardPartials.of(orders.subList(1_200, 3_000));
+
+        assertEquals(a.merge(b).merge(c), a.merge(b.merge(c)));
+        assertEquals(a.merge(b), b.merge(a));
+        assertEquals(a, a.merge(ShardPartials.empty()));
+        assertEquals(ShardPartials.of(orders), a.merge(b).merge(c));
+        assertEquals(a, roundTrip(a));
+        assertEquals(ShardPartials.empty(), roundTrip(ShardPartials.empty()));
+
+        assertEquals(new MinMaxPartial(3, -5, 7), MinMaxPartial.of(7).add(-5).merge(MinMaxPartial.of(0)));
+        assertTrue(MinMaxPartial.EMPTY.minimum().isEmpty());
+        assertEquals(2.5, AveragePartial.of(2).merge(AveragePartial.of(3)).average().orElseThrow());
+        assertTrue(AveragePartial.EMPTY.average().isEmpty());
+        assertThrows(ArithmeticException.class, () -> new SumPartial(Long.MAX_VALUE).merge(new SumPartial(1)));
+    }
+
+    @Test
+    void shouldCombineShardsWrittenBySeparateProcesses() throws Exception {
+        List<Process> workers = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            Path file = dir.resolve("shard-" + shard + ".bin");
+            files.add(file);
+            workers.add(new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    ShardWorker.class.getName(),
+                    String.valueOf(ORDER_COUNT), String.valueOf(SHARD_COUNT), String.valueOf(shard), file.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(dir.resolve("shard-" + shard + ".log").toFile())
+                    .start());
+        }
+        for (Process worker : workers) {
+            assertTrue(worker.waitFor(2, TimeUnit.MINUTES), "worker timed out");
+            assertEquals(0, worker.exitValue());
+        }
+
+        ShardPartials combined = ShardCoordinator.combine(files);
+
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(ORDER_COUNT)).orders().toList();
+        assertEquals(ShardPartials.of(orders), combined);
+        assertEquals(ORDER_COUNT, combined.orders().count());
+        Map<String, Map<String, OrderStats>> expected;
+        try (ParallelOrderAnalytics analytics = new ParallelOrderAnalytics(1)) {
+            expected = analytics.analyzeOrdersByCustomerTierAndStatus(orders);
+        }
+        assertEquals(expected, combined.tierStatus().toOrderStats());
+        long customers = orders.stream().map(order -> order.customer().id()).distinct().count();
+        assertEquals(customers, combined.distinctCustomers().estimate(), customers * 0.05);
+    }
+
+    private static ShardPartials roundTrip(ShardPartials partials) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        partials.writeTo(new DataOutputStream(bytes));
+        return ShardPartials.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,83 @@
+package com.stefan.streams.simd;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.columnar.ColumnarAnalytics;
+import com.stefan.streams.columnar.OrderColumns;
+import com.stefan.streams.exercices.FirstBatchResolved;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.money.MoneyAnalytics;
+import com.stefan.streams.money.PriceStatistics;
+import com.stefan.streams.report.ReportSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericKernelsTest {
+
+    private final NumericKernels scalar = NumericKernels.scalar();
+    private final NumericKernels best = NumericKernels.best();
+
+    @Test
+    void shouldUseVectorKernelsOnlyWhenTheModuleIsResolved() {
+        boolean resolved = ModuleLayer.boot().findModule(KernelSelector.VECTOR_MODULE).isPresent();
+        boolean compiled = getClass().getClassLoader().getResource("com/stefan/streams/simd/VectorKernels.class") != null;
+        assertEquals(resolved && compiled, best.implementation().startsWith("vector"), best.implementation());
+    }
+
+    @Test
+    void shouldAgreeWithScalarKernelsOnEveryRange() {
+        SplittableRandom random = new SplittableRandom(24);
+        int[] quantities = random.ints(1_000, -5, 100).toArray();
+        long[] prices = random.longs(1_000, -1_000_000, 10_000_000).toArray();
+        for (int from = 0; from < 40; from += 3) {
+            for (int to = from; to <= prices.length; to += 37) {
+                assertEquals(scalar.sum(quantities, from, to), best.sum(quantities, from, to));
+                assertEquals(scalar.sumOfProducts(prices, quantities, from, to),
+                        best.sumOfProducts(prices, quantities, from, to));
+                assertEquals(scalar.statistics(prices, from, to).toString(),
+                        best.statistics(prices, from, to).toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldThrowOnOverflowLikeTheScalarLoop() {
+        long[] prices = new long[64];
+        int[] quantities = new int[64];
+        Arrays.fill(prices, Long.MAX_VALUE / 40);
+        Arrays.fill(quantities, 1);
+
+        assertThrows(ArithmeticException.class, () -> scalar.sumOfProducts(prices, quantities, 0, 64));
+        assertThrows(ArithmeticException.class, () -> best.sumOfProducts(prices, quantities, 0, 64));
+        assertThrows(ArithmeticException.class, () -> best.statistics(prices, 0, 64));
+        // Large but in range: the vector kernels fall back to the exact loop instead of failing.
+        assertEquals(scalar.sumOfProducts(prices, quantities, 0, 32), best.sumOfProducts(prices, quantities, 0, 32));
+        prices[5] = Long.MIN_VALUE;
+        assertEquals(Long.MIN_VALUE, best.statistics(prices, 0, 6).min().cents());
+    }
+
+    @Test
+    void shouldMatchRecordBasedAnalytics() {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(5_000)).orders()
+                .collect(Collectors.toList());
+        OrderColumns columns = OrderColumns.from(orders);
+        FirstBatchResolved resolved = new FirstBatchResolved(ReportSink.noop());
+        ColumnarAnalytics vectorized = new ColumnarAnalytics(best);
+
+        assertEquals(resolved.calculateTotalRevenue(orders), vectorized.calculateTotalRevenue(columns));
+        assertEquals(resolved.mapOrdersToSummaries(orders), vectorized.mapOrdersToSummaries(columns));
+        assertEquals(resolved.analyzeOrdersByCustomerTierAndStatus(orders),
+                vectorized.analyzeOrdersByCustomerTierAndStatus(columns));
+        PriceStatistics expected = new MoneyAnalytics()
+                .calculateSummaryStatistics(resolved.extractAllOrderedProducts(StreamsTestData.orders()));
+        assertEquals(expected.toString(),
+                vectorized.calculateOrderedProductPriceStatistics(OrderColumns.from(StreamsTestData.orders())).toString());
+    }
+}
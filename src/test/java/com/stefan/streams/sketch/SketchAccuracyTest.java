@@ -0,0 +1,159 @@
+package com.stefan.streams.sketch;
+
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SketchAccuracyTest {
+
+    private static final double[] QUANTILES = {0.01, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    @Test
+    void shouldEstimateDistinctCountsWithinThreeStandardErrors() {
+        for (int distinct : new int[]{10, 1_000, 50_000, 500_000}) {
+            HyperLogLog left = HyperLogLog.create();
+            HyperLogLog right = HyperLogLog.create();
+            // Overlapping halves, each value added several times
+            for (int i = 0; i < distinct; i++) {
+                String id = "P" + i;
+                if (i < distinct * 2 / 3) {
+                    left.add(id);
+                    left.add(id);
+                }
+                if (i >= distinct / 3) {
+                    right.add(id);
+                }
+            }
+            HyperLogLog union = left.merge(right);
+            double error = Math.abs(union.estimate() - distinct) / (double) distinct;
+            assertTrue(error <= 3 * union.relativeStandardError(), distinct + " estimated as " + union.estimate());
+            assertEquals(union, right.merge(left));
+        }
+    }
+
+    @Test
+    void shouldKeepQuantileRankErrorWithinTheBound() throws IOException {
+        SplittableRandom random = new SplittableRandom(21);
+        double[] values = new double[300_000];
+        KllSketch[] parts = {KllSketch.create(), KllSketch.create(), KllSketch.create()};
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform, like the generated prices
+            values[i] = Math.round(Math.exp(random.nextDouble(Math.log(100), Math.log(250_000))));
+            parts[i % parts.length].add(values[i]);
+        }
+        KllSketch merged = parts[0].merge(parts[1]).merge(parts[2]);
+        Arrays.sort(values);
+
+        assertEquals(values.length, merged.count());
+        assertTrue(merged.retained() <= 3 * merged.k() + 100, "retained " + merged.retained());
+        assertEquals(values[0], merged.quantile(0));
+        assertEquals(values[values.length - 1], merged.quantile(1));
+        for (KllSketch sketch : List.of(parts[0], merged, roundTrip(merged))) {
+            for (double q : QUANTILES) {
+                double rank = exactRank(values, sketch.quantile(q));
+                assertEquals(q, rank, sketch.normalizedRankError(), "q=" + q);
+                assertEquals(q, sketch.rank(values[(int) (q * (values.length - 1))]), sketch.normalizedRankError());
+            }
+        }
+    }
+
+    @Test
+    void shouldNeverUndercountAndFindTheHeavyHitters() {
+        List<Order> orders = orders();
+        Map<String, Long> exact = new HashMap<>();
+        OrderSketches left = OrderSketches.create();
+        OrderSketches right = OrderSketches.create();
+        for (int i = 0; i < orders.size(); i++) {
+            (i % 2 == 0 ? left : right).add(orders.get(i));
+            for (OrderItem item : orders.get(i).items()) {
+                exact.merge(item.product().id(), (long) item.quantity(), Long::sum);
+            }
+        }
+        HeavyHitters sketch = left.merge(right).productQuantitySketch();
+
+        long total = sketch.counts().totalCount();
+        assertEquals(exact.values().stream().mapToLong(Long::longValue).sum(), total);
+        int overBound = 0;
+        for (Map.Entry<String, Long> product : exact.entrySet()) {
+            long estimate = sketch.estimate(product.getKey());
+            assertTrue(estimate >= product.getValue());
+            if (estimate > product.getValue() + sketch.counts().epsilon() * total) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound <= exact.size() * sketch.counts().delta() * 3 + 1, "over bound: " + overBound);
+
+        List<String> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertEquals(exactTop, sketch.top(10).stream().map(HeavyHitters.HeavyHitter::key).toList());
+    }
+
+    @Test
+    void shouldSummarizeOrdersLikeTheExactComputation() {
+        List<Order> orders = orders();
+        OrderSketches sketches = OrderSketches.of(orders);
+
+        long products = orders.stream().flatMap(order -> order.items().stream())
+                .map(item -> item.product().id()).distinct().count();
+        long customers = orders.stream().map(order -> order.customer().id()).distinct().count();
+        assertEquals(products, sketches.distinctProducts(), products * 3 * sketches.productSketch().relativeStandardError());
+        assertEquals(customers, sketches.distinctCustomers(),
+                customers * 3 * sketches.customerSketch().relativeStandardError());
+
+        List<Double> orderValues = new ArrayList<>();
+        for (Order order : orders) {
+            orderValues.add((double) order.items().stream()
+                    .mapToLong(item -> Money.of(item.product().price()).times(item.quantity()).cents()).sum());
+        }
+        double[] sorted = orderValues.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double bound = sketches.orderValueSketch().normalizedRankError();
+        for (double q : QUANTILES) {
+            assertEquals(q, exactRank(sorted, sketches.orderValueQuantile(q).cents()), bound, "q=" + q);
+        }
+    }
+
+    // Fraction of the values less than or equal to the value.
+    private static double exactRank(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return (double) low / sorted.length;
+    }
+
+    private static List<Order> orders() {
+        return new DatasetGenerator(DatasetSpec.defaults().withOrderCount(50_000)).orders().toList();
+    }
+
+    private static KllSketch roundTrip(KllSketch sketch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        return KllSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,125 @@
+package com.stefan.streams.sort;
+
+import com.stefan.streams.StreamsTestData;
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.io.OrderFileFormat;
+import com.stefan.streams.io.OrderFiles;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+
+    private static final Comparator<Order> BY_TIER_THEN_DATE = Comparator
+            .comparing((Order order) -> order.customer().tier())
+            .thenComparing(Order::orderDate);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldMergeSpilledRunsStablyAndDeleteThem() throws IOException {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(20_000)).orders().toList();
+        List<Order> expected = orders.stream().sorted(BY_TIER_THEN_DATE).toList();
+
+        // A small budget and fan-in force many runs and more than one merge pass
+        ExternalSorter<Order> sorter = ExternalSorter.of(RecordCodecs.orders(), BY_TIER_THEN_DATE, 256 * 1024)
+                .withTempDirectory(dir)
+                .withMaxFanIn(4);
+        try (SortedRecords<Order> sorted = sorter.sort(orders.stream())) {
+            assertTrue(sorted.runCount() > 16, "runs: " + sorted.runCount());
+            assertTrue(sorted.spilledBytes() > 0);
+            assertEquals(orders.size(), sorted.size());
+            assertEquals(1, countFiles(dir));
+            List<Order> actual = new ArrayList<>();
+            sorted.forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+        }
+        assertEquals(0, countFiles(dir));
+    }
+
+    @Test
+    void shouldSortProductsByPriceLikeTheStreamPipeline() {
+        // Repeated prices check that ties keep their input order across runs
+        List<Product> products = new ArrayList<>();
+        for (int copy = 0; copy < 200; copy++) {
+            for (Product product : StreamsTestData.products()) {
+                products.add(new Product(product.id() + "-" + copy, product.name(), product.category(),
+                        product.price()));
+            }
+        }
+        List<Product> expected = products.stream().sorted(Comparator.comparing(Product::price)).toList();
+
+        try (Stream<Product> sorted = ExternalSorts.sortProductsByPrice(products.stream(), 10_000)) {
+            assertEquals(expected, sorted.collect(Collectors.toList()));
+        }
+        try (Stream<Product> sorted = ExternalSorts.sortProductsByPrice(products.stream(), Long.MAX_VALUE)) {
+            assertEquals(expected, sorted.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void shouldStreamPagesAndCleanUpWhenClosedEarly() throws IOException {
+        List<Product> products = new DatasetGenerator(DatasetSpec.defaults().withProductCount(1_000)).products();
+        Comparator<Product> byName = Comparator.comparing(Product::name);
+        ExternalSorter<Product> sorter = ExternalSorter.of(RecordCodecs.products(), byName, 8_000)
+                .withTempDirectory(dir);
+
+        try (Stream<List<Product>> pages = sorter.sort(products.stream()).pages(300)) {
+            List<List<Product>> all = pages.toList();
+            assertEquals(List.of(300, 300, 300, 100), all.stream().map(List::size).toList());
+            assertEquals(products.stream().sorted(byName).toList(), all.stream().flatMap(List::stream).toList());
+        }
+
+        SortedRecords<Product> sorted = sorter.sort(products.stream());
+        assertTrue(sorted.runCount() > 1);
+        sorted.next();
+        sorted.close();
+        assertEquals(0, countFiles(dir));
+        assertFalse(sorted.hasNext());
+    }
+
+    @Test
+    void shouldRoundTripPricesThatDoNotFitInALong() {
+        Product huge = new Product("P1", "Huge", "Misc", new BigDecimal("123456789012345678901234567890.99"));
+        Product tiny = new Product("P2", "Tiny", "Misc", new BigDecimal("0.01"));
+        ExternalSorter<Product> sorter = ExternalSorter.of(RecordCodecs.products(),
+                Comparator.comparing(Product::price), 1).withTempDirectory(dir);
+
+        try (Stream<Product> sorted = sorter.sorted(Stream.of(huge, tiny))) {
+            assertEquals(List.of(tiny, huge), sorted.toList());
+        }
+    }
+
+    @Test
+    void shouldExportSortedOrders() throws IOException {
+        List<Order> orders = new DatasetGenerator(DatasetSpec.defaults().withOrderCount(2_000)).orders().toList();
+        Path file = dir.resolve("orders.ndjson");
+
+        ExternalSorts.exportSortedOrders(orders.stream(), BY_TIER_THEN_DATE, 64 * 1024, file, OrderFileFormat.NDJSON);
+
+        try (Stream<Order> exported = OrderFiles.read(file, OrderFileFormat.NDJSON)) {
+            assertEquals(orders.stream().sorted(BY_TIER_THEN_DATE).toList(), exported.toList());
+        }
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.stefan.streams.window;
+
+import com.stefan.streams.generator.DatasetGenerator;
+import com.stefan.streams.generator.DatasetSpec;
+import com.stefan.streams.models.Money;
+import com.stefan.streams.models.Order;
+import com.stefan.streams.models.OrderItem;
+import com.stefan.streams.models.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyRollupTest {
+
+    private final List<Order> orders = new DatasetGenerator(DatasetSpec.defaults()
+            .withOrderCount(20_000)
+            .withOrderDates(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 6, 30)))
+            .orders().collect(Collectors.toList());
+
+    @Test
+    void shouldMatchARescanOfTheOrders() {
+        DailyRollup rollup = DailyRollup.of(orders);
+
+        LocalDate start = LocalDate.of(2023, 2, 10);
+        LocalDate end = LocalDate.of(2023, 3, 11);
+        assertEquals(rescan(start, end), rollup.range(start, end));
+        assertEquals(rescan(end.minusDays(29), end), rollup.trailing(end, 30));
+        // Ranges reaching past the data only see the days that have orders
+        assertEquals(rescan(LocalDate.of(2022, 1, 1), LocalDate.of(2024, 1, 1)),
+                rollup.range(LocalDate.of(2022, 1, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void shouldProduceTumblingWindows() {
+        DailyRollup rollup = DailyRollup.of(orders);
+        LocalDate start = LocalDate.of(2023, 1, 15);
+        LocalDate end = LocalDate.of(2023, 4, 20);
+
+        List<WindowTotals> months = rollup.tumbling(start, end, WindowUnit.MONTH);
+        assertEquals(4, months.size());
+        assertEquals(rescan(start, LocalDate.of(2023, 1, 31)), months.get(0));
+        assertEquals(rescan(LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 28)), months.get(1));
+        assertEquals(rescan(LocalDate.of(2023, 4, 1), end), months.get(3));
+
+        List<WindowTotals> weeks = rollup.tumbling(start, end, WindowUnit.WEEK);
+        // 2023-01-15 is a Sunday, so the first week is clipped to one day
+        assertEquals(rescan(start, start), weeks.get(0));
+        assertEquals(rescan(LocalDate.of(2023, 1, 16), LocalDate.of(2023, 1, 22)), weeks.get(1));
+        assertEquals(rollup.range(start, end).orderCount(),
+                weeks.stream().mapToLong(WindowTotals::orderCount).sum());
+        assertEquals(rollup.tumbling(start, end, WindowUnit.DAY).size(), 96);
+    }
+
+    @Test
+    void shouldSlideWindowsIncrementally() {
+        DailyRollup rollup = DailyRollup.of(orders);
+        LocalDate firstEnd = LocalDate.of(2023, 1, 10);
+        LocalDate lastEnd = LocalDate.of(2023, 7, 10);
+
+        for (int step : new int[]{1, 7, 45}) {
+            List<WindowTotals> windows = rollup.sliding(firstEnd, lastEnd, 30, step);
+            for (WindowTotals window : windows) {
+                assertEquals(rollup.range(window.start(), window.end()), window);
+            }
+            assertEquals(firstEnd, windows.get(0).end());
+        }
+    }
+
+    @Test
+    void shouldApplyLateAndOutOfOrderOrders() {
+        List<Order> shuffled = new ArrayList<>(orders);
+        Collections.shuffle(shuffled, new Random(7));
+        DailyRollup rollup = DailyRollup.of(shuffled);
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+        assertEquals(rescan(start, end), rollup.range(start, end));
+
+        Order late = orders.get(0);
+        Order backdated = new Order("late", late.customer(), LocalDate.of(2020, 2, 29), late.items(), late.status());
+        rollup.add(backdated);
+        assertEquals(1, rollup.range(backdated.orderDate(), backdated.orderDate()).orderCount());
+        assertEquals(LocalDate.of(2020, 2, 29), rollup.firstDay());
+        assertEquals(rescan(start, end), rollup.range(start, end));
+
+        rollup.remove(backdated);
+        rollup.remove(orders.get(1));
+        WindowTotals day = rollup.range(orders.get(1).orderDate(), orders.get(1).orderDate());
+        List<Order> remaining = new ArrayList<>(orders);
+        remaining.remove(1);
+        assertEquals(rescan(remaining, day.start(), day.end()), day);
+        assertEquals(0, rollup.range(backdated.orderDate(), backdated.orderDate()).orderCount());
+    }
+
+    @Test
+    void shouldLeaveTheRollupUnchangedWhenAnOrderIsRejected() {
+        DailyRollup rollup = DailyRollup.of(orders);
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        LocalDate end = LocalDate.of(2023, 6, 30);
+        WindowTotals before = rollup.range(start, end);
+
+        Order first = orders.get(0);
+        OrderItem line = first.items().get(0);
+        Product fractional = new Product("P-fraction", "Bolt", line.product().category(), new BigDecimal("0.125"));
+        Order badPrice = new Order("bad-price", first.customer(), first.orderDate(),
+                List.of(line, new OrderItem(fractional, 1)), first.status());
+        Order neverAdded = new Order("never-added", first.customer(), first.orderDate(),
+                List.of(new OrderItem(line.product(), 1_000_000)), first.status());
+        Order outOfRange = new Order("out-of-range", first.customer(), LocalDate.of(2030, 1, 1),
+                first.items(), first.status());
+
+        assertThrows(ArithmeticException.class, () -> rollup.add(badPrice));
+        assertThrows(ArithmeticException.class, () -> rollup.remove(badPrice));
+        assertThrows(IllegalArgumentException.class, () -> rollup.remove(neverAdded));
+        assertThrows(IllegalArgumentException.class, () -> rollup.remove(outOfRange));
+        assertEquals(before, rollup.range(start, end));
+        assertEquals(rescan(start, end), rollup.range(start, end));
+    }
+
+    private WindowTotals rescan(LocalDate start, LocalDate end) {
+        return rescan(orders, start, end);
+    }
+
+    private static WindowTotals rescan(List<Order> orders, LocalDate start, LocalDate end) {
+        Map<String, Money> revenue = new HashMap<>();
+        Map<String, Long> counts = new HashMap<>();
+        Money total = Money.ZERO;
+        long orderCount = 0;
+        for (Order order : orders) {
+            if (order.orderDate().isBefore(start) || order.orderDate().isAfter(end)) {
+                continue;
+            }
+            orderCount++;
+            Set<String> seen = new HashSet<>();
+            for (OrderItem item : order.items()) {
+                Money line = Money.of(item.product().price()).times(item.quantity());
+                revenue.merge(item.product().category(), line, Money::plus);
+                total = total.plus(line);
+                if (seen.add(item.product().category())) {
+                    counts.merge(item.product().category(), 1L, Long::sum);
+                }
+            }
+        }
+        return new WindowTotals(start, end, revenue, counts, total, orderCount);
+    }
+}
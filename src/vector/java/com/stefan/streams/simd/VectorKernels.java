@@ -0,0 +1,120 @@
+package com.stefan.streams.simd;
+
+import com.stefan.streams.money.PriceStatistics;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Objects;
+
+/**
+ * {@code jdk.incubator.vector} kernels, compiled only by the {@code vector} profile and loaded by
+ * {@link KernelSelector}. Longs use the preferred species; ints are loaded at half that width so each
+ * int lane widens into one long lane.
+ *
+ * Lanes accumulate without overflow checks. Instead, the kernels track a power-of-two bound on the
+ * magnitudes seen (a lanewise OR, cheaper than min/max) and, if that bound cannot rule out an overflow,
+ * redo the range with the exact scalar loop, so results and ArithmeticExceptions are the same as
+ * {@link ScalarKernels}.
+ */
+public final class VectorKernels implements NumericKernels {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        Objects.checkFromToIndex(from, to, values.length);
+        LongVector sums = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            sums = sums.add(widen(values, i));
+        }
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumOfProducts(long[] prices, int[] quantities, int from, int to) {
+        Objects.checkFromToIndex(from, to, prices.length);
+        Objects.checkFromToIndex(from, to, quantities.length);
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector priceBits = LongVector.zero(LONGS);
+        LongVector quantityBits = LongVector.zero(LONGS);
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            LongVector price = LongVector.fromArray(LONGS, prices, i);
+            LongVector quantity = widen(quantities, i);
+            sums = sums.add(price.mul(quantity));
+            priceBits = priceBits.or(magnitudeBits(price));
+            quantityBits = quantityBits.or(magnitudeBits(quantity));
+        }
+        if (!fits(bitLength(priceBits) + bitLength(quantityBits), i - from)) {
+            return ScalarKernels.INSTANCE.sumOfProducts(prices, quantities, from, to);
+        }
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(prices[i], quantities[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public PriceStatistics statistics(long[] prices, int from, int to) {
+        Objects.checkFromToIndex(from, to, prices.length);
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector mins = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector maxs = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = from;
+        for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+            LongVector price = LongVector.fromArray(LONGS, prices, i);
+            sums = sums.add(price);
+            mins = mins.min(price);
+            maxs = maxs.max(price);
+        }
+        long vectorized = i - from;
+        long min = mins.reduceLanes(VectorOperators.MIN);
+        long max = maxs.reduceLanes(VectorOperators.MAX);
+        if (vectorized > 0 && !fits(Math.max(bitLength(min), bitLength(max)), vectorized)) {
+            return ScalarKernels.INSTANCE.statistics(prices, from, to);
+        }
+        PriceStatistics statistics = PriceStatistics.of(vectorized, sums.reduceLanes(VectorOperators.ADD), min, max);
+        for (; i < to; i++) {
+            statistics.accept(prices[i]);
+        }
+        return statistics;
+    }
+
+    @Override
+    public String implementation() {
+        return "vector-" + LONGS.vectorBitSize();
+    }
+
+    private static LongVector widen(int[] values, int at) {
+        return (LongVector) IntVector.fromArray(INTS, values, at).convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+
+    // Per lane, a value whose highest set bit bounds the magnitude: |v| <= 2^bitLength(v ^ (v >> 63)).
+    private static LongVector magnitudeBits(LongVector values) {
+        return values.lanewise(VectorOperators.XOR, values.lanewise(VectorOperators.ASHR, 63));
+    }
+
+    private static int bitLength(LongVector bits) {
+        return bitLength(bits.reduceLanes(VectorOperators.OR));
+    }
+
+    private static int bitLength(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value ^ (value >> 63));
+    }
+
+    // Whether count terms of magnitude at most 2^bits can be summed in any order without overflowing.
+    private static boolean fits(int bits, long count) {
+        return bits + bitLength(count) <= Long.SIZE - 2;
+    }
+}